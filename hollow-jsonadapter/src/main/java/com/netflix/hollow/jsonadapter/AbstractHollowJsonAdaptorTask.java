@@ -19,14 +19,21 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.netflix.hollow.core.util.SimultaneousExecutor;
 import com.netflix.hollow.jsonadapter.chunker.JsonArrayChunker;
+import com.netflix.hollow.jsonadapter.chunker.MappedJsonArrayChunker;
 import com.netflix.hollow.jsonadapter.field.FieldProcessor;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -35,8 +42,15 @@ import java.util.concurrent.Future;
 public abstract class AbstractHollowJsonAdaptorTask {
     public static boolean isDebug = false;
 
+    /// the number of guesses at the start of a file range's first record, before leaving it to the calling thread
+    private static final int MAX_RECORD_START_GUESSES = 4;
+
     protected final int maxWorkQueue = 2048;
+    protected final int recordsPerTask = 64;
+    protected final long fileRangeLength = 1 << 26;
     protected final SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "json-adaptor");
+    protected final JsonFactory jsonFactory = new JsonFactory();
+    private final ThreadLocal<byte[]> recordBuffer = new ThreadLocal<byte[]>();
 
     protected final String typeName;
     protected final String actionName;
@@ -75,49 +89,236 @@ public abstract class AbstractHollowJsonAdaptorTask {
         return entityFieldProcessors.get(fieldName);
     }
 
+    /**
+     * Splits the UTF-8 encoded JSON array in the file into ranges of {@link #fileRangeLength} bytes, and splits each
+     * range into records on the executor's threads, reading it from memory mapped regions.  The bytes of each record
+     * are parsed on the executor's threads in batches of {@link #recordsPerTask} records.
+     * <p>
+     * A range's records are split concurrently with those of the previous ranges, starting from a guess at where its
+     * first record begins.  The calling thread checks each guess once the previous range is split, splitting the range
+     * again itself from the right offset if the guess was wrong, and hands out its records to be parsed in order.
+     */
     protected void processFile(File f, int maxSample) throws Exception {
-        processFile(new FileReader(f), maxSample);
+        processFile(f, maxSample, fileRangeLength);
+    }
+
+    void processFile(File f, int maxSample, long rangeLength) throws Exception {
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            long fileLength = channel.size();
+            long numRanges = Math.max(1, (fileLength + rangeLength - 1) / rangeLength);
+
+            Queue<Future<FileRange>> scans = new ArrayDeque<Future<FileRange>>();
+            long nextScan = 0;
+            long start = 0;
+            int counter = 0;
+
+            for(long i=0;i<numRanges && counter < maxSample;i++) {
+                while(nextScan < numRanges && scans.size() < executor.getMaximumPoolSize()) {
+                    scans.add(submitScan(channel, nextScan * rangeLength, Math.min((nextScan + 1) * rangeLength, fileLength), rangeLength));
+                    nextScan++;
+                }
+
+                long end = Math.min((i + 1) * rangeLength, fileLength);
+                FileRange range = scans.remove().get();
+                if(range == null || range.start != start)
+                    range = split(new MappedJsonArrayChunker(channel, start, end), start);
+
+                for(int b=0;b<range.batches.size() && counter < maxSample;b++) {
+                    RecordBatch batch = range.batches.get(b);
+                    int numRecords = Math.min(batch.numRecords, maxSample - counter);
+                    submit(batch.region, batch.recordOffsets, numRecords);
+                    counter += numRecords;
+
+                    while(executor.getQueue().size() > maxWorkQueue / recordsPerTask) {
+                        Thread.sleep(5);
+                    }
+                }
+
+                start = range.stop;
+            }
+
+            executor.awaitSuccessfulCompletion();
+        }
+    }
+
+    /**
+     * Splits a range of the file on an executor thread, from a guess at the start of its first record.  A guess from
+     * which the range cannot be split, or whose records are longer than twice the range, is abandoned for the next.
+     *
+     * @return a future of the split range, or of null if no guess could be split
+     */
+    private Future<FileRange> submitScan(final FileChannel channel, final long rangeStart, final long rangeEnd, long rangeLength) {
+        final int regionLength = (int) Math.min(2 * rangeLength, Integer.MAX_VALUE);
+        return executor.submit(new Callable<FileRange>() {
+            public FileRange call() throws IOException {
+                long start = rangeStart;
+                for(int i=0;i<MAX_RECORD_START_GUESSES;i++) {
+                    if(rangeStart != 0)
+                        start = MappedJsonArrayChunker.guessRecordStart(channel, start);
+                    try {
+                        return split(new MappedJsonArrayChunker(channel, start, rangeEnd, regionLength), start);
+                    } catch(IllegalStateException e) {
+                        if(rangeStart == 0 || start >= rangeEnd)
+                            return null;
+                        start++;
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    private FileRange split(MappedJsonArrayChunker chunker, long start) throws IOException {
+        FileRange range = new FileRange(start);
+        ByteBuffer region = null;
+        int[] recordOffsets = null;
+        int batchSize = 0;
+
+        while(chunker.nextChunk()) {
+            if(chunker.region() != region || batchSize == recordsPerTask) {
+                if(batchSize > 0)
+                    range.batches.add(new RecordBatch(region, recordOffsets, batchSize));
+                region = chunker.region();
+                recordOffsets = new int[recordsPerTask * 2];
+                batchSize = 0;
+            }
+
+            recordOffsets[batchSize * 2] = chunker.chunkStart();
+            recordOffsets[batchSize * 2 + 1] = chunker.chunkEnd();
+            batchSize++;
+        }
+
+        if(batchSize > 0)
+            range.batches.add(new RecordBatch(region, recordOffsets, batchSize));
+        range.stop = chunker.offset();
+        return range;
     }
 
     ///TODO: Many parse failures can cause out of memory errors.
+    /**
+     * Reads the JSON array and splits it into records on the calling thread, and parses them on the executor's threads
+     * in batches of {@link #recordsPerTask} records.  The special characters of each segment read are indexed on the
+     * executor's threads, but since a Reader can only be read in order, the calling thread still reads every char and
+     * steps through every special character.  Use {@link #processFile(File, int)} to split a file on several threads.
+     */
     protected void processFile(Reader r, int maxSample) throws Exception {
         JsonArrayChunker chunker = new JsonArrayChunker(r, executor);
         chunker.initialize();
 
         int counter = 0;
+        List<Reader> batch = new ArrayList<Reader>(recordsPerTask);
 
         Reader jsonObj = chunker.nextChunk();
         while(jsonObj != null && counter < maxSample) {
+            batch.add(jsonObj);
 
-            final Reader currentObject = jsonObj;
+            if(batch.size() == recordsPerTask) {
+                submit(batch);
+                batch = new ArrayList<Reader>(recordsPerTask);
 
-            executor.execute(new Runnable() {
-                public void run() {
-                    try {
-                        JsonFactory factory = new JsonFactory();
-                        JsonParser parser = factory.createParser(currentObject);
-                        processRecord(parser);
-                    } catch(Exception e){
-                        throw new RuntimeException(e);
-                    }
+                while(executor.getQueue().size() > maxWorkQueue / recordsPerTask) {
+                    Thread.sleep(5);
                 }
-            });
-
-            while(executor.getQueue().size() > maxWorkQueue) {
-                Thread.sleep(5);
             }
 
             counter++;
 
-            jsonObj.close();
             jsonObj = chunker.nextChunk();
         }
 
+        if(!batch.isEmpty())
+            submit(batch);
+
         executor.awaitSuccessfulCompletion();
     }
 
+    private void submit(final List<Reader> batch) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    processRecords(batch);
+                } catch(Exception e){
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    private void submit(final ByteBuffer region, final int[] recordOffsets, final int numRecords) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    processRecords(region, recordOffsets, numRecords);
+                } catch(Exception e){
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Parses a batch of records split from a JSON array in a mapped region, each identified by its start and end
+     * offsets.  The bytes of each record are copied into a reusable buffer and parsed without decoding them to chars.
+     */
+    private void processRecords(ByteBuffer region, int[] recordOffsets, int numRecords) throws IOException {
+        ByteBuffer src = region.duplicate();
+        for(int i=0;i<numRecords;i++) {
+            int start = recordOffsets[i * 2];
+            int length = recordOffsets[i * 2 + 1] - start;
+
+            byte[] buf = recordBuffer.get();
+            if(buf == null || buf.length < length) {
+                buf = new byte[Math.max(length, buf == null ? 4096 : buf.length * 2)];
+                recordBuffer.set(buf);
+            }
+            src.position(start);
+            src.get(buf, 0, length);
+
+            try (JsonParser parser = jsonFactory.createParser(buf, 0, length)) {
+                processRecord(parser);
+            }
+        }
+    }
+
+    /**
+     * Parses a batch of records split from a JSON array.  Called concurrently from the executor's threads.
+     */
+    protected void processRecords(List<Reader> records) throws IOException {
+        for(Reader record : records) {
+            try (JsonParser parser = jsonFactory.createParser(record)) {
+                processRecord(parser);
+            }
+        }
+    }
+
     protected abstract int processRecord(JsonParser parser) throws IOException;
 
+    /**
+     * The records split from a range of a file, in batches of up to {@link #recordsPerTask} records.
+     */
+    private static class FileRange {
+        private final long start;
+        private final List<RecordBatch> batches = new ArrayList<RecordBatch>();
+        /// the start of the first record of the next range
+        private long stop;
+
+        private FileRange(long start) {
+            this.start = start;
+        }
+    }
+
+    private static class RecordBatch {
+        private final ByteBuffer region;
+        private final int[] recordOffsets;
+        private final int numRecords;
+
+        private RecordBatch(ByteBuffer region, int[] recordOffsets, int numRecords) {
+            this.region = region;
+            this.recordOffsets = recordOffsets;
+            this.numRecords = numRecords;
+        }
+    }
+
     protected boolean wait(List<Future<?>> futureList) throws Exception {
         boolean isSuccess = false;
         for (final Future<?> f : futureList) {
@@ -16,7 +16,6 @@
  */
 package com.netflix.hollow.jsonadapter;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.netflix.hollow.core.schema.HollowCollectionSchema;
@@ -112,8 +111,19 @@ public class HollowJsonAdapter extends AbstractHollowJsonAdaptorTask {
     }
 
     public int processRecord(String singleRecord, FlatRecordWriter flatRecordWriter) throws IOException {
-        JsonFactory factory = new JsonFactory();
-        JsonParser parser = factory.createParser(new StringReader(singleRecord));
+        JsonParser parser = jsonFactory.createParser(new StringReader(singleRecord));
+        return processRecord(parser, flatRecordWriter);
+    }
+
+    /**
+     * Parses a single UTF-8 encoded record without first decoding it to chars.
+     */
+    public int processRecord(byte[] singleRecord) throws IOException {
+        return processRecord(singleRecord, null);
+    }
+
+    public int processRecord(byte[] singleRecord, FlatRecordWriter flatRecordWriter) throws IOException {
+        JsonParser parser = jsonFactory.createParser(singleRecord);
         return processRecord(parser, flatRecordWriter);
     }
 
@@ -0,0 +1,213 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.jsonadapter.chunker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Splits a UTF-8 encoded JSON array of objects in a file into its records, without decoding them.
+ * <p>
+ * The file is memory mapped one region at a time.  Each record is located by its start and end offsets in the
+ * current {@link #region()}, which may be read concurrently by other threads until they are done with the record.
+ * A record is never split across regions; a region is remapped starting at the first record which does not fit.
+ * <p>
+ * A range of the file may be split on its own, so that separate ranges can be split concurrently.  The chunker for a
+ * range returns the records which start within it, and then its {@link #offset()} is the start of the next range's
+ * first record.  The start of a range's first record is only known once the previous range is split, but it can be
+ * {@link #guessRecordStart guessed} beforehand and checked afterwards.
+ * <p>
+ * The special characters {@code { } " \} are ASCII, and so never occur within a multi-byte UTF-8 sequence.
+ */
+public class MappedJsonArrayChunker {
+
+    private static final int DEFAULT_REGION_LENGTH = 1 << 30;
+    private static final int GUESS_LOOKBEHIND = 1024;
+    private static final int GUESS_BUFFER_LENGTH = 8192;
+
+    private final FileChannel channel;
+    private final long fileLength;
+    private final long end;
+    private final int regionLength;
+
+    private ByteBuffer region;
+    private long regionStart;
+    private int position;
+
+    private int chunkStart;
+    private int chunkEnd;
+
+    public MappedJsonArrayChunker(FileChannel channel) throws IOException {
+        this(channel, DEFAULT_REGION_LENGTH);
+    }
+
+    MappedJsonArrayChunker(FileChannel channel, int regionLength) throws IOException {
+        this(channel, 0, Long.MAX_VALUE, regionLength);
+    }
+
+    /**
+     * @param channel the file
+     * @param start the offset of the first record of the range, or of a byte before it and after any previous record
+     * @param end the offset after the range.  The last record of the range may extend past it.
+     */
+    public MappedJsonArrayChunker(FileChannel channel, long start, long end) throws IOException {
+        this(channel, start, end, DEFAULT_REGION_LENGTH);
+    }
+
+    /**
+     * @param regionLength the length of each mapped region, which bounds the length of a record
+     */
+    public MappedJsonArrayChunker(FileChannel channel, long start, long end, int regionLength) throws IOException {
+        this.channel = channel;
+        this.fileLength = channel.size();
+        this.end = end;
+        this.regionLength = regionLength;
+        map(start);
+    }
+
+    /**
+     * Guesses the offset of the first record which starts at or after the given offset, without splitting the file up
+     * to it: the first <code>&#123;</code> preceded, ignoring whitespace, by {@code ,} or {@code [}.  The guess is wrong when
+     * that sequence occurs within a string or a nested array.
+     *
+     * @return the guessed offset, or the length of the file if there is no candidate
+     */
+    public static long guessRecordStart(FileChannel channel, long offset) throws IOException {
+        long fileLength = channel.size();
+        long position = Math.max(0, offset - GUESS_LOOKBEHIND);
+        ByteBuffer buf = ByteBuffer.allocate(GUESS_BUFFER_LENGTH);
+        byte previous = 0;
+
+        while(position < fileLength) {
+            buf.clear();
+            int length = channel.read(buf, position);
+            if(length <= 0)
+                break;
+
+            for(int i=0;i<length;i++) {
+                byte b = buf.get(i);
+                if(b == '{' && position + i >= offset && (previous == ',' || previous == '['))
+                    return position + i;
+                if(b != ' ' && b != '\t' && b != '\n' && b != '\r')
+                    previous = b;
+            }
+            position += length;
+        }
+
+        return fileLength;
+    }
+
+    /**
+     * Advances to the next record of the array.
+     *
+     * @return false if there are no more records
+     */
+    public boolean nextChunk() throws IOException {
+        while(true) {
+            if(position == region.limit()) {
+                if(regionStart + position >= fileLength)
+                    return false;
+                map(regionStart + position);
+            }
+
+            byte b = region.get(position);
+            if(b == '{') {
+                if(regionStart + position >= end)
+                    return false;
+                break;
+            }
+            if(b == '}' || b == '\"' || b == '\\')
+                throw new IllegalStateException("Bad json");
+            position++;
+        }
+
+        int start = position;
+        int i = position;
+        int nestedObjectCount = 0;
+        boolean insideQuotes = false;
+
+        while(true) {
+            if(i >= region.limit()) {
+                if(regionStart + i >= fileLength)
+                    throw new IllegalStateException("Bad json");
+                if(start == 0)
+                    throw new IllegalStateException("JSON record at offset " + regionStart + " is larger than the mapped region length of " + regionLength + " bytes");
+                map(regionStart + start);
+                i -= start;
+                start = 0;
+                continue;
+            }
+
+            byte b = region.get(i++);
+            if(insideQuotes) {
+                if(b == '\\')
+                    i++;
+                else if(b == '\"')
+                    insideQuotes = false;
+            } else if(b == '\"') {
+                insideQuotes = true;
+            } else if(b == '{') {
+                nestedObjectCount++;
+            } else if(b == '}' && --nestedObjectCount == 0) {
+                break;
+            }
+        }
+
+        chunkStart = start;
+        chunkEnd = i;
+        position = i;
+        return true;
+    }
+
+    /**
+     * @return the mapped region containing the current record.  Its position and limit are never modified.
+     */
+    public ByteBuffer region() {
+        return region;
+    }
+
+    /**
+     * @return the offset in the current region of the first byte of the current record
+     */
+    public int chunkStart() {
+        return chunkStart;
+    }
+
+    /**
+     * @return the offset in the current region after the last byte of the current record
+     */
+    public int chunkEnd() {
+        return chunkEnd;
+    }
+
+    /**
+     * @return once {@link #nextChunk()} has returned false, the offset in the file of the first record starting at or
+     *         after the end of the range, or the length of the file if there is none
+     */
+    public long offset() {
+        return regionStart + position;
+    }
+
+    private void map(long start) throws IOException {
+        long length = Math.min(regionLength, fileLength - start);
+        this.region = channel.map(MapMode.READ_ONLY, start, length);
+        this.regionStart = start;
+        this.position = 0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.netflix.hollow.jsonadapter;
+
+import com.netflix.hollow.api.objects.HollowRecord;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HollowJsonAdapterTest {
+
+    // not a multiple of the number of records parsed per task
+    private static final int NUM_RECORDS = 1000;
+
+    @Test
+    public void populatesRecordsInBatches() throws Exception {
+        assertPopulated(populate(jsonArray(NUM_RECORDS), false), NUM_RECORDS);
+    }
+
+    @Test
+    public void populatesRecordsFromMappedFile() throws Exception {
+        assertPopulated(populate(jsonArray(NUM_RECORDS), true), NUM_RECORDS);
+    }
+
+    @Test
+    public void populatesRecordsFromMappedFileRanges() throws Exception {
+        // many ranges, most starting within a record, so that guesses at the start of their first record can be wrong
+        assertPopulated(populate(jsonArray(NUM_RECORDS), true, 301), NUM_RECORDS);
+        assertPopulated(populate(jsonArray(NUM_RECORDS), true, 7), NUM_RECORDS);
+    }
+
+    @Test
+    public void populatesEmptyArray() throws Exception {
+        assertPopulated(populate("[ ]", false), 0);
+        assertPopulated(populate("[ ]", true), 0);
+        assertPopulated(populate("[ ]", true, 1), 0);
+    }
+
+    private static String jsonArray(int numRecords) {
+        StringBuilder json = new StringBuilder("[");
+        for(int i=0;i<numRecords;i++) {
+            if(i > 0)
+                json.append(",\n");
+            json.append("{ \"id\": ").append(i)
+                .append(", \"title\": \"Film n\u00ba ").append(i % 10).append("\"")
+                .append(", \"tags\": [\"tag").append(i % 3).append("\", \"tag").append(i % 5).append("\"]")
+                .append(", \"unmapped\": { \"ignored\": [1, 2], \"objects\": [{ \"a\": 1 }, { \"b\": \"x, {y\" }] } }");
+        }
+        json.append("]");
+        return json.toString();
+    }
+
+    private static void assertPopulated(HollowReadStateEngine readEngine, int numRecords) {
+        Set<String> expected = new HashSet<>();
+        Set<String> actual = new HashSet<>();
+        for(int i=0;i<numRecords;i++) {
+            expected.add(i + ":Film n\u00ba " + (i % 10) + ":" + new TreeSet<>(Arrays.asList("tag" + (i % 3), "tag" + (i % 5))));
+        }
+        BitSet populated = populatedOrdinals(readEngine, "Movie");
+        for(int ordinal = populated.nextSetBit(0); ordinal != -1; ordinal = populated.nextSetBit(ordinal + 1)) {
+            GenericHollowObject movie = new GenericHollowObject(readEngine, "Movie", ordinal);
+            Set<String> tags = new TreeSet<>();
+            for(HollowRecord tag : movie.getSet("tags"))
+                tags.add(((GenericHollowObject) tag).getString("value"));
+            actual.add(movie.getInt("id") + ":" + movie.getObject("title").getString("value") + ":" + tags);
+        }
+
+        Assert.assertEquals(numRecords, populated.cardinality());
+        Assert.assertEquals(Math.min(numRecords, 10), populatedOrdinals(readEngine, "MovieTitle").cardinality());
+        Assert.assertEquals(expected, actual);
+    }
+
+    private static HollowReadStateEngine populate(String json, boolean fromFile) throws Exception {
+        return populate(json, fromFile, 0);
+    }
+
+    private static HollowReadStateEngine populate(String json, boolean fromFile, long fileRangeLength) throws Exception {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        new HollowObjectMapper(writeEngine).initializeTypeState(Movie.class);
+
+        HollowJsonAdapter adapter = new HollowJsonAdapter(writeEngine, "Movie");
+        if(fromFile) {
+            File f = File.createTempFile("movies", ".json");
+            try {
+                Files.write(f.toPath(), json.getBytes(StandardCharsets.UTF_8));
+                if(fileRangeLength > 0)
+                    adapter.processFile(f, Integer.MAX_VALUE, fileRangeLength);
+                else
+                    adapter.populate(f);
+            } finally {
+                f.delete();
+            }
+        } else {
+            adapter.populate(new StringReader(json));
+        }
+
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        StateEngineRoundTripper.roundTripSnapshot(writeEngine, readEngine);
+        return readEngine;
+    }
+
+    private static BitSet populatedOrdinals(HollowReadStateEngine readEngine, String type) {
+        HollowTypeReadState typeState = readEngine.getTypeState(type);
+        return typeState.getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        MovieTitle title;
+        Set<String> tags;
+    }
+
+    @SuppressWarnings("unused")
+    private static class MovieTitle {
+        @HollowInline
+        String value;
+    }
+}
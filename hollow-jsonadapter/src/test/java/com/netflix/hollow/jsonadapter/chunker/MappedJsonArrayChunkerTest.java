@@ -0,0 +1,127 @@
+package com.netflix.hollow.jsonadapter.chunker;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappedJsonArrayChunkerTest {
+
+    @Test
+    public void test() throws Exception {
+        String jsonArray = "[ { \"f1\\\"\" : \"value1\", \"f2\" : { \"f1.1\" : \"hel}}{{{{lo \\\"w{orld\\\"\" } } , { \"obj2\" : \"f2.1\" } ]";
+
+        List<String> chunks = chunks(jsonArray, 1 << 20);
+
+        Assert.assertEquals(2, chunks.size());
+        Assert.assertEquals("{ \"f1\\\"\" : \"value1\", \"f2\" : { \"f1.1\" : \"hel}}{{{{lo \\\"w{orld\\\"\" } }", chunks.get(0));
+        Assert.assertEquals("{ \"obj2\" : \"f2.1\" }", chunks.get(1));
+    }
+
+    @Test
+    public void remapsRecordsSpanningRegions() throws Exception {
+        List<String> expected = new ArrayList<>();
+        StringBuilder jsonArray = new StringBuilder("[");
+        for(int i=0;i<100;i++) {
+            String record = "{\"id\":" + i + ",\"name\":\"élève \\\\\\\"" + i + "\\\"}\",\"sub\":{\"a\":[" + i + "]}}";
+            expected.add(record);
+            jsonArray.append(i == 0 ? "" : ",\n").append(record);
+        }
+        jsonArray.append("]");
+
+        Assert.assertEquals(expected, chunks(jsonArray.toString(), 64));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsOnRecordLargerThanRegion() throws Exception {
+        chunks("[{\"name\":\"a name longer than the region\"}]", 16);
+    }
+
+    @Test
+    public void splitsRangesFromCheckedGuesses() throws Exception {
+        List<String> expected = new ArrayList<>();
+        StringBuilder jsonArray = new StringBuilder("[");
+        for(int i=0;i<100;i++) {
+            // nested arrays of objects, and strings containing ", {", are wrong guesses at the start of a record
+            String record = "{\"id\":" + i + ",\"subs\":[{\"a\":" + i + "}, {\"b\":\"x, {y\"}],\"c\":\"[{\"}";
+            expected.add(record);
+            jsonArray.append(i == 0 ? "" : ",\n").append(record);
+        }
+        jsonArray.append("]");
+
+        File f = tempFile(jsonArray.toString());
+        List<String> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            long rangeLength = 173;
+            long start = 0;
+            for(long rangeStart = 0; rangeStart < channel.size(); rangeStart += rangeLength) {
+                if(rangeStart != 0)
+                    Assert.assertTrue(MappedJsonArrayChunker.guessRecordStart(channel, rangeStart) <= start);
+
+                MappedJsonArrayChunker chunker = new MappedJsonArrayChunker(channel, start, rangeStart + rangeLength);
+                chunks.addAll(chunks(chunker));
+                Assert.assertTrue(chunker.offset() >= rangeStart + rangeLength || chunker.offset() == channel.size());
+                start = chunker.offset();
+            }
+            Assert.assertEquals(channel.size(), start);
+        } finally {
+            f.delete();
+        }
+
+        Assert.assertEquals(expected, chunks);
+    }
+
+    @Test
+    public void guessesRecordStart() throws Exception {
+        String jsonArray = "[ {\"a\":1},\n  {\"b\":[ {\"c\":2} ]} ]";
+        File f = tempFile(jsonArray);
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            Assert.assertEquals(2, MappedJsonArrayChunker.guessRecordStart(channel, 0));
+            Assert.assertEquals(jsonArray.indexOf("{\"b"), MappedJsonArrayChunker.guessRecordStart(channel, 3));
+            Assert.assertEquals(jsonArray.indexOf("{\"c"), MappedJsonArrayChunker.guessRecordStart(channel, jsonArray.indexOf("{\"b") + 1));
+            Assert.assertEquals(channel.size(), MappedJsonArrayChunker.guessRecordStart(channel, jsonArray.indexOf("{\"c") + 1));
+        } finally {
+            f.delete();
+        }
+    }
+
+    @Test
+    public void emptyFile() throws Exception {
+        Assert.assertTrue(chunks("", 64).isEmpty());
+        Assert.assertTrue(chunks("[ ]", 64).isEmpty());
+    }
+
+    private static List<String> chunks(String jsonArray, int regionLength) throws Exception {
+        File f = tempFile(jsonArray);
+        try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            return chunks(new MappedJsonArrayChunker(channel, regionLength));
+        } finally {
+            f.delete();
+        }
+    }
+
+    private static List<String> chunks(MappedJsonArrayChunker chunker) throws Exception {
+        List<String> chunks = new ArrayList<>();
+        while(chunker.nextChunk()) {
+            ByteBuffer region = chunker.region().duplicate();
+            byte[] chunk = new byte[chunker.chunkEnd() - chunker.chunkStart()];
+            region.position(chunker.chunkStart());
+            region.get(chunk);
+            chunks.add(new String(chunk, StandardCharsets.UTF_8));
+        }
+        return chunks;
+    }
+
+    private static File tempFile(String contents) throws Exception {
+        File f = File.createTempFile("json-array", ".json");
+        f.deleteOnExit();
+        Files.write(f.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+}
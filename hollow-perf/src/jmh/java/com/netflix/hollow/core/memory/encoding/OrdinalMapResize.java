@@ -3,6 +3,9 @@ package com.netflix.hollow.core.memory.encoding;
 import com.netflix.hollow.core.memory.ByteArrayOrdinalMap;
 import com.netflix.hollow.core.memory.ByteDataArray;
 import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -14,6 +17,7 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 
 @State(Scope.Thread)
@@ -30,8 +34,18 @@ public class OrdinalMapResize {
     @Param("32")
     int contentSize = 32;
 
+    // Number of partitions of the ordinal map in concurrentGet
+    @Param({"1", "4", "16"})
+    int partitions = 1;
+
+    // Number of threads concurrently adding all the content in concurrentGet
+    @Param({"1", "8", "32"})
+    int threads = 1;
+
     ByteDataArray[] content;
 
+    ExecutorService executor;
+
     @Setup
     public void setUp() {
         SplittableRandom r = new SplittableRandom(0);
@@ -44,6 +58,13 @@ public class OrdinalMapResize {
             }
             content[i] = buf;
         }
+
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
     }
 
     @Benchmark
@@ -63,6 +84,25 @@ public class OrdinalMapResize {
         }
         return map;
     }
+
+    @Benchmark
+    public ByteArrayOrdinalMap concurrentGet() throws InterruptedException {
+        ByteArrayOrdinalMap map = new ByteArrayOrdinalMap(256, false, partitions);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            // Each thread adds all of the content, starting at a different offset,
+            // so that threads both assign new ordinals and find existing ones
+            int offset = t * (n / threads);
+            executor.execute(() -> {
+                for (int i = 0; i < n; i++) {
+                    map.getOrAssignOrdinal(content[(i + offset) % n]);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return map;
+    }
 }
 
 /*
@@ -0,0 +1,108 @@
+package com.netflix.hollow.core.write.objectmapper;
+
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares populating a state engine with {@link HollowObjectMapper#add(Object)} from many threads against
+ * {@link HollowObjectMapper#addAll(java.util.stream.Stream)}, which assigns ordinals in per-thread batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HollowObjectMapperPopulateBenchmark {
+
+    @Param({ "1", "8", "32" })
+    int threads;
+
+    @Param({ "200000" })
+    int numMovies;
+
+    List<Movie> movies;
+    ForkJoinPool pool;
+    HollowObjectMapper mapper;
+
+    @Setup
+    public void setUp() {
+        movies = new ArrayList<>(numMovies);
+        for(int i=0;i<numMovies;i++)
+            movies.add(new Movie(i));
+        pool = new ForkJoinPool(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void newStateEngine() {
+        mapper = new HollowObjectMapper(new HollowWriteStateEngine());
+        mapper.initializeTypeState(Movie.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public HollowWriteStateEngine add() throws ExecutionException, InterruptedException {
+        pool.submit(() -> movies.parallelStream().forEach(mapper::add)).get();
+        return mapper.getStateEngine();
+    }
+
+    @Benchmark
+    public HollowWriteStateEngine addAll() throws ExecutionException, InterruptedException {
+        pool.submit(() -> mapper.addAll(movies.parallelStream())).get();
+        return mapper.getStateEngine();
+    }
+
+    @SuppressWarnings("unused")
+    static class Movie {
+        int id;
+        long releaseDate;
+        @HollowInline String title;
+        String country;
+        double rating;
+        Map<String, Integer> counts;
+
+        Movie(int id) {
+            this.id = id;
+            this.releaseDate = 1_500_000_000_000L + id * 1000L;
+            this.title = "Movie " + id;
+            this.country = "Country " + (id % 50);
+            this.rating = (id % 50) / 10d;
+            this.counts = new HashMap<>();
+            this.counts.put("views", id % 1000);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HollowObjectMapperPopulateBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
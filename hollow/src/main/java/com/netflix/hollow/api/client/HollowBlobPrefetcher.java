@@ -0,0 +1,225 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.client;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Retrieves the data of the transitions in an update plan in the background, so that the data of upcoming transitions
+ * is retrieved while the current transition is being applied.  Not intended for external consumption.
+ * <p>
+ * Transitions are retrieved in order, one at a time.  Retrieval of a transition does not begin while the maximum number
+ * of retrieved transitions are waiting to be applied, or while the retrieved data waiting to be applied totals at
+ * least the maximum number of bytes.  The byte budget may therefore be exceeded by up to the size of one transition.
+ * <p>
+ * In the {@link MemoryMode#ON_HEAP} mode the data of a transition is retrieved into memory from
+ * {@link HollowConsumer.Blob#getInputStream()}, otherwise the transition is retrieved by
+ * {@link HollowConsumer.Blob#getFile()} and the size of the file counts towards the byte budget.
+ */
+class HollowBlobPrefetcher implements Closeable {
+    private static final Logger LOG = Logger.getLogger(HollowBlobPrefetcher.class.getName());
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final List<HollowConsumer.Blob> transitions;
+    private final MemoryMode memoryMode;
+    private final int maxPrefetchedTransitions;
+    private final long maxPrefetchedBytes;
+
+    // guarded by this
+    private final PrefetchedTransition[] prefetched;
+    private int nextTransitionToApply;
+    private long prefetchedBytes;
+    private boolean closed;
+
+    HollowBlobPrefetcher(List<HollowConsumer.Blob> transitions, MemoryMode memoryMode,
+            int maxPrefetchedTransitions, long maxPrefetchedBytes, Executor executor) {
+        this.transitions = new ArrayList<>(transitions);
+        this.memoryMode = memoryMode;
+        this.maxPrefetchedTransitions = maxPrefetchedTransitions;
+        this.maxPrefetchedBytes = maxPrefetchedBytes;
+        this.prefetched = new PrefetchedTransition[transitions.size()];
+
+        executor.execute(this::prefetchTransitions);
+    }
+
+    /**
+     * Returns the input for the next transition in the plan, waiting for its data to be retrieved if necessary.
+     * If the given transition is not the next transition in the plan then its data is retrieved directly.
+     * The returned input must be closed to free up resources.
+     *
+     * @param transition the transition to be applied
+     * @return the input for the transition
+     * @throws IOException if the data of the transition could not be retrieved
+     */
+    HollowBlobInput blobInput(HollowConsumer.Blob transition) throws IOException {
+        PrefetchedTransition p;
+        synchronized (this) {
+            int index = nextTransitionToApply;
+            if (closed || index >= transitions.size() || transitions.get(index) != transition)
+                return HollowBlobInput.modeBasedSelector(memoryMode, transition);
+
+            while (prefetched[index] == null && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for transition " + transition.getToVersion());
+                }
+            }
+            if (closed)
+                return HollowBlobInput.modeBasedSelector(memoryMode, transition);
+
+            p = prefetched[index];
+            prefetched[index] = null;
+            prefetchedBytes -= p.numBytes;
+            nextTransitionToApply++;
+            notifyAll();
+        }
+        return p.blobInput();
+    }
+
+    /**
+     * Stops retrieving transitions and releases the retrieved data that was not applied.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Arrays.fill(prefetched, null);
+        notifyAll();
+    }
+
+    private void prefetchTransitions() {
+        for (int i = 0; i < transitions.size(); i++) {
+            synchronized (this) {
+                // the transition that is next to be applied is always retrieved
+                while (!closed && i > nextTransitionToApply
+                        && (i - nextTransitionToApply >= maxPrefetchedTransitions || prefetchedBytes >= maxPrefetchedBytes)) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (closed)
+                    return;
+            }
+
+            PrefetchedTransition p = prefetch(transitions.get(i));
+
+            synchronized (this) {
+                if (closed)
+                    return;
+                prefetched[i] = p;
+                prefetchedBytes += p.numBytes;
+                notifyAll();
+            }
+
+            if (p.failure != null)
+                return;
+        }
+    }
+
+    private PrefetchedTransition prefetch(HollowConsumer.Blob transition) {
+        try {
+            if (memoryMode.isSharedMemory()) {
+                File file = transition.getFile();
+                return new PrefetchedTransition(null, file, file.length(), null);
+            }
+
+            List<byte[]> chunks = new ArrayList<>();
+            long numBytes = 0;
+            try (InputStream is = transition.getInputStream()) {
+                while (true) {
+                    byte[] chunk = new byte[CHUNK_SIZE];
+                    int chunkBytes = readFully(is, chunk);
+                    if (chunkBytes > 0) {
+                        chunks.add(chunkBytes == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, chunkBytes));
+                        numBytes += chunkBytes;
+                    }
+                    if (chunkBytes < CHUNK_SIZE)
+                        break;
+                }
+            }
+            return new PrefetchedTransition(chunks, null, numBytes, null);
+        } catch (Throwable t) {
+            LOG.log(Level.WARNING, "Failed to prefetch transition to version " + transition.getToVersion(), t);
+            return new PrefetchedTransition(null, null, 0, t);
+        }
+    }
+
+    private static int readFully(InputStream is, byte[] chunk) throws IOException {
+        int chunkBytes = 0;
+        while (chunkBytes < chunk.length) {
+            int bytesRead = is.read(chunk, chunkBytes, chunk.length - chunkBytes);
+            if (bytesRead == -1)
+                break;
+            chunkBytes += bytesRead;
+        }
+        return chunkBytes;
+    }
+
+    private class PrefetchedTransition {
+        private final List<byte[]> chunks;
+        private final File file;
+        private final long numBytes;
+        private final Throwable failure;
+
+        PrefetchedTransition(List<byte[]> chunks, File file, long numBytes, Throwable failure) {
+            this.chunks = chunks;
+            this.file = file;
+            this.numBytes = numBytes;
+            this.failure = failure;
+        }
+
+        HollowBlobInput blobInput() throws IOException {
+            if (failure instanceof IOException)
+                throw (IOException) failure;
+            if (failure instanceof RuntimeException)
+                throw (RuntimeException) failure;
+            if (failure instanceof Error)
+                throw (Error) failure;
+            if (failure != null)
+                throw new IOException(failure);
+
+            if (file != null)
+                return HollowBlobInput.randomAccess(file, memoryMode);
+
+            List<InputStream> chunkStreams = new ArrayList<>(chunks.size());
+            for (byte[] chunk : chunks)
+                chunkStreams.add(new ByteArrayInputStream(chunk));
+            return HollowBlobInput.serial(new SequenceInputStream(Collections.enumeration(chunkStreams)));
+        }
+    }
+}
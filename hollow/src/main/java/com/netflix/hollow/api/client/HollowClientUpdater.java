@@ -17,6 +17,8 @@
 package com.netflix.hollow.api.client;
 
 import static com.netflix.hollow.core.HollowStateEngine.HEADER_TAG_SCHEMA_HASH;
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 
 import com.netflix.hollow.api.consumer.HollowConsumer;
 import com.netflix.hollow.api.custom.HollowAPI;
@@ -30,10 +32,12 @@ import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.filter.TypeFilter;
 import com.netflix.hollow.core.schema.HollowSchemaHash;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 /**
@@ -60,6 +64,13 @@ public class HollowClientUpdater {
     private final HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
 
     private boolean skipTypeShardUpdateWithNoAdditions;
+    private int snapshotLoadParallelism = 1;
+    private File sharedMemoryScratchDir;
+    private boolean columnarObjectEncoding;
+    private boolean stringDictionaryEncoding;
+    private int maxPrefetchedDeltas;
+    private long maxPrefetchedDeltaBytes;
+    private Executor prefetchExecutor;
 
     private TypeFilter filter;
 
@@ -97,6 +108,29 @@ public class HollowClientUpdater {
             dataHolder.getStateEngine().setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions);
     }
 
+    public void setSnapshotLoadParallelism(int snapshotLoadParallelism) {
+        this.snapshotLoadParallelism = snapshotLoadParallelism;
+    }
+
+    public void setSharedMemoryScratchDir(File sharedMemoryScratchDir) {
+        this.sharedMemoryScratchDir = sharedMemoryScratchDir;
+    }
+
+    public void setColumnarObjectEncoding(boolean columnarObjectEncoding) {
+        this.columnarObjectEncoding = columnarObjectEncoding;
+    }
+
+    public void setStringDictionaryEncoding(boolean stringDictionaryEncoding) {
+        this.stringDictionaryEncoding = stringDictionaryEncoding;
+    }
+
+    public void setDeltaPrefetch(int maxPrefetchedDeltas, long maxPrefetchedDeltaBytes) {
+        this.maxPrefetchedDeltas = maxPrefetchedDeltas;
+        this.maxPrefetchedDeltaBytes = maxPrefetchedDeltaBytes;
+        if (maxPrefetchedDeltas > 0 && prefetchExecutor == null)
+            this.prefetchExecutor = newCachedThreadPool(r -> daemonThread(r, getClass(), "prefetch"));
+    }
+
     /**
      * Updates the client's state to the requested version, or to the version closest to but less than the requested version.
      *
@@ -300,7 +334,12 @@ public class HollowClientUpdater {
                 doubleSnapshotConfig, failedTransitionTracker,
                 staleReferenceDetector, objectLongevityConfig)
                 .setFilter(filter)
-                .setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions);
+                .setSkipTypeShardUpdateWithNoAdditions(skipTypeShardUpdateWithNoAdditions)
+                .setSnapshotLoadParallelism(snapshotLoadParallelism)
+                .setSharedMemoryScratchDir(sharedMemoryScratchDir)
+                .setColumnarObjectEncoding(columnarObjectEncoding)
+                .setStringDictionaryEncoding(stringDictionaryEncoding)
+                .setDeltaPrefetch(maxPrefetchedDeltas, maxPrefetchedDeltaBytes, prefetchExecutor);
     }
 
     private HollowReadStateEngine newStateEngine() {
@@ -31,8 +31,11 @@ import com.netflix.hollow.core.read.filter.HollowFilterConfig;
 import com.netflix.hollow.core.read.filter.TypeFilter;
 import com.netflix.hollow.tools.history.HollowHistoricalStateCreator;
 import com.netflix.hollow.tools.history.HollowHistoricalStateDataAccess;
+import java.io.File;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 /**
@@ -51,6 +54,10 @@ class HollowDataHolder {
     private final HollowConsumer.ObjectLongevityConfig objLongevityConfig;
 
     private TypeFilter filter;
+    private int snapshotLoadParallelism = 1;
+    private int maxPrefetchedDeltas = 0;
+    private long maxPrefetchedDeltaBytes;
+    private Executor prefetchExecutor;
 
     private HollowAPI currentAPI;
 
@@ -105,6 +112,35 @@ class HollowDataHolder {
         return this;
     }
 
+    HollowDataHolder setSharedMemoryScratchDir(File sharedMemoryScratchDir) {
+        if(sharedMemoryScratchDir != null)
+            this.stateEngine.setSharedMemoryScratchDir(sharedMemoryScratchDir);
+        return this;
+    }
+
+    HollowDataHolder setColumnarObjectEncoding(boolean columnarObjectEncoding) {
+        this.stateEngine.setColumnarObjectEncoding(columnarObjectEncoding);
+        return this;
+    }
+
+    HollowDataHolder setStringDictionaryEncoding(boolean stringDictionaryEncoding) {
+        this.stateEngine.setStringDictionaryEncoding(stringDictionaryEncoding);
+        return this;
+    }
+
+    HollowDataHolder setSnapshotLoadParallelism(int snapshotLoadParallelism) {
+        this.snapshotLoadParallelism = snapshotLoadParallelism;
+        this.reader.setSnapshotLoadParallelism(snapshotLoadParallelism);
+        return this;
+    }
+
+    HollowDataHolder setDeltaPrefetch(int maxPrefetchedDeltas, long maxPrefetchedDeltaBytes, Executor prefetchExecutor) {
+        this.maxPrefetchedDeltas = maxPrefetchedDeltas;
+        this.maxPrefetchedDeltaBytes = maxPrefetchedDeltaBytes;
+        this.prefetchExecutor = prefetchExecutor;
+        return this;
+    }
+
     void update(HollowUpdatePlan updatePlan, HollowConsumer.RefreshListener[] refreshListeners,
             Runnable apiInitCallback) throws Throwable {
         // Only fail if double snapshot is configured.
@@ -132,10 +168,13 @@ class HollowDataHolder {
     private void applySnapshotPlan(HollowUpdatePlan updatePlan,
             HollowConsumer.RefreshListener[] refreshListeners,
             Runnable apiInitCallback) throws Throwable {
-        applySnapshotTransition(updatePlan.getSnapshotTransition(), refreshListeners, apiInitCallback);
-            
-        for(HollowConsumer.Blob blob : updatePlan.getDeltaTransitions()) {
-            applyDeltaTransition(blob, true, refreshListeners);
+        // the deltas are retrieved while the snapshot is applied
+        try (HollowBlobPrefetcher prefetcher = newPrefetcher(updatePlan.getDeltaTransitions())) {
+            applySnapshotTransition(updatePlan.getSnapshotTransition(), refreshListeners, apiInitCallback);
+
+            for(HollowConsumer.Blob blob : updatePlan.getDeltaTransitions()) {
+                applyDeltaTransition(blob, prefetcher, true, refreshListeners);
+            }
         }
 
         try {
@@ -150,7 +189,7 @@ class HollowDataHolder {
     private void applySnapshotTransition(HollowConsumer.Blob snapshotBlob,
             HollowConsumer.RefreshListener[] refreshListeners,
             Runnable apiInitCallback) throws Throwable {
-        try (HollowBlobInput in = HollowBlobInput.modeBasedSelector(memoryMode, snapshotBlob);
+        try (HollowBlobInput in = snapshotBlobInput(snapshotBlob);
              OptionalBlobPartInput optionalPartIn = snapshotBlob.getOptionalBlobPartInputs()) {
             applyStateEngineTransition(in, optionalPartIn, snapshotBlob, refreshListeners);
             initializeAPI(apiInitCallback);
@@ -165,6 +204,20 @@ class HollowDataHolder {
         }
     }
 
+    private HollowBlobInput snapshotBlobInput(HollowConsumer.Blob snapshotBlob) throws IOException {
+        if(snapshotLoadParallelism > 1) {
+            File file;
+            try {
+                file = snapshotBlob.getFile();
+            } catch(UnsupportedOperationException e) {
+                file = null;
+            }
+            if(file != null)
+                return HollowBlobInput.seekable(file, memoryMode);
+        }
+        return HollowBlobInput.modeBasedSelector(memoryMode, snapshotBlob);
+    }
+
     private void applyStateEngineTransition(HollowBlobInput in, OptionalBlobPartInput optionalPartIn, HollowConsumer.Blob transition, HollowConsumer.RefreshListener[] refreshListeners) throws IOException {
         if(transition.isSnapshot()) {
             if(filter == null) {
@@ -200,18 +253,24 @@ class HollowDataHolder {
     }
 
     private void applyDeltaOnlyPlan(HollowUpdatePlan updatePlan, HollowConsumer.RefreshListener[] refreshListeners) throws Throwable {
-        for(HollowConsumer.Blob blob : updatePlan) {
-            applyDeltaTransition(blob, false, refreshListeners);
+        try (HollowBlobPrefetcher prefetcher = newPrefetcher(updatePlan.getDeltaTransitions())) {
+            for(HollowConsumer.Blob blob : updatePlan) {
+                applyDeltaTransition(blob, prefetcher, false, refreshListeners);
+            }
         }
     }
 
-    private void applyDeltaTransition(HollowConsumer.Blob blob, boolean isSnapshotPlan, HollowConsumer.RefreshListener[] refreshListeners) throws Throwable {
-        if (!memoryMode.equals(MemoryMode.ON_HEAP)) {
-            LOG.warning("Skipping delta transition in shared-memory mode");
-            return;
-        }
+    /**
+     * @return a prefetcher of the given delta transitions, or null if deltas should not be prefetched
+     */
+    private HollowBlobPrefetcher newPrefetcher(List<HollowConsumer.Blob> deltaTransitions) {
+        if(maxPrefetchedDeltas == 0 || deltaTransitions.isEmpty())
+            return null;
+        return new HollowBlobPrefetcher(deltaTransitions, memoryMode, maxPrefetchedDeltas, maxPrefetchedDeltaBytes, prefetchExecutor);
+    }
 
-        try (HollowBlobInput in = HollowBlobInput.modeBasedSelector(memoryMode, blob);
+    private void applyDeltaTransition(HollowConsumer.Blob blob, HollowBlobPrefetcher prefetcher, boolean isSnapshotPlan, HollowConsumer.RefreshListener[] refreshListeners) throws Throwable {
+        try (HollowBlobInput in = prefetcher != null ? prefetcher.blobInput(blob) : HollowBlobInput.modeBasedSelector(memoryMode, blob);
              OptionalBlobPartInput optionalPartIn = blob.getOptionalBlobPartInputs()) {
             applyStateEngineTransition(in, optionalPartIn, blob, refreshListeners);
 
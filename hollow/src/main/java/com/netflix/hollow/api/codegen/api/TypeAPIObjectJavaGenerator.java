@@ -177,6 +177,18 @@ public class TypeAPIObjectJavaGenerator extends HollowTypeAPIGenerator {
         builder.append("        return getTypeDataAccess().readString(ordinal, fieldIndex[" + fieldNum + "]);\n");
         builder.append("    }\n\n");
 
+        builder.append("    public boolean read" + uppercase(fieldName) + "Into(int ordinal, StringBuilder dest) {\n");
+        builder.append("        if(fieldIndex[" + fieldNum +"] == -1) {\n");
+        builder.append("            String value = missingDataHandler().handleString(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\");\n");
+        builder.append("            if(value == null)\n");
+        builder.append("                return false;\n");
+        builder.append("            dest.append(value);\n");
+        builder.append("            return true;\n");
+        builder.append("        }\n");
+        builder.append("        boxedFieldAccessSampler.recordFieldAccess(fieldIndex[" + fieldNum + "]);\n");
+        builder.append("        return getTypeDataAccess().readStringInto(ordinal, fieldIndex[" + fieldNum + "], dest);\n");
+        builder.append("    }\n\n");
+
         builder.append("    public boolean is" + uppercase(fieldName) + "Equal(int ordinal, String testValue) {\n");
         builder.append("        if(fieldIndex[" + fieldNum +"] == -1)\n");
         builder.append("            return missingDataHandler().handleStringEquals(\"").append(objectSchema.getName()).append("\", ordinal, \"").append(fieldName).append("\", testValue);\n");
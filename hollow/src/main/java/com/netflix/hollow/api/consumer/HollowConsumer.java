@@ -203,6 +203,11 @@ public class HollowConsumer {
         updater.setFilter(builder.typeFilter);
         if(builder.skipTypeShardUpdateWithNoAdditions)
             updater.setSkipShardUpdateWithNoAdditions(true);
+        updater.setSnapshotLoadParallelism(builder.snapshotLoadParallelism);
+        updater.setSharedMemoryScratchDir(builder.sharedMemoryScratchDir);
+        updater.setColumnarObjectEncoding(builder.columnarObjectEncoding);
+        updater.setStringDictionaryEncoding(builder.stringDictionaryEncoding);
+        updater.setDeltaPrefetch(builder.maxPrefetchedDeltas, builder.maxPrefetchedDeltaBytes);
         this.announcementWatcher = builder.announcementWatcher;
         this.refreshExecutor = builder.refreshExecutor;
         this.refreshLock = new ReentrantReadWriteLock();
@@ -1085,6 +1090,12 @@ public class HollowConsumer {
         protected MemoryMode memoryMode = MemoryMode.ON_HEAP;
         protected HollowMetricsCollector<HollowConsumerMetrics> metricsCollector;
         protected boolean skipTypeShardUpdateWithNoAdditions = false;
+        protected int snapshotLoadParallelism = 1;
+        protected File sharedMemoryScratchDir = null;
+        protected boolean columnarObjectEncoding = false;
+        protected boolean stringDictionaryEncoding = false;
+        protected int maxPrefetchedDeltas = 0;
+        protected long maxPrefetchedDeltaBytes = 0;
 
         public B withBlobRetriever(HollowConsumer.BlobRetriever blobRetriever) {
             this.blobRetriever = blobRetriever;
@@ -1318,11 +1329,15 @@ public class HollowConsumer {
 
         /**
          * Experimental: By default the Hollow dataset is eagerly loaded to heap, but shared memory mode allows mmap-ing
-         * the dataset to virtual memory and only loading specific pages to main memory.
+         * the dataset to virtual memory and only loading specific pages to main memory. With
+         * {@link MemoryMode#SHARED_MEMORY_EAGER} all pages of a snapshot are faulted into main memory while it is loaded,
+         * so that initial reads after the consumer is ready do not incur page fault latency.
          *
          * This allows faster init and support for datasets larger that available physical memory. However, shared memory
-         * implementation is not suitable for production use given its limited functionality (no delta refreshes, no
-         * un-mmap of previous version, feature gaps like indexes continue to live on heap) and limited production hardening.
+         * implementation is not suitable for production use given its limited functionality (no un-mmap of previous
+         * version, feature gaps like indexes continue to live on heap) and limited production hardening. Deltas are
+         * applied by writing the resulting state of each updated type shard to a scratch file which is then mapped, see
+         * {@link #withSharedMemoryScratchDir(File)}.
          */
         public B withMemoryMode(MemoryMode memoryMode) {
             this.memoryMode = memoryMode;
@@ -1342,6 +1357,69 @@ public class HollowConsumer {
             return (B)this;
         }
 
+        /**
+         * Experimental: The local directory in which, when in a shared memory mode, the result of applying a delta to
+         * each updated type shard is written before being mapped. Defaults to {@code java.io.tmpdir}.
+         */
+        public B withSharedMemoryScratchDir(File sharedMemoryScratchDir) {
+            this.sharedMemoryScratchDir = sharedMemoryScratchDir;
+            return (B)this;
+        }
+
+        /**
+         * Experimental: Store the fixed length fields of object types as a column per field, each encoded with as few
+         * bits per value as the field's values allow. Only takes effect in the {@code ON_HEAP} memory mode.
+         *
+         * @see HollowReadStateEngine#setColumnarObjectEncoding(boolean)
+         */
+        public B withColumnarObjectEncoding() {
+            this.columnarObjectEncoding = true;
+            return (B)this;
+        }
+
+        /**
+         * Experimental: Store the string fields of object types which have few distinct values as a pool of their
+         * distinct values. Only takes effect in the {@code ON_HEAP} memory mode.
+         *
+         * @see HollowReadStateEngine#setStringDictionaryEncoding(boolean)
+         */
+        public B withStringDictionaryEncoding() {
+            this.stringDictionaryEncoding = true;
+            return (B)this;
+        }
+
+        /**
+         * Experimental: Populate up to the specified number of types concurrently when loading a snapshot.
+         *
+         * This only takes effect for snapshot blobs that are available as a local file (see
+         * {@link HollowConsumer.Blob#getFile()}), otherwise the snapshot is loaded serially. Independently, the
+         * optional blob parts of a snapshot (see {@link BlobRetriever#configuredOptionalBlobParts()}) are retrieved
+         * and loaded concurrently with the main blob. Defaults to 1.
+         */
+        public B withSnapshotLoadParallelism(int snapshotLoadParallelism) {
+            if(snapshotLoadParallelism < 1)
+                throw new IllegalArgumentException("Snapshot load parallelism must be at least 1");
+            this.snapshotLoadParallelism = snapshotLoadParallelism;
+            return (B)this;
+        }
+
+        /**
+         * Experimental: Retrieve the data of up to the specified number of upcoming deltas in the background while
+         * the current delta is being applied, so that a consumer which is several deltas behind catches up faster.
+         *
+         * Retrieval pauses while at least the specified number of bytes of retrieved data are waiting to be applied,
+         * so this budget may be exceeded by up to the size of one delta. Disabled by default.
+         */
+        public B withDeltaPrefetch(int maxPrefetchedDeltas, long maxPrefetchedDeltaBytes) {
+            if(maxPrefetchedDeltas < 1)
+                throw new IllegalArgumentException("Max prefetched deltas must be at least 1");
+            if(maxPrefetchedDeltaBytes < 1)
+                throw new IllegalArgumentException("Max prefetched delta bytes must be at least 1");
+            this.maxPrefetchedDeltas = maxPrefetchedDeltas;
+            this.maxPrefetchedDeltaBytes = maxPrefetchedDeltaBytes;
+            return (B)this;
+        }
+
         @Deprecated
         public B withHashCodeFinder(HollowObjectHashCodeFinder hashCodeFinder) {
             this.hashCodeFinder = hashCodeFinder;
@@ -1374,7 +1452,7 @@ public class HollowConsumer {
             }
 
             if ((filterConfig != null || typeFilter != null) && !memoryMode.supportsFiltering()) {
-                throw new UnsupportedOperationException("Filtering is not supported in shared memory mode");
+                throw new UnsupportedOperationException("Filtering is not supported in " + memoryMode + " mode");
             }
         }
 
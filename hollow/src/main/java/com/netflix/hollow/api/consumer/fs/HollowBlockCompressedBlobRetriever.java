@@ -0,0 +1,176 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.consumer.fs;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.producer.fs.HollowBlockBlobCompressor;
+import com.netflix.hollow.core.compress.BlockCodec;
+import com.netflix.hollow.core.compress.BlockCompressedFiles;
+import com.netflix.hollow.core.compress.BlockCompressedInputStream;
+import com.netflix.hollow.core.read.OptionalBlobPartInput;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link HollowConsumer.BlobRetriever} which decompresses the block compressed blobs (see
+ * {@link HollowBlockBlobCompressor}) retrieved by another BlobRetriever.
+ * <p>
+ * Blobs read as streams are decompressed concurrently ahead of the reader.  Blobs read as files, e.g. when a consumer
+ * is in a shared memory mode, are decompressed concurrently into a file in the scratch directory, which is then mapped.
+ * <p>
+ * A consumer retrieves all of the blobs of an update before reading any of them, and has mapped or consumed them all
+ * by the time it next retrieves a blob.  So the decompressed files of earlier blobs are deleted whenever a blob is
+ * retrieved; a file which is still mapped remains readable until it is unmapped.  This retriever should therefore
+ * not be shared by several consumers.  Files which remain are deleted when the JVM exits.
+ */
+public class HollowBlockCompressedBlobRetriever implements HollowConsumer.BlobRetriever {
+
+    private final HollowConsumer.BlobRetriever delegate;
+    private final BlockCodec codec;
+    private final int parallelism;
+    private final Path scratchDir;
+
+    private final List<File> scratchFiles = new ArrayList<>();
+    private Thread deleteScratchFilesOnExit;
+
+    /**
+     * @param delegate the BlobRetriever from which to retrieve the block compressed blobs
+     * @param codec the codec with which the blobs were compressed
+     * @param parallelism the number of blocks to decompress concurrently
+     * @param scratchDir the directory in which to write decompressed blob files
+     */
+    public HollowBlockCompressedBlobRetriever(HollowConsumer.BlobRetriever delegate, BlockCodec codec, int parallelism, Path scratchDir) {
+        this.delegate = delegate;
+        this.codec = codec;
+        this.parallelism = parallelism;
+        this.scratchDir = scratchDir;
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+        deleteScratchFiles();
+        return decompressing(delegate.retrieveSnapshotBlob(desiredVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+        deleteScratchFiles();
+        return decompressing(delegate.retrieveDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+        deleteScratchFiles();
+        return decompressing(delegate.retrieveReverseDeltaBlob(currentVersion));
+    }
+
+    @Override
+    public Set<String> configuredOptionalBlobParts() {
+        return delegate.configuredOptionalBlobParts();
+    }
+
+    @Override
+    public HollowConsumer.HeaderBlob retrieveHeaderBlob(long currentVersion) {
+        HollowConsumer.HeaderBlob headerBlob = delegate.retrieveHeaderBlob(currentVersion);
+        if(headerBlob == null)
+            return null;
+
+        return new HollowConsumer.HeaderBlob(headerBlob.getVersion()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new BlockCompressedInputStream(headerBlob.getInputStream(), codec, parallelism);
+            }
+        };
+    }
+
+    private HollowConsumer.Blob decompressing(HollowConsumer.Blob blob) {
+        if(blob == null)
+            return null;
+
+        return new HollowConsumer.Blob(blob.getFromVersion(), blob.getToVersion()) {
+            private File decompressedFile;
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new BlockCompressedInputStream(blob.getInputStream(), codec, parallelism);
+            }
+
+            @Override
+            public synchronized File getFile() throws IOException {
+                if(decompressedFile == null)
+                    decompressedFile = decompressToScratchFile(blob.getFile());
+                return decompressedFile;
+            }
+
+            @Override
+            public OptionalBlobPartInput getOptionalBlobPartInputs() throws IOException {
+                OptionalBlobPartInput compressedParts = blob.getOptionalBlobPartInputs();
+                if(compressedParts == null)
+                    return null;
+
+                OptionalBlobPartInput parts = new OptionalBlobPartInput();
+                for(String part : compressedParts.getPartNames()) {
+                    File file = partFile(compressedParts, part);
+                    if(file != null)
+                        parts.addInput(part, decompressToScratchFile(file));
+                    else
+                        parts.addInput(part, new BlockCompressedInputStream(compressedParts.getInputStream(part), codec, parallelism));
+                }
+                return parts;
+            }
+        };
+    }
+
+    private File decompressToScratchFile(File compressedFile) throws IOException {
+        Files.createDirectories(scratchDir);
+        File file = Files.createTempFile(scratchDir, compressedFile.getName() + "-", ".decompressed").toFile();
+        addScratchFile(file);
+        BlockCompressedFiles.decompress(compressedFile, file, codec, parallelism);
+        return file;
+    }
+
+    private synchronized void addScratchFile(File file) {
+        if(deleteScratchFilesOnExit == null) {
+            deleteScratchFilesOnExit = new Thread(this::deleteScratchFiles);
+            Runtime.getRuntime().addShutdownHook(deleteScratchFilesOnExit);
+        }
+        scratchFiles.add(file);
+    }
+
+    /**
+     * Deletes the decompressed files of the blobs retrieved so far.  A file which cannot be deleted yet is retried on
+     * the next retrieval.
+     */
+    private synchronized void deleteScratchFiles() {
+        scratchFiles.removeIf(file -> file.delete() || !file.exists());
+    }
+
+    private static File partFile(OptionalBlobPartInput parts, String part) {
+        try {
+            return parts.getFile(part);
+        } catch(UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+}
@@ -35,10 +35,12 @@ import com.netflix.hollow.api.producer.validation.ValidationStatusException;
 import com.netflix.hollow.api.producer.validation.ValidatorListener;
 import com.netflix.hollow.core.HollowConstants;
 import com.netflix.hollow.core.HollowStateEngine;
+import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.engine.HollowBlobHeaderReader;
 import com.netflix.hollow.core.read.engine.HollowBlobReader;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.schema.HollowSchemaHash;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
@@ -96,6 +98,12 @@ abstract class AbstractHollowProducer {
     private final long targetMaxTypeShardSize;
     private final boolean allowTypeResharding;
     private final boolean focusHoleFillInFewestShards;
+    private final boolean writeTypeOffsetIndex;
+    private final boolean offHeapOrdinalMaps;
+    private final int ordinalMapPartitions;
+    private final boolean streamingSnapshotWrites;
+    private final boolean incrementalChecksums;
+    private final boolean sharedMemoryReadStates;
 
 
     @Deprecated
@@ -105,7 +113,7 @@ abstract class AbstractHollowProducer {
         this(new HollowFilesystemBlobStager(), publisher, announcer,
                 Collections.emptyList(),
                 new VersionMinterWithCounter(), null, 0,
-                DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE, false, false, null,
+                DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE, false, false, false, false, 1, false, false, false, null,
                 new DummyBlobStorageCleaner(), new BasicSingleProducerEnforcer(),
                 null, true);
     }
@@ -118,6 +126,8 @@ abstract class AbstractHollowProducer {
                 b.eventListeners,
                 b.versionMinter, b.snapshotPublishExecutor,
                 b.numStatesBetweenSnapshots, b.targetMaxTypeShardSize, b.focusHoleFillInFewestShards, b.allowTypeResharding,
+                b.writeTypeOffsetIndex, b.offHeapOrdinalMaps, b.ordinalMapPartitions, b.streamingSnapshotWrites, b.incrementalChecksums,
+                b.sharedMemoryReadStates,
                 b.metricsCollector, b.blobStorageCleaner, b.singleProducerEnforcer,
                 b.hashCodeFinder, b.doIntegrityCheck);
     }
@@ -133,6 +143,12 @@ abstract class AbstractHollowProducer {
             long targetMaxTypeShardSize,
             boolean focusHoleFillInFewestShards,
             boolean allowTypeResharding,
+            boolean writeTypeOffsetIndex,
+            boolean offHeapOrdinalMaps,
+            int ordinalMapPartitions,
+            boolean streamingSnapshotWrites,
+            boolean incrementalChecksums,
+            boolean sharedMemoryReadStates,
             HollowMetricsCollector<HollowProducerMetrics> metricsCollector,
             HollowProducer.BlobStorageCleaner blobStorageCleaner,
             SingleProducerEnforcer singleProducerEnforcer,
@@ -150,6 +166,12 @@ abstract class AbstractHollowProducer {
         this.targetMaxTypeShardSize = targetMaxTypeShardSize;
         this.allowTypeResharding = allowTypeResharding;
         this.focusHoleFillInFewestShards = focusHoleFillInFewestShards;
+        this.writeTypeOffsetIndex = writeTypeOffsetIndex;
+        this.offHeapOrdinalMaps = offHeapOrdinalMaps;
+        this.ordinalMapPartitions = ordinalMapPartitions;
+        this.streamingSnapshotWrites = streamingSnapshotWrites;
+        this.incrementalChecksums = incrementalChecksums;
+        this.sharedMemoryReadStates = sharedMemoryReadStates;
 
         HollowWriteStateEngine writeEngine = hashCodeFinder == null
                 ? new HollowWriteStateEngine()
@@ -157,6 +179,10 @@ abstract class AbstractHollowProducer {
         writeEngine.setTargetMaxTypeShardSize(targetMaxTypeShardSize);
         writeEngine.allowTypeResharding(allowTypeResharding);
         writeEngine.setFocusHoleFillInFewestShards(focusHoleFillInFewestShards);
+        writeEngine.setWriteTypeOffsetIndex(writeTypeOffsetIndex);
+        writeEngine.setOffHeapOrdinalMaps(offHeapOrdinalMaps);
+        writeEngine.setOrdinalMapPartitions(ordinalMapPartitions);
+        writeEngine.setStreamingSnapshotWrites(streamingSnapshotWrites);
 
         this.objectMapper = new HollowObjectMapper(writeEngine);
         if (hashCodeFinder != null) {
@@ -297,6 +323,10 @@ abstract class AbstractHollowProducer {
                 writeEngine.setTargetMaxTypeShardSize(targetMaxTypeShardSize);
                 writeEngine.allowTypeResharding(allowTypeResharding);
                 writeEngine.setFocusHoleFillInFewestShards(focusHoleFillInFewestShards);
+                writeEngine.setWriteTypeOffsetIndex(writeTypeOffsetIndex);
+                writeEngine.setOffHeapOrdinalMaps(offHeapOrdinalMaps);
+                writeEngine.setOrdinalMapPartitions(ordinalMapPartitions);
+                writeEngine.setStreamingSnapshotWrites(streamingSnapshotWrites);
                 HollowWriteStateCreator.populateStateEngineWithTypeWriteStates(writeEngine, schemas);
                 HollowObjectMapper newObjectMapper = new HollowObjectMapper(writeEngine);
                 if (hashCodeFinder != null) {
@@ -755,16 +785,19 @@ abstract class AbstractHollowProducer {
         try {
             ReadStateHelper result = readStates;
             HollowReadStateEngine pending = readStates.pending().getStateEngine();
+            pending.setMaintainIncrementalChecksums(incrementalChecksums);
             readSnapshot(artifacts.snapshot, pending);
 
             if (readStates.hasCurrent()) {
                 HollowReadStateEngine current = readStates.current().getStateEngine();
+                // the current state may have been restored, or read before incremental checksums were enabled
+                boolean incremental = HollowChecksum.canChecksumIncrementally(current, pending);
 
                 log.info("CHECKSUMS");
-                HollowChecksum currentChecksum = HollowChecksum.forStateEngineWithCommonSchemas(current, pending);
+                HollowChecksum currentChecksum = checksum(current, pending, incremental);
                 log.info("  CUR        " + currentChecksum);
 
-                HollowChecksum pendingChecksum = HollowChecksum.forStateEngineWithCommonSchemas(pending, current);
+                HollowChecksum pendingChecksum = checksum(pending, current, incremental);
                 log.info("         PND " + pendingChecksum);
 
                 if (artifacts.hasDelta()) {
@@ -774,14 +807,14 @@ abstract class AbstractHollowProducer {
 
                     // FIXME: timt: future cycles will fail unless both deltas validate
                     applyDelta(artifacts.delta, current);
-                    HollowChecksum forwardChecksum = HollowChecksum.forStateEngineWithCommonSchemas(current, pending);
+                    HollowChecksum forwardChecksum = checksum(current, pending, incremental);
                     //out.format("  CUR => PND %s\n", forwardChecksum);
                     if (!forwardChecksum.equals(pendingChecksum)) {
                         throw new HollowProducer.ChecksumValidationException(HollowProducer.Blob.Type.DELTA);
                     }
 
                     applyDelta(artifacts.reverseDelta, pending);
-                    HollowChecksum reverseChecksum = HollowChecksum.forStateEngineWithCommonSchemas(pending, current);
+                    HollowChecksum reverseChecksum = checksum(pending, current, incremental);
                     //out.format("  CUR <= PND %s\n", reverseChecksum);
                     if (!reverseChecksum.equals(currentChecksum)) {
                         throw new HollowProducer.ChecksumValidationException(HollowProducer.Blob.Type.REVERSE_DELTA);
@@ -808,6 +841,12 @@ abstract class AbstractHollowProducer {
         }
     }
 
+    private static HollowChecksum checksum(HollowReadStateEngine stateEngine, HollowReadStateEngine commonSchemasWithState, boolean incremental) {
+        return incremental
+                ? HollowChecksum.forStateEngineIncrementally(stateEngine, commonSchemasWithState)
+                : HollowChecksum.forStateEngineWithCommonSchemas(stateEngine, commonSchemasWithState);
+    }
+
     private ReadStateHelper noIntegrityCheck(ReadStateHelper readStates, Artifacts artifacts) throws IOException {
         ReadStateHelper result = readStates;
 
@@ -833,15 +872,45 @@ abstract class AbstractHollowProducer {
     }
 
     private void readSnapshot(HollowProducer.Blob blob, HollowReadStateEngine stateEngine) throws IOException {
-        try (HollowBlobInput in = HollowBlobInput.serial(blob.newInputStream())) {   // shared memory mode is not supported for producer
-            new HollowBlobReader(stateEngine, new HollowBlobHeaderReader()).readSnapshot(in);
+        // a staged snapshot that is an uncompressed file is mapped rather than read onto the heap
+        MemoryMode memoryMode = sharedMemoryReadStates && isMappable(blob) ? MemoryMode.SHARED_MEMORY_LAZY : MemoryMode.ON_HEAP;
+        try (HollowBlobInput in = blobInput(blob, memoryMode)) {
+            new HollowBlobReader(stateEngine, new HollowBlobHeaderReader(), memoryMode).readSnapshot(in);
         }
     }
 
     private void applyDelta(HollowProducer.Blob blob, HollowReadStateEngine stateEngine) throws IOException {
-        try (HollowBlobInput in = HollowBlobInput.serial(blob.newInputStream())) {   // shared memory mode is not supported for producer
-            new HollowBlobReader(stateEngine, new HollowBlobHeaderReader()).applyDelta(in);
+        MemoryMode memoryMode = memoryMode(stateEngine);
+        try (HollowBlobInput in = blobInput(blob, memoryMode)) {
+            new HollowBlobReader(stateEngine, new HollowBlobHeaderReader(), memoryMode).applyDelta(in);
+        }
+    }
+
+    private static HollowBlobInput blobInput(HollowProducer.Blob blob, MemoryMode memoryMode) throws IOException {
+        if (!memoryMode.isSharedMemory()) {
+            return HollowBlobInput.serial(blob.newInputStream());
+        }
+        if (!isMappable(blob)) {
+            throw new IllegalStateException("Cannot map blob of type " + blob.getType() + " into a read state in shared memory");
+        }
+        // the mapping remains valid once the staged file is cleaned up
+        return HollowBlobInput.randomAccess(blob.getPath().toFile(), memoryMode);
+    }
+
+    private static boolean isMappable(HollowProducer.Blob blob) {
+        return blob instanceof HollowFilesystemBlobStager.FilesystemBlob
+                && !((HollowFilesystemBlobStager.FilesystemBlob) blob).isCompressed();
+    }
+
+    /**
+     * The memory mode in which the state engine's snapshot was read, which all of its types share.
+     */
+    private static MemoryMode memoryMode(HollowReadStateEngine stateEngine) {
+        Collection<HollowTypeReadState> typeStates = stateEngine.getTypeStates();
+        if (typeStates.isEmpty()) {
+            return MemoryMode.ON_HEAP;
         }
+        return typeStates.iterator().next().getMemoryMode();
     }
 
     private void validate(ProducerListeners listeners, HollowProducer.ReadState readState) {
@@ -18,6 +18,7 @@ package com.netflix.hollow.api.producer;
 
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.util.stream.Stream;
 
 final class CloseableWriteState implements HollowProducer.WriteState, AutoCloseable {
     private final long version;
@@ -38,6 +39,13 @@ final class CloseableWriteState implements HollowProducer.WriteState, AutoClosea
         return objectMapper.add(o);
     }
 
+    @Override
+    public void addAll(Stream<?> objects) throws IllegalStateException {
+        ensureNotClosed();
+
+        objectMapper.addAll(objects);
+    }
+
     @Override
     public HollowObjectMapper getObjectMapper() throws IllegalStateException {
         ensureNotClosed();
@@ -43,6 +43,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * A HollowProducer is the top-level class used by producers of Hollow data to populate, publish, and announce data states.
@@ -422,6 +423,20 @@ public class HollowProducer extends AbstractHollowProducer {
          */
         int add(Object o) throws IllegalStateException;
 
+        /**
+         * Adds each of the specified POJOs to the state engine, concurrently if the stream is parallel. See
+         * {@link HollowObjectMapper#addAll(Stream)} for details.
+         *
+         * <p>Calling this method after the producer's populate stage has completed is an error.
+         *
+         * @param objects the POJOs to add
+         * @throws IllegalStateException if called after the populate stage has completed (see
+         * {@link Populator} for details on the contract)
+         */
+        default void addAll(Stream<?> objects) throws IllegalStateException {
+            getObjectMapper().addAll(objects);
+        }
+
         /**
          * For advanced use-cases, access the underlying {@link HollowObjectMapper}. Prefer using {@link #add(Object)}
          * on this class instead.
@@ -721,6 +736,12 @@ public class HollowProducer extends AbstractHollowProducer {
         int numStatesBetweenSnapshots = 0;
         boolean focusHoleFillInFewestShards = false;
         boolean allowTypeResharding = false;
+        boolean writeTypeOffsetIndex = false;
+        boolean offHeapOrdinalMaps = false;
+        int ordinalMapPartitions = 1;
+        boolean streamingSnapshotWrites = false;
+        boolean incrementalChecksums = false;
+        boolean sharedMemoryReadStates = false;
         long targetMaxTypeShardSize = DEFAULT_TARGET_MAX_TYPE_SHARD_SIZE;
         HollowMetricsCollector<HollowProducerMetrics> metricsCollector;
         BlobStorageCleaner blobStorageCleaner = new DummyBlobStorageCleaner();
@@ -876,6 +897,78 @@ public class HollowProducer extends AbstractHollowProducer {
             return (B) this;
         }
 
+        /**
+         * Experimental: Setting this will write a trailer to snapshot blobs recording the location of each type and type shard.
+         *
+         * Consumers which read snapshots from a local file can use it to skip over filtered types, and to locate types
+         * for parallel loading, without reading through each type's data. Consumers on older Hollow library versions ignore it.
+         */
+        public B withTypeOffsetIndex(boolean writeTypeOffsetIndex) {
+            this.writeTypeOffsetIndex = writeTypeOffsetIndex;
+            return (B) this;
+        }
+
+        /**
+         * Experimental: Setting this will store the serialized records of each type in direct memory, outside of the Java heap.
+         *
+         * This reduces the heap size required by, and the garbage collection pauses of, producers of large data sets.
+         * The direct memory limit of the JVM (-XX:MaxDirectMemorySize) must accommodate the data set.
+         */
+        public B withOffHeapOrdinalMaps(boolean offHeapOrdinalMaps) {
+            this.offHeapOrdinalMaps = offHeapOrdinalMaps;
+            return (B) this;
+        }
+
+        /**
+         * Experimental: Setting this will partition the hash table of each type's ordinal map into the given number of
+         * independently locked partitions.
+         *
+         * This reduces lock contention when many threads add records of the same type concurrently during a cycle.
+         * The number of partitions must be a power of 2 no greater than 64.
+         */
+        public B withOrdinalMapPartitions(int ordinalMapPartitions) {
+            this.ordinalMapPartitions = ordinalMapPartitions;
+            return (B) this;
+        }
+
+        /**
+         * Experimental: Setting this will write snapshots in bounded memory, rather than first calculating the snapshot
+         * of every type in parallel and then writing them.
+         *
+         * Object types are encoded directly to the stream from their serialized records, and the snapshot of each other
+         * type is calculated just before it is written.  The published snapshots are unchanged, but take longer to write.
+         */
+        public B withStreamingSnapshotWrites(boolean streamingSnapshotWrites) {
+            this.streamingSnapshotWrites = streamingSnapshotWrites;
+            return (B) this;
+        }
+
+        /**
+         * Experimental: Setting this will maintain an order-independent checksum of each type in the read states of the
+         * integrity check, which is updated from the records added and removed by the delta and reverse delta.
+         *
+         * This avoids traversing every record of the current and pending states to validate the delta and reverse delta
+         * of each cycle, at the cost of retaining a checksum of each record in both read states.
+         */
+        public B withIncrementalChecksums(boolean incrementalChecksums) {
+            this.incrementalChecksums = incrementalChecksums;
+            return (B) this;
+        }
+
+        /**
+         * Experimental: Setting this will map each staged snapshot into the pending read state, in the
+         * {@link com.netflix.hollow.core.memory.MemoryMode#SHARED_MEMORY_LAZY} mode, rather than deserializing the
+         * snapshot onto the heap.
+         *
+         * Snapshots are only mapped when staged uncompressed by a {@link HollowFilesystemBlobStager}, and are otherwise
+         * read as before.  Deltas applied to a mapped read state are written to the shared memory scratch directory of
+         * its state engine, see {@link HollowReadStateEngine#setSharedMemoryScratchDir(File)}.
+         */
+        public B withSharedMemoryReadStates(boolean sharedMemoryReadStates) {
+            this.sharedMemoryReadStates = sharedMemoryReadStates;
+            return (B) this;
+        }
+
         public B withMetricsCollector(HollowMetricsCollector<HollowProducerMetrics> metricsCollector) {
             this.metricsCollector = metricsCollector;
             return (B) this;
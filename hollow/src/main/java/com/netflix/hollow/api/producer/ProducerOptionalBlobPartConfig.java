@@ -20,9 +20,11 @@ import com.netflix.hollow.api.consumer.HollowConsumer;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -55,6 +57,39 @@ public class ProducerOptionalBlobPartConfig {
         }
     }
     
+    /**
+     * Assign the given types to {@code numParts} parts, named {@code partNamePrefix} followed by the part number, so that
+     * the total size of the types in each part is approximately equal.  Each part may then be published, retrieved and
+     * read concurrently with the others.
+     * <p>
+     * Types are assigned whole, largest first, to the part with the smallest total size so far.  A type may not be
+     * split between parts.
+     *
+     * @param partNamePrefix the prefix of the name of each part
+     * @param numParts the number of parts
+     * @param typeSizes the types to assign, with their (approximate) size in bytes, e.g. the size of each type in
+     *                  a prior snapshot
+     */
+    public void addTypesToBalancedParts(String partNamePrefix, int numParts, Map<String, Long> typeSizes) {
+        if(numParts < 1)
+            throw new IllegalArgumentException("Number of parts must be at least 1");
+
+        List<Map.Entry<String, Long>> types = new ArrayList<>(typeSizes.entrySet());
+        types.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        long partSizes[] = new long[numParts];
+        for(Map.Entry<String, Long> type : types) {
+            int smallestPart = 0;
+            for(int i=1;i<numParts;i++) {
+                if(partSizes[i] < partSizes[smallestPart])
+                    smallestPart = i;
+            }
+
+            partSizes[smallestPart] += type.getValue();
+            addTypesToPart(partNamePrefix + smallestPart, type.getKey());
+        }
+    }
+
     public Set<String> getParts() {
         return parts.keySet();
     }
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.api.producer.fs;
+
+import com.netflix.hollow.api.consumer.fs.HollowBlockCompressedBlobRetriever;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.core.compress.BlockCodec;
+import com.netflix.hollow.core.compress.BlockCompressedInputStream;
+import com.netflix.hollow.core.compress.BlockCompressedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A {@link HollowProducer.BlobCompressor} which writes block compressed blobs (see {@link BlockCompressedOutputStream}),
+ * compressing blocks concurrently.
+ * <p>
+ * Consumers may read the blobs with a {@link HollowBlockCompressedBlobRetriever}, configured with the same codec.
+ */
+public class HollowBlockBlobCompressor implements HollowProducer.BlobCompressor {
+
+    private final BlockCodec codec;
+    private final int blockSize;
+    private final int parallelism;
+
+    /**
+     * A compressor using the {@link BlockCodec#FAST} codec, the default block size and a thread per processor.
+     */
+    public HollowBlockBlobCompressor() {
+        this(BlockCodec.FAST, BlockCompressedOutputStream.DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param codec the codec with which to compress each block
+     * @param blockSize the uncompressed size of each block
+     * @param parallelism the number of blocks to compress or decompress concurrently
+     */
+    public HollowBlockBlobCompressor(BlockCodec codec, int blockSize, int parallelism) {
+        this.codec = codec;
+        this.blockSize = blockSize;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) {
+        try {
+            return new BlockCompressedOutputStream(os, codec, blockSize, parallelism);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) {
+        try {
+            return new BlockCompressedInputStream(is, codec, parallelism);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -224,6 +224,14 @@ public class HollowFilesystemBlobStager implements BlobStager {
             return path;
         }
 
+        /**
+         * @return whether the file at {@link #getPath()} is compressed, in which case it must be read through
+         * {@link #newInputStream()}
+         */
+        public boolean isCompressed() {
+            return compressor != BlobCompressor.NO_COMPRESSION;
+        }
+
         @Override
         public void write(HollowBlobWriter writer) throws IOException {
             Path parent = this.path.getParent();
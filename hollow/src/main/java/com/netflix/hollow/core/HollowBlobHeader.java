@@ -36,6 +36,10 @@ import java.util.Objects;
  *          
  *      <dt>Blob Format Version</dt>
  *      <dd>A 32-bit value used to identify the format of the hollow blob.</dd>
+ *
+ *      <dt>Blob Features</dt>
+ *      <dd>A set of flags identifying optional elements present in the blob, e.g. a {@link HollowBlobTypeOffsetIndex}.
+ *          Written in the header's forwards-compatibility envelope, so older readers ignore them.</dd>
  *      
  * </dl>
  * 
@@ -44,11 +48,15 @@ public class HollowBlobHeader {
 
     public static final int HOLLOW_BLOB_VERSION_HEADER = 1030;
 
+    /// the blob ends with a {@link HollowBlobTypeOffsetIndex} trailer
+    public static final int FEATURE_TYPE_OFFSET_INDEX = 1;
+
     private Map<String, String> headerTags = new HashMap<String, String>();
     private List<HollowSchema> schemas = new ArrayList<HollowSchema>();
     private long originRandomizedTag;
     private long destinationRandomizedTag;
     private int blobFormatVersion = HOLLOW_BLOB_VERSION_HEADER;
+    private int blobFeatures;
 
     public Map<String, String> getHeaderTags() {
         return headerTags;
@@ -90,6 +98,18 @@ public class HollowBlobHeader {
         return blobFormatVersion;
     }
 
+    public void setBlobFeatures(int blobFeatures) {
+        this.blobFeatures = blobFeatures;
+    }
+
+    public int getBlobFeatures() {
+        return blobFeatures;
+    }
+
+    public boolean hasBlobFeature(int feature) {
+        return (blobFeatures & feature) != 0;
+    }
+
     @Override
     public boolean equals(Object other) {
         if(other instanceof HollowBlobHeader) {
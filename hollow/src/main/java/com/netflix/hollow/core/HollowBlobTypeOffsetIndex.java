@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the location of each type, and each shard of each type, in the main part of a snapshot blob.
+ * <p>
+ * When the producer is configured to do so, the index is written as a trailer after the last type in the blob, and
+ * its presence is flagged in the blob header with {@link HollowBlobHeader#FEATURE_TYPE_OFFSET_INDEX}. Readers which
+ * have random access to the blob may use it to skip over types without reading through their data.
+ * <p>
+ * All offsets are in bytes, relative to the beginning of the blob.
+ */
+public class HollowBlobTypeOffsetIndex {
+
+    /// identifies the fixed-length footer at the very end of a blob which locates the index
+    public static final int TRAILER_FOOTER_MAGIC = 0x484F4C49;
+    public static final int TRAILER_FOOTER_LENGTH = 12;
+
+    private final List<TypeOffsets> types = new ArrayList<>();
+    private final Map<String, TypeOffsets> typesByName = new HashMap<>();
+
+    public void addType(TypeOffsets typeOffsets) {
+        types.add(typeOffsets);
+        typesByName.put(typeOffsets.getTypeName(), typeOffsets);
+    }
+
+    /**
+     * @return the location of each type, in the order the types appear in the blob
+     */
+    public List<TypeOffsets> getTypes() {
+        return Collections.unmodifiableList(types);
+    }
+
+    /**
+     * @param typeName the type name
+     * @return the location of the type, or null if the type is not present in the main part of the blob
+     */
+    public TypeOffsets getType(String typeName) {
+        return typesByName.get(typeName);
+    }
+
+    public static class TypeOffsets {
+        private final String typeName;
+        private final long offset;
+        private final long length;
+        private final long[] shardOffsets;
+        private final long[] shardLengths;
+
+        public TypeOffsets(String typeName, long offset, long length, long[] shardOffsets, long[] shardLengths) {
+            if(shardOffsets.length != shardLengths.length)
+                throw new IllegalArgumentException("Shard offsets and lengths must have the same number of elements");
+            this.typeName = typeName;
+            this.offset = offset;
+            this.length = length;
+            this.shardOffsets = shardOffsets;
+            this.shardLengths = shardLengths;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        /**
+         * @return the offset of the type's schema, which is the first element written for a type
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return the total length of the type, including its schema, shard data and populated ordinals
+         */
+        public long getLength() {
+            return length;
+        }
+
+        public long getEndOffset() {
+            return offset + length;
+        }
+
+        public int getNumShards() {
+            return shardOffsets.length;
+        }
+
+        public long getShardOffset(int shardNumber) {
+            return shardOffsets[shardNumber];
+        }
+
+        public long getShardLength(int shardNumber) {
+            return shardLengths[shardNumber];
+        }
+    }
+}
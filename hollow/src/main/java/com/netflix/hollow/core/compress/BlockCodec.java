@@ -0,0 +1,60 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.compress;
+
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * A BlockCodec compresses and decompresses independent blocks of a block compressed blob (see
+ * {@link BlockCompressedOutputStream}).  Implementations must be thread-safe, since blocks are compressed and
+ * decompressed concurrently.
+ * <p>
+ * A blob must be decompressed with the same codec with which it was compressed.
+ */
+public interface BlockCodec {
+
+    /**
+     * A pure-Java LZ77 codec, which favors compression and decompression speed over compression ratio.
+     */
+    BlockCodec FAST = new LZBlockCodec();
+
+    /**
+     * A DEFLATE codec, at the fastest compression level.
+     */
+    BlockCodec DEFLATE = new DeflateBlockCodec(Deflater.BEST_SPEED);
+
+    /**
+     * @param src the uncompressed data
+     * @param off the offset of the block in {@code src}
+     * @param len the length of the block
+     * @return the compressed block
+     */
+    byte[] compress(byte[] src, int off, int len);
+
+    /**
+     * @param src the compressed data
+     * @param srcOff the offset of the compressed block in {@code src}
+     * @param srcLen the length of the compressed block
+     * @param dest the array to decompress the block into
+     * @param destOff the offset in {@code dest} to decompress the block into
+     * @param destLen the uncompressed length of the block
+     * @throws IOException if the compressed block is corrupt
+     */
+    void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int destLen) throws IOException;
+
+}
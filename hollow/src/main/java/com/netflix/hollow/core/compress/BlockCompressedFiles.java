@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.compress;
+
+import com.netflix.hollow.core.util.SimultaneousExecutor;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Utilities for block compressed blobs which are available as files.
+ */
+public class BlockCompressedFiles {
+
+    private BlockCompressedFiles() { }
+
+    /**
+     * @param file the file
+     * @return whether the file is a complete block compressed blob
+     * @throws IOException if the file could not be read
+     */
+    public static boolean isBlockCompressed(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if(raf.length() < 8 + 4 + 4 + BlockCompressedOutputStream.FOOTER_SIZE)
+                return false;
+            if(raf.readInt() != BlockCompressedOutputStream.MAGIC)
+                return false;
+            raf.seek(raf.length() - 4);
+            return raf.readInt() == BlockCompressedOutputStream.MAGIC;
+        }
+    }
+
+    /**
+     * Decompress a block compressed blob into a file.  The blocks are located with the blob's index, then read,
+     * decompressed and written to their position in {@code dest} concurrently.
+     *
+     * @param src the block compressed blob
+     * @param dest the file to write the decompressed blob to
+     * @param codec the codec with which each block was compressed
+     * @param parallelism the number of blocks to decompress concurrently
+     * @throws IOException if the blob could not be read or is corrupt, or the decompressed blob could not be written
+     */
+    public static void decompress(File src, File dest, BlockCodec codec, int parallelism) throws IOException {
+        try (RandomAccessFile srcFile = new RandomAccessFile(src, "r");
+             RandomAccessFile destFile = new RandomAccessFile(dest, "rw")) {
+            if(srcFile.readInt() != BlockCompressedOutputStream.MAGIC)
+                throw new IOException("Not a block compressed blob: " + src);
+
+            srcFile.seek(srcFile.length() - BlockCompressedOutputStream.FOOTER_SIZE);
+            long indexOffset = srcFile.readLong();
+            if(srcFile.readInt() != BlockCompressedOutputStream.MAGIC)
+                throw new IOException("Block compressed blob is truncated: " + src);
+
+            srcFile.seek(indexOffset);
+            int numBlocks = srcFile.readInt();
+            long blockOffsets[] = new long[numBlocks];
+            int uncompressedLengths[] = new int[numBlocks];
+            int compressedLengths[] = new int[numBlocks];
+            long decompressedLength = 0;
+            for(int i=0;i<numBlocks;i++) {
+                blockOffsets[i] = srcFile.readLong();
+                uncompressedLengths[i] = srcFile.readInt();
+                compressedLengths[i] = srcFile.readInt();
+                decompressedLength += uncompressedLengths[i];
+            }
+            destFile.setLength(decompressedLength);
+
+            FileChannel srcChannel = srcFile.getChannel();
+            FileChannel destChannel = destFile.getChannel();
+            SimultaneousExecutor executor = new SimultaneousExecutor(parallelism, BlockCompressedFiles.class, "decompress");
+
+            long destOffset = 0;
+            for(int i=0;i<numBlocks;i++) {
+                final long blockOffset = blockOffsets[i] + 8;
+                final int uncompressedLength = uncompressedLengths[i];
+                final int compressedLength = compressedLengths[i];
+                final long blockDestOffset = destOffset;
+                executor.execute(() -> {
+                    try {
+                        byte compressed[] = new byte[compressedLength];
+                        readFully(srcChannel, ByteBuffer.wrap(compressed), blockOffset);
+                        byte block[] = new byte[uncompressedLength];
+                        codec.decompress(compressed, 0, compressedLength, block, 0, uncompressedLength);
+                        writeFully(destChannel, ByteBuffer.wrap(block), blockDestOffset);
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                destOffset += uncompressedLength;
+            }
+
+            try {
+                executor.awaitSuccessfulCompletion();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while decompressing " + src);
+            } catch(ExecutionException e) {
+                if(e.getCause() instanceof UncheckedIOException)
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                throw new IOException("Failed to decompress " + src, e.getCause());
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if(n < 0)
+                throw new IOException("Block compressed blob is truncated");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining())
+            channel.write(buffer, position + buffer.position());
+    }
+
+}
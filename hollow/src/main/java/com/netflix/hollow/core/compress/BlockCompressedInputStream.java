@@ -0,0 +1,158 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.compress;
+
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An InputStream which reads a blob written by a {@link BlockCompressedOutputStream}.  Compressed blocks are read
+ * ahead of the current position, and decompressed concurrently.
+ */
+public class BlockCompressedInputStream extends InputStream {
+
+    private final DataInputStream in;
+    private final BlockCodec codec;
+    private final int maxPendingBlocks;
+    private final ExecutorService executor;
+    private final ArrayDeque<Future<byte[]>> pendingBlocks;
+
+    private boolean endOfBlocks;
+    private byte currentBlock[];
+    private int currentPosition;
+
+    /**
+     * @param in the stream from which to read the compressed blob
+     * @param codec the codec with which each block was compressed
+     * @param parallelism the number of blocks to decompress concurrently
+     * @throws IOException if the header could not be read, or {@code in} is not a block compressed blob
+     */
+    public BlockCompressedInputStream(InputStream in, BlockCodec codec, int parallelism) throws IOException {
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+
+        this.in = new DataInputStream(in);
+        this.codec = codec;
+        this.maxPendingBlocks = parallelism * 2;
+        this.pendingBlocks = new ArrayDeque<>();
+
+        if(this.in.readInt() != BlockCompressedOutputStream.MAGIC)
+            throw new IOException("Not a block compressed blob");
+        this.in.readInt(); // block size
+
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                r -> daemonThread(r, BlockCompressedInputStream.class, "decompress"));
+    }
+
+    @Override
+    public int read() throws IOException {
+        if(!ensureAvailable())
+            return -1;
+        return currentBlock[currentPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if(len == 0)
+            return 0;
+        if(!ensureAvailable())
+            return -1;
+
+        int n = Math.min(len, currentBlock.length - currentPosition);
+        System.arraycopy(currentBlock, currentPosition, b, off, n);
+        currentPosition += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while(skipped < n && ensureAvailable()) {
+            int s = (int)Math.min(n - skipped, currentBlock.length - currentPosition);
+            currentPosition += s;
+            skipped += s;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return currentBlock == null ? 0 : currentBlock.length - currentPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        in.close();
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        while(currentBlock == null || currentPosition == currentBlock.length) {
+            readAhead();
+            if(pendingBlocks.isEmpty())
+                return false;
+
+            currentBlock = awaitBlock(pendingBlocks.poll());
+            currentPosition = 0;
+            readAhead();
+        }
+        return true;
+    }
+
+    private void readAhead() throws IOException {
+        while(!endOfBlocks && pendingBlocks.size() < maxPendingBlocks) {
+            int uncompressedLength = in.readInt();
+            if(uncompressedLength == -1) {
+                endOfBlocks = true;
+                return;
+            }
+
+            int compressedLength = in.readInt();
+            final byte compressed[] = new byte[compressedLength];
+            in.readFully(compressed);
+
+            pendingBlocks.add(executor.submit(() -> {
+                byte block[] = new byte[uncompressedLength];
+                codec.decompress(compressed, 0, compressedLength, block, 0, uncompressedLength);
+                return block;
+            }));
+        }
+    }
+
+    private static byte[] awaitBlock(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing block");
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException)
+                throw (IOException)e.getCause();
+            throw new IOException("Failed to decompress block", e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.compress;
+
+import static com.netflix.hollow.core.util.Threads.daemonThread;
+
+import com.netflix.hollow.core.util.IntList;
+import com.netflix.hollow.core.util.LongList;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An OutputStream which writes a block compressed blob.  The written data is divided into fixed size blocks, which are
+ * compressed concurrently and independently of each other with a {@link BlockCodec}.
+ * <p>
+ * The format of a block compressed blob is:
+ * <ul>
+ * <li>the header: the int {@link #MAGIC} and the int block size</li>
+ * <li>each block: the int uncompressed length, the int compressed length, then the compressed data</li>
+ * <li>the int -1, marking the end of the blocks</li>
+ * <li>the index: the int number of blocks, then for each block the long offset of the block in the blob,
+ * the int uncompressed length and the int compressed length</li>
+ * <li>the footer: the long offset of the index in the blob and the int {@link #MAGIC}</li>
+ * </ul>
+ * The blocks may be read sequentially with a {@link BlockCompressedInputStream}, or, when the blob is a file, located
+ * with the index and decompressed concurrently with {@link BlockCompressedFiles#decompress}.
+ */
+public class BlockCompressedOutputStream extends OutputStream {
+
+    public static final int MAGIC = 0x484C4243;
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    static final int FOOTER_SIZE = 12;
+
+    private final DataOutputStream out;
+    private final BlockCodec codec;
+    private final int maxPendingBlocks;
+    private final ExecutorService executor;
+    private final ArrayDeque<Future<CompressedBlock>> pendingBlocks;
+
+    private final LongList blockOffsets;
+    private final IntList uncompressedLengths;
+    private final IntList compressedLengths;
+
+    private byte buffer[];
+    private int count;
+    private long position;
+    private boolean closed;
+
+    /**
+     * @param out the stream to write the compressed blob to
+     * @param codec the codec with which to compress each block
+     * @param blockSize the uncompressed size of each block
+     * @param parallelism the number of blocks to compress concurrently
+     * @throws IOException if the header could not be written
+     */
+    public BlockCompressedOutputStream(OutputStream out, BlockCodec codec, int blockSize, int parallelism) throws IOException {
+        if(blockSize < 1)
+            throw new IllegalArgumentException("Block size must be at least 1");
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+
+        this.out = new DataOutputStream(out);
+        this.codec = codec;
+        this.maxPendingBlocks = parallelism * 2;
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                r -> daemonThread(r, BlockCompressedOutputStream.class, "compress"));
+        this.pendingBlocks = new ArrayDeque<>();
+        this.blockOffsets = new LongList();
+        this.uncompressedLengths = new IntList();
+        this.compressedLengths = new IntList();
+        this.buffer = new byte[blockSize];
+
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(blockSize);
+        this.position = 8;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        buffer[count++] = (byte)b;
+        if(count == buffer.length)
+            submitBlock();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while(len > 0) {
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if(count == buffer.length)
+                submitBlock();
+        }
+    }
+
+    /**
+     * Flushes the blocks which have been compressed.  A partially filled block is not compressed until it is filled, or
+     * the stream is closed.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(closed)
+            return;
+        closed = true;
+
+        try {
+            if(count > 0)
+                submitBlock();
+            while(!pendingBlocks.isEmpty())
+                writeBlock(pendingBlocks.poll());
+
+            out.writeInt(-1);
+            long indexOffset = position + 4;
+
+            out.writeInt(blockOffsets.size());
+            for(int i=0;i<blockOffsets.size();i++) {
+                out.writeLong(blockOffsets.get(i));
+                out.writeInt(uncompressedLengths.get(i));
+                out.writeInt(compressedLengths.get(i));
+            }
+
+            out.writeLong(indexOffset);
+            out.writeInt(MAGIC);
+            out.close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte block[] = buffer;
+        final int length = count;
+        pendingBlocks.add(executor.submit(() -> new CompressedBlock(length, codec.compress(block, 0, length))));
+
+        buffer = new byte[buffer.length];
+        count = 0;
+
+        while(pendingBlocks.size() > maxPendingBlocks)
+            writeBlock(pendingBlocks.poll());
+    }
+
+    private void writeBlock(Future<CompressedBlock> future) throws IOException {
+        CompressedBlock block;
+        try {
+            block = future.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing block");
+        } catch(ExecutionException e) {
+            throw new IOException("Failed to compress block", e.getCause());
+        }
+
+        blockOffsets.add(position);
+        uncompressedLengths.add(block.uncompressedLength);
+        compressedLengths.add(block.data.length);
+
+        out.writeInt(block.uncompressedLength);
+        out.writeInt(block.data.length);
+        out.write(block.data);
+        position += 8 + block.data.length;
+    }
+
+    private static class CompressedBlock {
+        private final int uncompressedLength;
+        private final byte data[];
+
+        private CompressedBlock(int uncompressedLength, byte[] data) {
+            this.uncompressedLength = uncompressedLength;
+            this.data = data;
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link BlockCodec} which compresses each block with DEFLATE.
+ */
+public class DeflateBlockCodec implements BlockCodec {
+
+    private final int level;
+
+    /**
+     * @param level the compression level, see {@link Deflater#setLevel(int)}
+     */
+    public DeflateBlockCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte[] compress(byte[] src, int off, int len) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(src, off, len);
+            deflater.finish();
+
+            byte[] dest = new byte[len + (len >>> 8) + 64];
+            int destLen = 0;
+            while(!deflater.finished()) {
+                if(destLen == dest.length)
+                    dest = Arrays.copyOf(dest, dest.length * 2);
+                destLen += deflater.deflate(dest, destLen, dest.length - destLen);
+            }
+            return Arrays.copyOf(dest, destLen);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int destLen) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(src, srcOff, srcLen);
+            byte overflow[] = new byte[1];
+            int inflated = 0;
+            while(!inflater.finished()) {
+                int remaining = destLen - inflated;
+                int n = remaining > 0 ? inflater.inflate(dest, destOff + inflated, remaining) : inflater.inflate(overflow);
+                if((n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) || (remaining == 0 && n > 0))
+                    throw new IOException("Corrupt DEFLATE block");
+                inflated += n;
+            }
+            if(inflated != destLen)
+                throw new IOException("Corrupt DEFLATE block");
+        } catch(DataFormatException e) {
+            throw new IOException("Corrupt DEFLATE block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
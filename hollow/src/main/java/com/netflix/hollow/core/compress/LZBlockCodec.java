@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A pure-Java LZ77 {@link BlockCodec}, with a sequence format similar to LZ4.
+ * <p>
+ * A compressed block is a series of sequences.  Each sequence is a token byte, whose high 4 bits are the number of
+ * literal bytes and low 4 bits the length of the following match less {@value #MIN_MATCH}, then the literal bytes,
+ * then the 2 byte little-endian offset of the match back from the current position.  A length of 15 in the token is
+ * continued by bytes which are added to it, up to and including the first byte which is not 255.  The last sequence
+ * contains only literals.
+ */
+public class LZBlockCodec implements BlockCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 65535;
+    private static final int HASH_LOG = 14;
+    private static final int SKIP_TRIGGER = 6;
+
+    @Override
+    public byte[] compress(byte[] src, int off, int len) {
+        byte[] dest = new byte[len + (len / 255) + 16];
+        int hashTable[] = new int[1 << HASH_LOG];
+        Arrays.fill(hashTable, -1);
+
+        int end = off + len;
+        int matchLimit = end - MIN_MATCH;
+        int anchor = off;
+        int pos = off;
+        int destPos = 0;
+
+        while(pos <= matchLimit) {
+            int sequence = readInt(src, pos);
+            int hash = hash(sequence);
+            int ref = hashTable[hash];
+            hashTable[hash] = pos;
+
+            if(ref >= 0 && pos - ref <= MAX_OFFSET && readInt(src, ref) == sequence) {
+                int matchLength = MIN_MATCH;
+                while(pos + matchLength < end && src[ref + matchLength] == src[pos + matchLength])
+                    matchLength++;
+
+                destPos = writeSequence(dest, destPos, src, anchor, pos - anchor, pos - ref, matchLength);
+                pos += matchLength;
+                anchor = pos;
+            } else {
+                // step faster through data which is not matching
+                pos += 1 + ((pos - anchor) >>> SKIP_TRIGGER);
+            }
+        }
+
+        destPos = writeLastLiterals(dest, destPos, src, anchor, end - anchor);
+        return Arrays.copyOf(dest, destPos);
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int destLen) throws IOException {
+        int srcPos = srcOff;
+        int srcEnd = srcOff + srcLen;
+        int destPos = destOff;
+        int destEnd = destOff + destLen;
+
+        try {
+            while(true) {
+                int token = src[srcPos++] & 0xFF;
+
+                int literalLength = token >>> 4;
+                if(literalLength == 15) {
+                    int b;
+                    do {
+                        b = src[srcPos++] & 0xFF;
+                        literalLength += b;
+                    } while(b == 255);
+                }
+
+                if(srcPos + literalLength > srcEnd || destPos + literalLength > destEnd)
+                    throw new IOException("Corrupt LZ block");
+                System.arraycopy(src, srcPos, dest, destPos, literalLength);
+                srcPos += literalLength;
+                destPos += literalLength;
+
+                if(srcPos == srcEnd)
+                    break;
+
+                int offset = (src[srcPos++] & 0xFF) | ((src[srcPos++] & 0xFF) << 8);
+                int matchLength = token & 0x0F;
+                if(matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[srcPos++] & 0xFF;
+                        matchLength += b;
+                    } while(b == 255);
+                }
+                matchLength += MIN_MATCH;
+
+                int ref = destPos - offset;
+                if(offset == 0 || ref < destOff || destPos + matchLength > destEnd)
+                    throw new IOException("Corrupt LZ block");
+
+                if(offset >= matchLength) {
+                    System.arraycopy(dest, ref, dest, destPos, matchLength);
+                } else {
+                    for(int i=0;i<matchLength;i++)
+                        dest[destPos + i] = dest[ref + i];
+                }
+                destPos += matchLength;
+            }
+        } catch(ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Corrupt LZ block", e);
+        }
+
+        if(destPos != destEnd)
+            throw new IOException("Corrupt LZ block");
+    }
+
+    private static int writeSequence(byte[] dest, int destPos, byte[] src, int literalStart, int literalLength, int offset, int matchLength) {
+        int tokenPos = destPos++;
+        int encodedMatchLength = matchLength - MIN_MATCH;
+
+        if(literalLength >= 15)
+            destPos = writeLength(dest, destPos, literalLength - 15);
+        System.arraycopy(src, literalStart, dest, destPos, literalLength);
+        destPos += literalLength;
+
+        dest[destPos++] = (byte)offset;
+        dest[destPos++] = (byte)(offset >>> 8);
+
+        if(encodedMatchLength >= 15)
+            destPos = writeLength(dest, destPos, encodedMatchLength - 15);
+
+        dest[tokenPos] = (byte)((Math.min(literalLength, 15) << 4) | Math.min(encodedMatchLength, 15));
+        return destPos;
+    }
+
+    private static int writeLastLiterals(byte[] dest, int destPos, byte[] src, int literalStart, int literalLength) {
+        dest[destPos++] = (byte)(Math.min(literalLength, 15) << 4);
+        if(literalLength >= 15)
+            destPos = writeLength(dest, destPos, literalLength - 15);
+        System.arraycopy(src, literalStart, dest, destPos, literalLength);
+        return destPos + literalLength;
+    }
+
+    private static int writeLength(byte[] dest, int destPos, int length) {
+        while(length >= 255) {
+            dest[destPos++] = (byte)255;
+            length -= 255;
+        }
+        dest[destPos++] = (byte)length;
+        return destPos;
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8) | ((data[pos + 2] & 0xFF) << 16) | (data[pos + 3] << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+}
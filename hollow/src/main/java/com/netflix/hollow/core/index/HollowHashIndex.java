@@ -28,6 +28,7 @@ import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
+import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import java.util.Arrays;
 import java.util.logging.Level;
@@ -52,6 +53,8 @@ public class HollowHashIndex implements HollowTypeStateListener {
     private final String selectField;
     private final String[] matchFields;
 
+    private boolean incrementalDeltaUpdates;
+
     /**
      * This constructor is for binary-compatibility for code compiled against
      * older builds. 
@@ -147,7 +150,7 @@ public class HollowHashIndex implements HollowTypeStateListener {
             boolean bucketIsEmpty = hashState.getMatchHashTable().getElementValue(hashBucketBit, hashState.getBitsPerTraverserField()[0]) == 0;
 
             while (!bucketIsEmpty) {
-                if (matchIsEqual(hashState.getMatchHashTable(), hashBucketBit, query)) {
+                if (matchIsEqual(hashState, hashBucketBit, query)) {
                     int selectSize = (int) hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey(), hashState.getBitsPerSelectTableSize());
                     long selectBucketPointer = hashState.getMatchHashTable().getElementValue(hashBucketBit + hashState.getBitsPerMatchHashKey() + hashState.getBitsPerSelectTableSize(), hashState.getBitsPerSelectTablePointer());
 
@@ -182,14 +185,14 @@ public class HollowHashIndex implements HollowTypeStateListener {
         case BYTES:
             return HashCodes.hashCode((byte[])key);
         case STRING:
-            return HashCodes.hashCode((String)key);
+            return HashCodes.hashCode((CharSequence)key);
         }
 
         throw new IllegalArgumentException("I don't know how to hash a " + hashState.getMatchFields()[fieldIdx].getFieldType());
     }
 
-    private boolean matchIsEqual(FixedLengthElementArray matchHashTable, long hashBucketBit, Object[] query) {
-        HollowHashIndexState hashState = hashStateVolatile;
+    private boolean matchIsEqual(HollowHashIndexState hashState, long hashBucketBit, Object[] query) {
+        FixedLengthElementArray matchHashTable = hashState.getMatchHashTable();
         for(int i = 0; i< hashState.getMatchFields().length; i++) {
             HollowHashIndexField field = hashState.getMatchFields()[i];
             int hashOrdinal = (int)matchHashTable.getElementValue(hashBucketBit + hashState.getOffsetPerTraverserField()[field.getBaseIteratorFieldIdx()], hashState.getBitsPerTraverserField()[field.getBaseIteratorFieldIdx()]) - 1;
@@ -236,6 +239,25 @@ public class HollowHashIndex implements HollowTypeStateListener {
         ((HollowObjectTypeReadState) typeState).addListener(this);
     }
 
+    /**
+     * Once called, this HollowHashIndex will be kept up-to-date when deltas are applied to the indexed state engine.
+     * <p>
+     * If incremental, the index is patched for only the records added and removed by each delta rather than being
+     * rebuilt, which is considerably cheaper when a delta changes few records. Incremental updates require the
+     * select field to be "" (i.e. the index selects records of the indexed type). The index is rebuilt instead if
+     * this is not the case, if a delta changes more than a tenth of the records, or if the changes do not fit within
+     * the current index.
+     * <p>
+     * This method should be called <b>before</b> any subsequent deltas occur after the index is created.
+     *
+     * @param incremental true if the index should be patched, rather than rebuilt, for each delta where possible
+     * @see #listenForDeltaUpdates()
+     */
+    public void listenForDeltaUpdates(boolean incremental) {
+        this.incrementalDeltaUpdates = incremental;
+        listenForDeltaUpdates();
+    }
+
     /**
      * Once called, this HollowHashIndex will no longer be kept up-to-date when deltas are applied to the indexed state engine.
      * <p>
@@ -260,12 +282,33 @@ public class HollowHashIndex implements HollowTypeStateListener {
 
     @Override
     public void endUpdate() {
-        if (hashStateVolatile == null) {
+        HollowHashIndexState hashState = hashStateVolatile;
+        if (hashState == null) {
             return;
         }
+        if (incrementalDeltaUpdates && "".equals(selectField)) {
+            HollowHashIndexState updatedHashState = applyDeltaIncrementally(hashState);
+            if (updatedHashState != null) {
+                this.hashStateVolatile = updatedHashState;
+                return;
+            }
+        }
         reindexHashIndex();
     }
 
+    private HollowHashIndexState applyDeltaIncrementally(HollowHashIndexState hashState) {
+        HollowPreindexer preindexer = new HollowPreindexer(hollowDataAccess, type, selectField, matchFields);
+        try {
+            preindexer.buildFieldSpecifications();
+        } catch (FieldPaths.FieldPathException e) {
+            return null;
+        }
+
+        PopulatedOrdinalListener listener = ((HollowObjectTypeReadState) typeState).getListener(PopulatedOrdinalListener.class);
+        return new HollowHashIndexDeltaUpdater(hashState, preindexer)
+                .applyDelta(listener.getPreviousOrdinals(), listener.getPopulatedOrdinals());
+    }
+
     /**
      * @return state engine.
      * @throws ClassCastException thrown if the underlying hollowDataAccess is not a state engine. This occurs if the
@@ -304,6 +347,9 @@ public class HollowHashIndex implements HollowTypeStateListener {
         private final int[] offsetPerTraverserField;
         private final int bitsPerSelectTableSize;
         private final int bitsPerSelectTablePointer;
+        private final long matchCount;
+        private final long selectArrayBuckets;
+        private final long selectArrayHoleBuckets;
 
         public HollowHashIndexState(HollowHashIndexBuilder builder) {
             matchHashTable = builder.getFinalMatchHashTable();
@@ -317,6 +363,27 @@ public class HollowHashIndex implements HollowTypeStateListener {
             bitsPerSelectTableSize = builder.getFinalBitsPerSelectTableSize();
             bitsPerSelectTablePointer = builder.getFinalBitsPerSelectTablePointer();
             bitsPerSelectHashEntry = builder.getBitsPerSelectHashEntry();
+            matchCount = builder.getMatchCount();
+            selectArrayBuckets = builder.getFinalSelectArrayBuckets();
+            selectArrayHoleBuckets = 0;
+        }
+
+        HollowHashIndexState(HollowHashIndexState from, FixedLengthElementArray matchHashTable, FixedLengthElementArray selectHashArray,
+                long matchCount, long selectArrayBuckets, long selectArrayHoleBuckets) {
+            this.matchHashTable = matchHashTable;
+            this.selectHashArray = selectHashArray;
+            this.matchFields = from.matchFields;
+            this.matchHashMask = from.matchHashMask;
+            this.bitsPerMatchHashKey = from.bitsPerMatchHashKey;
+            this.bitsPerMatchHashEntry = from.bitsPerMatchHashEntry;
+            this.bitsPerTraverserField = from.bitsPerTraverserField;
+            this.offsetPerTraverserField = from.offsetPerTraverserField;
+            this.bitsPerSelectTableSize = from.bitsPerSelectTableSize;
+            this.bitsPerSelectTablePointer = from.bitsPerSelectTablePointer;
+            this.bitsPerSelectHashEntry = from.bitsPerSelectHashEntry;
+            this.matchCount = matchCount;
+            this.selectArrayBuckets = selectArrayBuckets;
+            this.selectArrayHoleBuckets = selectArrayHoleBuckets;
         }
 
         public FixedLengthElementArray getSelectHashArray() {
@@ -362,6 +429,21 @@ public class HollowHashIndex implements HollowTypeStateListener {
         public int getBitsPerSelectTablePointer() {
             return bitsPerSelectTablePointer;
         }
+
+        long getMatchCount() {
+            return matchCount;
+        }
+
+        /**
+         * @return the number of buckets in the select array, including those in holes left by incremental updates
+         */
+        long getSelectArrayBuckets() {
+            return selectArrayBuckets;
+        }
+
+        long getSelectArrayHoleBuckets() {
+            return selectArrayHoleBuckets;
+        }
     }
 
     @Override
@@ -49,6 +49,7 @@ public class HollowHashIndexBuilder {
     private int finalBitsPerMatchHashEntry;
     private int finalBitsPerSelectTableSize;
     private int finalBitsPerSelectTablePointer;
+    private long finalSelectArrayBuckets;
 
     private GrowingSegmentedLongArray matchIndexHashAndSizeArray;
     private FixedLengthElementArray intermediateMatchHashTable;
@@ -253,6 +254,7 @@ public class HollowHashIndexBuilder {
         this.finalBitsPerSelectTablePointer = bitsPerFinalSelectBucketPointer;
         this.finalBitsPerSelectTableSize = bitsPerSelectTableSize;
         this.finalMatchHashMask = finalMatchHashMask;
+        this.finalSelectArrayBuckets = totalNumberOfSelectBuckets;
     }
 
     private void growIntermediateHashTable() {
@@ -446,6 +448,14 @@ public class HollowHashIndexBuilder {
         return finalBitsPerSelectTablePointer;
     }
 
+    int getMatchCount() {
+        return matchCount;
+    }
+
+    long getFinalSelectArrayBuckets() {
+        return finalSelectArrayBuckets;
+    }
+
     public FixedLengthElementArray getFinalSelectHashArray() {
         return finalSelectHashArray;
     }
@@ -0,0 +1,467 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.index;
+
+import static com.netflix.hollow.core.memory.FixedLengthData.bitsRequiredToRepresentValue;
+
+import com.netflix.hollow.core.HollowConstants;
+import com.netflix.hollow.core.index.HollowHashIndex.HollowHashIndexState;
+import com.netflix.hollow.core.index.HollowHashIndexField.FieldPathSegment;
+import com.netflix.hollow.core.index.traversal.HollowIndexerValueTraverser;
+import com.netflix.hollow.core.memory.encoding.CopyOnWriteFixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import com.netflix.hollow.core.read.HollowReadFieldUtils;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Patches a {@link HollowHashIndexState} for the records added and removed by a delta, rather than rebuilding it.
+ * <p>
+ * Only the match entries whose keys are derived from a changed record are touched. The patched match hash table and
+ * select array share the segments of the current ones, and a segment is copied only before it is first written, so
+ * that readers of the current state are unaffected until the patched state is published. The select set of a match entry is rewritten in place when it still fits, and is otherwise
+ * appended to the end of the select array, leaving a hole which is reclaimed by the next full rebuild.
+ * <p>
+ * Incremental updates require that the index selects records of the indexed type, since only then does removing a
+ * record identify exactly which select ordinals to remove. The stored key of a match entry which lost records is
+ * re-derived from one of its remaining records, so that it never refers to a record which may be removed.
+ */
+class HollowHashIndexDeltaUpdater {
+
+    /**
+     * Above this fraction of changed records, rebuilding the index is cheaper than patching it.
+     */
+    private static final double MAX_CHANGED_RECORDS_FRACTION = 0.1d;
+
+    private final HollowHashIndexState state;
+    private final HollowIndexerValueTraverser traverser;
+    private final HollowHashIndexField[] matchFields;
+    private final int numMatchTraverserFields;
+    private final int selectTraverserField;
+
+    private long matchCount;
+    private long selectArrayBuckets;
+    private long selectArrayHoleBuckets;
+
+    HollowHashIndexDeltaUpdater(HollowHashIndexState state, HollowPreindexer preindexer) {
+        this.state = state;
+        this.traverser = preindexer.getTraverser();
+        this.matchFields = preindexer.getMatchFieldSpecs();
+        this.numMatchTraverserFields = preindexer.getNumMatchTraverserFields();
+        this.selectTraverserField = preindexer.getSelectFieldSpec().getBaseIteratorFieldIdx();
+    }
+
+    /**
+     * @param previousOrdinals the populated ordinals of the indexed type before the delta
+     * @param populatedOrdinals the populated ordinals of the indexed type after the delta
+     * @return the patched state, or null if the delta cannot be applied incrementally and the index should be rebuilt
+     */
+    HollowHashIndexState applyDelta(BitSet previousOrdinals, BitSet populatedOrdinals) {
+        for(int i=0;i<traverser.getNumFieldPaths();i++) {
+            int maxOrdinal = traverser.getFieldTypeDataAccess(i).getTypeState().maxOrdinal();
+            if(bitsRequiredToRepresentValue(maxOrdinal + 1) > state.getBitsPerTraverserField()[i])
+                return null;
+        }
+
+        BitSet removedOrdinals = (BitSet) previousOrdinals.clone();
+        removedOrdinals.andNot(populatedOrdinals);
+        BitSet addedOrdinals = (BitSet) populatedOrdinals.clone();
+        addedOrdinals.andNot(previousOrdinals);
+
+        if(removedOrdinals.cardinality() + addedOrdinals.cardinality() > previousOrdinals.cardinality() * MAX_CHANGED_RECORDS_FRACTION)
+            return null;
+
+        Map<MatchKey, MatchChanges> changes = new LinkedHashMap<>();
+        collectChanges(removedOrdinals, changes, true);
+        collectChanges(addedOrdinals, changes, false);
+
+        List<MatchUpdate> updates = planUpdates(changes.values());
+        if(updates == null)
+            return null;
+
+        return patch(updates);
+    }
+
+    private void collectChanges(BitSet ordinals, Map<MatchKey, MatchChanges> changes, boolean removed) {
+        int ordinal = ordinals.nextSetBit(0);
+        while(ordinal != HollowConstants.ORDINAL_NONE) {
+            // removed records remain readable until the next delta is applied
+            traverser.traverse(ordinal);
+
+            for(int i=0;i<traverser.getNumMatches();i++) {
+                MatchKey key = new MatchKey(matchKeyOrdinals(i));
+                MatchChanges matchChanges = changes.computeIfAbsent(key, MatchChanges::new);
+                int selectOrdinal = traverser.getMatchOrdinal(i, selectTraverserField);
+                if(removed)
+                    matchChanges.removedSelectOrdinals.add(selectOrdinal);
+                else
+                    matchChanges.addedSelectOrdinals.add(selectOrdinal);
+            }
+
+            ordinal = ordinals.nextSetBit(ordinal + 1);
+        }
+    }
+
+    /**
+     * Determines the new select set and its position in the select array for each changed match entry.
+     *
+     * @return the updates, or null if they do not fit within the current hash tables
+     */
+    private List<MatchUpdate> planUpdates(Iterable<MatchChanges> changes) {
+        FixedLengthElementArray matchHashTable = state.getMatchHashTable();
+        matchCount = state.getMatchCount();
+        selectArrayBuckets = state.getSelectArrayBuckets();
+        selectArrayHoleBuckets = state.getSelectArrayHoleBuckets();
+        int maxSelectTableSize = 0;
+
+        List<MatchUpdate> updates = new ArrayList<>();
+        for(MatchChanges matchChanges : changes) {
+            MatchUpdate update = new MatchUpdate(matchChanges.key);
+            long bucket = findBucket(matchHashTable, matchChanges.key);
+
+            Set<Integer> selectOrdinals = new LinkedHashSet<>();
+            if(bucket != -1) {
+                long hashBucketBit = bucket * state.getBitsPerMatchHashEntry();
+                int selectTableSize = (int) matchHashTable.getElementValue(hashBucketBit + state.getBitsPerMatchHashKey(), state.getBitsPerSelectTableSize());
+                update.previousSelectPointer = matchHashTable.getElementValue(hashBucketBit + state.getBitsPerMatchHashKey() + state.getBitsPerSelectTableSize(), state.getBitsPerSelectTablePointer());
+                update.previousSelectTableBuckets = HashCodes.hashTableSize(selectTableSize);
+
+                for(long i=0;i<update.previousSelectTableBuckets;i++) {
+                    int selectOrdinal = (int) state.getSelectHashArray().getElementValue((update.previousSelectPointer + i) * state.getBitsPerSelectHashEntry(), state.getBitsPerSelectHashEntry()) - 1;
+                    if(selectOrdinal != HollowConstants.ORDINAL_NONE)
+                        selectOrdinals.add(selectOrdinal);
+                }
+            } else if(!matchChanges.removedSelectOrdinals.isEmpty()) {
+                // a removed record was not indexed, the index is inconsistent with the previous state
+                return null;
+            }
+
+            selectOrdinals.removeAll(matchChanges.removedSelectOrdinals);
+            selectOrdinals.addAll(matchChanges.addedSelectOrdinals);
+
+            update.selectOrdinals = new int[selectOrdinals.size()];
+            int idx = 0;
+            for(int selectOrdinal : selectOrdinals)
+                update.selectOrdinals[idx++] = selectOrdinal;
+
+            if(update.exists() && update.selectOrdinals.length == 0) {
+                matchCount--;
+                selectArrayHoleBuckets += update.previousSelectTableBuckets;
+            } else if(update.selectOrdinals.length > 0) {
+                int selectTableBuckets = HashCodes.hashTableSize(update.selectOrdinals.length);
+                if(update.exists() && selectTableBuckets <= update.previousSelectTableBuckets) {
+                    update.selectPointer = update.previousSelectPointer;
+                    selectArrayHoleBuckets += update.previousSelectTableBuckets - selectTableBuckets;
+                } else {
+                    update.selectPointer = selectArrayBuckets;
+                    selectArrayBuckets += selectTableBuckets;
+                    if(update.exists())
+                        selectArrayHoleBuckets += update.previousSelectTableBuckets;
+                    else
+                        matchCount++;
+                }
+                maxSelectTableSize = Math.max(maxSelectTableSize, update.selectOrdinals.length);
+
+                if(!update.exists() || !matchChanges.removedSelectOrdinals.isEmpty()) {
+                    update.keyOrdinals = deriveKeyOrdinals(matchChanges.key, update.selectOrdinals[0]);
+                    if(update.keyOrdinals == null)
+                        return null;
+                }
+            }
+
+            updates.add(update);
+        }
+
+        if(HashCodes.hashTableSize((int) matchCount) > state.getMatchHashMask() + 1
+                || bitsRequiredToRepresentValue(maxSelectTableSize) > state.getBitsPerSelectTableSize()
+                || bitsRequiredToRepresentValue(selectArrayBuckets) > state.getBitsPerSelectTablePointer()
+                || selectArrayHoleBuckets > selectArrayBuckets / 2)
+            return null;
+
+        return updates;
+    }
+
+    private HollowHashIndexState patch(List<MatchUpdate> updates) {
+        long matchHashTableBits = (long) (state.getMatchHashMask() + 1) * state.getBitsPerMatchHashEntry();
+        FixedLengthElementArray matchHashTable = CopyOnWriteFixedLengthElementArray.copyOf(WastefulRecycler.DEFAULT_INSTANCE, state.getMatchHashTable(), matchHashTableBits);
+        FixedLengthElementArray selectHashArray = CopyOnWriteFixedLengthElementArray.copyOf(WastefulRecycler.DEFAULT_INSTANCE, state.getSelectHashArray(), selectArrayBuckets * state.getBitsPerSelectHashEntry());
+
+        List<MatchUpdate> insertions = new ArrayList<>();
+        for(MatchUpdate update : updates) {
+            if(update.selectOrdinals.length > 0)
+                writeSelectTable(selectHashArray, update);
+
+            if(!update.exists()) {
+                if(update.selectOrdinals.length > 0)
+                    insertions.add(update);
+            } else if(update.selectOrdinals.length == 0) {
+                removeMatch(matchHashTable, findBucket(matchHashTable, update.key));
+            } else {
+                writeMatch(matchHashTable, findBucket(matchHashTable, update.key), update);
+            }
+        }
+
+        for(MatchUpdate update : insertions) {
+            long bucket = update.key.hash & state.getMatchHashMask();
+            while(!isEmpty(matchHashTable, bucket))
+                bucket = (bucket + 1) & state.getMatchHashMask();
+            writeMatch(matchHashTable, bucket, update);
+        }
+
+        return new HollowHashIndexState(state, matchHashTable, selectHashArray, matchCount, selectArrayBuckets, selectArrayHoleBuckets);
+    }
+
+    private void writeSelectTable(FixedLengthElementArray selectHashArray, MatchUpdate update) {
+        int bitsPerSelectHashEntry = state.getBitsPerSelectHashEntry();
+        if(update.selectPointer == update.previousSelectPointer) {
+            for(long i=0;i<update.previousSelectTableBuckets;i++)
+                selectHashArray.clearElementValue((update.selectPointer + i) * bitsPerSelectHashEntry, bitsPerSelectHashEntry);
+        }
+
+        int selectBucketMask = HashCodes.hashTableSize(update.selectOrdinals.length) - 1;
+        for(int selectOrdinal : update.selectOrdinals) {
+            int selectBucket = HashCodes.hashInt(selectOrdinal) & selectBucketMask;
+            while(selectHashArray.getElementValue((update.selectPointer + selectBucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry) != 0)
+                selectBucket = (selectBucket + 1) & selectBucketMask;
+            selectHashArray.setElementValue((update.selectPointer + selectBucket) * bitsPerSelectHashEntry, bitsPerSelectHashEntry, selectOrdinal + 1);
+        }
+    }
+
+    private void writeMatch(FixedLengthElementArray matchHashTable, long bucket, MatchUpdate update) {
+        long hashBucketBit = bucket * state.getBitsPerMatchHashEntry();
+
+        if(update.keyOrdinals != null) {
+            for(int i=0;i<numMatchTraverserFields;i++) {
+                long fieldBit = hashBucketBit + state.getOffsetPerTraverserField()[i];
+                matchHashTable.clearElementValue(fieldBit, state.getBitsPerTraverserField()[i]);
+                matchHashTable.setElementValue(fieldBit, state.getBitsPerTraverserField()[i], update.keyOrdinals[i] + 1);
+            }
+        }
+
+        long selectTableSizeBit = hashBucketBit + state.getBitsPerMatchHashKey();
+        matchHashTable.clearElementValue(selectTableSizeBit, state.getBitsPerSelectTableSize());
+        matchHashTable.setElementValue(selectTableSizeBit, state.getBitsPerSelectTableSize(), update.selectOrdinals.length);
+
+        long selectPointerBit = selectTableSizeBit + state.getBitsPerSelectTableSize();
+        matchHashTable.clearElementValue(selectPointerBit, state.getBitsPerSelectTablePointer());
+        matchHashTable.setElementValue(selectPointerBit, state.getBitsPerSelectTablePointer(), update.selectPointer);
+    }
+
+    /**
+     * Removes the entry in the given bucket, shifting back subsequent entries of the probe sequence so that they
+     * remain reachable.
+     */
+    private void removeMatch(FixedLengthElementArray matchHashTable, long bucket) {
+        int matchHashMask = state.getMatchHashMask();
+        int bitsPerMatchHashEntry = state.getBitsPerMatchHashEntry();
+
+        clearEntry(matchHashTable, bucket);
+        long emptyBucket = bucket;
+        bucket = (bucket + 1) & matchHashMask;
+
+        while(!isEmpty(matchHashTable, bucket)) {
+            long naturalBucket = matchHash(readKeyOrdinals(matchHashTable, bucket)) & matchHashMask;
+
+            if(!bucketInRange(emptyBucket, bucket, naturalBucket)) {
+                matchHashTable.copyBits(matchHashTable, bucket * bitsPerMatchHashEntry, emptyBucket * bitsPerMatchHashEntry, bitsPerMatchHashEntry);
+                clearEntry(matchHashTable, bucket);
+                emptyBucket = bucket;
+            }
+
+            bucket = (bucket + 1) & matchHashMask;
+        }
+    }
+
+    private void clearEntry(FixedLengthElementArray matchHashTable, long bucket) {
+        long startBit = bucket * state.getBitsPerMatchHashEntry();
+        long endBit = startBit + state.getBitsPerMatchHashEntry();
+        for(long bit=startBit;bit<endBit;bit+=32)
+            matchHashTable.clearElementValue(bit, (int) Math.min(32, endBit - bit));
+    }
+
+    private boolean bucketInRange(long fromBucket, long toBucket, long testBucket) {
+        if(toBucket > fromBucket) {
+            return testBucket > fromBucket && testBucket <= toBucket;
+        } else {
+            return testBucket > fromBucket || testBucket <= toBucket;
+        }
+    }
+
+    private boolean isEmpty(FixedLengthElementArray matchHashTable, long bucket) {
+        return matchHashTable.getElementValue(bucket * state.getBitsPerMatchHashEntry(), state.getBitsPerTraverserField()[0]) == 0;
+    }
+
+    private long findBucket(FixedLengthElementArray matchHashTable, MatchKey key) {
+        long bucket = key.hash & state.getMatchHashMask();
+        while(!isEmpty(matchHashTable, bucket)) {
+            if(keysAreEqual(readKeyOrdinals(matchHashTable, bucket), key.ordinals))
+                return bucket;
+            bucket = (bucket + 1) & state.getMatchHashMask();
+        }
+        return -1;
+    }
+
+    /**
+     * Derives the key ordinals of a match entry from one of its select records, which is currently populated.
+     */
+    private int[] deriveKeyOrdinals(MatchKey key, int selectOrdinal) {
+        traverser.traverse(selectOrdinal);
+        for(int i=0;i<traverser.getNumMatches();i++) {
+            int[] keyOrdinals = matchKeyOrdinals(i);
+            if(keysAreEqual(keyOrdinals, key.ordinals))
+                return keyOrdinals;
+        }
+        return null;
+    }
+
+    private int[] matchKeyOrdinals(int matchIdx) {
+        int[] keyOrdinals = new int[numMatchTraverserFields];
+        for(int i=0;i<numMatchTraverserFields;i++)
+            keyOrdinals[i] = traverser.getMatchOrdinal(matchIdx, i);
+        return keyOrdinals;
+    }
+
+    private int[] readKeyOrdinals(FixedLengthElementArray matchHashTable, long bucket) {
+        long hashBucketBit = bucket * state.getBitsPerMatchHashEntry();
+        int[] keyOrdinals = new int[numMatchTraverserFields];
+        for(int i=0;i<numMatchTraverserFields;i++)
+            keyOrdinals[i] = (int) matchHashTable.getElementValue(hashBucketBit + state.getOffsetPerTraverserField()[i], state.getBitsPerTraverserField()[i]) - 1;
+        return keyOrdinals;
+    }
+
+    /**
+     * Equivalent to the match hash calculated by the {@link HollowHashIndexBuilder}.
+     */
+    private int matchHash(int[] keyOrdinals) {
+        int matchHash = 0;
+
+        for(HollowHashIndexField field : matchFields) {
+            int ordinal = keyOrdinals[field.getBaseIteratorFieldIdx()];
+            FieldPathSegment[] fieldPath = field.getSchemaFieldPositionPath();
+
+            if(fieldPath.length == 0) {
+                matchHash ^= HashCodes.hashInt(ordinal);
+            } else {
+                for(int j=0;j<fieldPath.length-1;j++) {
+                    ordinal = fieldPath[j].getOrdinalForField(ordinal);
+                    // Cannot find nested ordinal for null parent
+                    if(ordinal == HollowConstants.ORDINAL_NONE) {
+                        break;
+                    }
+                }
+
+                FieldPathSegment lastPathElement = field.getLastFieldPositionPathElement();
+                int fieldHashCode = ordinal == HollowConstants.ORDINAL_NONE ? HollowConstants.ORDINAL_NONE : HollowReadFieldUtils.fieldHashCode(lastPathElement.getObjectTypeDataAccess(), ordinal, lastPathElement.getSegmentFieldPosition());
+                matchHash ^= HashCodes.hashInt(fieldHashCode);
+            }
+        }
+
+        return matchHash & Integer.MAX_VALUE;
+    }
+
+    /**
+     * Equivalent to the match equality of the {@link HollowHashIndexBuilder}.
+     */
+    private boolean keysAreEqual(int[] keyOrdinals, int[] otherKeyOrdinals) {
+        for(HollowHashIndexField field : matchFields) {
+            int ordinal = keyOrdinals[field.getBaseIteratorFieldIdx()];
+            int otherOrdinal = otherKeyOrdinals[field.getBaseIteratorFieldIdx()];
+            FieldPathSegment[] fieldPath = field.getSchemaFieldPositionPath();
+
+            if(fieldPath.length == 0) {
+                if(ordinal != otherOrdinal)
+                    return false;
+            } else {
+                for(int j=0;j<fieldPath.length - 1;j++) {
+                    if(ordinal != HollowConstants.ORDINAL_NONE)
+                        ordinal = fieldPath[j].getOrdinalForField(ordinal);
+                    if(otherOrdinal != HollowConstants.ORDINAL_NONE)
+                        otherOrdinal = fieldPath[j].getOrdinalForField(otherOrdinal);
+                }
+
+                if(ordinal != otherOrdinal) {
+                    FieldPathSegment lastPathElement = field.getLastFieldPositionPathElement();
+                    if(ordinal == HollowConstants.ORDINAL_NONE || otherOrdinal == HollowConstants.ORDINAL_NONE
+                            || !HollowReadFieldUtils.fieldsAreEqual(
+                                    lastPathElement.getObjectTypeDataAccess(), ordinal, lastPathElement.getSegmentFieldPosition(),
+                                    lastPathElement.getObjectTypeDataAccess(), otherOrdinal, lastPathElement.getSegmentFieldPosition()))
+                        return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private class MatchKey {
+        private final int[] ordinals;
+        private final int hash;
+
+        MatchKey(int[] ordinals) {
+            this.ordinals = ordinals;
+            this.hash = matchHash(ordinals);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof MatchKey))
+                return false;
+            MatchKey otherKey = (MatchKey) other;
+            return hash == otherKey.hash && keysAreEqual(ordinals, otherKey.ordinals);
+        }
+    }
+
+    private static class MatchChanges {
+        private final MatchKey key;
+        private final Set<Integer> removedSelectOrdinals = new LinkedHashSet<>();
+        private final Set<Integer> addedSelectOrdinals = new LinkedHashSet<>();
+
+        MatchChanges(MatchKey key) {
+            this.key = key;
+        }
+    }
+
+    private static class MatchUpdate {
+        private final MatchKey key;
+        private long previousSelectPointer = -1;
+        private int previousSelectTableBuckets;
+        private long selectPointer = -1;
+        private int[] selectOrdinals;
+        // the key ordinals to store, if the stored key must be (re)written
+        private int[] keyOrdinals;
+
+        MatchUpdate(MatchKey key) {
+            this.key = key;
+        }
+
+        boolean exists() {
+            return previousSelectPointer != -1;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import com.netflix.hollow.core.read.engine.HollowTypeStateListener;
 import com.netflix.hollow.core.read.engine.object.HollowObjectTypeReadState;
 import com.netflix.hollow.core.read.iterator.HollowOrdinalIterator;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 import java.util.logging.Logger;
@@ -65,6 +66,8 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
     private int maxOrdinalOfType;
 
     private boolean buildIndexOnUpdate;
+    private BitSet addedOrdinals;
+    private BitSet removedOrdinals;
 
     /**
      * Initializes a new prefix index that is case in-sensitive.
@@ -308,7 +311,8 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
     /**
      * Use this method to keep the index updated with delta changes on the read state engine.
      * Remember to call detachFromDeltaUpdates to stop the delta changes.
-     * NOTE: Each delta updates creates a new prefix index and swaps the new with current.
+     * NOTE: Each delta update is applied to a copy of the current prefix index, which is then swapped with the current.
+     * If the copy does not have the capacity to index the added records then a new prefix index is built instead.
      */
     @SuppressWarnings("WeakerAccess")
     public void listenForDeltaUpdates() {
@@ -325,24 +329,82 @@ public class HollowPrefixIndex implements HollowTypeStateListener {
 
     @Override
     public void beginUpdate() {
-        // before delta is applied -> no action to be taken
+        addedOrdinals = new BitSet();
+        removedOrdinals = new BitSet();
     }
 
     @Override
     public void addedOrdinal(int ordinal) {
+        addedOrdinals.set(ordinal);
         buildIndexOnUpdate = true;
     }
 
     @Override
     public void removedOrdinal(int ordinal) {
+        removedOrdinals.set(ordinal);
         buildIndexOnUpdate = true;
     }
 
     @Override
     public void endUpdate() {
-        // pass 1 for delta support - rebuild the tree and swap the new tree with the one that is serving the queries.
-        // next pass -  improve the index build time or add support for remove method.
-        initialize();
+        if (!buildIndexOnUpdate) return;
+        if (!applyDelta()) {
+            // rebuild the tree and swap the new tree with the one that is serving the queries.
+            initialize();
+        }
+        addedOrdinals = null;
+        removedOrdinals = null;
+    }
+
+    // apply the added and removed ordinals to a copy of the tree and swap the copy with the one that is serving the queries.
+    // returns false if the copy would not have the capacity to index the added ordinals.
+    private boolean applyDelta() {
+        TST current = prefixIndexVolatile;
+        if (current == null || addedOrdinals == null)
+            return false;
+        if (!current.canReference(readStateEngine.getTypeState(type).maxOrdinal()))
+            return false;
+
+        // assumes the worst case of one new node per character of each added key
+        long maxNewNodes = 0;
+        List<String[]> addedKeys = new ArrayList<>(addedOrdinals.cardinality());
+        int ordinal = addedOrdinals.nextSetBit(0);
+        while (ordinal != -1) {
+            String[] keys = getKeys(ordinal, caseSensitive);
+            addedKeys.add(keys);
+            for (String key : keys) {
+                maxNewNodes += key.length();
+            }
+            ordinal = addedOrdinals.nextSetBit(ordinal + 1);
+        }
+        if (maxNewNodes >= current.getEmptyNodes())
+            return false;
+
+        // note reuse only happens once swap is called and bits are reset
+        current.recycleMemory(memoryRecycle);
+        TST tst = current.copy(memoryRecycle);
+
+        // removed records remain accessible until the end of the update, so their keys can be derived
+        ordinal = removedOrdinals.nextSetBit(0);
+        while (ordinal != -1) {
+            for (String key : getKeys(ordinal, caseSensitive)) {
+                tst.remove(key, ordinal);
+            }
+            ordinal = removedOrdinals.nextSetBit(ordinal + 1);
+        }
+        ordinal = addedOrdinals.nextSetBit(0);
+        for (String[] keys : addedKeys) {
+            for (String key : keys) {
+                tst.insert(key, ordinal);
+            }
+            ordinal = addedOrdinals.nextSetBit(ordinal + 1);
+        }
+
+        prefixIndexVolatile = tst;
+        // safe to return previous long arrays on next request for long array.
+        memoryRecycle.swap();
+        buildIndexOnUpdate = false;
+        return true;
     }
 
     /**
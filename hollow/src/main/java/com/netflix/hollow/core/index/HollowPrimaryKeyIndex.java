@@ -362,7 +362,7 @@ public class HollowPrimaryKeyIndex implements HollowTypeStateListener, TestableU
             case BYTES:
                 return HashCodes.hashCode((byte[])key);
             case STRING:
-                return HashCodes.hashCode((String)key);
+                return HashCodes.hashCode((CharSequence)key);
         }
 
         throw new IllegalArgumentException("I don't know how to hash a " + fieldTypes[fieldIdx]);
@@ -405,7 +405,7 @@ public class HollowUniqueKeyIndex implements HollowTypeStateListener, TestableUn
             case BYTES:
                 return HashCodes.hashCode((byte[]) key);
             case STRING:
-                return HashCodes.hashCode((String) key);
+                return HashCodes.hashCode((CharSequence) key);
         }
 
         throw new IllegalArgumentException("I don't know how to hash a " + fieldType);
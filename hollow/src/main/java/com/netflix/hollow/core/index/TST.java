@@ -24,6 +24,8 @@ import java.util.stream.Collectors;
  *
  * The total node capacity of the tree i.e. max no. of nodes in the tree is pre-allocated at the time of initialization
  * and can not be dynamically resized.
+ *
+ * Element references can be removed from the tree, but the nodes of removed keys are not reclaimed.
  */
 class TST {   // ternary search tree
     private enum NodeType {
@@ -90,6 +92,39 @@ class TST {   // ternary search tree
         isEndFlagOffset = rightChildOffset + bitsForChildPointer;
     }
 
+    private TST(TST from, ArraySegmentRecycler memoryRecycler) {
+        maxNodes = from.maxNodes;
+        caseSensitive = from.caseSensitive;
+
+        bitsPerKey = from.bitsPerKey;
+        bitsForChildPointer = from.bitsForChildPointer;
+        bitsPerOrdinal = from.bitsPerOrdinal;
+        bitsPerNode = from.bitsPerNode;
+
+        // nodes beyond the index tracker have not been populated, so they do not need to be copied
+        nodes = new FixedLengthElementArray(memoryRecycler, bitsPerNode * maxNodes);
+        nodes.copyBits(from.nodes, 0, 0, bitsPerNode * Math.min(from.indexTracker + 1, maxNodes));
+        ordinalSet = from.ordinalSet.copy();
+        indexTracker = from.indexTracker;
+        maxDepth = from.maxDepth;
+
+        leftChildOffset = from.leftChildOffset;
+        middleChildOffset = from.middleChildOffset;
+        rightChildOffset = from.rightChildOffset;
+        isEndFlagOffset = from.isEndFlagOffset;
+    }
+
+    /**
+     * Returns a copy of this tree with the same node capacity. The copy can be modified, for e.g. to apply the changes
+     * in a delta, while this tree continues to serve queries.
+     *
+     * @param memoryRecycler to reuse arrays from memory pool
+     * @return a copy of this tree
+     */
+    TST copy(ArraySegmentRecycler memoryRecycler) {
+        return new TST(this, memoryRecycler);
+    }
+
     // tell memory recycler to use these long array on next long array request from memory ONLY AFTER swap is called on memory recycler
     void recycleMemory(ArraySegmentRecycler memoryRecycler) {
         nodes.destroy(memoryRecycler);
@@ -190,6 +225,34 @@ class TST {   // ternary search tree
         }
     }
 
+    /**
+     * Remove the reference to the given ordinal from the node for the given key. Case sensitivity is specified at the
+     * time of index initialization. Nodes are not reclaimed, a node that no longer references any ordinals remains in
+     * the tree but no longer marks the end of a key.
+     *
+     * @return true if the key referenced the ordinal, otherwise false
+     */
+    boolean remove(String key, int ordinal) {
+        long nodeIndex = findNodeWithKey(key);
+        if (nodeIndex < 0 || !isEndNode(nodeIndex)) {
+            return false;
+        }
+        if (!ordinalSet.removeElement(nodeIndex, ordinal)) {
+            return false;
+        }
+        if (ordinalSet.getElements(nodeIndex).isEmpty()) {
+            nodes.clearElementValue((nodeIndex * bitsPerNode) + isEndFlagOffset, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the given ordinal can be referenced from a node in this tree.
+     */
+    boolean canReference(int ordinal) {
+        return ordinal < (1L << bitsPerOrdinal);
+    }
+
     /**
      * Note that it will match the longest substring in {@code prefix} that was inserted as a key into the tree, and not
      * match partial prefix with partial key. Case sensitivity of matches is specified at the time of index initialization.
@@ -350,7 +413,7 @@ class TST {   // ternary search tree
 
     /**
      * Returns the no. of empty nodes (capacity minus populated) as a measure of how much pre-allocated space is
-     * under utilized.
+     * under utilized. Nodes that no longer mark the end of a key after removals are not counted as empty.
      * @return no. of populated nodes in prefix tree
      */
     long getEmptyNodes() {
@@ -116,7 +116,7 @@ public class HollowPrimaryKeyValueDeriver {
             case REFERENCE:
                 return dataAccess.readOrdinal(ordinal, lastFieldIdx) == ((Integer)key).intValue();
             case STRING:
-                return dataAccess.isStringFieldEqual(ordinal, lastFieldIdx, (String)key);
+                return dataAccess.isStringFieldEqual(ordinal, lastFieldIdx, (CharSequence)key);
         }
 
         throw new IllegalArgumentException("I don't know how to compare a " + fieldType);
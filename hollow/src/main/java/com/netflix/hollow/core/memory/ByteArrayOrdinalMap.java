@@ -32,11 +32,19 @@ import java.util.concurrent.atomic.AtomicLongArray;
  * The high 29 bits in the key represents the ordinal.  The low 35 bits represents the pointer to the start position
  * of the byte sequence in the ByteDataBuffer.  Each byte sequence is preceded by a variable-length integer
  * (see {@link VarInt}), indicating the length of the sequence.<p>
+ * <p>
+ * The hash table may be split into a number of partitions, each selected by the low bits of a byte sequence's hash
+ * code.  Each partition is grown and locked independently, so that threads concurrently looking up, probing for and
+ * inserting byte sequences in different partitions do not contend.  Allocating an ordinal and appending a byte
+ * sequence to the shared {@link ByteDataArray} is serialized by the lock on this map, which a batch of sequences
+ * (see {@link #getOrAssignOrdinals}) acquires once per partition rather than once per sequence.
  *
  * @author dkoszewnik
  */
 public class ByteArrayOrdinalMap {
 
+    public static final int MAX_PARTITIONS = 64;
+
     private static final long EMPTY_BUCKET_VALUE = -1L;
 
     private static final int BITS_PER_ORDINAL = 29;
@@ -45,15 +53,14 @@ public class ByteArrayOrdinalMap {
     private static final long ORDINAL_MASK = (1L << BITS_PER_ORDINAL) - 1;
     private static final long MAX_BYTE_DATA_LENGTH = 1L << BITS_PER_POINTER;
 
-    /// Thread safety:  We need volatile access semantics to the individual elements in the
-    /// pointersAndOrdinals array.
-    /// Ordinal is the high 29 bits.  Pointer to byte data is the low 35 bits.
-    /// In addition need volatile access to the reference when resize occurs
-    private volatile AtomicLongArray pointersAndOrdinals;
+    private final Partition[] partitions;
+    private final int partitionMask;
+    private final int log2OfNumPartitions;
+
+    /// The byte data, free ordinals and unused previous ordinals are shared by all partitions,
+    /// and are guarded by the lock on this map.
     private final ByteDataArray byteData;
     private final FreeOrdinalTracker freeOrdinalTracker;
-    private int size;
-    private int sizeBeforeGrow;
 
     private BitSet unusedPreviousOrdinals;
 
@@ -72,13 +79,47 @@ public class ByteArrayOrdinalMap {
      * rounded up to the nearest power of two, and a load factor of 70%.
      */
     public ByteArrayOrdinalMap(int size) {
-        size = bucketSize(size);
+        this(size, false);
+    }
+
+    /**
+     * Creates a byte array ordinal map with an initial capacity of a given size
+     * rounded up to the nearest power of two, and a load factor of 70%.
+     * <p>
+     * If <code>offHeap</code> is true, the byte sequences are stored outside of the Java heap
+     * (see {@link OffHeapSegmentedByteArray}).  The hash table of pointers and ordinals remains on the heap.
+     */
+    public ByteArrayOrdinalMap(int size, boolean offHeap) {
+        this(size, offHeap, 1);
+    }
+
+    /**
+     * Creates a byte array ordinal map with an initial capacity of a given size, divided between the given number of
+     * partitions of the hash table.  Each partition's capacity is rounded up to the nearest power of two, and has a
+     * load factor of 70%.
+     *
+     * @param size the initial capacity
+     * @param offHeap whether the byte sequences are stored outside of the Java heap
+     * @param numPartitions the number of partitions, a power of two no greater than {@link #MAX_PARTITIONS}
+     */
+    public ByteArrayOrdinalMap(int size, boolean offHeap, int numPartitions) {
+        if (numPartitions <= 0 || numPartitions > MAX_PARTITIONS || (numPartitions & (numPartitions - 1)) != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "The number of partitions, %s, must be a power of 2 no greater than %s", numPartitions, MAX_PARTITIONS));
+        }
 
         this.freeOrdinalTracker = new FreeOrdinalTracker();
-        this.byteData = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
-        this.pointersAndOrdinals = emptyKeyArray(size);
-        this.sizeBeforeGrow = (int) (((float) size) * 0.7); /// 70% load factor
-        this.size = 0;
+        this.byteData = offHeap
+                ? new ByteDataArray(new OffHeapSegmentedByteArray())
+                : new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+        this.partitions = new Partition[numPartitions];
+        this.partitionMask = numPartitions - 1;
+        this.log2OfNumPartitions = Integer.numberOfTrailingZeros(numPartitions);
+
+        int partitionSize = bucketSize(size / numPartitions);
+        for (int i = 0; i < numPartitions; i++) {
+            partitions[i] = new Partition(partitionSize);
+        }
     }
 
     private static int bucketSize(int x) {
@@ -111,42 +152,50 @@ public class ByteArrayOrdinalMap {
      */
     public int getOrAssignOrdinal(ByteDataArray serializedRepresentation, int preferredOrdinal) {
         int hash = HashCodes.hashCode(serializedRepresentation);
+        Partition partition = partitions[hash & partitionMask];
 
-        int ordinal = get(serializedRepresentation, hash);
-        return ordinal != -1 ? ordinal : assignOrdinal(serializedRepresentation, hash, preferredOrdinal);
+        int ordinal = partition.get(serializedRepresentation, hash);
+        return ordinal != -1 ? ordinal : partition.assignOrdinal(serializedRepresentation, hash, preferredOrdinal);
     }
 
-    /// acquire the lock before writing.
-    private synchronized int assignOrdinal(ByteDataArray serializedRepresentation, int hash, int preferredOrdinal) {
-        if (preferredOrdinal < -1 || preferredOrdinal > ORDINAL_MASK) {
-            throw new IllegalArgumentException(String.format(
-                    "The given preferred ordinal %s is out of bounds and not within the closed interval [-1, %s]",
-                    preferredOrdinal, ORDINAL_MASK));
-        }
-        if (size > sizeBeforeGrow) {
-            growKeyArray();
-        }
-
-        /// check to make sure that after acquiring the lock, the element still does not exist.
-        /// this operation is akin to double-checked locking which is 'fixed' with the JSR 133 memory model in JVM >= 1.5.
-        /// Note that this also requires pointersAndOrdinals be volatile so resizes are also visible
-        AtomicLongArray pao = pointersAndOrdinals;
-
-        int modBitmask = pao.length() - 1;
-        int bucket = hash & modBitmask;
-        long key = pao.get(bucket);
-
-        while (key != EMPTY_BUCKET_VALUE) {
-            if (compare(serializedRepresentation, key)) {
-                return (int) (key >>> BITS_PER_POINTER);
+    /**
+     * Adds each of a batch of byte sequences to this map, as if by {@link #getOrAssignOrdinal(ByteDataArray)}.
+     * <p>
+     * The sequences which have previously been added are looked up without locking, and the remaining sequences are
+     * assigned ordinals under a single acquisition of the lock of each partition they belong to, and of the lock on
+     * this map, rather than one acquisition per sequence.
+     * <p>
+     * This operation is thread-safe.
+     *
+     * @param serializedRepresentations the sequences of bytes
+     * @param numRepresentations the number of sequences in {@code serializedRepresentations} to add
+     * @param ordinals receives the ordinal assigned to each sequence, at the same index as the sequence
+     */
+    public void getOrAssignOrdinals(ByteDataArray[] serializedRepresentations, int numRepresentations, int[] ordinals) {
+        long partitionsToAssign = 0;
+        for (int i = 0; i < numRepresentations; i++) {
+            int hash = HashCodes.hashCode(serializedRepresentations[i]);
+            int partitionIdx = hash & partitionMask;
+            ordinals[i] = partitions[partitionIdx].get(serializedRepresentations[i], hash);
+            if (ordinals[i] == -1) {
+                /// remember the partition of each sequence to assign, as a negative value distinct from -1
+                ordinals[i] = -2 - partitionIdx;
+                partitionsToAssign |= 1L << partitionIdx;
             }
+        }
 
-            bucket = (bucket + 1) & modBitmask;
-            key = pao.get(bucket);
+        while (partitionsToAssign != 0) {
+            int partitionIdx = Long.numberOfTrailingZeros(partitionsToAssign);
+            partitions[partitionIdx].assignOrdinals(serializedRepresentations, numRepresentations, ordinals, -2 - partitionIdx);
+            partitionsToAssign &= partitionsToAssign - 1;
         }
+    }
 
-        /// the ordinal for this object still does not exist in the list, even after the lock has been acquired.
-        /// it is up to this thread to add it at the current bucket position.
+    /**
+     * Appends a byte sequence to the byte data, and returns its key in the hash table.  The caller must hold the lock
+     * on this map.
+     */
+    private long append(ByteDataArray serializedRepresentation, int preferredOrdinal) {
         int ordinal = findFreeOrdinal(preferredOrdinal);
         if (ordinal > ORDINAL_MASK) {
             throw new IllegalStateException(String.format(
@@ -167,16 +216,7 @@ public class ByteArrayOrdinalMap {
                     byteData.length(), MAX_BYTE_DATA_LENGTH));
         }
 
-        key = ((long) ordinal << BITS_PER_POINTER) | pointer;
-
-        size++;
-
-        /// this set on the AtomicLongArray has volatile semantics (i.e. behaves like a monitor release).
-        /// Any other thread reading this element in the AtomicLongArray will have visibility to all memory writes this thread has made up to this point.
-        /// This means the entire byte sequence is guaranteed to be visible to any thread which reads the pointer to that data.
-        pao.set(bucket, key);
-
-        return ordinal;
+        return ((long) ordinal << BITS_PER_POINTER) | pointer;
     }
 
     /**
@@ -207,16 +247,17 @@ public class ByteArrayOrdinalMap {
                     "The given ordinal %s is out of bounds and not within the closed interval [0, %s]",
                     ordinal, ORDINAL_MASK));
         }
-        if (size > sizeBeforeGrow) {
-            growKeyArray();
-        }
 
         int hash = HashCodes.hashCode(serializedRepresentation);
+        Partition partition = partitions[hash & partitionMask];
+        if (partition.size > partition.sizeBeforeGrow) {
+            partition.growKeyArray();
+        }
 
-        AtomicLongArray pao = pointersAndOrdinals;
+        AtomicLongArray pao = partition.pointersAndOrdinals;
 
         int modBitmask = pao.length() - 1;
-        int bucket = hash & modBitmask;
+        int bucket = bucket(hash, modBitmask);
         long key = pao.get(bucket);
 
         while (key != EMPTY_BUCKET_VALUE) {
@@ -236,20 +277,23 @@ public class ByteArrayOrdinalMap {
 
         key = ((long) ordinal << BITS_PER_POINTER) | pointer;
 
-        size++;
+        partition.size++;
 
         pao.set(bucket, key);
     }
 
     public void recalculateFreeOrdinals() {
         BitSet populatedOrdinals = new BitSet();
-        AtomicLongArray pao = pointersAndOrdinals;
 
-        for (int i = 0; i < pao.length(); i++) {
-            long key = pao.get(i);
-            if (key != EMPTY_BUCKET_VALUE) {
-                int ordinal = (int) (key >>> BITS_PER_POINTER);
-                populatedOrdinals.set(ordinal);
+        for (Partition partition : partitions) {
+            AtomicLongArray pao = partition.pointersAndOrdinals;
+
+            for (int i = 0; i < pao.length(); i++) {
+                long key = pao.get(i);
+                if (key != EMPTY_BUCKET_VALUE) {
+                    int ordinal = (int) (key >>> BITS_PER_POINTER);
+                    populatedOrdinals.set(ordinal);
+                }
             }
         }
 
@@ -289,32 +333,8 @@ public class ByteArrayOrdinalMap {
      * @return The ordinal for this serialized representation, or -1.
      */
     public int get(ByteDataArray serializedRepresentation) {
-        return get(serializedRepresentation, HashCodes.hashCode(serializedRepresentation));
-    }
-
-    private int get(ByteDataArray serializedRepresentation, int hash) {
-        AtomicLongArray pao = pointersAndOrdinals;
-
-        int modBitmask = pao.length() - 1;
-        int bucket = hash & modBitmask;
-        long key = pao.get(bucket);
-
-        // Linear probing to resolve collisions
-        // Given the load factor it is guaranteed that the loop will terminate
-        // as there will be at least one empty bucket
-        // To ensure this is the case it is important that pointersAndOrdinals
-        // is read into a local variable and thereafter used, otherwise a concurrent
-        // size increase may break this invariant
-        while (key != EMPTY_BUCKET_VALUE) {
-            if (compare(serializedRepresentation, key)) {
-                return (int) (key >>> BITS_PER_POINTER);
-            }
-
-            bucket = (bucket + 1) & modBitmask;
-            key = pao.get(bucket);
-        }
-
-        return -1;
+        int hash = HashCodes.hashCode(serializedRepresentation);
+        return partitions[hash & partitionMask].get(serializedRepresentation, hash);
     }
 
     /**
@@ -322,27 +342,17 @@ public class ByteArrayOrdinalMap {
      * when writing to blob streams.
      */
     public void prepareForWrite() {
-        int maxOrdinal = 0;
-        AtomicLongArray pao = pointersAndOrdinals;
-
-        for (int i = 0; i < pao.length(); i++) {
-            long key = pao.get(i);
-            if (key != EMPTY_BUCKET_VALUE) {
-                int ordinal = (int) (key >>> BITS_PER_POINTER);
-                if (ordinal > maxOrdinal) {
-                    maxOrdinal = ordinal;
-                }
-            }
-        }
+        long[] pbo = new long[Math.max(maxOrdinal(), 0) + 1];
 
-        long[] pbo = new long[maxOrdinal + 1];
-        Arrays.fill(pbo, -1);
+        for (Partition partition : partitions) {
+            AtomicLongArray pao = partition.pointersAndOrdinals;
 
-        for (int i = 0; i < pao.length(); i++) {
-            long key = pao.get(i);
-            if (key != EMPTY_BUCKET_VALUE) {
-                int ordinal = (int) (key >>> BITS_PER_POINTER);
-                pbo[ordinal] = key & POINTER_MASK;
+            for (int i = 0; i < pao.length(); i++) {
+                long key = pao.get(i);
+                if (key != EMPTY_BUCKET_VALUE) {
+                    int ordinal = (int) (key >>> BITS_PER_POINTER);
+                    pbo[ordinal] = key & POINTER_MASK;
+                }
             }
         }
 
@@ -359,15 +369,17 @@ public class ByteArrayOrdinalMap {
      * @param usedOrdinals a bit set representing the ordinals which are currently referenced by any image.
      */
     public void compact(ThreadSafeBitSet usedOrdinals, int numShards, boolean focusHoleFillInFewestShards) {
-        long[] populatedReverseKeys = new long[size];
+        long[] populatedReverseKeys = new long[size()];
 
         int counter = 0;
-        AtomicLongArray pao = pointersAndOrdinals;
+        for (Partition partition : partitions) {
+            AtomicLongArray pao = partition.pointersAndOrdinals;
 
-        for (int i = 0; i < pao.length(); i++) {
-            long key = pao.get(i);
-            if (key != EMPTY_BUCKET_VALUE) {
-                populatedReverseKeys[counter++] = key << BITS_PER_ORDINAL | key >>> BITS_PER_POINTER;
+            for (int i = 0; i < pao.length(); i++) {
+                long key = pao.get(i);
+                if (key != EMPTY_BUCKET_VALUE) {
+                    populatedReverseKeys[counter++] = key << BITS_PER_ORDINAL | key >>> BITS_PER_POINTER;
+                }
             }
         }
 
@@ -404,14 +416,17 @@ public class ByteArrayOrdinalMap {
         else
             freeOrdinalTracker.sort();
 
-        // Reset the array then fill with compacted values
+        // Reset the arrays then fill with compacted values
         // Volatile store not required, could use plain store
         // See VarHandles for JDK >= 9
-        for (int i = 0; i < pao.length(); i++) {
-            pao.lazySet(i, EMPTY_BUCKET_VALUE);
+        for (Partition partition : partitions) {
+            AtomicLongArray pao = partition.pointersAndOrdinals;
+            for (int i = 0; i < pao.length(); i++) {
+                pao.lazySet(i, EMPTY_BUCKET_VALUE);
+            }
+            partition.size = 0;
         }
-        populateNewHashArray(pao, populatedReverseKeys);
-        size = usedOrdinals.cardinality();
+        populateNewHashArrays(populatedReverseKeys);
 
         pointersByOrdinal = null;
         unusedPreviousOrdinals = null;
@@ -436,20 +451,31 @@ public class ByteArrayOrdinalMap {
 
     public int maxOrdinal() {
         int maxOrdinal = -1;
-        AtomicLongArray pao = pointersAndOrdinals;
-
-        for (int i = 0; i < pao.length(); i++) {
-            long key = pao.get(i);
-            if (key != EMPTY_BUCKET_VALUE) {
-                int ordinal = (int) (key >>> BITS_PER_POINTER);
-                if (ordinal > maxOrdinal) {
-                    maxOrdinal = ordinal;
+
+        for (Partition partition : partitions) {
+            AtomicLongArray pao = partition.pointersAndOrdinals;
+
+            for (int i = 0; i < pao.length(); i++) {
+                long key = pao.get(i);
+                if (key != EMPTY_BUCKET_VALUE) {
+                    int ordinal = (int) (key >>> BITS_PER_POINTER);
+                    if (ordinal > maxOrdinal) {
+                        maxOrdinal = ordinal;
+                    }
                 }
             }
         }
         return maxOrdinal;
     }
 
+    private int size() {
+        int size = 0;
+        for (Partition partition : partitions) {
+            size += partition.size;
+        }
+        return size;
+    }
+
     /**
      * Compare the byte sequence contained in the supplied ByteDataBuffer with the
      * sequence contained in the map pointed to by the specified key, byte by byte.
@@ -484,84 +510,39 @@ public class ByteArrayOrdinalMap {
      * @param size the size to increase to, rounded up to the nearest power of two.
      */
     public void resize(int size) {
-        size = bucketSize(size);
+        size = bucketSize(size / partitions.length);
 
-        if (pointersAndOrdinals.length() < size) {
-            growKeyArray(size);
-        }
-    }
-
-    /**
-     * Grow the key array.  All of the values in the current array must be re-hashed and added to the new array.
-     */
-    private void growKeyArray() {
-        int newSize = pointersAndOrdinals.length() << 1;
-        if (newSize < 0) {
-            throw new IllegalStateException("New size computed to grow the underlying array for the map is negative. " +
-                    "This is most likely due to the total number of keys added to map has exceeded the max capacity of the keys map can hold. "
-                    +
-                    "Current array size :" + pointersAndOrdinals.length() + " and size to grow :" + newSize);
-        }
-        growKeyArray(newSize);
-    }
-
-    private void growKeyArray(int newSize) {
-        AtomicLongArray pao = pointersAndOrdinals;
-        assert (newSize & (newSize - 1)) == 0; // power of 2
-        assert pao.length() < newSize;
-
-        AtomicLongArray newKeys = emptyKeyArray(newSize);
-
-        long[] valuesToAdd = new long[size];
-
-        int counter = 0;
-
-        /// do not iterate over these values in the same order in which they appear in the hashed array.
-        /// if we do so, we cause large clusters of collisions to appear (because we resolve collisions with linear probing).
-        for (int i = 0; i < pao.length(); i++) {
-            long key = pao.get(i);
-            if (key != EMPTY_BUCKET_VALUE) {
-                valuesToAdd[counter++] = key;
+        for (Partition partition : partitions) {
+            if (partition.pointersAndOrdinals.length() < size) {
+                partition.growKeyArray(size);
             }
         }
-
-        Arrays.sort(valuesToAdd);
-
-        populateNewHashArray(newKeys, valuesToAdd, counter);
-
-        /// 70% load factor
-        sizeBeforeGrow = (int) (((float) newSize) * 0.7);
-        pointersAndOrdinals = newKeys;
     }
 
     /**
      * Hash all of the existing values specified by the keys in the supplied long array
-     * into the supplied AtomicLongArray.
+     * into the partitions' hash arrays.
      */
-    private void populateNewHashArray(AtomicLongArray newKeys, long[] valuesToAdd) {
-        populateNewHashArray(newKeys, valuesToAdd, valuesToAdd.length);
-    }
-
-    private void populateNewHashArray(AtomicLongArray newKeys, long[] valuesToAdd, int length) {
-        assert length <= valuesToAdd.length;
-
-        int modBitmask = newKeys.length() - 1;
-
-        for (int i = 0; i < length; i++) {
+    private void populateNewHashArrays(long[] valuesToAdd) {
+        for (int i = 0; i < valuesToAdd.length; i++) {
             long value = valuesToAdd[i];
             if (value != EMPTY_BUCKET_VALUE) {
                 int hash = rehashPreviouslyAddedData(value);
-                int bucket = hash & modBitmask;
-                while (newKeys.get(bucket) != EMPTY_BUCKET_VALUE) {
-                    bucket = (bucket + 1) & modBitmask;
-                }
-                // Volatile store not required, could use plain store
-                // See VarHandles for JDK >= 9
-                newKeys.lazySet(bucket, value);
+                Partition partition = partitions[hash & partitionMask];
+                partition.insert(partition.pointersAndOrdinals, hash, value);
+                partition.size++;
             }
         }
     }
 
+    /**
+     * Selects the bucket for a hash code in a partition's hash array.  The bits of the hash code which select the
+     * partition are excluded, since they are the same for every key in the partition.
+     */
+    private int bucket(int hash, int modBitmask) {
+        return (hash >>> log2OfNumPartitions) & modBitmask;
+    }
+
     /**
      * Get the hash code for the byte array pointed to by the specified key.
      */
@@ -577,7 +558,7 @@ public class ByteArrayOrdinalMap {
     /**
      * Create an AtomicLongArray of the specified size, each value in the array will be EMPTY_BUCKET_VALUE
      */
-    private AtomicLongArray emptyKeyArray(int size) {
+    private static AtomicLongArray emptyKeyArray(int size) {
         AtomicLongArray arr = new AtomicLongArray(size);
         // Volatile store not required, could use plain store
         // See VarHandles for JDK >= 9
@@ -587,12 +568,27 @@ public class ByteArrayOrdinalMap {
         return arr;
     }
 
+    public boolean isOffHeap() {
+        return byteData.getUnderlyingArray() instanceof OffHeapSegmentedByteArray;
+    }
+
+    public int getNumPartitions() {
+        return partitions.length;
+    }
+
     public ByteDataArray getByteData() {
         return byteData;
     }
 
+    /**
+     * @return the hash array of pointers and ordinals
+     * @throws UnsupportedOperationException if this map has more than one partition
+     */
     public AtomicLongArray getPointersAndOrdinals() {
-        return pointersAndOrdinals;
+        if (partitions.length != 1) {
+            throw new UnsupportedOperationException("A partitioned ordinal map has a hash array per partition");
+        }
+        return partitions[0].pointersAndOrdinals;
     }
 
     public static boolean isPointerAndOrdinalEmpty(long pointerAndOrdinal) {
@@ -607,4 +603,176 @@ public class ByteArrayOrdinalMap {
         return (int) (pointerAndOrdinal >>> BITS_PER_POINTER);
     }
 
-}
\ No newline at end of file
+    /**
+     * A partition of the hash table, holding the keys of the byte sequences whose hash codes select it.  Writes to a
+     * partition are guarded by its lock.
+     */
+    private class Partition {
+        /// Thread safety:  We need volatile access semantics to the individual elements in the
+        /// pointersAndOrdinals array.
+        /// Ordinal is the high 29 bits.  Pointer to byte data is the low 35 bits.
+        /// In addition need volatile access to the reference when resize occurs
+        private volatile AtomicLongArray pointersAndOrdinals;
+        private int size;
+        private int sizeBeforeGrow;
+
+        private Partition(int size) {
+            this.pointersAndOrdinals = emptyKeyArray(size);
+            this.sizeBeforeGrow = (int) (((float) size) * 0.7); /// 70% load factor
+            this.size = 0;
+        }
+
+        private int get(ByteDataArray serializedRepresentation, int hash) {
+            AtomicLongArray pao = pointersAndOrdinals;
+
+            int modBitmask = pao.length() - 1;
+            int bucket = bucket(hash, modBitmask);
+            long key = pao.get(bucket);
+
+            // Linear probing to resolve collisions
+            // Given the load factor it is guaranteed that the loop will terminate
+            // as there will be at least one empty bucket
+            // To ensure this is the case it is important that pointersAndOrdinals
+            // is read into a local variable and thereafter used, otherwise a concurrent
+            // size increase may break this invariant
+            while (key != EMPTY_BUCKET_VALUE) {
+                if (compare(serializedRepresentation, key)) {
+                    return (int) (key >>> BITS_PER_POINTER);
+                }
+
+                bucket = (bucket + 1) & modBitmask;
+                key = pao.get(bucket);
+            }
+
+            return -1;
+        }
+
+        /// acquire the lock before writing.
+        private synchronized int assignOrdinal(ByteDataArray serializedRepresentation, int hash, int preferredOrdinal) {
+            if (preferredOrdinal < -1 || preferredOrdinal > ORDINAL_MASK) {
+                throw new IllegalArgumentException(String.format(
+                        "The given preferred ordinal %s is out of bounds and not within the closed interval [-1, %s]",
+                        preferredOrdinal, ORDINAL_MASK));
+            }
+            if (size > sizeBeforeGrow) {
+                growKeyArray();
+            }
+
+            /// check to make sure that after acquiring the lock, the element still does not exist.
+            /// this operation is akin to double-checked locking which is 'fixed' with the JSR 133 memory model in JVM >= 1.5.
+            /// Note that this also requires pointersAndOrdinals be volatile so resizes are also visible
+            AtomicLongArray pao = pointersAndOrdinals;
+
+            int modBitmask = pao.length() - 1;
+            int bucket = bucket(hash, modBitmask);
+            long key = pao.get(bucket);
+
+            while (key != EMPTY_BUCKET_VALUE) {
+                if (compare(serializedRepresentation, key)) {
+                    return (int) (key >>> BITS_PER_POINTER);
+                }
+
+                bucket = (bucket + 1) & modBitmask;
+                key = pao.get(bucket);
+            }
+
+            /// the ordinal for this object still does not exist in the list, even after the lock has been acquired.
+            /// it is up to this thread to add it at the current bucket position.
+            synchronized (ByteArrayOrdinalMap.this) {
+                key = append(serializedRepresentation, preferredOrdinal);
+            }
+
+            size++;
+
+            /// this set on the AtomicLongArray has volatile semantics (i.e. behaves like a monitor release).
+            /// Any other thread reading this element in the AtomicLongArray will have visibility to all memory writes this thread has made up to this point.
+            /// This means the entire byte sequence is guaranteed to be visible to any thread which reads the pointer to that data.
+            pao.set(bucket, key);
+
+            return (int) (key >>> BITS_PER_POINTER);
+        }
+
+        /**
+         * Assigns ordinals to the byte sequences whose entry in {@code ordinals} is the given marker.
+         */
+        private synchronized void assignOrdinals(ByteDataArray[] serializedRepresentations, int numRepresentations, int[] ordinals, int marker) {
+            int numToAssign = 0;
+            for (int i = 0; i < numRepresentations; i++) {
+                if (ordinals[i] == marker)
+                    numToAssign++;
+            }
+
+            /// grow up front, so that the key array is not rehashed while the lock on the map is held
+            while (size + numToAssign > sizeBeforeGrow) {
+                growKeyArray();
+            }
+
+            /// the locks re-acquired by assignOrdinal are already held by this thread, so are uncontended
+            synchronized (ByteArrayOrdinalMap.this) {
+                for (int i = 0; i < numRepresentations; i++) {
+                    if (ordinals[i] == marker) {
+                        ByteDataArray serializedRepresentation = serializedRepresentations[i];
+                        ordinals[i] = assignOrdinal(serializedRepresentation, HashCodes.hashCode(serializedRepresentation), -1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Grow the key array.  All of the values in the current array must be re-hashed and added to the new array.
+         */
+        private void growKeyArray() {
+            int newSize = pointersAndOrdinals.length() << 1;
+            if (newSize < 0) {
+                throw new IllegalStateException("New size computed to grow the underlying array for the map is negative. " +
+                        "This is most likely due to the total number of keys added to map has exceeded the max capacity of the keys map can hold. "
+                        +
+                        "Current array size :" + pointersAndOrdinals.length() + " and size to grow :" + newSize);
+            }
+            growKeyArray(newSize);
+        }
+
+        private void growKeyArray(int newSize) {
+            AtomicLongArray pao = pointersAndOrdinals;
+            assert (newSize & (newSize - 1)) == 0; // power of 2
+            assert pao.length() < newSize;
+
+            AtomicLongArray newKeys = emptyKeyArray(newSize);
+
+            long[] valuesToAdd = new long[size];
+
+            int counter = 0;
+
+            /// do not iterate over these values in the same order in which they appear in the hashed array.
+            /// if we do so, we cause large clusters of collisions to appear (because we resolve collisions with linear probing).
+            for (int i = 0; i < pao.length(); i++) {
+                long key = pao.get(i);
+                if (key != EMPTY_BUCKET_VALUE) {
+                    valuesToAdd[counter++] = key;
+                }
+            }
+
+            Arrays.sort(valuesToAdd, 0, counter);
+
+            for (int i = 0; i < counter; i++) {
+                insert(newKeys, rehashPreviouslyAddedData(valuesToAdd[i]), valuesToAdd[i]);
+            }
+
+            /// 70% load factor
+            sizeBeforeGrow = (int) (((float) newSize) * 0.7);
+            pointersAndOrdinals = newKeys;
+        }
+
+        private void insert(AtomicLongArray keys, int hash, long value) {
+            int modBitmask = keys.length() - 1;
+            int bucket = bucket(hash, modBitmask);
+            while (keys.get(bucket) != EMPTY_BUCKET_VALUE) {
+                bucket = (bucket + 1) & modBitmask;
+            }
+            // Volatile store not required, could use plain store
+            // See VarHandles for JDK >= 9
+            keys.lazySet(bucket, value);
+        }
+    }
+
+}
@@ -36,7 +36,11 @@ public class ByteDataArray {
     }
 
     public ByteDataArray(ArraySegmentRecycler memoryRecycler) {
-        buf = new SegmentedByteArray(memoryRecycler);
+        this(new SegmentedByteArray(memoryRecycler));
+    }
+
+    public ByteDataArray(SegmentedByteArray buf) {
+        this.buf = buf;
     }
 
     public void write(byte b) {
@@ -5,25 +5,26 @@ import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import java.io.IOException;
-import java.util.logging.Logger;
 
 public class FixedLengthDataFactory {
 
-    private static final Logger LOG = Logger.getLogger(FixedLengthDataFactory.class.getName());
-
     public static FixedLengthData get(HollowBlobInput in, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) throws IOException {
 
         if (memoryMode.equals(MemoryMode.ON_HEAP)) {
             return FixedLengthElementArray.newFrom(in, memoryRecycler);
-        } else if (memoryMode.equals(MemoryMode.SHARED_MEMORY_LAZY)) {
+        } else if (memoryMode.isSharedMemory()) {
             return EncodedLongBuffer.newFrom(in);
         } else {
             throw new UnsupportedOperationException("Memory mode " + memoryMode.name() + " not supported");
         }
     }
 
+    /**
+     * Returns writable fixed length data of the requested size. In shared memory modes the data is staged on-heap,
+     * and is expected to be moved into shared memory with a {@link SharedMemoryScratchFile} once populated.
+     */
     public static FixedLengthData get(long numBits, MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
-        if (memoryMode.equals(MemoryMode.ON_HEAP)) {
+        if (memoryMode.equals(MemoryMode.ON_HEAP) || memoryMode.isSharedMemory()) {
             return new FixedLengthElementArray(memoryRecycler, numBits);
         } else {
             throw new UnsupportedOperationException("Memory mode " + memoryMode.name() + " not supported");
@@ -34,7 +35,7 @@ public class FixedLengthDataFactory {
         if (fld instanceof FixedLengthElementArray) {
             ((FixedLengthElementArray) fld).destroy(memoryRecycler);
         } else if (fld instanceof EncodedLongBuffer) {
-            LOG.warning("Destroy operation is a no-op in shared memory mode");
+            // no-op, the underlying mapping is released once the buffer is garbage collected
         } else {
             throw new UnsupportedOperationException("Unknown type");
         }
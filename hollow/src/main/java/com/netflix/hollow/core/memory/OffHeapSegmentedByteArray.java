@@ -0,0 +1,223 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link SegmentedByteArray} whose segments are direct {@link ByteBuffer}s allocated outside of the Java heap.<p>
+ *
+ * This is used to keep the serialized records of large write states out of the garbage collected heap, see
+ * {@link ByteArrayOrdinalMap#ByteArrayOrdinalMap(int, boolean)}.  The memory of a segment is released when the
+ * segment is no longer reachable.<p>
+ *
+ * As with the on-heap segmented byte array, the segment length is a power of two and the buffer grows automatically
+ * when a byte is written to an index greater than the currently allocated buffer.
+ */
+public class OffHeapSegmentedByteArray extends SegmentedByteArray {
+
+    public static final int DEFAULT_LOG2_SEGMENT_SIZE = 16;
+
+    private static final int SCRATCH_SIZE = 8192;
+
+    private ByteBuffer[] segments;
+    private final int log2OfSegmentSize;
+    private final int bitmask;
+
+    public OffHeapSegmentedByteArray() {
+        this(DEFAULT_LOG2_SEGMENT_SIZE);
+    }
+
+    public OffHeapSegmentedByteArray(int log2OfSegmentSize) {
+        super(new WastefulRecycler(log2OfSegmentSize, 0));
+        this.segments = new ByteBuffer[2];
+        this.log2OfSegmentSize = log2OfSegmentSize;
+        this.bitmask = (1 << log2OfSegmentSize) - 1;
+    }
+
+    @Override
+    public void set(long index, byte value) {
+        int segmentIndex = (int)(index >> log2OfSegmentSize);
+        ensureCapacity(segmentIndex);
+        segments[segmentIndex].put((int)(index & bitmask), value);
+    }
+
+    @Override
+    public byte get(long index) {
+        return segments[(int)(index >>> log2OfSegmentSize)].get((int)(index & bitmask));
+    }
+
+    /**
+     * Bytes are copied in chunks through a scratch array.  The source may be this array (e.g. when compacting), so
+     * each chunk is read completely before it is written, and the chunks are copied from the end of the range when
+     * the destination overlaps the source and follows it.
+     */
+    @Override
+    public void copy(SegmentedByteArray src, long srcPos, long destPos, long length) {
+        byte scratch[] = new byte[(int)Math.min(length, SCRATCH_SIZE)];
+
+        if(src == this && srcPos < destPos && destPos < srcPos + length) {
+            while(length > 0) {
+                int bytesToCopy = (int)Math.min(scratch.length, length);
+                length -= bytesToCopy;
+                src.copy(srcPos + length, scratch, 0, bytesToCopy);
+                put(destPos + length, scratch, bytesToCopy);
+            }
+        } else {
+            while(length > 0) {
+                int bytesToCopy = (int)Math.min(scratch.length, length);
+                src.copy(srcPos, scratch, 0, bytesToCopy);
+                put(destPos, scratch, bytesToCopy);
+                srcPos += bytesToCopy;
+                destPos += bytesToCopy;
+                length -= bytesToCopy;
+            }
+        }
+    }
+
+    private void put(long destPos, byte[] data, int length) {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int dataPosition = 0;
+
+        while(length > 0) {
+            int segmentIndex = (int)(destPos >>> log2OfSegmentSize);
+            ensureCapacity(segmentIndex);
+            ByteBuffer segment = segments[segmentIndex].duplicate();
+
+            int segmentStartPos = (int)(destPos & bitmask);
+            int bytesToCopyToSegment = Math.min(segmentSize - segmentStartPos, length);
+
+            segment.position(segmentStartPos);
+            segment.put(data, dataPosition, bytesToCopyToSegment);
+
+            dataPosition += bytesToCopyToSegment;
+            destPos += bytesToCopyToSegment;
+            length -= bytesToCopyToSegment;
+        }
+    }
+
+    @Override
+    public int copy(long srcPos, byte[] data, int destPos, int length) {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
+        int dataPosition = destPos;
+
+        while(length > 0) {
+            ByteBuffer segment = segments[(int)(srcPos >>> log2OfSegmentSize)].duplicate();
+
+            int bytesToCopyFromSegment = Math.min(remainingBytesInSegment, length);
+
+            segment.position((int)(srcPos & bitmask));
+            segment.get(data, dataPosition, bytesToCopyFromSegment);
+
+            dataPosition += bytesToCopyFromSegment;
+            srcPos += bytesToCopyFromSegment;
+            remainingBytesInSegment = segmentSize - (int)(srcPos & bitmask);
+            length -= bytesToCopyFromSegment;
+        }
+
+        return dataPosition - destPos;
+    }
+
+    /**
+     * Segments are not shared with readers of another thread while being written, so a plain copy is sufficient.
+     */
+    @Override
+    public void orderedCopy(VariableLengthData src, long srcPos, long destPos, long length) {
+        copy(src, srcPos, destPos, length);
+    }
+
+    @Override
+    int orderedCopy(long srcPos, byte[] data, int destPos, int length) {
+        return copy(srcPos, data, destPos, length);
+    }
+
+    @Override
+    public void loadFrom(HollowBlobInput is, long length) throws IOException {
+        int segmentSize = 1 << log2OfSegmentSize;
+        int segment = 0;
+
+        byte scratch[] = new byte[Math.min(segmentSize, SCRATCH_SIZE)];
+
+        while(length > 0) {
+            ensureCapacity(segment);
+            ByteBuffer dest = segments[segment++].duplicate();
+            long bytesToCopy = Math.min(segmentSize, length);
+            long bytesCopied = 0;
+            while(bytesCopied < bytesToCopy) {
+                int bytesRead = is.read(scratch, 0, (int)Math.min(scratch.length, bytesToCopy - bytesCopied));
+                dest.put(scratch, 0, bytesRead);
+                bytesCopied += bytesRead;
+            }
+            length -= bytesCopied;
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream os, long startPosition, long len) throws IOException {
+        byte scratch[] = new byte[(int)Math.min(len, SCRATCH_SIZE)];
+
+        while(len > 0) {
+            int bytesToCopy = (int)Math.min(scratch.length, len);
+            copy(startPosition, scratch, 0, bytesToCopy);
+            os.write(scratch, 0, bytesToCopy);
+
+            startPosition += bytesToCopy;
+            len -= bytesToCopy;
+        }
+    }
+
+    /**
+     * Ensures that the segment at segmentIndex exists
+     *
+     * @param segmentIndex the segment index
+     */
+    private void ensureCapacity(int segmentIndex) {
+        while(segmentIndex >= segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 3 / 2);
+        }
+
+        if(segments[segmentIndex] == null) {
+            segments[segmentIndex] = ByteBuffer.allocateDirect(1 << log2OfSegmentSize);
+        }
+    }
+
+    /**
+     * Drops the references to the segments, so that their memory may be released.
+     */
+    @Override
+    public void destroy() {
+        Arrays.fill(segments, null);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for(int i=0;i<segments.length;i++) {
+            if(segments[i] != null)
+                size += segments[i].capacity();
+        }
+
+        return size;
+    }
+
+}
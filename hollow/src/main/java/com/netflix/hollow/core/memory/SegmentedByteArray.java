@@ -167,7 +167,9 @@ public class SegmentedByteArray implements VariableLengthData {
         while(length > 0) {
             int bytesToCopyFromSegment = (int) Math.min(remainingBytesInSegment, length);
             ensureCapacity(currentSegment);
-            int copiedBytes = ((SegmentedByteArray) src).orderedCopy(srcPos, segments[currentSegment], segmentStartPos, bytesToCopyFromSegment);
+            int copiedBytes = src instanceof SegmentedByteArray
+                    ? ((SegmentedByteArray) src).orderedCopy(srcPos, segments[currentSegment], segmentStartPos, bytesToCopyFromSegment)
+                    : orderedCopy(src, srcPos, segments[currentSegment], segmentStartPos, bytesToCopyFromSegment);
 
             srcPos += copiedBytes;
             length -= copiedBytes;
@@ -188,7 +190,7 @@ public class SegmentedByteArray implements VariableLengthData {
      * @param length the length of the data to copy
      * @return the number of bytes copied
      */
-    private int orderedCopy(long srcPos, byte[] data, int destPos, int length) {
+    int orderedCopy(long srcPos, byte[] data, int destPos, int length) {
         int segmentSize = 1 << log2OfSegmentSize;
         int remainingBytesInSegment = (int)(segmentSize - (srcPos & bitmask));
         int dataPosition = destPos;
@@ -252,6 +254,20 @@ public class SegmentedByteArray implements VariableLengthData {
         }
     }
 
+    /**
+     * copies bytes from a source which is not backed by a SegmentedByteArray (e.g. data in shared memory)
+     * into the provided byte array, with the same visibility guarantee as the other ordered copies.
+     */
+    private int orderedCopy(ByteData src, long srcPos, byte[] dest, int destPos, int length) {
+        long destOffset = Unsafe.ARRAY_BYTE_BASE_OFFSET + destPos;
+
+        for(int i=0;i<length;i++) {
+            unsafe.putByteVolatile(dest, destOffset + i, src.get(srcPos + i));
+        }
+
+        return length;
+    }
+
     private void orderedCopy(byte[] src, int srcPos, byte[] dest, int destPos, int length) {
         int endSrcPos = srcPos + length;
         destPos += Unsafe.ARRAY_BYTE_BASE_OFFSET;
@@ -63,6 +63,12 @@ public class SegmentedLongArray {
         this.segments = segments;
     }
 
+    protected SegmentedLongArray(long[][] segments, int log2OfSegmentSize) {
+        this.log2OfSegmentSize = log2OfSegmentSize;
+        this.bitmask = (1 << log2OfSegmentSize) - 1;
+        this.segments = segments;
+    }
+
     /**
      * Set the long at the given index to the specified value
      *
@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * A file in a local scratch directory into which data staged on-heap (e.g. the result of applying a delta) is written
+ * and then mapped back in, so that a type state in a shared memory mode remains backed by shared memory after a
+ * transition.
+ * <p>
+ * Data is written in the same layout as in a blob, so once mapped it is read back with
+ * {@link FixedLengthDataFactory#get(HollowBlobInput, MemoryMode, com.netflix.hollow.core.memory.pool.ArraySegmentRecycler)}
+ * and {@link VariableLengthData#loadFrom(HollowBlobInput, long)}. The file is deleted when this scratch file is closed;
+ * the mapping remains valid until the data referencing it is garbage collected.
+ * <p>
+ * Not intended for external consumption.
+ */
+public class SharedMemoryScratchFile implements Closeable {
+
+    private final File file;
+    private final MemoryMode memoryMode;
+    private final DataOutputStream dos;
+    private HollowBlobInput in;
+
+    public SharedMemoryScratchFile(File scratchDir, MemoryMode memoryMode) throws IOException {
+        if(!memoryMode.isSharedMemory())
+            throw new UnsupportedOperationException("Memory mode " + memoryMode.name() + " is not a shared memory mode");
+
+        this.file = File.createTempFile("hollow-", ".scratch", scratchDir);
+        this.memoryMode = memoryMode;
+        this.dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    }
+
+    /**
+     * Writes the number of longs required to hold numBits bits of the given data, followed by those longs.
+     *
+     * @param data the data to write
+     * @param numBits the number of bits of data to write
+     * @throws IOException if the data could not be written
+     */
+    public void write(FixedLengthData data, long numBits) throws IOException {
+        long numLongs = numBits == 0 ? 0 : ((numBits - 1) / 64) + 1;
+        VarInt.writeVLong(dos, numLongs);
+
+        for(long i=0;i<numLongs;i++) {
+            dos.writeLong(data.getLargeElementValue(i * 64, 64));
+        }
+    }
+
+    /**
+     * Writes the given length, followed by that many bytes of the given data.
+     *
+     * @param data the data to write
+     * @param length the number of bytes of data to write
+     * @throws IOException if the data could not be written
+     */
+    public void write(VariableLengthData data, long length) throws IOException {
+        VarInt.writeVLong(dos, length);
+
+        if(data instanceof SegmentedByteArray) {
+            ((SegmentedByteArray) data).writeTo(dos, 0, length);
+        } else {
+            for(long i=0;i<length;i++) {
+                dos.write(data.get(i));
+            }
+        }
+    }
+
+    /**
+     * Completes writing and maps the file.
+     *
+     * @return an input positioned at the beginning of the mapped data
+     * @throws IOException if the file could not be mapped
+     */
+    public HollowBlobInput map() throws IOException {
+        // padding, so that reading the final element never extends past the end of the mapping
+        dos.writeLong(0);
+        dos.close();
+
+        in = HollowBlobInput.randomAccess(file, memoryMode);
+        return in;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            dos.close();
+            if(in != null)
+                in.close();
+        } finally {
+            if(!file.delete())
+                file.deleteOnExit();
+        }
+    }
+}
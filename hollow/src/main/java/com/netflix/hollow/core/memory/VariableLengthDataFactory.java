@@ -1,18 +1,15 @@
 package com.netflix.hollow.core.memory;
 
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
-import java.util.logging.Logger;
 
 public class VariableLengthDataFactory {
 
-    private static final Logger LOG = Logger.getLogger(VariableLengthDataFactory.class.getName());
-
     public static VariableLengthData get(MemoryMode memoryMode, ArraySegmentRecycler memoryRecycler) {
 
         if (memoryMode.equals(MemoryMode.ON_HEAP)) {
             return new SegmentedByteArray(memoryRecycler);
 
-        } else if (memoryMode.equals(MemoryMode.SHARED_MEMORY_LAZY)) {
+        } else if (memoryMode.isSharedMemory()) {
             /// list pointer array
             return new EncodedByteBuffer();
         } else {
@@ -24,7 +21,7 @@ public class VariableLengthDataFactory {
         if (vld instanceof SegmentedByteArray) {
             ((SegmentedByteArray) vld).destroy();
         } else if (vld instanceof EncodedByteBuffer) {
-            LOG.warning("Destroy operation is a no-op in shared memory mode");
+            // no-op, the underlying mapping is released once the buffer is garbage collected
         } else {
             throw new UnsupportedOperationException("Unknown type");
         }
@@ -2,12 +2,14 @@ package com.netflix.hollow.core.memory.encoding;
 
 import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
 
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.io.IOException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
 
 /**
  * <p>A stitching of {@link MappedByteBuffer}s to operate on large memory mapped blobs. {@code MappedByteBuffer} is
@@ -26,6 +28,9 @@ public final class BlobByteBuffer {
 
     public static final int MAX_SINGLE_BUFFER_CAPACITY = 1 << 30;   // largest, positive power-of-two int
 
+    private static final int PREFAULT_PAGE_SIZE = 1 << 12;          // smallest page size on supported platforms
+    private static final int PREFAULT_RANGE_SIZE = 1 << 26;         // bytes touched by a single prefault task
+
     private final ByteBuffer[] spine;   // array of MappedByteBuffers
     private final long capacity;        // in bytes
     private final int shift;
@@ -33,6 +38,8 @@ public final class BlobByteBuffer {
 
     private long position;              // within index 0 to capacity-1 in the underlying ByteBuffer
 
+    private volatile long prefaultSink; // consumes bytes read when prefaulting, so that the reads are not elided
+
     private BlobByteBuffer(long capacity, int shift, int mask, ByteBuffer[] spine) {
         this(capacity, shift, mask, spine, 0);
     }
@@ -110,6 +117,41 @@ public final class BlobByteBuffer {
         return new BlobByteBuffer(size, shift, mask, spine);
     }
 
+    /**
+     * Fault the pages of the mmap-ed blob into main memory by reading a byte from each page, so that the cost of page
+     * faults (and of reading the blob from disk) is paid up front rather than by the first reads of the data. The
+     * blob is divided into ranges which are touched concurrently.
+     *
+     * @param numThreads the number of threads used to touch pages
+     * @throws IOException if interrupted while waiting for pages to be touched
+     */
+    public void prefault(int numThreads) throws IOException {
+        SimultaneousExecutor executor = new SimultaneousExecutor(numThreads, BlobByteBuffer.class, "prefault");
+
+        for (ByteBuffer buffer : spine) {
+            for (long start = 0; start < buffer.capacity(); start += PREFAULT_RANGE_SIZE) {
+                final int from = (int) start;
+                final int to = (int) Math.min(start + PREFAULT_RANGE_SIZE, buffer.capacity());
+                executor.execute(() -> {
+                    long sum = 0;
+                    for (int i = from; i < to; i += PREFAULT_PAGE_SIZE) {
+                        sum += buffer.get(i);   // absolute get does not modify the shared buffer's position
+                    }
+                    prefaultSink = sum;
+                });
+            }
+        }
+
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while prefaulting mmap-ed blob", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to prefault mmap-ed blob", e.getCause());
+        }
+    }
+
     /**
      * Return position in bytes.
      * @return position in bytes
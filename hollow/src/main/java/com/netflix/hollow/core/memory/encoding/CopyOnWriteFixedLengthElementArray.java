@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.memory.encoding;
+
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+
+/**
+ * A {@link FixedLengthElementArray} which initially shares the {@code long[]} segments of another array, and copies
+ * a segment only before it is first written.
+ * <p>
+ * The source array is never modified, so it may continue to be read while this array is populated.  The source must
+ * not be destroyed while this array is in use, since their untouched segments are the same.  Segments beyond the end
+ * of the source, when this array is longer, are newly allocated.
+ * <p>
+ * A write to the first long of a segment also updates the fencepost long at the end of the previous segment (see
+ * {@link com.netflix.hollow.core.memory.SegmentedLongArray#set}), so both segments are copied in that case.
+ */
+public class CopyOnWriteFixedLengthElementArray extends FixedLengthElementArray {
+
+    private final ArraySegmentRecycler memoryRecycler;
+    private final boolean[] ownedSegments;
+
+    private CopyOnWriteFixedLengthElementArray(ArraySegmentRecycler memoryRecycler, long[][] segments, boolean[] ownedSegments, int log2OfSegmentSize, long numBits) {
+        super(segments, log2OfSegmentSize, numBits);
+        this.memoryRecycler = memoryRecycler;
+        this.ownedSegments = ownedSegments;
+    }
+
+    /**
+     * @param memoryRecycler the recycler from which copied and new segments are obtained, whose segment size must
+     *                       be the same as that of {@code source}
+     * @param source the array whose segments are shared
+     * @param numBits the length of the new array, in bits
+     * @return an array with the same contents as {@code source}, followed by zeros if it is longer
+     */
+    public static CopyOnWriteFixedLengthElementArray copyOf(ArraySegmentRecycler memoryRecycler, FixedLengthElementArray source, long numBits) {
+        int log2OfSegmentSize = source.getLog2OfSegmentSize();
+        if(memoryRecycler.getLog2OfLongSegmentSize() != log2OfSegmentSize)
+            throw new IllegalArgumentException("Segment size of the recycler differs from that of the source array");
+
+        long[][] sourceSegments = source.getSegments();
+        int numSegments = (int)(((numBits - 1) >>> 6) >>> log2OfSegmentSize) + 1;
+        long[][] segments = new long[numSegments][];
+        boolean[] ownedSegments = new boolean[numSegments];
+        for(int i=0;i<numSegments;i++) {
+            if(i < sourceSegments.length) {
+                segments[i] = sourceSegments[i];
+            } else {
+                segments[i] = memoryRecycler.getLongArray();
+                ownedSegments[i] = true;
+            }
+        }
+
+        return new CopyOnWriteFixedLengthElementArray(memoryRecycler, segments, ownedSegments, log2OfSegmentSize, numBits);
+    }
+
+    @Override
+    public void set(long index, long value) {
+        int segmentIndex = (int)(index >> log2OfSegmentSize);
+        ensureOwned(segmentIndex);
+        if((index & bitmask) == 0 && segmentIndex != 0)
+            ensureOwned(segmentIndex - 1);
+
+        super.set(index, value);
+    }
+
+    @Override
+    public void increment(long index, long increment) {
+        int segmentIndex = (int)(index >>> (log2OfSegmentSize + 6));
+        ensureOwned(segmentIndex);
+        if(segmentIndex != 0)
+            ensureOwned(segmentIndex - 1);
+        if(segmentIndex + 1 < segments.length)
+            ensureOwned(segmentIndex + 1);
+
+        super.increment(index, increment);
+    }
+
+    /**
+     * @return the number of segments which have been copied or allocated, rather than shared with the source
+     */
+    public int getNumOwnedSegments() {
+        int count = 0;
+        for(boolean owned : ownedSegments) {
+            if(owned)
+                count++;
+        }
+        return count;
+    }
+
+    private void ensureOwned(int segmentIndex) {
+        if(!ownedSegments[segmentIndex]) {
+            long[] shared = segments[segmentIndex];
+            long[] copy = memoryRecycler.getLongArray();
+            System.arraycopy(shared, 0, copy, 0, shared.length);
+            segments[segmentIndex] = copy;
+            ownedSegments[segmentIndex] = true;
+        }
+    }
+}
@@ -71,6 +71,21 @@ public class FixedLengthElementArray extends SegmentedLongArray implements Fixed
         this.sizeBits = numBits;
     }
 
+    protected FixedLengthElementArray(long[][] segments, int log2OfSegmentSize, long numBits) {
+        super(segments, log2OfSegmentSize);
+        this.log2OfSegmentSizeInBytes = log2OfSegmentSize + 3;
+        this.byteBitmask = (1 << log2OfSegmentSizeInBytes) - 1;
+        this.sizeBits = numBits;
+    }
+
+    long[][] getSegments() {
+        return segments;
+    }
+
+    int getLog2OfSegmentSize() {
+        return log2OfSegmentSize;
+    }
+
     public long approxHeapFootprintInBytes() {
         return sizeBits / 8;
     }
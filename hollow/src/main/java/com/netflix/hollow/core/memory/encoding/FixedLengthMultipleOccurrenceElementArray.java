@@ -65,6 +65,31 @@ public class FixedLengthMultipleOccurrenceElementArray {
         this.maxElementsPerNode = maxElementsPerNodeEstimate;
     }
 
+    private FixedLengthMultipleOccurrenceElementArray(FixedLengthMultipleOccurrenceElementArray from) {
+        this.memoryRecycler = from.memoryRecycler;
+        this.bitsPerElement = from.bitsPerElement;
+        this.elementMask = from.elementMask;
+        this.numNodes = from.numNodes;
+        this.maxElementsPerNode = from.maxElementsPerNode;
+
+        this.nodesWithOrdinalZero = new FixedLengthElementArray(memoryRecycler, numNodes);
+        this.nodesWithOrdinalZero.copyBits(from.nodesWithOrdinalZero, 0, 0, numNodes);
+        long storageBits = numNodes * bitsPerElement * maxElementsPerNode;
+        this.storage = new FixedLengthElementArray(memoryRecycler, storageBits);
+        this.storage.copyBits(from.storage, 0, 0, storageBits);
+    }
+
+    /**
+     * Returns a copy of this array. The copy can be modified while this array continues to be read.
+     * This method is not thread-safe - the caller must ensure that no one modifies this array
+     * concurrently with this method.
+     *
+     * @return a copy of this array
+     */
+    public FixedLengthMultipleOccurrenceElementArray copy() {
+        return new FixedLengthMultipleOccurrenceElementArray(this);
+    }
+
     /**
      * This method adds an element at nodeIndex. Note that this does not check for duplicates; if
      * the element already exists, another instance of it will be added.
@@ -108,6 +133,57 @@ public class FixedLengthMultipleOccurrenceElementArray {
         storage.setElementValue(currentIndex, bitsPerElement, element);
     }
 
+    /**
+     * This method removes one instance of an element at nodeIndex, if present. The last element at
+     * nodeIndex is moved into the space of the removed element, so the order of the remaining
+     * elements may change.
+     * This method is not thread-safe - you cannot call this method concurrently with itself, with
+     * {@link #addElement} or with {@link #getElements}.
+     *
+     * @param nodeIndex the node index
+     * @param element the element to remove
+     * @return true if an instance of the element was removed, otherwise false
+     */
+    public boolean removeElement(long nodeIndex, long element) {
+        if (nodeIndex >= numNodes) {
+            throw new IllegalArgumentException("Provided nodeIndex  " + nodeIndex
+                    + " greater then numNodes " + numNodes);
+        }
+        if (element == NO_ELEMENT) {
+            if (nodesWithOrdinalZero.getElementValue(nodeIndex, 1, 1) == NO_ELEMENT) {
+                return false;
+            }
+            nodesWithOrdinalZero.clearElementValue(nodeIndex, 1);
+            return true;
+        }
+        long bucketStart = nodeIndex * maxElementsPerNode * bitsPerElement;
+        int removedOffset = -1;
+        int lastOffset = -1;
+        for (int offset = 0; offset < maxElementsPerNode; offset++) {
+            long current = storage.getElementValue(bucketStart + offset * bitsPerElement,
+                    bitsPerElement, elementMask);
+            if (current == NO_ELEMENT) {
+                break; // we have exhausted the elements at this index
+            }
+            if (removedOffset == -1 && current == element) {
+                removedOffset = offset;
+            }
+            lastOffset = offset;
+        }
+        if (removedOffset == -1) {
+            return false;
+        }
+        long lastIndex = bucketStart + lastOffset * bitsPerElement;
+        long lastElement = storage.getElementValue(lastIndex, bitsPerElement, elementMask);
+        storage.clearElementValue(lastIndex, bitsPerElement);
+        if (removedOffset != lastOffset) {
+            long removedIndex = bucketStart + removedOffset * bitsPerElement;
+            storage.clearElementValue(removedIndex, bitsPerElement);
+            storage.setElementValue(removedIndex, bitsPerElement, lastElement);
+        }
+        return true;
+    }
+
     /**
      * Return a list of elements at the specified node index. The returned list may contain
      * duplicates.
@@ -30,48 +30,78 @@ public class HashCodes {
     }
 
     public static int hashCode(final String data) {
+        return hashCode((CharSequence)data);
+    }
+
+    /**
+     * Calculates the hash code of the characters as they are encoded in variable length data, as one VarInt per
+     * character, without encoding them.
+     *
+     * @param data the characters to hash
+     * @return the hash code, which is equal to the hash code of the encoded characters, or -1 if the data is null
+     */
+    public static int hashCode(CharSequence data) {
         if(data == null)
             return -1;
-        
-        int arrayLen = calculateByteArrayLength(data);
-        
-        if(arrayLen == data.length()) {
-            return hashCode(new ByteData() {
-                @Override
-                public byte get(long position) {
-                    return (byte)(data.charAt((int)position) & 0x7F);
+
+        final int c1 = 0xcc9e2d51;
+        final int c2 = 0x1b873593;
+
+        int h1 = MURMURHASH_SEED;
+        int k1 = 0;
+        int len = 0;
+
+        for(int i=0;i<data.length();i++) {
+            int c = data.charAt(i);
+            int remainingBytes = c > 0x3FFF ? 3 : c > 0x7F ? 2 : 1;
+
+            while(remainingBytes-- > 0) {
+                int b = (c >>> (7 * remainingBytes)) & 0x7F;
+                if(remainingBytes != 0)
+                    b |= 0x80;
+
+                // little endian load order
+                k1 |= b << ((len & 0x03) << 3);
+                len++;
+
+                if((len & 0x03) == 0) {
+                    k1 *= c1;
+                    k1 = (k1 << 15) | (k1 >>> 17); // ROTL32(k1,15);
+                    k1 *= c2;
+
+                    h1 ^= k1;
+                    h1 = (h1 << 13) | (h1 >>> 19); // ROTL32(h1,13);
+                    h1 = h1 * 5 + 0xe6546b64;
+                    k1 = 0;
                 }
-            }, 0, data.length());
-        } else {
-            byte[] array = createByteArrayFromString(data, arrayLen);
+            }
+        }
 
-            return hashCode(array);
+        // tail
+        if((len & 0x03) != 0) {
+            k1 *= c1;
+            k1 = (k1 << 15) | (k1 >>> 17); // ROTL32(k1,15);
+            k1 *= c2;
+            h1 ^= k1;
         }
+
+        // finalization
+        h1 ^= len;
+
+        // fmix(h1);
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+
+        return h1;
     }
-    
+
     public static int hashCode(byte[] data) {
         return hashCode(new ArrayByteData(data), 0, data.length);
     }
 
-    private static int calculateByteArrayLength(String data) {
-        int length = data.length();
-        for(int i=0;i<data.length();i++) {
-            if(data.charAt(i) > 0x7F)
-                length += VarInt.sizeOfVInt(data.charAt(i)) - 1;
-        }
-        return length;
-    }
-
-    private static byte[] createByteArrayFromString(String data, int arrayLen) {
-        byte array[] = new byte[arrayLen];
-
-        int pos = 0;
-        for(int i=0;i<data.length();i++) {
-            pos = VarInt.writeVInt(array, pos, data.charAt(i));
-        }
-        return array;
-    }
-    
     /**
      * MurmurHash3.  Adapted from:<p>
      *
@@ -1,16 +1,19 @@
 package com.netflix.hollow.core.read;
 
 import static com.netflix.hollow.core.memory.MemoryMode.ON_HEAP;
+import static com.netflix.hollow.core.memory.MemoryMode.SHARED_MEMORY_EAGER;
 import static com.netflix.hollow.core.memory.MemoryMode.SHARED_MEMORY_LAZY;
 import static com.netflix.hollow.core.memory.encoding.BlobByteBuffer.MAX_SINGLE_BUFFER_CAPACITY;
 
 import com.netflix.hollow.api.consumer.HollowConsumer;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.BlobByteBuffer;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
@@ -21,10 +24,13 @@ import java.nio.channels.FileChannel;
  * as the underlying resource for Hollow Producer/Consumer Blob to support the different memory modes.
  */
 public class HollowBlobInput implements Closeable {
+    private static final int SLICE_READ_BUFFER_SIZE = 1 << 16;
+
     private final MemoryMode memoryMode;
 
     private Object input;
     private BlobByteBuffer buffer;
+    private File file;
 
     private HollowBlobInput(MemoryMode memoryMode) {
         this.memoryMode = memoryMode;
@@ -46,8 +52,8 @@ public class HollowBlobInput implements Closeable {
     public static HollowBlobInput modeBasedSelector(MemoryMode mode, HollowConsumer.Blob blob) throws IOException {
         if (mode.equals(ON_HEAP)) {
             return serial(blob.getInputStream());
-        } else if (mode.equals(SHARED_MEMORY_LAZY)) {
-            return randomAccess(blob.getFile());
+        } else if (mode.isSharedMemory()) {
+            return randomAccess(blob.getFile(), mode);
         } else {
             throw new UnsupportedOperationException();
         }
@@ -66,8 +72,8 @@ public class HollowBlobInput implements Closeable {
     public static HollowBlobInput modeBasedSelector(MemoryMode mode, OptionalBlobPartInput input, String partName) throws IOException {
         if (mode.equals(ON_HEAP)) {
             return serial(input.getInputStream(partName));
-        } else if (mode.equals(SHARED_MEMORY_LAZY)) {
-            return randomAccess(input.getFile(partName));
+        } else if (mode.isSharedMemory()) {
+            return randomAccess(input.getFile(partName), mode);
         } else {
             throw new UnsupportedOperationException();
         }
@@ -89,11 +95,113 @@ public class HollowBlobInput implements Closeable {
      * Useful for testing with custom buffer capacity
      */
     public static HollowBlobInput randomAccess(File f,int singleBufferCapacity) throws IOException {
-        HollowBlobInput hbi = new HollowBlobInput(SHARED_MEMORY_LAZY);
+        return randomAccess(f, SHARED_MEMORY_LAZY, singleBufferCapacity);
+    }
+
+    /**
+     * Initialize a random access Hollow Blob input object from a file, for the given shared memory mode. In
+     * {@code SHARED_MEMORY_EAGER} mode all pages of the file are faulted into main memory before this method returns.
+     * The returned HollowBlobInput object must be closed to free up resources.
+     *
+     * @param f file containing the Hollow blob
+     * @param mode Configured memory mode, one of the shared memory modes
+     * @return a random access HollowBlobInput object
+     * @throws IOException if the mmap operation reported an IOException
+     */
+    public static HollowBlobInput randomAccess(File f, MemoryMode mode) throws IOException {
+        return randomAccess(f, mode, MAX_SINGLE_BUFFER_CAPACITY);
+    }
+
+    /**
+     * Useful for testing with custom buffer capacity
+     */
+    public static HollowBlobInput randomAccess(File f, MemoryMode mode, int singleBufferCapacity) throws IOException {
+        if (!mode.isSharedMemory()) {
+            throw new UnsupportedOperationException("Memory mode " + mode.name() + " does not support random access");
+        }
+        HollowBlobInput hbi = new HollowBlobInput(mode);
         RandomAccessFile raf = new RandomAccessFile(f, "r");
         hbi.input = raf;
+        hbi.file = f;
         FileChannel channel = ((RandomAccessFile) hbi.input).getChannel();
         hbi.buffer = BlobByteBuffer.mmapBlob(channel, singleBufferCapacity);
+        if (mode.equals(SHARED_MEMORY_EAGER)) {
+            try {
+                hbi.buffer.prefault(Runtime.getRuntime().availableProcessors());
+            } catch (IOException e) {
+                raf.close();
+                throw e;
+            }
+        }
+        return hbi;
+    }
+
+    /**
+     * Initialize a seekable Hollow Blob Input object from a file, for the given memory mode. In shared memory modes this
+     * is equivalent to {@link #randomAccess(File, MemoryMode)}. In {@code ON_HEAP} mode the file is not mmap-ed, instead
+     * independent serial inputs over byte ranges of the file can be obtained with {@link #slice(long)}, which allows
+     * type states to be read concurrently. The returned HollowBlobInput object must be closed to free up resources.
+     *
+     * @param f file containing the Hollow blob
+     * @param mode Configured memory mode
+     * @return a seekable HollowBlobInput object
+     * @throws IOException if the file could not be opened or mmap-ed
+     */
+    public static HollowBlobInput seekable(File f, MemoryMode mode) throws IOException {
+        if (mode.equals(ON_HEAP)) {
+            HollowBlobInput hbi = new HollowBlobInput(ON_HEAP);
+            hbi.input = new RandomAccessFile(f, "r");
+            hbi.file = f;
+            return hbi;
+        } else if (mode.isSharedMemory()) {
+            return randomAccess(f, mode);
+        } else {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Returns whether independent inputs positioned at arbitrary offsets of the underlying file can be obtained
+     * from this Hollow Blob Input via {@link #slice(long)}.
+     *
+     * @return true if this input is backed by a file and supports slicing
+     */
+    public boolean isSeekable() {
+        return file != null && input instanceof RandomAccessFile;
+    }
+
+    /**
+     * Initialize a new Hollow Blob Input, of the same memory mode, positioned at the given offset of the file
+     * backing this input. The returned input has its own file pointer and may be read from a different thread than
+     * this input. In shared memory mode the mmap-ed buffer is shared (as a duplicate view) with this input. The
+     * returned HollowBlobInput object must be closed to free up resources.
+     *
+     * @param offset the position in bytes from the beginning of the file
+     * @return a new HollowBlobInput positioned at the given offset
+     * @throws IOException if the file could not be opened
+     * @throws UnsupportedOperationException if this input is not seekable
+     */
+    public HollowBlobInput slice(long offset) throws IOException {
+        if (!isSeekable()) {
+            throw new UnsupportedOperationException("Can not slice Hollow Blob Input that is not backed by a file");
+        }
+        if (memoryMode.equals(ON_HEAP)) {
+            FileInputStream fis = new FileInputStream(file);
+            try {
+                fis.getChannel().position(offset);
+            } catch (IOException e) {
+                fis.close();
+                throw e;
+            }
+            return serial(new BufferedInputStream(fis, SLICE_READ_BUFFER_SIZE));
+        }
+
+        HollowBlobInput hbi = new HollowBlobInput(memoryMode);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        hbi.input = raf;
+        hbi.file = file;
+        hbi.buffer = buffer.duplicate();
+        raf.seek(offset);
         return hbi;
     }
 
@@ -189,6 +297,23 @@ public class HollowBlobInput implements Closeable {
         }
     }
 
+    /**
+     * Returns the length of the file underlying this input by relaying the call to the underlying
+     * {@code RandomAccessFile}. Operation not supported if the Hollow Blob Input is an {@code DataInputStream}.
+     *
+     * @return the length of the file, in bytes
+     * @exception IOException if an I/O error occurs.
+     */
+    public long length() throws IOException {
+        if (input instanceof RandomAccessFile) {
+            return ((RandomAccessFile) input).length();
+        } else if (input instanceof DataInputStream) {
+            throw new UnsupportedOperationException("Can not get length of Hollow Blob Input of type DataInputStream");
+        } else {
+            throw new UnsupportedOperationException("Unknown Hollow Blob Input type");
+        }
+    }
+
     /**
      * Reads two bytes from the input (at the current file pointer) into a signed 16-bit short, and advances the offset
      * in input.
@@ -234,9 +234,9 @@ public class HollowReadFieldUtils {
                     return Arrays.equals(typeAccess.readBytes(ordinal, fieldPosition), (byte[])testObject);
                 return testObject == null && typeAccess.readBytes(ordinal, fieldPosition) == null;
             case STRING:
-                if(testObject instanceof String)
-                    return testObject.equals(typeAccess.readString(ordinal, fieldPosition));
-                return testObject == null && typeAccess.readString(ordinal, fieldPosition) == null;
+                if(testObject instanceof CharSequence)
+                    return typeAccess.isStringFieldEqual(ordinal, fieldPosition, (CharSequence)testObject);
+                return testObject == null && typeAccess.isNull(ordinal, fieldPosition);
             case DOUBLE:
                 if(testObject instanceof Double)
                     return testObject.equals(typeAccess.readDouble(ordinal, fieldPosition));
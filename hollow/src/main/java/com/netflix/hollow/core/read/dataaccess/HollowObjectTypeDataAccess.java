@@ -101,6 +101,81 @@ public interface HollowObjectTypeDataAccess extends HollowTypeDataAccess {
      */
     boolean isStringFieldEqual(int ordinal, int fieldIndex, String testValue);
 
+    /**
+     * Tests the field's value for equality without decoding it into a {@code String}.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param testValue the characters to test against, which may be null
+     * @return whether or not the {@link FieldType#STRING} field's value at the specified fieldIndex for the specified ordinal is exactly equal to the given characters.
+     */
+    default boolean isStringFieldEqual(int ordinal, int fieldIndex, CharSequence testValue) {
+        String value = readString(ordinal, fieldIndex);
+        return value == null ? testValue == null : testValue != null && value.contentEquals(testValue);
+    }
+
+    /**
+     * Compares the field's value lexicographically, as {@link String#compareTo(String)}, without decoding it into a
+     * {@code String}.  A null value is ordered before any other value.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param testValue the characters to compare against, which may be null
+     * @return a negative number, zero, or a positive number as the {@link FieldType#STRING} field's value at the specified fieldIndex for the specified ordinal is less than, equal to, or greater than the given characters.
+     */
+    default int compareStringField(int ordinal, int fieldIndex, CharSequence testValue) {
+        String value = readString(ordinal, fieldIndex);
+        if(value == null)
+            return testValue == null ? 0 : -1;
+        return testValue == null ? 1 : value.compareTo(testValue.toString());
+    }
+
+    /**
+     * Tests whether the field's value starts with the given prefix without decoding it into a {@code String}.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param prefix the prefix
+     * @return whether or not the {@link FieldType#STRING} field's value at the specified fieldIndex for the specified ordinal is non-null and starts with the given prefix.
+     */
+    default boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, CharSequence prefix) {
+        String value = readString(ordinal, fieldIndex);
+        return value != null && value.startsWith(prefix.toString());
+    }
+
+    /**
+     * Copies the field's value into the given array without decoding it into a {@code String}.  If the value is longer
+     * than the array, only as many characters as fit are copied.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param dest the array to copy the characters of the value into, from its start
+     * @return the length of the {@link FieldType#STRING} field's value at the specified fieldIndex for the specified ordinal, or -1 if the value is null.
+     */
+    default int readStringInto(int ordinal, int fieldIndex, char[] dest) {
+        String value = readString(ordinal, fieldIndex);
+        if(value == null)
+            return -1;
+        value.getChars(0, Math.min(value.length(), dest.length), dest, 0);
+        return value.length();
+    }
+
+    /**
+     * Appends the field's value to the given builder without decoding it into a {@code String}.
+     *
+     * @param ordinal the ordinal
+     * @param fieldIndex the field index
+     * @param dest the builder to append the characters of the value to
+     * @return whether or not the {@link FieldType#STRING} field's value at the specified fieldIndex for the specified ordinal is non-null, and so was appended.
+     */
+    default boolean readStringInto(int ordinal, int fieldIndex, StringBuilder dest) {
+        String value = readString(ordinal, fieldIndex);
+        if(value == null)
+            return false;
+        dest.append(value);
+        return true;
+    }
+
     /**
      * @param ordinal the ordinal
      * @param fieldIndex the field index
@@ -90,6 +90,31 @@ public class HollowObjectProxyDataAccess extends HollowTypeProxyDataAccess imple
         return ((HollowObjectTypeDataAccess) currentDataAccess).isStringFieldEqual(ordinal, fieldIndex, testValue);
     }
 
+    @Override
+    public boolean isStringFieldEqual(int ordinal, int fieldIndex, CharSequence testValue) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).isStringFieldEqual(ordinal, fieldIndex, testValue);
+    }
+
+    @Override
+    public int compareStringField(int ordinal, int fieldIndex, CharSequence testValue) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).compareStringField(ordinal, fieldIndex, testValue);
+    }
+
+    @Override
+    public boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, CharSequence prefix) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).isStringFieldPrefixedBy(ordinal, fieldIndex, prefix);
+    }
+
+    @Override
+    public int readStringInto(int ordinal, int fieldIndex, char[] dest) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).readStringInto(ordinal, fieldIndex, dest);
+    }
+
+    @Override
+    public boolean readStringInto(int ordinal, int fieldIndex, StringBuilder dest) {
+        return ((HollowObjectTypeDataAccess) currentDataAccess).readStringInto(ordinal, fieldIndex, dest);
+    }
+
     @Override
     public int findVarLengthFieldHashCode(int ordinal, int fieldIndex) {
         return ((HollowObjectTypeDataAccess) currentDataAccess).findVarLengthFieldHashCode(ordinal, fieldIndex);
@@ -18,6 +18,7 @@ package com.netflix.hollow.core.read.engine;
 
 import com.netflix.hollow.core.HollowBlobHeader;
 import com.netflix.hollow.core.HollowBlobOptionalPartHeader;
+import com.netflix.hollow.core.HollowBlobTypeOffsetIndex;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -61,7 +62,12 @@ public class HollowBlobHeaderReader {
             header.setSchemas(readSchemas(in));
 
             /// forwards-compatibility, new data can be added here.
-            skipForwardCompatibilityBytes(in);
+            int forwardCompatibilityBytes = VarInt.readVInt(in);
+            if(forwardCompatibilityBytes > 0) {
+                int blobFeatures = VarInt.readVInt(in);
+                header.setBlobFeatures(blobFeatures);
+                skipBytes(in, forwardCompatibilityBytes - VarInt.sizeOfVInt(blobFeatures));
+            }
         }
 
         Map<String, String> headerTags = readHeaderTags(in);
@@ -105,8 +111,48 @@ public class HollowBlobHeaderReader {
         return schemas;
     }
     
+    /**
+     * Read the type offset index trailer of a blob whose header has the {@link HollowBlobHeader#FEATURE_TYPE_OFFSET_INDEX}
+     * feature. The input must be seekable; its position is unchanged when this method returns.
+     *
+     * @param in the Hollow blob input, backed by a file containing the entire blob
+     * @return the type offset index
+     * @throws IOException if the index could not be read
+     */
+    public HollowBlobTypeOffsetIndex readTypeOffsetIndex(HollowBlobInput in) throws IOException {
+        long position = in.getFilePointer();
+
+        in.seek(in.length() - HollowBlobTypeOffsetIndex.TRAILER_FOOTER_LENGTH);
+        long indexOffset = in.readLong();
+        if(in.readInt() != HollowBlobTypeOffsetIndex.TRAILER_FOOTER_MAGIC)
+            throw new IOException("The HollowBlob type offset index trailer is missing or corrupt");
+
+        in.seek(indexOffset);
+        HollowBlobTypeOffsetIndex index = new HollowBlobTypeOffsetIndex();
+        int numTypes = VarInt.readVInt(in);
+        for(int i=0;i<numTypes;i++) {
+            String typeName = in.readUTF();
+            long offset = VarInt.readVLong(in);
+            long length = VarInt.readVLong(in);
+            int numShards = VarInt.readVInt(in);
+            long[] shardOffsets = new long[numShards];
+            long[] shardLengths = new long[numShards];
+            for(int j=0;j<numShards;j++) {
+                shardOffsets[j] = VarInt.readVLong(in);
+                shardLengths[j] = VarInt.readVLong(in);
+            }
+            index.addType(new HollowBlobTypeOffsetIndex.TypeOffsets(typeName, offset, length, shardOffsets, shardLengths));
+        }
+
+        in.seek(position);
+        return index;
+    }
+
     private void skipForwardCompatibilityBytes(HollowBlobInput in) throws IOException, EOFException {
-        int bytesToSkip = VarInt.readVInt(in);
+        skipBytes(in, VarInt.readVInt(in));
+    }
+
+    private void skipBytes(HollowBlobInput in, int bytesToSkip) throws IOException, EOFException {
         while(bytesToSkip > 0) {
             int skippedBytes = (int)in.skipBytes(bytesToSkip);
             if(skippedBytes < 0)
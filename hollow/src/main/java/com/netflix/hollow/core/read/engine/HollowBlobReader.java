@@ -18,7 +18,10 @@ package com.netflix.hollow.core.read.engine;
 
 import com.netflix.hollow.core.HollowBlobHeader;
 import com.netflix.hollow.core.HollowBlobOptionalPartHeader;
+import com.netflix.hollow.core.HollowBlobTypeOffsetIndex;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.memory.pool.SynchronizedRecycler;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.OptionalBlobPartInput;
@@ -33,15 +36,18 @@ import com.netflix.hollow.core.schema.HollowMapSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.schema.HollowSetSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
 /**
@@ -55,6 +61,7 @@ public class HollowBlobReader {
     private final HollowReadStateEngine stateEngine;
     private final MemoryMode memoryMode;
     private final HollowBlobHeaderReader headerReader;
+    private int snapshotLoadParallelism = 1;
 
     public HollowBlobReader(HollowReadStateEngine stateEngine) {
         this(stateEngine, new HollowBlobHeaderReader());
@@ -74,6 +81,25 @@ public class HollowBlobReader {
         this.memoryMode = memoryMode;
     }
 
+    /**
+     * Set the number of threads used to populate type states when reading a snapshot.
+     * <p>
+     * When greater than 1, and the snapshot is read from a seekable {@link HollowBlobInput} (see
+     * {@link HollowBlobInput#seekable(java.io.File, MemoryMode)}), the type headers in the blob are first scanned to
+     * locate each type's data, then each type is populated concurrently from an independent slice of the input.
+     * Otherwise types are populated serially.
+     * <p>
+     * When greater than 1, the main input and the inputs of each optional blob part are also read concurrently.
+     * Defaults to 1.
+     *
+     * @param snapshotLoadParallelism the maximum number of types to populate concurrently
+     */
+    public void setSnapshotLoadParallelism(int snapshotLoadParallelism) {
+        if(snapshotLoadParallelism < 1)
+            throw new IllegalArgumentException("Snapshot load parallelism must be at least 1");
+        this.snapshotLoadParallelism = snapshotLoadParallelism;
+    }
+
     /**
      * Initialize the state engine using a snapshot blob from the provided input stream.
      *
@@ -159,25 +185,28 @@ public class HollowBlobReader {
 
         long startTime = System.currentTimeMillis();
 
-        int numStates = VarInt.readVInt(in);
-
         Collection<String> typeNames = new TreeSet<>();
-        for(int i=0;i<numStates;i++) {
-            String typeName = readTypeStateSnapshot(in, filter);
-            typeNames.add(typeName);
-        }
+        List<DeferredTypeStateSnapshot> deferredSnapshots = new ArrayList<>();
 
-        if(optionalPartInputs != null) {
-            for(Map.Entry<String, HollowBlobInput> optionalPartEntry : optionalPartInputs.entrySet()) {
-                numStates = VarInt.readVInt(optionalPartEntry.getValue());
+        HollowBlobTypeOffsetIndex typeOffsetIndex = null;
+        if(header.hasBlobFeature(HollowBlobHeader.FEATURE_TYPE_OFFSET_INDEX) && in.isSeekable())
+            typeOffsetIndex = headerReader.readTypeOffsetIndex(in);
 
-                for(int i=0;i<numStates;i++) {
-                    String typeName = readTypeStateSnapshot(optionalPartEntry.getValue(), filter);
-                    typeNames.add(typeName);
+        if(snapshotLoadParallelism > 1 && optionalPartInputs != null && !optionalPartInputs.isEmpty()) {
+            readTypeStateSnapshotsConcurrently(in, typeOffsetIndex, optionalPartInputs, filter, typeNames, deferredSnapshots);
+        } else {
+            readTypeStateSnapshots(in, typeOffsetIndex, filter, typeNames, deferredSnapshots, stateEngine.getMemoryRecycler());
+
+            if(optionalPartInputs != null) {
+                for(Map.Entry<String, HollowBlobInput> optionalPartEntry : optionalPartInputs.entrySet()) {
+                    readTypeStateSnapshots(optionalPartEntry.getValue(), null, filter, typeNames, deferredSnapshots, stateEngine.getMemoryRecycler());
                 }
             }
         }
 
+        if(!deferredSnapshots.isEmpty())
+            populateDeferredTypeStateSnapshots(deferredSnapshots);
+
         stateEngine.wireTypeStatesToSchemas();
 
         long endTime = System.currentTimeMillis();
@@ -318,56 +347,152 @@ public class HollowBlobReader {
         }
     }
 
-    private String readTypeStateSnapshot(HollowBlobInput in, TypeFilter filter) throws IOException {
-        HollowSchema schema = HollowSchema.readFrom(in);
-        int numShards = readNumShards(in);
-        String typeName = schema.getName();
+    /**
+     * Reads the main input and each optional part concurrently, so that the parts, which are independent inputs, are
+     * retrieved and populated in parallel.  Types in the main input may additionally be deferred, as when the parts
+     * are read serially.
+     */
+    private void readTypeStateSnapshotsConcurrently(HollowBlobInput in, HollowBlobTypeOffsetIndex typeOffsetIndex,
+            Map<String, HollowBlobInput> optionalPartInputs, TypeFilter filter,
+            Collection<String> typeNames, List<DeferredTypeStateSnapshot> deferredSnapshots) throws IOException {
+        ArraySegmentRecycler memoryRecycler = new SynchronizedRecycler(stateEngine.getMemoryRecycler());
+        Collection<String> concurrentTypeNames = Collections.synchronizedCollection(typeNames);
+        List<DeferredTypeStateSnapshot> concurrentDeferredSnapshots = Collections.synchronizedList(deferredSnapshots);
+        SimultaneousExecutor executor = new SimultaneousExecutor(Math.min(snapshotLoadParallelism, optionalPartInputs.size() + 1),
+                HollowBlobReader.class, "snapshot-part-load");
+
+        executor.execute(() -> {
+            try {
+                readTypeStateSnapshots(in, typeOffsetIndex, filter, concurrentTypeNames, concurrentDeferredSnapshots, memoryRecycler);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        for(final HollowBlobInput partIn : optionalPartInputs.values()) {
+            executor.execute(() -> {
+                try {
+                    readTypeStateSnapshots(partIn, null, filter, concurrentTypeNames, concurrentDeferredSnapshots, memoryRecycler);
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
 
+        awaitSnapshotLoad(executor);
+    }
 
-        if(schema instanceof HollowObjectSchema) {
-            if(!filter.includes(typeName)) {
-                HollowObjectTypeReadState.discardSnapshot(in, (HollowObjectSchema)schema, numShards);
+    private void readTypeStateSnapshots(HollowBlobInput in, HollowBlobTypeOffsetIndex typeOffsetIndex, TypeFilter filter,
+            Collection<String> typeNames, List<DeferredTypeStateSnapshot> deferredSnapshots,
+            ArraySegmentRecycler memoryRecycler) throws IOException {
+        boolean deferPopulation = snapshotLoadParallelism > 1 && in.isSeekable();
+        int numStates = VarInt.readVInt(in);
 
+        for(int i=0;i<numStates;i++) {
+            HollowSchema schema = HollowSchema.readFrom(in);
+            int numShards = readNumShards(in);
+            typeNames.add(schema.getName());
+
+            HollowBlobTypeOffsetIndex.TypeOffsets typeOffsets = typeOffsetIndex == null ? null : typeOffsetIndex.getType(schema.getName());
+
+            HollowTypeReadState typeState = createTypeState(schema, filter, numShards);
+            if(typeState == null) {
+                skipTypeStateSnapshot(in, typeOffsets, schema, numShards);
+            } else if(deferPopulation) {
+                /// register the type state now and populate it later from an independent input, skipping past the
+                /// type's data here to find the offset of the next type
+                addTypeState(typeState);
+                deferredSnapshots.add(new DeferredTypeStateSnapshot(in, in.getFilePointer(), typeState, numShards));
+                skipTypeStateSnapshot(in, typeOffsets, schema, numShards);
             } else {
-                HollowObjectSchema unfilteredSchema = (HollowObjectSchema)schema;
-                HollowObjectSchema filteredSchema = unfilteredSchema.filterSchema(filter);
-                populateTypeStateSnapshotWithNumShards(in, new HollowObjectTypeReadState(stateEngine, memoryMode, filteredSchema, unfilteredSchema), numShards);
+                addTypeState(typeState);
+                populateTypeStateSnapshot(in, typeState, numShards, memoryRecycler);
             }
-        } else if (schema instanceof HollowListSchema) {
-            if(!filter.includes(typeName)) {
-                HollowListTypeReadState.discardSnapshot(in, numShards);
-            } else {
-                populateTypeStateSnapshot(in, new HollowListTypeReadState(stateEngine, memoryMode, (HollowListSchema)schema, numShards));
+        }
+    }
+
+    private void addTypeState(HollowTypeReadState typeState) {
+        // type states may be added concurrently, when optional parts are read concurrently
+        synchronized(stateEngine) {
+            stateEngine.addTypeState(typeState);
+        }
+    }
+
+    private HollowTypeReadState createTypeState(HollowSchema schema, TypeFilter filter, int numShards) {
+        String typeName = schema.getName();
+        if(!filter.includes(typeName))
+            return null;
+
+        if(schema instanceof HollowObjectSchema) {
+            if (numShards<=0 || ((numShards&(numShards-1))!=0)) {
+                throw new IllegalArgumentException("Number of shards must be a power of 2!");
             }
+
+            HollowObjectSchema unfilteredSchema = (HollowObjectSchema)schema;
+            HollowObjectSchema filteredSchema = unfilteredSchema.filterSchema(filter);
+            return new HollowObjectTypeReadState(stateEngine, memoryMode, filteredSchema, unfilteredSchema);
+        } else if (schema instanceof HollowListSchema) {
+            return new HollowListTypeReadState(stateEngine, memoryMode, (HollowListSchema)schema, numShards);
         } else if(schema instanceof HollowSetSchema) {
-            if(!filter.includes(typeName)) {
-                HollowSetTypeReadState.discardSnapshot(in, numShards);
-            } else {
-                populateTypeStateSnapshot(in, new HollowSetTypeReadState(stateEngine, memoryMode, (HollowSetSchema)schema, numShards));
-            }
+            return new HollowSetTypeReadState(stateEngine, memoryMode, (HollowSetSchema)schema, numShards);
         } else if(schema instanceof HollowMapSchema) {
-            if(!filter.includes(typeName)) {
-                HollowMapTypeReadState.discardSnapshot(in, numShards);
-            } else {
-                populateTypeStateSnapshot(in, new HollowMapTypeReadState(stateEngine, memoryMode, (HollowMapSchema)schema, numShards));
-            }
+            return new HollowMapTypeReadState(stateEngine, memoryMode, (HollowMapSchema)schema, numShards);
         }
 
-        return typeName;
+        return null;
+    }
+
+    private void populateTypeStateSnapshot(HollowBlobInput in, HollowTypeReadState typeState, int numShards, ArraySegmentRecycler memoryRecycler) throws IOException {
+        typeState.readSnapshot(in, memoryRecycler, numShards);
     }
 
-    private void populateTypeStateSnapshot(HollowBlobInput in, HollowTypeReadState typeState) throws IOException {
-        stateEngine.addTypeState(typeState);
-        typeState.readSnapshot(in, stateEngine.getMemoryRecycler());
+    private void populateDeferredTypeStateSnapshots(List<DeferredTypeStateSnapshot> deferredSnapshots) throws IOException {
+        ArraySegmentRecycler memoryRecycler = new SynchronizedRecycler(stateEngine.getMemoryRecycler());
+        SimultaneousExecutor executor = new SimultaneousExecutor(Math.min(snapshotLoadParallelism, deferredSnapshots.size()),
+                HollowBlobReader.class, "snapshot-load");
+
+        for(final DeferredTypeStateSnapshot deferred : deferredSnapshots) {
+            executor.execute(() -> {
+                try(HollowBlobInput slice = deferred.in.slice(deferred.offset)) {
+                    populateTypeStateSnapshot(slice, deferred.typeState, deferred.numShards, memoryRecycler);
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        awaitSnapshotLoad(executor);
     }
 
-    private void populateTypeStateSnapshotWithNumShards(HollowBlobInput in, HollowTypeReadState typeState, int numShards) throws IOException {
-        if (numShards<=0 || ((numShards&(numShards-1))!=0)) {
-            throw new IllegalArgumentException("Number of shards must be a power of 2!");
+    private static void awaitSnapshotLoad(SimultaneousExecutor executor) throws IOException {
+        try {
+            executor.awaitSuccessfulCompletion();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading snapshot", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new RuntimeException(e.getCause());
         }
+    }
+
+    private void skipTypeStateSnapshot(HollowBlobInput in, HollowBlobTypeOffsetIndex.TypeOffsets typeOffsets,
+            HollowSchema schema, int numShards) throws IOException {
+        if(typeOffsets != null)
+            in.seek(typeOffsets.getEndOffset());
+        else
+            discardSnapshot(in, schema, numShards);
+    }
 
-        stateEngine.addTypeState(typeState);
-        typeState.readSnapshot(in, stateEngine.getMemoryRecycler(), numShards);
+    private void discardSnapshot(HollowBlobInput in, HollowSchema schema, int numShards) throws IOException {
+        if(schema instanceof HollowObjectSchema)
+            HollowObjectTypeReadState.discardSnapshot(in, (HollowObjectSchema)schema, numShards);
+        else if(schema instanceof HollowListSchema)
+            HollowListTypeReadState.discardSnapshot(in, numShards);
+        else if(schema instanceof HollowSetSchema)
+            HollowSetTypeReadState.discardSnapshot(in, numShards);
+        else if(schema instanceof HollowMapSchema)
+            HollowMapTypeReadState.discardSnapshot(in, numShards);
     }
 
     private String readTypeStateDelta(HollowBlobInput in) throws IOException {
@@ -423,4 +548,18 @@ public class HollowBlobReader {
                     "HollowBlobInput of mode %s was provided", memoryMode, inputMode));
         }
     }
+
+    private static class DeferredTypeStateSnapshot {
+        private final HollowBlobInput in;
+        private final long offset;
+        private final HollowTypeReadState typeState;
+        private final int numShards;
+
+        DeferredTypeStateSnapshot(HollowBlobInput in, long offset, HollowTypeReadState typeState, int numShards) {
+            this.in = in;
+            this.offset = offset;
+            this.typeState = typeState;
+            this.numShards = numShards;
+        }
+    }
 }
@@ -33,6 +33,8 @@ import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.schema.HollowSetSchema;
 import com.netflix.hollow.core.util.DefaultHashCodeFinder;
 import com.netflix.hollow.core.util.HollowObjectHashCodeFinder;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -56,6 +58,10 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
     private final HollowObjectHashCodeFinder hashCodeFinder;
     private final boolean listenToAllPopulatedOrdinals;
     private boolean skipTypeShardUpdateWithNoAdditions;
+    private boolean maintainIncrementalChecksums;
+    private boolean columnarObjectEncoding;
+    private boolean stringDictionaryEncoding;
+    private File sharedMemoryScratchDir = new File(System.getProperty("java.io.tmpdir"));
     private ArraySegmentRecycler memoryRecycler;
     private Map<String,String> headerTags;
     private Set<String> typesWithDefinedHashCodes = new HashSet<String>();
@@ -107,6 +113,10 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
             typeState.addListener(new PopulatedOrdinalListener());
         }
 
+        if(maintainIncrementalChecksums) {
+            typeState.addListener(new IncrementalChecksumListener(typeState));
+        }
+
         List<HollowTypeStateListener> list = listeners.get(typeState.getSchema().getName());
         if(list != null) {
             for(HollowTypeStateListener listener : list)
@@ -242,6 +252,62 @@ public class HollowReadStateEngine implements HollowStateEngine, HollowDataAcces
         return skipTypeShardUpdateWithNoAdditions;
     }
 
+    /**
+     * Experimental: Maintain an order-independent checksum of each type, which is updated from the records added and
+     * removed as deltas are applied.  This must be set before a snapshot is read.
+     *
+     * @see HollowChecksum#forStateEngineIncrementally(HollowReadStateEngine, HollowReadStateEngine)
+     */
+    public void setMaintainIncrementalChecksums(boolean maintainIncrementalChecksums) {
+        this.maintainIncrementalChecksums = maintainIncrementalChecksums;
+    }
+
+    public boolean isMaintainIncrementalChecksums() {
+        return maintainIncrementalChecksums;
+    }
+
+    /**
+     * Experimental: Store the fixed length fields of object types on-heap as a column per field, each encoded with as
+     * few bits per value as the field's values allow, rather than as records in which each field has the width
+     * required by its largest value.  This reduces the heap footprint of fields with a narrow range or few distinct
+     * values, at the cost of re-encoding each updated shard when a delta is applied.  This must be set before a
+     * snapshot is read, and has no effect in shared memory modes.
+     */
+    public void setColumnarObjectEncoding(boolean columnarObjectEncoding) {
+        this.columnarObjectEncoding = columnarObjectEncoding;
+    }
+
+    public boolean isColumnarObjectEncoding() {
+        return columnarObjectEncoding;
+    }
+
+    /**
+     * Experimental: Store each string field of an object type shard which has few distinct values on-heap as a pool
+     * of its distinct values and an index into the pool per record, rather than as the encoded characters of each
+     * record's value.  Pooled values are read without being decoded, and tested for equality without being decoded.
+     * The variable length data of a pooled field is restored while each updated shard is copied when a delta is
+     * applied.  This must be set before a snapshot is read, and has no effect in shared memory modes.
+     */
+    public void setStringDictionaryEncoding(boolean stringDictionaryEncoding) {
+        this.stringDictionaryEncoding = stringDictionaryEncoding;
+    }
+
+    public boolean isStringDictionaryEncoding() {
+        return stringDictionaryEncoding;
+    }
+
+    /**
+     * Sets the local directory in which type states read in a shared memory mode write the result of applying a
+     * delta, before mapping it back in. Defaults to {@code java.io.tmpdir}.
+     */
+    public void setSharedMemoryScratchDir(File sharedMemoryScratchDir) {
+        this.sharedMemoryScratchDir = sharedMemoryScratchDir;
+    }
+
+    public File getSharedMemoryScratchDir() {
+        return sharedMemoryScratchDir;
+    }
+
     @Override
     public List<HollowSchema> getSchemas() {
         List<HollowSchema> schemas = new ArrayList<HollowSchema>();
@@ -24,10 +24,12 @@ import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.read.dataaccess.HollowDataAccess;
 import com.netflix.hollow.core.read.dataaccess.HollowTypeDataAccess;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 /**
@@ -38,6 +40,11 @@ public abstract class HollowTypeReadState implements HollowTypeDataAccess {
 
     protected static final HollowTypeStateListener[] EMPTY_LISTENERS = new HollowTypeStateListener[0];
 
+    /**
+     * The number of ordinals of each shard in a segment of a type's checksum.
+     */
+    public static final int CHECKSUM_SEGMENT_ORDINALS = 1 << 16;
+
     protected final HollowReadStateEngine stateEngine;
     protected final MemoryMode memoryMode;
     protected final HollowSchema schema;
@@ -131,10 +138,35 @@ public abstract class HollowTypeReadState implements HollowTypeDataAccess {
         return currNumShards!=0 && deltaNumShards!=0 && currNumShards!=deltaNumShards;
     }
 
+    /**
+     * Given old and new numShards, this method returns the shard resizing multiplier.
+     */
+    public static int shardingFactor(int oldNumShards, int newNumShards) {
+        if (newNumShards <= 0 || oldNumShards <= 0 || newNumShards == oldNumShards) {
+            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
+        }
+
+        boolean isNewGreater = newNumShards > oldNumShards;
+        int dividend = isNewGreater ? newNumShards : oldNumShards;
+        int divisor = isNewGreater ? oldNumShards : newNumShards;
+
+        if (dividend % divisor != 0) {
+            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
+        }
+        return dividend / divisor;
+    }
+
     public HollowSchema getSchema() {
         return schema;
     }
 
+    /**
+     * @return the memory mode in which the data of this type is held
+     */
+    public MemoryMode getMemoryMode() {
+        return memoryMode;
+    }
+
     @Override
     public HollowDataAccess getDataAccess() {
         return stateEngine;
@@ -171,13 +203,81 @@ public abstract class HollowTypeReadState implements HollowTypeDataAccess {
 
     protected abstract void invalidate();
 
+    /**
+     * Calculates the checksum of this type's records.  The checksum is calculated in segments, in parallel when there
+     * is more than one segment; see {@link #submitChecksumSegments(HollowSchema, Executor)}.
+     *
+     * @param withSchema the schema to calculate the checksum with
+     * @return the checksum
+     */
     public HollowChecksum getChecksum(HollowSchema withSchema) {
-        HollowChecksum cksum = new HollowChecksum();
-        applyToChecksum(cksum, withSchema);
-        return cksum;
+        HollowChecksum[] segments;
+        if(numShards() == 1 && maxOrdinal() < CHECKSUM_SEGMENT_ORDINALS) {
+            segments = submitChecksumSegments(withSchema, Runnable::run);
+        } else {
+            SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "checksum");
+            segments = submitChecksumSegments(withSchema, executor);
+            try {
+                executor.awaitSuccessfulCompletion();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return HollowChecksum.combineSegments(segments);
+    }
+
+    /**
+     * Submits the calculation of each segment of this type's checksum to the executor.  There is a segment for each
+     * range of {@link #CHECKSUM_SEGMENT_ORDINALS} ordinals of each shard.
+     * <p>
+     * Once the submitted tasks have completed, the segments are combined with
+     * {@link HollowChecksum#combineSegments(HollowChecksum[])}.  Segments without populated records are omitted from
+     * the combined checksum, so it does not depend on the max ordinal of the type.
+     *
+     * @param withSchema the schema to calculate the checksum with
+     * @param executor the executor to calculate the segments with
+     * @return the segments of the checksum, in shard and then ordinal order
+     */
+    public HollowChecksum[] submitChecksumSegments(HollowSchema withSchema, Executor executor) {
+        int numShards = numShards();
+        long rangeLength = (long)CHECKSUM_SEGMENT_ORDINALS * numShards;
+        int numRanges = (int)((maxOrdinal() + rangeLength) / rangeLength);
+
+        HollowChecksum[] segments = new HollowChecksum[numShards * numRanges];
+        for(int shardNumber=0;shardNumber<numShards;shardNumber++) {
+            for(int range=0;range<numRanges;range++) {
+                HollowChecksum segment = new HollowChecksum();
+                segments[(shardNumber * numRanges) + range] = segment;
+
+                int shard = shardNumber;
+                int fromOrdinal = (int)(range * rangeLength);
+                int toOrdinal = (int)Math.min((range + 1) * rangeLength, (long)maxOrdinal() + 1);
+                executor.execute(() -> applyToChecksum(segment, withSchema, shard, fromOrdinal, toOrdinal));
+            }
+        }
+        return segments;
     }
 
-    protected abstract void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema);
+    /**
+     * Applies the populated records of a shard, with ordinals from fromOrdinal (inclusive) to toOrdinal (exclusive),
+     * to the checksum.
+     *
+     * @param checksum the checksum
+     * @param withSchema the schema to calculate the checksum with
+     * @param shardNumber the shard
+     * @param fromOrdinal the first ordinal, a multiple of the number of shards
+     * @param toOrdinal the ordinal after the last ordinal
+     */
+    protected abstract void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema, int shardNumber, int fromOrdinal, int toOrdinal);
+
+    /**
+     * Applies a single populated record to the checksum, in the same way as the record is applied by
+     * {@link #getChecksum(HollowSchema)} with this type's schema.
+     *
+     * @param checksum the checksum
+     * @param ordinal the ordinal of the record
+     */
+    protected abstract void applyRecordToChecksum(HollowChecksum checksum, int ordinal);
 
     @Override
     public HollowTypeReadState getTypeState() {
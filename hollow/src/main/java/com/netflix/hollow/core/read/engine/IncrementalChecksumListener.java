@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine;
+
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+
+/**
+ * An IncrementalChecksumListener maintains an order-independent checksum of the populated records of a type.  It is
+ * registered with each type in a {@link HollowReadStateEngine} for which
+ * {@link HollowReadStateEngine#setMaintainIncrementalChecksums(boolean)} is enabled.
+ * <p>
+ * The checksum is the sum of a hash of each populated record, so it is updated from only the records added and removed
+ * by a delta.  A removed record remains readable until the next delta is applied, so its hash is calculated again
+ * from its data when it is removed rather than retained.
+ */
+public class IncrementalChecksumListener implements HollowTypeStateListener {
+
+    private final HollowTypeReadState typeState;
+    private long checksum;
+
+    public IncrementalChecksumListener(HollowTypeReadState typeState) {
+        this.typeState = typeState;
+    }
+
+    @Override
+    public void beginUpdate() { }
+
+    @Override
+    public void addedOrdinal(int ordinal) {
+        checksum += recordHash(ordinal);
+    }
+
+    @Override
+    public void removedOrdinal(int ordinal) {
+        checksum -= recordHash(ordinal);
+    }
+
+    @Override
+    public void endUpdate() { }
+
+    /**
+     * @return the checksum of the populated records of the type
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Spreads the checksum of a record over 64 bits, so that the sum of the records' hashes does not cancel out
+     * differences between individual records.
+     */
+    private long recordHash(int ordinal) {
+        HollowChecksum recordChecksum = new HollowChecksum();
+        typeState.applyRecordToChecksum(recordChecksum, ordinal);
+
+        long h = ((long)ordinal << 32) | (recordChecksum.intValue() & 0xFFFFFFFFL);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
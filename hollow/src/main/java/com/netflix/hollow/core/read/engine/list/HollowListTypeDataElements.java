@@ -19,10 +19,12 @@ package com.netflix.hollow.core.read.engine.list;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryScratchFile;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -109,6 +111,68 @@ public class HollowListTypeDataElements {
         new HollowListDeltaApplicator(fromData, deltaData, this).applyDelta();
     }
 
+    /**
+     * Moves the data populated on-heap by a delta application or resharding into a mapped scratch file, so that
+     * data elements in a shared memory mode remain backed by shared memory.
+     */
+    void moveToSharedMemory(File scratchDir) throws IOException {
+        try(SharedMemoryScratchFile scratchFile = new SharedMemoryScratchFile(scratchDir, memoryMode)) {
+            scratchFile.write(listPointerData, ((long)maxOrdinal + 1) * bitsPerListPointer);
+            scratchFile.write(elementData, totalNumberOfElements * bitsPerElement);
+
+            HollowBlobInput in = scratchFile.map();
+            FixedLengthData stagedListPointerData = listPointerData;
+            FixedLengthData stagedElementData = elementData;
+            listPointerData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            elementData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedListPointerData, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedElementData, memoryRecycler);
+        }
+    }
+
+    long getStartElement(int ordinal) {
+        return ordinal == 0 ? 0 : listPointerData.getElementValue(((long)ordinal-1) * bitsPerListPointer, bitsPerListPointer);
+    }
+
+    long getEndElement(int ordinal) {
+        return listPointerData.getElementValue((long)ordinal * bitsPerListPointer, bitsPerListPointer);
+    }
+
+    /**
+     * Copies the list at fromOrdinal in the from data elements to toOrdinal in the to data elements, writing its
+     * elements starting at toStartElement.
+     *
+     * @return the end element of the copied list in the to data elements
+     */
+    static long copyRecord(HollowListTypeDataElements to, int toOrdinal, long toStartElement, HollowListTypeDataElements from, int fromOrdinal) {
+        long fromStartElement = from.getStartElement(fromOrdinal);
+        long fromEndElement = from.getEndElement(fromOrdinal);
+        long numElements = fromEndElement - fromStartElement;
+
+        if(to.bitsPerElement == from.bitsPerElement) {
+            to.elementData.copyBits(from.elementData, fromStartElement * from.bitsPerElement, toStartElement * to.bitsPerElement, numElements * from.bitsPerElement);
+        } else {
+            for(long i=0;i<numElements;i++) {
+                long elementOrdinal = from.elementData.getElementValue((fromStartElement + i) * from.bitsPerElement, from.bitsPerElement);
+                to.elementData.setElementValue((toStartElement + i) * to.bitsPerElement, to.bitsPerElement, elementOrdinal);
+            }
+        }
+
+        long toEndElement = toStartElement + numElements;
+        to.listPointerData.setElementValue((long)toOrdinal * to.bitsPerListPointer, to.bitsPerListPointer, toEndElement);
+        return toEndElement;
+    }
+
+    /**
+     * Derives the remaining statistics and allocates the data once maxOrdinal, bitsPerElement and
+     * totalNumberOfElements have been populated by a splitter or joiner.
+     */
+    void initializeFromStats() {
+        bitsPerListPointer = totalNumberOfElements == 0 ? 1 : 64 - Long.numberOfLeadingZeros(totalNumberOfElements);
+        listPointerData = FixedLengthDataFactory.get((long)bitsPerListPointer * (maxOrdinal + 1), memoryMode, memoryRecycler);
+        elementData = FixedLengthDataFactory.get(bitsPerElement * totalNumberOfElements, memoryMode, memoryRecycler);
+    }
+
     public void destroy() {
         FixedLengthDataFactory.destroy(listPointerData, memoryRecycler);
         FixedLengthDataFactory.destroy(elementData, memoryRecycler);
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.list;
+
+import static com.netflix.hollow.core.read.engine.list.HollowListTypeDataElements.copyRecord;
+
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+
+/**
+ * Join multiple {@code HollowListTypeDataElements}s into 1 {@code HollowListTypeDataElements}.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * The no. of passed data elements must be a power of 2.
+ */
+class HollowListTypeDataElementsJoiner {
+
+    HollowListTypeDataElements join(HollowListTypeDataElements[] from) {
+        final int fromMask = from.length - 1;
+        final int fromOrdinalShift = 31 - Integer.numberOfLeadingZeros(from.length);
+
+        if (from.length<=0 || !((from.length&(from.length-1))==0)) {
+            throw new IllegalStateException("No. of DataElements to be joined must be a power of 2");
+        }
+
+        HollowListTypeDataElements to = new HollowListTypeDataElements(from[0].memoryMode, from[0].memoryRecycler);
+
+        populateStats(to, from);
+
+        GapEncodedVariableLengthIntegerReader[] fromRemovals = new GapEncodedVariableLengthIntegerReader[from.length];
+        for (int i=0;i<from.length;i++) {
+            fromRemovals[i] = from[i].encodedRemovals;
+        }
+        to.encodedRemovals = GapEncodedVariableLengthIntegerReader.join(fromRemovals);
+
+        for (HollowListTypeDataElements elements : from) {
+            if (elements.encodedAdditions != null) {
+                throw new IllegalStateException("Encountered encodedAdditions in data elements joiner- this is not expected " +
+                        "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                        "delta data elements are never split/joined");
+            }
+        }
+
+        long currentWriteElement = 0;
+        for(int ordinal=0;ordinal<=to.maxOrdinal;ordinal++) {
+            int fromIndex = ordinal & fromMask;
+            int fromOrdinal = ordinal >> fromOrdinalShift;
+
+            if (fromOrdinal <= from[fromIndex].maxOrdinal) {
+                currentWriteElement = copyRecord(to, ordinal, currentWriteElement, from[fromIndex], fromOrdinal);
+            } else {
+                // lopsided shards could result for consumers that skip type shards with no additions, write an empty list
+                to.listPointerData.setElementValue((long)ordinal * to.bitsPerListPointer, to.bitsPerListPointer, currentWriteElement);
+            }
+        }
+
+        return to;
+    }
+
+    void populateStats(HollowListTypeDataElements to, HollowListTypeDataElements[] from) {
+        to.maxOrdinal = -1;
+        for(int fromIndex=0;fromIndex<from.length;fromIndex++) {
+            int mappedMaxOrdinal = from[fromIndex].maxOrdinal == -1 ? -1 : (from[fromIndex].maxOrdinal * from.length) + fromIndex;
+            to.maxOrdinal = Math.max(to.maxOrdinal, mappedMaxOrdinal);
+
+            // do not assume bitsPerElement will be uniform
+            to.bitsPerElement = Math.max(to.bitsPerElement, from[fromIndex].bitsPerElement);
+            if(from[fromIndex].maxOrdinal != -1)
+                to.totalNumberOfElements += from[fromIndex].getEndElement(from[fromIndex].maxOrdinal);
+        }
+
+        to.initializeFromStats();
+    }
+}
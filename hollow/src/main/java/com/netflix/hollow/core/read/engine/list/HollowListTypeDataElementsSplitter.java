@@ -0,0 +1,81 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.list;
+
+import static com.netflix.hollow.core.read.engine.list.HollowListTypeDataElements.copyRecord;
+
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+
+/**
+ * Split a {@code HollowListTypeDataElements} into multiple {@code HollowListTypeDataElements}s.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * {@code numSplits} must be a power of 2.
+ */
+class HollowListTypeDataElementsSplitter {
+
+    HollowListTypeDataElements[] split(HollowListTypeDataElements from, int numSplits) {
+        final int toMask = numSplits - 1;
+        final int toOrdinalShift = 31 - Integer.numberOfLeadingZeros(numSplits);
+
+        if (numSplits<=0 || !((numSplits&(numSplits-1))==0)) {
+            throw new IllegalStateException("Must split by power of 2");
+        }
+
+        HollowListTypeDataElements[] to = new HollowListTypeDataElements[numSplits];
+        for(int i=0;i<to.length;i++) {
+            to[i] = new HollowListTypeDataElements(from.memoryMode, from.memoryRecycler);
+            to[i].maxOrdinal = -1;
+        }
+
+        populateStats(to, from, toMask, toOrdinalShift);
+
+        if (from.encodedRemovals != null) {
+            GapEncodedVariableLengthIntegerReader[] splitRemovals = from.encodedRemovals.split(numSplits);
+            for(int i=0;i<to.length;i++) {
+                to[i].encodedRemovals = splitRemovals[i];
+            }
+        }
+        if (from.encodedAdditions != null) {
+            throw new IllegalStateException("Encountered encodedAdditions in data elements splitter- this is not expected " +
+                    "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                    "delta data elements are never split/joined");
+        }
+
+        long[] currentWriteElement = new long[numSplits];
+        for(int i=0;i<=from.maxOrdinal;i++) {
+            int toIndex = i & toMask;
+            int toOrdinal = i >> toOrdinalShift;
+            currentWriteElement[toIndex] = copyRecord(to[toIndex], toOrdinal, currentWriteElement[toIndex], from, i);
+        }
+        return to;
+    }
+
+    private void populateStats(HollowListTypeDataElements[] to, HollowListTypeDataElements from, int toMask, int toOrdinalShift) {
+        for(int ordinal=0;ordinal<=from.maxOrdinal;ordinal++) {
+            int toIndex = ordinal & toMask;
+            int toOrdinal = ordinal >> toOrdinalShift;
+            to[toIndex].maxOrdinal = toOrdinal;
+            to[toIndex].totalNumberOfElements += from.getEndElement(ordinal) - from.getStartElement(ordinal);
+        }
+
+        for(int toIndex=0;toIndex<to.length;toIndex++) {
+            to[toIndex].bitsPerElement = from.bitsPerElement;
+            to[toIndex].initializeFromStats();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.netflix.hollow.api.sampling.DisabledSamplingDirector;
 import com.netflix.hollow.api.sampling.HollowListSampler;
 import com.netflix.hollow.api.sampling.HollowSampler;
 import com.netflix.hollow.api.sampling.HollowSamplingDirector;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
@@ -38,6 +39,8 @@ import com.netflix.hollow.core.schema.HollowListSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.BitSet;
 
 /**
@@ -46,13 +49,21 @@ import java.util.BitSet;
 public class HollowListTypeReadState extends HollowCollectionTypeReadState implements HollowListTypeDataAccess {
 
     private final HollowListSampler sampler;
-    
-    private final int shardNumberMask;
-    private final int shardOrdinalShift;
-    private final HollowListTypeReadStateShard shards[];
-    
+
     private int maxOrdinal;
 
+    volatile ShardsHolder shardsVolatile;
+
+    static class ShardsHolder {
+        final HollowListTypeReadStateShard shards[];
+        final int shardNumberMask;
+
+        private ShardsHolder(HollowListTypeReadStateShard[] fromShards) {
+            this.shards = fromShards;
+            this.shardNumberMask = fromShards.length - 1;
+        }
+    }
+
     public HollowListTypeReadState(HollowReadStateEngine stateEngine, HollowListSchema schema, int numShards) {
         this(stateEngine, MemoryMode.ON_HEAP, schema, numShards);
     }
@@ -60,47 +71,49 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     public HollowListTypeReadState(HollowReadStateEngine stateEngine, MemoryMode memoryMode, HollowListSchema schema, int numShards) {
         super(stateEngine, memoryMode, schema);
         this.sampler = new HollowListSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
-        this.shardNumberMask = numShards - 1;
-        this.shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
         
         if(numShards < 1 || 1 << shardOrdinalShift != numShards)
             throw new IllegalArgumentException("Number of shards must be a power of 2!");
         
         HollowListTypeReadStateShard shards[] = new HollowListTypeReadStateShard[numShards];
         for(int i=0;i<shards.length;i++)
-            shards[i] = new HollowListTypeReadStateShard();
+            shards[i] = new HollowListTypeReadStateShard(null, shardOrdinalShift);
         
-        this.shards = shards;
+        this.shardsVolatile = new ShardsHolder(shards);
     }
 
     @Override
-    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler, int numShards) throws IOException {
-        throw new UnsupportedOperationException("This type does not yet support numShards specification when reading snapshot");
+    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
+        readSnapshot(in, memoryRecycler, shardsVolatile.shards.length);
     }
 
     @Override
-    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
-        if(shards.length > 1)
+    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler, int numShards) throws IOException {
+        if(numShards > 1)
             maxOrdinal = VarInt.readVInt(in);
-        
-        for(int i=0;i<shards.length;i++) {
+
+        HollowListTypeReadStateShard[] newShards = new HollowListTypeReadStateShard[numShards];
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+        for(int i=0;i<numShards;i++) {
             HollowListTypeDataElements snapshotData = new HollowListTypeDataElements(memoryMode, memoryRecycler);
             snapshotData.readSnapshot(in);
-            shards[i].setCurrentData(snapshotData);
+            newShards[i] = new HollowListTypeReadStateShard(snapshotData, shardOrdinalShift);
         }
+        shardsVolatile = new ShardsHolder(newShards);
         
-        if(shards.length == 1)
-            maxOrdinal = shards[0].currentDataElements().maxOrdinal;
+        if(numShards == 1)
+            maxOrdinal = newShards[0].currentDataElements().maxOrdinal;
         
         SnapshotPopulatedOrdinalsReader.readOrdinals(in, stateListeners);
     }
 
     @Override
     public void applyDelta(HollowBlobInput in, HollowSchema schema, ArraySegmentRecycler memoryRecycler, int deltaNumShards) throws IOException {
-        if (shouldReshard(shards.length, deltaNumShards)) {
-            throw new UnsupportedOperationException("Dynamic type sharding not supported for " + schema.getName()
-                    + ". Current numShards=" + shards.length + ", delta numShards=" + deltaNumShards);
+        if (shouldReshard(shardsVolatile.shards.length, deltaNumShards)) {
+            reshard(deltaNumShards);
         }
+        HollowListTypeReadStateShard shards[] = shardsVolatile.shards;
         if(shards.length > 1)
             maxOrdinal = VarInt.readVInt(in);
 
@@ -130,6 +143,8 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
                 HollowListTypeDataElements nextData = new HollowListTypeDataElements(memoryMode, memoryRecycler);
                 HollowListTypeDataElements oldData = shards[i].currentDataElements();
                 nextData.applyDelta(oldData, deltaData);
+                if(memoryMode.isSharedMemory())
+                    nextData.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
                 shards[i].setCurrentData(nextData);
                 notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shards.length);
                 deltaData.encodedAdditions.destroy();
@@ -143,6 +158,117 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
             maxOrdinal = shards[0].currentDataElements().maxOrdinal;
     }
 
+    /**
+     * Reshards this type state to the desired shard count using O(shard size) space while supporting concurrent reads
+     * into the underlying data elements. See {@code HollowObjectTypeReadState#reshard} for how reads remain consistent
+     * throughout each step.
+     *
+     * @param newNumShards The desired number of shards
+     */
+    void reshard(int newNumShards) {
+        int prevNumShards = shardsVolatile.shards.length;
+        int shardingFactor = shardingFactor(prevNumShards, newNumShards);
+
+        if (newNumShards>prevNumShards) { // split existing shards
+            // Step 1: Grow the number of shards, child shards reference the original shards as-is
+            shardsVolatile = expandWithOriginalDataElements(shardsVolatile, shardingFactor);
+
+            // Step 2: Split the data elements of each original shard into the child shards, then discard the original
+            for(int i=0; i<prevNumShards; i++) {
+                HollowListTypeDataElements originalDataElements = shardsVolatile.shards[i].currentDataElements();
+
+                shardsVolatile = splitDataElementsForOneShard(shardsVolatile, i, prevNumShards, shardingFactor);
+
+                destroyOriginalDataElements(originalDataElements);
+            }
+        } else { // join existing shards
+            // Step 1: Join N data elements to create one, and update each of the N shards to reference the joined result
+            for (int i=0; i<newNumShards; i++) {
+                HollowListTypeDataElements destroyCandidates[] = joinCandidates(shardsVolatile.shards, i, shardingFactor);
+
+                shardsVolatile = joinDataElementsForOneShard(shardsVolatile, i, shardingFactor);
+
+                for (int j=0; j<shardingFactor; j++) {
+                    destroyOriginalDataElements(destroyCandidates[j]);
+                }
+            }
+
+            // Step 2: Resize the shards array to only keep the first newNumShards shards
+            shardsVolatile = new ShardsHolder(Arrays.copyOfRange(shardsVolatile.shards, 0, newNumShards));
+        }
+    }
+
+    private HollowListTypeDataElements[] joinCandidates(HollowListTypeReadStateShard[] shards, int indexIntoShards, int shardingFactor) {
+        HollowListTypeDataElements[] result = new HollowListTypeDataElements[shardingFactor];
+        int newNumShards = shards.length / shardingFactor;
+        for (int i=0; i<shardingFactor; i++) {
+            result[i] = shards[indexIntoShards + (newNumShards*i)].currentDataElements();
+        }
+        return result;
+    }
+
+    ShardsHolder joinDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int shardingFactor) {
+        int newNumShards = shardsHolder.shards.length / shardingFactor;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowListTypeDataElementsJoiner joiner = new HollowListTypeDataElementsJoiner();
+        HollowListTypeDataElements joined = joiner.join(joinCandidates(shardsHolder.shards, currentIndex, shardingFactor));
+        moveToSharedMemory(joined);
+
+        HollowListTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (newNumShards*i)] = new HollowListTypeReadStateShard(joined, newShardOrdinalShift);
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder expandWithOriginalDataElements(ShardsHolder shardsHolder, int shardingFactor) {
+        int prevNumShards = shardsHolder.shards.length;
+        int newNumShards = prevNumShards * shardingFactor;
+        HollowListTypeReadStateShard[] newShards = new HollowListTypeReadStateShard[newNumShards];
+
+        for(int i=0; i<prevNumShards; i++) {
+            for (int j=0; j<shardingFactor; j++) {
+                newShards[i+(prevNumShards*j)] = shardsHolder.shards[i];
+            }
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder splitDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int prevNumShards, int shardingFactor) {
+        int newNumShards = shardsHolder.shards.length;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowListTypeDataElementsSplitter splitter = new HollowListTypeDataElementsSplitter();
+        HollowListTypeDataElements[] splits = splitter.split(shardsHolder.shards[currentIndex].currentDataElements(), shardingFactor);
+        for (HollowListTypeDataElements split : splits) {
+            moveToSharedMemory(split);
+        }
+
+        HollowListTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (prevNumShards*i)] = new HollowListTypeReadStateShard(splits[i], newShardOrdinalShift);
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    private void moveToSharedMemory(HollowListTypeDataElements dataElements) {
+        if (memoryMode.isSharedMemory()) {
+            try {
+                dataElements.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void destroyOriginalDataElements(HollowListTypeDataElements dataElements) {
+        dataElements.destroy();
+        if (dataElements.encodedRemovals != null) {
+            dataElements.encodedRemovals.destroy();
+        }
+    }
+
     public static void discardSnapshot(HollowBlobInput in, int numShards) throws IOException {
         discardType(in, numShards, false);
     }
@@ -170,13 +296,44 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     @Override
     public int getElementOrdinal(int ordinal, int listIndex) {
         sampler.recordGet();
-        return shards[ordinal & shardNumberMask].getElementOrdinal(ordinal >> shardOrdinalShift, listIndex);
+
+        ShardsHolder shardsHolder;
+        HollowListTypeReadStateShard shard;
+        int elementOrdinal;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            elementOrdinal = shard.getElementOrdinal(ordinal >> shard.shardOrdinalShift, listIndex);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return elementOrdinal;
     }
 
     @Override
     public int size(int ordinal) {
         sampler.recordSize();
-        return shards[ordinal & shardNumberMask].size(ordinal >> shardOrdinalShift);
+
+        ShardsHolder shardsHolder;
+        HollowListTypeReadStateShard shard;
+        int size;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            size = shard.size(ordinal >> shard.shardOrdinalShift);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return size;
+    }
+
+    private boolean readWasUnsafe(ShardsHolder shardsHolder, int ordinal, HollowListTypeReadStateShard shard) {
+        // A shard swapped out by resharding may have had its data elements destroyed, see
+        // {@code HollowObjectTypeReadState#readWasUnsafe}
+        HollowUnsafeHandle.getUnsafe().loadFence();
+        ShardsHolder currShardsHolder = shardsVolatile;
+        return shardsHolder != currShardsHolder
+            && (shard != currShardsHolder.shards[ordinal & currShardsHolder.shardNumberMask]);
     }
 
     @Override
@@ -209,11 +366,13 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     @Override
     protected void invalidate() {
         stateListeners = EMPTY_LISTENERS;
+        HollowListTypeReadStateShard shards[] = shardsVolatile.shards;
         for(int i=0;i<shards.length;i++)
             shards[i].invalidate();
     }
 
     HollowListTypeDataElements[] currentDataElements() {
+        HollowListTypeReadStateShard shards[] = shardsVolatile.shards;
         HollowListTypeDataElements currentDataElements[] = new HollowListTypeDataElements[shards.length];
         
         for(int i=0; i<shards.length; i++)
@@ -223,6 +382,7 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     }
 
     void setCurrentData(HollowListTypeDataElements data) {
+        HollowListTypeReadStateShard shards[] = shardsVolatile.shards;
         if(shards.length > 1)
             throw new UnsupportedOperationException("Cannot directly set data on sharded type state");
         shards[0].setCurrentData(data);
@@ -230,18 +390,25 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
     }
 
     @Override
-    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema) {
+    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema, int shardNumber, int fromOrdinal, int toOrdinal) {
         if(!getSchema().equals(withSchema))
             throw new IllegalArgumentException("HollowListTypeReadState cannot calculate checksum with unequal schemas: " + getSchema().getName());
         
         BitSet populatedOrdinals = getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
 
-        for(int i=0; i<shards.length; i++)
-            shards[i].applyToChecksum(checksum, populatedOrdinals, i, shards.length);
+        HollowListTypeReadStateShard shards[] = shardsVolatile.shards;
+        shards[shardNumber].applyToChecksum(checksum, populatedOrdinals, shardNumber, shards.length, fromOrdinal, toOrdinal);
+    }
+
+    @Override
+    protected void applyRecordToChecksum(HollowChecksum checksum, int ordinal) {
+        final ShardsHolder shardsHolder = this.shardsVolatile;
+        shardsHolder.shards[ordinal & shardsHolder.shardNumberMask].applyRecordToChecksum(checksum, ordinal, ordinal / shardsHolder.shards.length);
     }
 
 	@Override
 	public long getApproximateHeapFootprintInBytes() {
+        HollowListTypeReadStateShard shards[] = shardsVolatile.shards;
         long totalApproximateHeapFootprintInBytes = 0;
         
         for(int i=0; i<shards.length; i++)
@@ -252,6 +419,7 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
 	
 	@Override
     public long getApproximateHoleCostInBytes() {
+        HollowListTypeReadStateShard shards[] = shardsVolatile.shards;
         long totalApproximateHoleCostInBytes = 0;
         
         BitSet populatedOrdinals = getPopulatedOrdinals();
@@ -264,7 +432,7 @@ public class HollowListTypeReadState extends HollowCollectionTypeReadState imple
 
     @Override
     public int numShards() {
-        return shards.length;
+        return shardsVolatile.shards.length;
     }
 
 }
@@ -24,8 +24,15 @@ import java.util.BitSet;
 
 class HollowListTypeReadStateShard {
 
+    final int shardOrdinalShift;
+
     private volatile HollowListTypeDataElements currentDataVolatile;
 
+    HollowListTypeReadStateShard(HollowListTypeDataElements dataElements, int shardOrdinalShift) {
+        this.currentDataVolatile = dataElements;
+        this.shardOrdinalShift = shardOrdinalShift;
+    }
+
     public int getElementOrdinal(int ordinal, int listIndex) {
         HollowListTypeDataElements currentData;
         int elementOrdinal;
@@ -101,17 +108,11 @@ class HollowListTypeReadStateShard {
         this.currentDataVolatile = data;
     }
 
-    protected void applyToChecksum(HollowChecksum checksum, BitSet populatedOrdinals, int shardNumber, int numShards) {
-        int ordinal = populatedOrdinals.nextSetBit(shardNumber);
-        while(ordinal != ORDINAL_NONE) {
+    protected void applyToChecksum(HollowChecksum checksum, BitSet populatedOrdinals, int shardNumber, int numShards, int fromOrdinal, int toOrdinal) {
+        int ordinal = populatedOrdinals.nextSetBit(fromOrdinal + shardNumber);
+        while(ordinal != ORDINAL_NONE && ordinal < toOrdinal) {
             if((ordinal & (numShards - 1)) == shardNumber) {
-                int shardOrdinal = ordinal / numShards;
-                int size = size(shardOrdinal);
-    
-                checksum.applyInt(ordinal);
-                for(int i=0;i<size;i++)
-                    checksum.applyInt(getElementOrdinal(shardOrdinal, i));
-
+                applyRecordToChecksum(checksum, ordinal, ordinal / numShards);
                 ordinal = ordinal + numShards;
             } else {
                 // Round up ordinal
@@ -122,6 +123,14 @@ class HollowListTypeReadStateShard {
         }
     }
 
+    void applyRecordToChecksum(HollowChecksum checksum, int ordinal, int shardOrdinal) {
+        int size = size(shardOrdinal);
+
+        checksum.applyInt(ordinal);
+        for(int i=0;i<size;i++)
+            checksum.applyInt(getElementOrdinal(shardOrdinal, i));
+    }
+
     public long getApproximateHeapFootprintInBytes() {
         HollowListTypeDataElements currentData = currentDataVolatile;
         long requiredListPointerBits = ((long)currentData.maxOrdinal + 1) * currentData.bitsPerListPointer;
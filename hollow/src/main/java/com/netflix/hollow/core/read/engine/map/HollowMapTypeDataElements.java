@@ -19,10 +19,12 @@ package com.netflix.hollow.core.read.engine.map;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryScratchFile;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -121,6 +123,88 @@ public class HollowMapTypeDataElements {
         new HollowMapDeltaApplicator(fromData, deltaData, this).applyDelta();
     }
 
+    /**
+     * Moves the data populated on-heap by a delta application or resharding into a mapped scratch file, so that
+     * data elements in a shared memory mode remain backed by shared memory.
+     */
+    void moveToSharedMemory(File scratchDir) throws IOException {
+        try(SharedMemoryScratchFile scratchFile = new SharedMemoryScratchFile(scratchDir, memoryMode)) {
+            scratchFile.write(mapPointerAndSizeData, ((long)maxOrdinal + 1) * bitsPerFixedLengthMapPortion);
+            scratchFile.write(entryData, totalNumberOfBuckets * bitsPerMapEntry);
+
+            HollowBlobInput in = scratchFile.map();
+            FixedLengthData stagedMapPointerAndSizeData = mapPointerAndSizeData;
+            FixedLengthData stagedEntryData = entryData;
+            mapPointerAndSizeData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            entryData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedMapPointerAndSizeData, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedEntryData, memoryRecycler);
+        }
+    }
+
+    long getStartBucket(int ordinal) {
+        return ordinal == 0 ? 0 : mapPointerAndSizeData.getElementValue((long)(ordinal - 1) * bitsPerFixedLengthMapPortion, bitsPerMapPointer);
+    }
+
+    long getEndBucket(int ordinal) {
+        return mapPointerAndSizeData.getElementValue((long)ordinal * bitsPerFixedLengthMapPortion, bitsPerMapPointer);
+    }
+
+    int getSize(int ordinal) {
+        return (int)mapPointerAndSizeData.getElementValue(((long)ordinal * bitsPerFixedLengthMapPortion) + bitsPerMapPointer, bitsPerMapSizeValue);
+    }
+
+    /**
+     * Copies the map at fromOrdinal in the from data elements to toOrdinal in the to data elements, writing its
+     * buckets starting at toStartBucket. Buckets are copied as-is, since their position within a map only depends
+     * on the number of buckets in the map.
+     *
+     * @return the end bucket of the copied map in the to data elements
+     */
+    static long copyRecord(HollowMapTypeDataElements to, int toOrdinal, long toStartBucket, HollowMapTypeDataElements from, int fromOrdinal) {
+        long fromStartBucket = from.getStartBucket(fromOrdinal);
+        long fromEndBucket = from.getEndBucket(fromOrdinal);
+        long numBuckets = fromEndBucket - fromStartBucket;
+
+        if(to.bitsPerKeyElement == from.bitsPerKeyElement && to.bitsPerValueElement == from.bitsPerValueElement) {
+            to.entryData.copyBits(from.entryData, fromStartBucket * from.bitsPerMapEntry, toStartBucket * to.bitsPerMapEntry, numBuckets * from.bitsPerMapEntry);
+        } else {
+            for(long i=0;i<numBuckets;i++) {
+                long fromBucketBit = (fromStartBucket + i) * from.bitsPerMapEntry;
+                long bucketKey = from.entryData.getElementValue(fromBucketBit, from.bitsPerKeyElement);
+                long bucketValue = from.entryData.getElementValue(fromBucketBit + from.bitsPerKeyElement, from.bitsPerValueElement);
+                if(bucketKey == from.emptyBucketKeyValue)
+                    bucketKey = to.emptyBucketKeyValue;
+                long toBucketBit = (toStartBucket + i) * to.bitsPerMapEntry;
+                to.entryData.setElementValue(toBucketBit, to.bitsPerKeyElement, bucketKey);
+                to.entryData.setElementValue(toBucketBit + to.bitsPerKeyElement, to.bitsPerValueElement, bucketValue);
+            }
+        }
+
+        long toEndBucket = toStartBucket + numBuckets;
+        writePointerAndSize(to, toOrdinal, toEndBucket, from.getSize(fromOrdinal));
+        return toEndBucket;
+    }
+
+    static void writePointerAndSize(HollowMapTypeDataElements to, int toOrdinal, long endBucket, int size) {
+        long startBit = (long)toOrdinal * to.bitsPerFixedLengthMapPortion;
+        to.mapPointerAndSizeData.setElementValue(startBit, to.bitsPerMapPointer, endBucket);
+        to.mapPointerAndSizeData.setElementValue(startBit + to.bitsPerMapPointer, to.bitsPerMapSizeValue, size);
+    }
+
+    /**
+     * Derives the remaining statistics and allocates the data once maxOrdinal, bitsPerMapSizeValue, bitsPerKeyElement,
+     * bitsPerValueElement and totalNumberOfBuckets have been populated by a splitter or joiner.
+     */
+    void initializeFromStats() {
+        bitsPerMapPointer = 64 - Long.numberOfLeadingZeros(totalNumberOfBuckets);
+        bitsPerFixedLengthMapPortion = bitsPerMapPointer + bitsPerMapSizeValue;
+        bitsPerMapEntry = bitsPerKeyElement + bitsPerValueElement;
+        emptyBucketKeyValue = (1 << bitsPerKeyElement) - 1;
+        mapPointerAndSizeData = FixedLengthDataFactory.get((long)bitsPerFixedLengthMapPortion * (maxOrdinal + 1), memoryMode, memoryRecycler);
+        entryData = FixedLengthDataFactory.get(bitsPerMapEntry * totalNumberOfBuckets, memoryMode, memoryRecycler);
+    }
+
     public void destroy() {
         FixedLengthDataFactory.destroy(mapPointerAndSizeData, memoryRecycler);
         FixedLengthDataFactory.destroy(entryData, memoryRecycler);
@@ -23,6 +23,7 @@ import com.netflix.hollow.api.sampling.HollowMapSampler;
 import com.netflix.hollow.api.sampling.HollowSampler;
 import com.netflix.hollow.api.sampling.HollowSamplingDirector;
 import com.netflix.hollow.core.index.key.HollowPrimaryKeyValueDeriver;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
@@ -42,6 +43,8 @@ import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.BitSet;
 
 /**
@@ -51,14 +54,22 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
 
     private final HollowMapSampler sampler;
     
-    private final int shardNumberMask;
-    private final int shardOrdinalShift;
-    private final HollowMapTypeReadStateShard shards[];
-    
     private HollowPrimaryKeyValueDeriver keyDeriver;
     
     private int maxOrdinal;
 
+    volatile ShardsHolder shardsVolatile;
+
+    static class ShardsHolder {
+        final HollowMapTypeReadStateShard shards[];
+        final int shardNumberMask;
+
+        private ShardsHolder(HollowMapTypeReadStateShard[] fromShards) {
+            this.shards = fromShards;
+            this.shardNumberMask = fromShards.length - 1;
+        }
+    }
+
     public HollowMapTypeReadState(HollowReadStateEngine stateEngine, HollowMapSchema schema, int numShards) {
         this(stateEngine, MemoryMode.ON_HEAP, schema, numShards);
     }
@@ -66,48 +77,49 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     public HollowMapTypeReadState(HollowReadStateEngine stateEngine, MemoryMode memoryMode, HollowMapSchema schema, int numShards) {
         super(stateEngine, memoryMode, schema);
         this.sampler = new HollowMapSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
-        this.shardNumberMask = numShards - 1;
-        this.shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
         
         if(numShards < 1 || 1 << shardOrdinalShift != numShards)
             throw new IllegalArgumentException("Number of shards must be a power of 2!");
         
         HollowMapTypeReadStateShard shards[] = new HollowMapTypeReadStateShard[numShards];
         for(int i=0; i<shards.length; i++)
-            shards[i] = new HollowMapTypeReadStateShard();
-        
-        this.shards = shards;
+            shards[i] = new HollowMapTypeReadStateShard(null, shardOrdinalShift);
         
+        this.shardsVolatile = new ShardsHolder(shards);
     }
 
     @Override
-    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler, int numShards) throws IOException {
-        throw new UnsupportedOperationException("This type does not yet support numShards specification when reading snapshot");
+    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
+        readSnapshot(in, memoryRecycler, shardsVolatile.shards.length);
     }
 
     @Override
-    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
-        if(shards.length > 1)
+    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler, int numShards) throws IOException {
+        if(numShards > 1)
             maxOrdinal = VarInt.readVInt(in);
-        
-        for(int i=0; i<shards.length; i++) {
+
+        HollowMapTypeReadStateShard[] newShards = new HollowMapTypeReadStateShard[numShards];
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+        for(int i=0; i<numShards; i++) {
             HollowMapTypeDataElements snapshotData = new HollowMapTypeDataElements(memoryMode, memoryRecycler);
             snapshotData.readSnapshot(in);
-            shards[i].setCurrentData(snapshotData);
+            newShards[i] = newShard(snapshotData, shardOrdinalShift);
         }
+        shardsVolatile = new ShardsHolder(newShards);
         
-        if(shards.length == 1)
-            maxOrdinal = shards[0].currentDataElements().maxOrdinal;
+        if(numShards == 1)
+            maxOrdinal = newShards[0].currentDataElements().maxOrdinal;
         
         SnapshotPopulatedOrdinalsReader.readOrdinals(in, stateListeners);
     }
 
     @Override
     public void applyDelta(HollowBlobInput in, HollowSchema schema, ArraySegmentRecycler memoryRecycler, int deltaNumShards) throws IOException {
-        if (shouldReshard(shards.length, deltaNumShards)) {
-            throw new UnsupportedOperationException("Dynamic type sharding not supported for " + schema.getName()
-                    + ". Current numShards=" + shards.length + ", delta numShards=" + deltaNumShards);
+        if (shouldReshard(shardsVolatile.shards.length, deltaNumShards)) {
+            reshard(deltaNumShards);
         }
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
         if(shards.length > 1)
             maxOrdinal = VarInt.readVInt(in);
 
@@ -137,6 +149,8 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
                 HollowMapTypeDataElements nextData = new HollowMapTypeDataElements(memoryMode, memoryRecycler);
                 HollowMapTypeDataElements oldData = shards[i].currentDataElements();
                 nextData.applyDelta(oldData, deltaData);
+                if(memoryMode.isSharedMemory())
+                    nextData.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
                 shards[i].setCurrentData(nextData);
                 notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shards.length);
                 deltaData.encodedAdditions.destroy();
@@ -150,6 +164,123 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
             maxOrdinal = shards[0].currentDataElements().maxOrdinal;
     }
 
+    /**
+     * Reshards this type state to the desired shard count using O(shard size) space while supporting concurrent reads
+     * into the underlying data elements. See {@code HollowObjectTypeReadState#reshard} for how reads remain consistent
+     * throughout each step.
+     *
+     * @param newNumShards The desired number of shards
+     */
+    void reshard(int newNumShards) {
+        int prevNumShards = shardsVolatile.shards.length;
+        int shardingFactor = shardingFactor(prevNumShards, newNumShards);
+
+        if (newNumShards>prevNumShards) { // split existing shards
+            // Step 1: Grow the number of shards, child shards reference the original shards as-is
+            shardsVolatile = expandWithOriginalDataElements(shardsVolatile, shardingFactor);
+
+            // Step 2: Split the data elements of each original shard into the child shards, then discard the original
+            for(int i=0; i<prevNumShards; i++) {
+                HollowMapTypeDataElements originalDataElements = shardsVolatile.shards[i].currentDataElements();
+
+                shardsVolatile = splitDataElementsForOneShard(shardsVolatile, i, prevNumShards, shardingFactor);
+
+                destroyOriginalDataElements(originalDataElements);
+            }
+        } else { // join existing shards
+            // Step 1: Join N data elements to create one, and update each of the N shards to reference the joined result
+            for (int i=0; i<newNumShards; i++) {
+                HollowMapTypeDataElements destroyCandidates[] = joinCandidates(shardsVolatile.shards, i, shardingFactor);
+
+                shardsVolatile = joinDataElementsForOneShard(shardsVolatile, i, shardingFactor);
+
+                for (int j=0; j<shardingFactor; j++) {
+                    destroyOriginalDataElements(destroyCandidates[j]);
+                }
+            }
+
+            // Step 2: Resize the shards array to only keep the first newNumShards shards
+            shardsVolatile = new ShardsHolder(Arrays.copyOfRange(shardsVolatile.shards, 0, newNumShards));
+        }
+    }
+
+    private HollowMapTypeDataElements[] joinCandidates(HollowMapTypeReadStateShard[] shards, int indexIntoShards, int shardingFactor) {
+        HollowMapTypeDataElements[] result = new HollowMapTypeDataElements[shardingFactor];
+        int newNumShards = shards.length / shardingFactor;
+        for (int i=0; i<shardingFactor; i++) {
+            result[i] = shards[indexIntoShards + (newNumShards*i)].currentDataElements();
+        }
+        return result;
+    }
+
+    ShardsHolder joinDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int shardingFactor) {
+        int newNumShards = shardsHolder.shards.length / shardingFactor;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowMapTypeDataElementsJoiner joiner = new HollowMapTypeDataElementsJoiner();
+        HollowMapTypeDataElements joined = joiner.join(joinCandidates(shardsHolder.shards, currentIndex, shardingFactor));
+        moveToSharedMemory(joined);
+
+        HollowMapTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (newNumShards*i)] = newShard(joined, newShardOrdinalShift);
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder expandWithOriginalDataElements(ShardsHolder shardsHolder, int shardingFactor) {
+        int prevNumShards = shardsHolder.shards.length;
+        int newNumShards = prevNumShards * shardingFactor;
+        HollowMapTypeReadStateShard[] newShards = new HollowMapTypeReadStateShard[newNumShards];
+
+        for(int i=0; i<prevNumShards; i++) {
+            for (int j=0; j<shardingFactor; j++) {
+                newShards[i+(prevNumShards*j)] = shardsHolder.shards[i];
+            }
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder splitDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int prevNumShards, int shardingFactor) {
+        int newNumShards = shardsHolder.shards.length;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowMapTypeDataElementsSplitter splitter = new HollowMapTypeDataElementsSplitter();
+        HollowMapTypeDataElements[] splits = splitter.split(shardsHolder.shards[currentIndex].currentDataElements(), shardingFactor);
+        for (HollowMapTypeDataElements split : splits) {
+            moveToSharedMemory(split);
+        }
+
+        HollowMapTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (prevNumShards*i)] = newShard(splits[i], newShardOrdinalShift);
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    private void moveToSharedMemory(HollowMapTypeDataElements dataElements) {
+        if (memoryMode.isSharedMemory()) {
+            try {
+                dataElements.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void destroyOriginalDataElements(HollowMapTypeDataElements dataElements) {
+        dataElements.destroy();
+        if (dataElements.encodedRemovals != null) {
+            dataElements.encodedRemovals.destroy();
+        }
+    }
+
+    private HollowMapTypeReadStateShard newShard(HollowMapTypeDataElements dataElements, int shardOrdinalShift) {
+        HollowMapTypeReadStateShard shard = new HollowMapTypeReadStateShard(dataElements, shardOrdinalShift);
+        shard.setKeyDeriver(keyDeriver);
+        return shard;
+    }
+
     public static void discardSnapshot(HollowBlobInput in, int numShards) throws IOException {
         discardType(in, numShards, false);
     }
@@ -173,7 +304,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     public int size(int ordinal) {
         sampler.recordSize();
 
-        return shards[ordinal & shardNumberMask].size(ordinal >> shardOrdinalShift);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        int size;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            size = shard.size(ordinal >> shard.shardOrdinalShift);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return size;
     }
 
     @Override
@@ -185,7 +326,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     public int get(int ordinal, int keyOrdinal, int hashCode) {
         sampler.recordGet();
         
-        return shards[ordinal & shardNumberMask].get(ordinal >> shardOrdinalShift, keyOrdinal, hashCode);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        int valueOrdinal;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            valueOrdinal = shard.get(ordinal >> shard.shardOrdinalShift, keyOrdinal, hashCode);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return valueOrdinal;
     }
     
     @Override
@@ -200,7 +351,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         if(hashKey.length != fieldTypes.length)
             return ORDINAL_NONE;
 
-        return shards[ordinal & shardNumberMask].findKey(ordinal >> shardOrdinalShift, hashKey);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        int keyOrdinal;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            keyOrdinal = shard.findKey(ordinal >> shard.shardOrdinalShift, hashKey);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return keyOrdinal;
     }
 
     @Override
@@ -220,7 +381,17 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         if(hashKey.length != fieldTypes.length)
             return -1L;
 
-        return shards[ordinal & shardNumberMask].findEntry(ordinal >> shardOrdinalShift, hashKey);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        long entry;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            entry = shard.findEntry(ordinal >> shard.shardOrdinalShift, hashKey);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return entry;
     }
 
     @Override
@@ -243,7 +414,26 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
 
     @Override
     public long relativeBucket(int ordinal, int bucketIndex) {
-        return shards[ordinal & shardNumberMask].relativeBucket(ordinal >> shardOrdinalShift, bucketIndex);
+        ShardsHolder shardsHolder;
+        HollowMapTypeReadStateShard shard;
+        long bucket;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            bucket = shard.relativeBucket(ordinal >> shard.shardOrdinalShift, bucketIndex);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return bucket;
+    }
+
+    private boolean readWasUnsafe(ShardsHolder shardsHolder, int ordinal, HollowMapTypeReadStateShard shard) {
+        // A shard swapped out by resharding may have had its data elements destroyed, see
+        // {@code HollowObjectTypeReadState#readWasUnsafe}
+        HollowUnsafeHandle.getUnsafe().loadFence();
+        ShardsHolder currShardsHolder = shardsVolatile;
+        return shardsHolder != currShardsHolder
+            && (shard != currShardsHolder.shards[ordinal & currShardsHolder.shardNumberMask]);
     }
 
     @Override
@@ -274,11 +464,13 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     @Override
     protected void invalidate() {
         stateListeners = EMPTY_LISTENERS;
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
         for(int i=0; i<shards.length; i++)
             shards[i].invalidate();
     }
 
     HollowMapTypeDataElements[] currentDataElements() {
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
         HollowMapTypeDataElements currentDataElements[] = new HollowMapTypeDataElements[shards.length];
         
         for(int i=0; i<shards.length; i++)
@@ -288,6 +480,7 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     }
 
     void setCurrentData(HollowMapTypeDataElements data) {
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
         if(shards.length > 1)
             throw new UnsupportedOperationException("Cannot directly set data on sharded type state");
         shards[0].setCurrentData(data);
@@ -295,18 +488,25 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     }
 
     @Override
-    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema) {
+    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema, int shardNumber, int fromOrdinal, int toOrdinal) {
         if(!getSchema().equals(withSchema))
             throw new IllegalArgumentException("HollowMapTypeReadState cannot calculate checksum with unequal schemas: " + getSchema().getName());
         
         BitSet populatedOrdinals = getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
 
-        for(int i=0; i<shards.length; i++)
-            shards[i].applyToChecksum(checksum, populatedOrdinals, i, shards.length);
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
+        shards[shardNumber].applyToChecksum(checksum, populatedOrdinals, shardNumber, shards.length, fromOrdinal, toOrdinal);
+    }
+
+    @Override
+    protected void applyRecordToChecksum(HollowChecksum checksum, int ordinal) {
+        final ShardsHolder shardsHolder = this.shardsVolatile;
+        shardsHolder.shards[ordinal & shardsHolder.shardNumberMask].applyRecordToChecksum(checksum, ordinal, ordinal / shardsHolder.shards.length);
     }
 
     @Override
     public long getApproximateHeapFootprintInBytes() {
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
         long totalApproximateHeapFootprintInBytes = 0;
         
         for(int i=0; i<shards.length; i++)
@@ -317,6 +517,7 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
     
     @Override
     public long getApproximateHoleCostInBytes() {
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
         long totalApproximateHoleCostInBytes = 0;
         
         BitSet populatedOrdinals = getPopulatedOrdinals();
@@ -335,13 +536,14 @@ public class HollowMapTypeReadState extends HollowTypeReadState implements Hollo
         if(getSchema().getHashKey() != null)
             this.keyDeriver = new HollowPrimaryKeyValueDeriver(getSchema().getHashKey(), getStateEngine());
         
+        HollowMapTypeReadStateShard shards[] = shardsVolatile.shards;
         for(int i=0; i<shards.length; i++)
             shards[i].setKeyDeriver(keyDeriver);
     }
 
     @Override
     public int numShards() {
-        return shards.length;
+        return shardsVolatile.shards.length;
     }
 
 }
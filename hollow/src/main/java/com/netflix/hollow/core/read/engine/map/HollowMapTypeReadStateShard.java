@@ -27,10 +27,17 @@ import java.util.BitSet;
 
 class HollowMapTypeReadStateShard {
     
+    final int shardOrdinalShift;
+
     private volatile HollowMapTypeDataElements currentDataVolatile;
 
     private HollowPrimaryKeyValueDeriver keyDeriver;
 
+    HollowMapTypeReadStateShard(HollowMapTypeDataElements dataElements, int shardOrdinalShift) {
+        this.currentDataVolatile = dataElements;
+        this.shardOrdinalShift = shardOrdinalShift;
+    }
+
     public int size(int ordinal) {
         HollowMapTypeDataElements currentData;
         int size;
@@ -208,24 +215,12 @@ class HollowMapTypeReadStateShard {
         this.currentDataVolatile = data;
     }
 
-    protected void applyToChecksum(HollowChecksum checksum, BitSet populatedOrdinals, int shardNumber, int numShards) {
+    protected void applyToChecksum(HollowChecksum checksum, BitSet populatedOrdinals, int shardNumber, int numShards, int fromOrdinal, int toOrdinal) {
         HollowMapTypeDataElements currentData = currentDataVolatile;
-        int ordinal = populatedOrdinals.nextSetBit(shardNumber);
-        while(ordinal != ORDINAL_NONE) {
+        int ordinal = populatedOrdinals.nextSetBit(fromOrdinal + shardNumber);
+        while(ordinal != ORDINAL_NONE && ordinal < toOrdinal) {
             if((ordinal & (numShards - 1)) == shardNumber) {
-                int shardOrdinal = ordinal / numShards;
-                int numBuckets = HashCodes.hashTableSize(size(shardOrdinal));
-                long offset = getAbsoluteBucketStart(currentData, shardOrdinal);
-
-                checksum.applyInt(ordinal);
-                for(int i=0; i<numBuckets; i++) {
-                    int bucketKey = getBucketKeyByAbsoluteIndex(currentData, offset + i);
-                    if(bucketKey != currentData.emptyBucketKeyValue) {
-                        checksum.applyInt(i);
-                        checksum.applyInt(bucketKey);
-                        checksum.applyInt(getBucketValueByAbsoluteIndex(currentData, offset + i));
-                    }
-                }
+                applyRecordToChecksum(checksum, currentData, ordinal, ordinal / numShards);
                 ordinal = ordinal + numShards;
             } else {
                 // Round up ordinal
@@ -236,6 +231,25 @@ class HollowMapTypeReadStateShard {
         }
     }
 
+    void applyRecordToChecksum(HollowChecksum checksum, int ordinal, int shardOrdinal) {
+        applyRecordToChecksum(checksum, currentDataVolatile, ordinal, shardOrdinal);
+    }
+
+    private void applyRecordToChecksum(HollowChecksum checksum, HollowMapTypeDataElements currentData, int ordinal, int shardOrdinal) {
+        int numBuckets = HashCodes.hashTableSize(size(shardOrdinal));
+        long offset = getAbsoluteBucketStart(currentData, shardOrdinal);
+
+        checksum.applyInt(ordinal);
+        for(int i=0; i<numBuckets; i++) {
+            int bucketKey = getBucketKeyByAbsoluteIndex(currentData, offset + i);
+            if(bucketKey != currentData.emptyBucketKeyValue) {
+                checksum.applyInt(i);
+                checksum.applyInt(bucketKey);
+                checksum.applyInt(getBucketValueByAbsoluteIndex(currentData, offset + i));
+            }
+        }
+    }
+
     public long getApproximateHeapFootprintInBytes() {
         HollowMapTypeDataElements currentData = currentDataVolatile;
         long requiredBitsForMapPointers = ((long)currentData.maxOrdinal + 1) * currentData.bitsPerFixedLengthMapPortion;
@@ -0,0 +1,318 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.memory.FixedLengthData;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The fixed length data of a {@link HollowObjectTypeDataElements}, stored as a separate column per field rather than
+ * a record per ordinal.
+ * <p>
+ * Each column is encoded independently, with the encoding which requires the fewest bits per value:
+ * <dl>
+ * <dt>plain</dt>
+ * <dd>the value as it is encoded in the record, in {@code bitsPerField} bits</dd>
+ * <dt>frame of reference</dt>
+ * <dd>the difference between the value and the column's minimum value, with null as all ones</dd>
+ * <dt>dictionary</dt>
+ * <dd>the index of the value in the column's dictionary of distinct values, when there are few distinct values</dd>
+ * </dl>
+ * Values are decoded to the same value as would be read from the record, so the data remains readable as
+ * {@link FixedLengthData} by bit offset into the records.  Such a read costs a division to find the record, a table
+ * lookup to find the field, and a decode of each field it spans, so readers of individual fields, including the
+ * pointers of variable length fields, should instead use {@link #readValue(int, int)}, as should bulk copies such as
+ * those made when a delta is applied to these data elements.
+ * <p>
+ * The data is read-only.
+ */
+class ColumnarFixedLengthData implements FixedLengthData {
+
+    static final int MAX_DICTIONARY_SIZE = 256;
+
+    private static final int PLAIN = 0;
+    private static final int FRAME_OF_REFERENCE = 1;
+    private static final int DICTIONARY = 2;
+
+    private final int bitsPerRecord;
+    private final int[] bitsPerField;
+    private final int[] bitOffsetPerField;
+    private final long[] nullValueForField;
+    private final int[] fieldAtBit;
+    private final long maxBit;
+
+    private final int[] encoding;
+    private final int[] bitsPerValue;
+    private final long[] frameOfReference;
+    private final long[] nullCode;
+    private final long[][] dictionary;
+    private final FixedLengthElementArray[] columns;
+
+    /**
+     * Encodes the fixed length data of the given data elements as columns.  The data elements' fixed length data is
+     * not modified.
+     */
+    ColumnarFixedLengthData(HollowObjectTypeDataElements from, ArraySegmentRecycler memoryRecycler) {
+        int numFields = from.bitsPerField.length;
+        int numRecords = from.maxOrdinal + 1;
+
+        this.bitsPerRecord = from.bitsPerRecord;
+        this.bitsPerField = from.bitsPerField;
+        this.bitOffsetPerField = from.bitOffsetPerField;
+        this.nullValueForField = from.nullValueForField;
+        this.maxBit = (long)bitsPerRecord * numRecords;
+
+        this.fieldAtBit = new int[bitsPerRecord];
+        for(int fieldIdx=0;fieldIdx<numFields;fieldIdx++) {
+            for(int bit=0;bit<bitsPerField[fieldIdx];bit++)
+                fieldAtBit[bitOffsetPerField[fieldIdx] + bit] = fieldIdx;
+        }
+
+        this.encoding = new int[numFields];
+        this.bitsPerValue = new int[numFields];
+        this.frameOfReference = new long[numFields];
+        this.nullCode = new long[numFields];
+        this.dictionary = new long[numFields][];
+        this.columns = new FixedLengthElementArray[numFields];
+
+        for(int fieldIdx=0;fieldIdx<numFields;fieldIdx++) {
+            long values[] = new long[numRecords];
+            for(int ordinal=0;ordinal<numRecords;ordinal++)
+                values[ordinal] = from.fixedLengthData.getLargeElementValue(((long)bitsPerRecord * ordinal) + bitOffsetPerField[fieldIdx], bitsPerField[fieldIdx]);
+
+            boolean variableLength = from.schema.getFieldType(fieldIdx) == HollowObjectSchema.FieldType.STRING
+                    || from.schema.getFieldType(fieldIdx) == HollowObjectSchema.FieldType.BYTES;
+            chooseEncoding(fieldIdx, values, variableLength);
+            encodeColumn(fieldIdx, values, memoryRecycler);
+        }
+    }
+
+    /**
+     * @param ordinal the ordinal of the record in these data elements
+     * @param fieldIdx the field index
+     * @return the value of the field, as it would be encoded in the record
+     */
+    long readValue(int ordinal, int fieldIdx) {
+        int bits = bitsPerValue[fieldIdx];
+        long code;
+        if(bits == 0)
+            code = 0;
+        else if(bits <= 56)
+            code = columns[fieldIdx].getElementValue((long)ordinal * bits, bits);
+        else
+            code = columns[fieldIdx].getLargeElementValue((long)ordinal * bits, bits);
+
+        switch(encoding[fieldIdx]) {
+            case FRAME_OF_REFERENCE:
+                return code == nullCode[fieldIdx] ? nullValueForField[fieldIdx] : frameOfReference[fieldIdx] + code;
+            case DICTIONARY:
+                return dictionary[fieldIdx][(int)code];
+            default:
+                return code;
+        }
+    }
+
+    /**
+     * @return the number of bits required to store the columns
+     */
+    long numBits(int numRecords) {
+        long numBits = 0;
+        for(int fieldIdx=0;fieldIdx<bitsPerValue.length;fieldIdx++) {
+            numBits += (long)bitsPerValue[fieldIdx] * numRecords;
+            if(dictionary[fieldIdx] != null)
+                numBits += 64L * dictionary[fieldIdx].length;
+        }
+        return numBits;
+    }
+
+    void destroy(ArraySegmentRecycler memoryRecycler) {
+        for(FixedLengthElementArray column : columns) {
+            if(column != null)
+                column.destroy(memoryRecycler);
+        }
+    }
+
+    private void chooseEncoding(int fieldIdx, long[] values, boolean variableLength) {
+        int plainBits = bitsPerField[fieldIdx];
+        encoding[fieldIdx] = PLAIN;
+        bitsPerValue[fieldIdx] = plainBits;
+
+        // variable length fields are offsets into the variable length data, with a null flag, so are left as they are
+        if(variableLength || values.length == 0)
+            return;
+
+        long nullValue = nullValueForField[fieldIdx];
+        boolean hasNull = false;
+        boolean hasValue = false;
+        long min = 0;
+        long max = 0;
+        Map<Long, Integer> distinctValues = new HashMap<>();
+
+        for(long value : values) {
+            if(distinctValues != null) {
+                distinctValues.putIfAbsent(value, distinctValues.size());
+                if(distinctValues.size() > MAX_DICTIONARY_SIZE)
+                    distinctValues = null;
+            }
+
+            if(value == nullValue) {
+                hasNull = true;
+            } else if(!hasValue) {
+                min = max = value;
+                hasValue = true;
+            } else {
+                if(Long.compareUnsigned(value, min) < 0)
+                    min = value;
+                if(Long.compareUnsigned(value, max) > 0)
+                    max = value;
+            }
+        }
+
+        long range = max - min;
+        int forBits = !hasNull ? bitsRequired(range) : range == -1L ? 64 : bitsRequired(range + 1);
+        if(forBits < bitsPerValue[fieldIdx]) {
+            encoding[fieldIdx] = FRAME_OF_REFERENCE;
+            bitsPerValue[fieldIdx] = forBits;
+            frameOfReference[fieldIdx] = min;
+            nullCode[fieldIdx] = !hasNull ? -1L : forBits == 64 ? -1L : (1L << forBits) - 1;
+        }
+
+        if(distinctValues != null) {
+            int dictionaryBits = bitsRequired(distinctValues.size() - 1);
+            if(dictionaryBits < bitsPerValue[fieldIdx]) {
+                encoding[fieldIdx] = DICTIONARY;
+                bitsPerValue[fieldIdx] = dictionaryBits;
+                long entries[] = new long[distinctValues.size()];
+                for(Map.Entry<Long, Integer> entry : distinctValues.entrySet())
+                    entries[entry.getValue()] = entry.getKey();
+                dictionary[fieldIdx] = entries;
+            }
+        }
+    }
+
+    private void encodeColumn(int fieldIdx, long[] values, ArraySegmentRecycler memoryRecycler) {
+        int bits = bitsPerValue[fieldIdx];
+        if(bits == 0)
+            return;
+
+        FixedLengthElementArray column = new FixedLengthElementArray(memoryRecycler, (long)bits * values.length);
+        Map<Long, Integer> dictionaryIndexes = null;
+        if(encoding[fieldIdx] == DICTIONARY) {
+            dictionaryIndexes = new HashMap<>();
+            for(int i=0;i<dictionary[fieldIdx].length;i++)
+                dictionaryIndexes.put(dictionary[fieldIdx][i], i);
+        }
+
+        for(int ordinal=0;ordinal<values.length;ordinal++) {
+            long code;
+            switch(encoding[fieldIdx]) {
+                case FRAME_OF_REFERENCE:
+                    code = values[ordinal] == nullValueForField[fieldIdx] ? nullCode[fieldIdx] : values[ordinal] - frameOfReference[fieldIdx];
+                    break;
+                case DICTIONARY:
+                    code = dictionaryIndexes.get(values[ordinal]);
+                    break;
+                default:
+                    code = values[ordinal];
+            }
+            column.setElementValue((long)ordinal * bits, bits, code);
+        }
+
+        columns[fieldIdx] = column;
+    }
+
+    /**
+     * @return the number of bits required to represent values from 0 to the given value, which is 0 for 0
+     */
+    private static int bitsRequired(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    @Override
+    public long getElementValue(long index, int bitsPerElement) {
+        return getLargeElementValue(index, bitsPerElement);
+    }
+
+    @Override
+    public long getElementValue(long index, int bitsPerElement, long mask) {
+        return getLargeElementValue(index, bitsPerElement) & mask;
+    }
+
+    @Override
+    public long getLargeElementValue(long index, int bitsPerElement, long mask) {
+        return getLargeElementValue(index, bitsPerElement) & mask;
+    }
+
+    /**
+     * Reads the bits at the given bit offset into the records, which may span multiple fields and records.
+     */
+    @Override
+    public long getLargeElementValue(long index, int bitsPerElement) {
+        if(index < maxBit) {
+            int ordinal = (int)(index / bitsPerRecord);
+            int bitInRecord = (int)(index - (long)ordinal * bitsPerRecord);
+            int fieldIdx = fieldAtBit[bitInRecord];
+            if(bitInRecord == bitOffsetPerField[fieldIdx] && bitsPerElement == bitsPerField[fieldIdx])
+                return readValue(ordinal, fieldIdx);
+        }
+
+        long result = 0;
+        int resultBits = 0;
+
+        while(resultBits < bitsPerElement && index + resultBits < maxBit) {
+            long bit = index + resultBits;
+            int ordinal = (int)(bit / bitsPerRecord);
+            int bitInRecord = (int)(bit - (long)ordinal * bitsPerRecord);
+            int fieldIdx = fieldAtBit[bitInRecord];
+            int bitInField = bitInRecord - bitOffsetPerField[fieldIdx];
+            int numBits = Math.min(bitsPerField[fieldIdx] - bitInField, bitsPerElement - resultBits);
+
+            long value = readValue(ordinal, fieldIdx) >>> bitInField;
+            if(numBits < 64)
+                value &= (1L << numBits) - 1;
+            result |= value << resultBits;
+            resultBits += numBits;
+        }
+
+        return result;
+    }
+
+    @Override
+    public void setElementValue(long index, int bitsPerElement, long value) {
+        throw new UnsupportedOperationException("Columnar fixed length data is read-only");
+    }
+
+    @Override
+    public void copyBits(FixedLengthData copyFrom, long sourceStartBit, long destStartBit, long numBits) {
+        throw new UnsupportedOperationException("Columnar fixed length data is read-only");
+    }
+
+    @Override
+    public void incrementMany(long startBit, long increment, long bitsBetweenIncrements, int numIncrements) {
+        throw new UnsupportedOperationException("Columnar fixed length data is read-only");
+    }
+
+    @Override
+    public void clearElementValue(long index, int bitsPerElement) {
+        throw new UnsupportedOperationException("Columnar fixed length data is read-only");
+    }
+
+}
@@ -105,8 +105,11 @@ class HollowObjectDeltaApplicator {
     }
 
     private boolean canDoFastDelta() {
+        /// records in the from state may be wider than the target's if they include fields excluded by a filter
+        if(target.bitsPerRecord != from.bitsPerRecord)
+            return false;
         for(int i=0;i<target.bitsPerField.length;i++) {
-            if(target.bitsPerField[i] != from.bitsPerField[i])
+            if(target.bitsPerField[i] != from.bitsPerField[i] || target.bitOffsetPerField[i] != from.bitOffsetPerField[i])
                 return false;
         }
         return true;
@@ -136,7 +139,10 @@ class HollowObjectDeltaApplicator {
     private void fastCopyRecords(int recordsToCopy) {
         long fixedLengthBitsToCopy = (long)from.bitsPerRecord * recordsToCopy;
 
-        target.fixedLengthData.copyBits(from.fixedLengthData, currentFromStateReadFixedLengthStartBit, currentWriteFixedLengthStartBit, fixedLengthBitsToCopy);
+        if(from.columns != null)
+            copyColumnarRecords(recordsToCopy);
+        else
+            target.fixedLengthData.copyBits(from.fixedLengthData, currentFromStateReadFixedLengthStartBit, currentWriteFixedLengthStartBit, fixedLengthBitsToCopy);
 
         currentFromStateReadFixedLengthStartBit += fixedLengthBitsToCopy;
 
@@ -158,6 +164,27 @@ class HollowObjectDeltaApplicator {
         currentWriteFixedLengthStartBit += fixedLengthBitsToCopy;
     }
 
+    /**
+     * Copies the records a column at a time, since reading columnar data by bit offset locates and decodes each field.
+     */
+    private void copyColumnarRecords(int recordsToCopy) {
+        if(from.bitsPerRecord == 0)
+            return;
+
+        int fromOrdinal = (int)(currentFromStateReadFixedLengthStartBit / from.bitsPerRecord);
+        for(int fieldIdx=0;fieldIdx<from.bitsPerField.length;fieldIdx++) {
+            int numBitsForField = from.bitsPerField[fieldIdx];
+            if(numBitsForField == 0)
+                continue;
+
+            long writeBit = currentWriteFixedLengthStartBit + from.bitOffsetPerField[fieldIdx];
+            for(int i=0;i<recordsToCopy;i++) {
+                target.fixedLengthData.setElementValue(writeBit, numBitsForField, from.columns.readValue(fromOrdinal + i, fieldIdx));
+                writeBit += from.bitsPerRecord;
+            }
+        }
+    }
+
     private void slowDelta() {
         for(int i=0;i<=target.maxOrdinal;i++) {
             mergeOrdinal(i);
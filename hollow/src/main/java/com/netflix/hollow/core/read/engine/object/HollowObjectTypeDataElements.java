@@ -19,6 +19,7 @@ package com.netflix.hollow.core.read.engine.object;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryScratchFile;
 import com.netflix.hollow.core.memory.VariableLengthData;
 import com.netflix.hollow.core.memory.VariableLengthDataFactory;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
@@ -27,6 +28,7 @@ import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -42,7 +44,9 @@ public class HollowObjectTypeDataElements {
     int maxOrdinal;
 
     FixedLengthData fixedLengthData;
+    ColumnarFixedLengthData columns;
     final VariableLengthData varLengthData[];
+    StringDictionary stringDictionaries[];
 
     GapEncodedVariableLengthIntegerReader encodedAdditions;
     GapEncodedVariableLengthIntegerReader encodedRemovals;
@@ -98,6 +102,11 @@ public class HollowObjectTypeDataElements {
 
     private void removeExcludedFieldsFromFixedLengthData() {
         if(bitsPerField.length < bitsPerUnfilteredField.length) {
+            if(memoryMode.isSharedMemory()) {
+                addressIncludedFieldsInUnfilteredRecords();
+                return;
+            }
+
             long numBitsRequired = (long)bitsPerRecord * (maxOrdinal + 1);
             FixedLengthElementArray filteredData = new FixedLengthElementArray(memoryRecycler, numBitsRequired);
 
@@ -124,6 +133,24 @@ public class HollowObjectTypeDataElements {
         }
     }
 
+    /**
+     * In shared memory modes the fixed length data is left as mapped, rather than being copied on-heap without the
+     * excluded fields. Instead, each included field is addressed at its position within the unfiltered record, so
+     * the excluded fields are never read.
+     */
+    private void addressIncludedFieldsInUnfilteredRecords() {
+        int unfilteredBitOffset = 0;
+        int filteredFieldIdx = 0;
+
+        for(int i=0;i<bitsPerUnfilteredField.length;i++) {
+            if(unfilteredFieldIsIncluded[i])
+                bitOffsetPerField[filteredFieldIdx++] = unfilteredBitOffset;
+            unfilteredBitOffset += bitsPerUnfilteredField[i];
+        }
+
+        bitsPerRecord = unfilteredBitOffset;
+    }
+
     private void readFieldStatistics(HollowBlobInput in, HollowObjectSchema unfilteredSchema) throws IOException {
         bitsPerRecord = 0;
 
@@ -199,16 +226,109 @@ public class HollowObjectTypeDataElements {
         }
     }
 
+    /**
+     * Re-encodes the fixed length data on-heap as a column per field.  The columns remain readable as the fixed
+     * length data.
+     *
+     * @see com.netflix.hollow.core.read.engine.HollowReadStateEngine#setColumnarObjectEncoding(boolean)
+     */
+    void encodeColumns() {
+        if(columns != null || memoryMode.isSharedMemory())
+            return;
+
+        ColumnarFixedLengthData encoded = new ColumnarFixedLengthData(this, memoryRecycler);
+        FixedLengthDataFactory.destroy(fixedLengthData, memoryRecycler);
+        fixedLengthData = encoded;
+        columns = encoded;
+    }
+
+    /**
+     * Pools the values of each string field with few enough distinct values for the pool to be smaller than the
+     * field's variable length data, and releases the variable length data of the pooled fields.
+     *
+     * @see com.netflix.hollow.core.read.engine.HollowReadStateEngine#setStringDictionaryEncoding(boolean)
+     */
+    void encodeStrings() {
+        if(stringDictionaries != null || memoryMode.isSharedMemory())
+            return;
+
+        StringDictionary encoded[] = new StringDictionary[varLengthData.length];
+        for(int i=0;i<varLengthData.length;i++) {
+            if(varLengthData[i] != null && schema.getFieldType(i) == HollowObjectSchema.FieldType.STRING)
+                encoded[i] = StringDictionary.encode(this, i, memoryRecycler);
+        }
+        stringDictionaries = encoded;
+
+        for(int i=0;i<varLengthData.length;i++) {
+            if(encoded[i] != null) {
+                VariableLengthDataFactory.destroy(varLengthData[i]);
+                varLengthData[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Restores the variable length data of the pooled string fields, so that these data elements can be copied from
+     * by a delta application, a split or a join.  Values continue to be read from the pools.
+     */
+    void decodeStrings() {
+        if(stringDictionaries == null)
+            return;
+
+        for(int i=0;i<varLengthData.length;i++) {
+            if(stringDictionaries[i] != null && varLengthData[i] == null)
+                varLengthData[i] = stringDictionaries[i].decode(maxOrdinal + 1, memoryRecycler);
+        }
+    }
+
     void applyDelta(HollowObjectTypeDataElements fromData, HollowObjectTypeDataElements deltaData) {
+        fromData.decodeStrings();
         new HollowObjectDeltaApplicator(fromData, deltaData, this).applyDelta();
     }
 
+    /**
+     * Moves the data populated on-heap by a delta application or resharding into a mapped scratch file, so that
+     * data elements in a shared memory mode remain backed by shared memory.
+     */
+    void moveToSharedMemory(File scratchDir) throws IOException {
+        try(SharedMemoryScratchFile scratchFile = new SharedMemoryScratchFile(scratchDir, memoryMode)) {
+            scratchFile.write(fixedLengthData, (long)bitsPerRecord * (maxOrdinal + 1));
+            for(int i=0;i<varLengthData.length;i++) {
+                if(varLengthData[i] != null)
+                    scratchFile.write(varLengthData[i], maxOrdinal == -1 ? 0 : varLengthEndByte(this, maxOrdinal, i));
+            }
+
+            HollowBlobInput in = scratchFile.map();
+            FixedLengthData stagedFixedLengthData = fixedLengthData;
+            fixedLengthData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedFixedLengthData, memoryRecycler);
+
+            for(int i=0;i<varLengthData.length;i++) {
+                if(varLengthData[i] != null) {
+                    VariableLengthData stagedVarLengthData = varLengthData[i];
+                    varLengthData[i] = VariableLengthDataFactory.get(memoryMode, memoryRecycler);
+                    varLengthData[i].loadFrom(in, VarInt.readVLong(in));
+                    VariableLengthDataFactory.destroy(stagedVarLengthData);
+                }
+            }
+        }
+    }
+
     public void destroy() {
-        FixedLengthDataFactory.destroy(fixedLengthData, memoryRecycler);
+        if(columns != null)
+            columns.destroy(memoryRecycler);
+        else
+            FixedLengthDataFactory.destroy(fixedLengthData, memoryRecycler);
         for(int i=0;i<varLengthData.length;i++) {
             if(varLengthData[i] != null)
                 VariableLengthDataFactory.destroy(varLengthData[i]);
         }
+        if(stringDictionaries != null) {
+            for(StringDictionary stringDictionary : stringDictionaries) {
+                if(stringDictionary != null)
+                    stringDictionary.destroy(memoryRecycler);
+            }
+        }
     }
 
     static long varLengthStartByte(HollowObjectTypeDataElements from, int ordinal, int fieldIdx) {
@@ -230,6 +350,12 @@ public class HollowObjectTypeDataElements {
         return endByte;
     }
 
+    static boolean isNullVarLengthField(HollowObjectTypeDataElements from, int ordinal, int fieldIdx) {
+        int numBitsForField = from.bitsPerField[fieldIdx];
+        long currentBitOffset = ((long)from.bitsPerRecord * ordinal) + from.bitOffsetPerField[fieldIdx];
+        return (from.fixedLengthData.getElementValue(currentBitOffset, numBitsForField) & (1L << (numBitsForField - 1))) != 0;
+    }
+
     static long varLengthSize(HollowObjectTypeDataElements from, int ordinal, int fieldIdx) {
         int numBitsForField = from.bitsPerField[fieldIdx];
         long fromBitOffset = ((long)from.bitsPerRecord*ordinal) + from.bitOffsetPerField[fieldIdx];
@@ -247,9 +373,13 @@ public class HollowObjectTypeDataElements {
                 long fromStartByte = varLengthStartByte(from, fromOrdinal, fieldIndex);
                 long fromEndByte = varLengthEndByte(from, fromOrdinal, fieldIndex);
                 long size = fromEndByte - fromStartByte;
+                long nullFlag = isNullVarLengthField(from, fromOrdinal, fieldIndex) ? (1L << (to.bitsPerField[fieldIndex] - 1)) : 0;
 
-                to.fixedLengthData.setElementValue(((long)toOrdinal * to.bitsPerRecord) + to.bitOffsetPerField[fieldIndex], to.bitsPerField[fieldIndex], currentWriteVarLengthDataPointers[fieldIndex] + size);
-                to.varLengthData[fieldIndex].copy(from.varLengthData[fieldIndex], fromStartByte, currentWriteVarLengthDataPointers[fieldIndex], size);
+                to.fixedLengthData.setElementValue(((long)toOrdinal * to.bitsPerRecord) + to.bitOffsetPerField[fieldIndex], to.bitsPerField[fieldIndex], nullFlag | (currentWriteVarLengthDataPointers[fieldIndex] + size));
+                if(from.varLengthData[fieldIndex] != null)
+                    to.varLengthData[fieldIndex].copy(from.varLengthData[fieldIndex], fromStartByte, currentWriteVarLengthDataPointers[fieldIndex], size);
+                else
+                    from.stringDictionaries[fieldIndex].copyBytes(fromOrdinal, to.varLengthData[fieldIndex], currentWriteVarLengthDataPointers[fieldIndex]);
 
                 currentWriteVarLengthDataPointers[fieldIndex] += size;
             }
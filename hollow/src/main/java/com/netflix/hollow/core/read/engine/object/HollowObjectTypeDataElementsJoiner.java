@@ -5,7 +5,7 @@ import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataEle
 import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataElements.writeNullField;
 
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
-import com.netflix.hollow.core.memory.VariableLengthDataFactory;
+import com.netflix.hollow.core.memory.SegmentedByteArray;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 
 
@@ -28,6 +28,8 @@ class HollowObjectTypeDataElementsJoiner {
 
         HollowObjectTypeDataElements to = new HollowObjectTypeDataElements(from[0].schema, from[0].memoryMode, from[0].memoryRecycler);
         currentWriteVarLengthDataPointers = new long[from[0].schema.numFields()];
+        for(HollowObjectTypeDataElements fromElements : from)
+            fromElements.decodeStrings();
 
         populateStats(to, from);
 
@@ -86,7 +88,7 @@ class HollowObjectTypeDataElementsJoiner {
         for(int fieldIdx=0;fieldIdx<to.schema.numFields();fieldIdx++) {
             for(int i=0;i<from.length;i++) {
                 if(from[i].varLengthData[fieldIdx] != null) { // if any of the join candidates have var len data set for this field
-                    to.varLengthData[fieldIdx] = VariableLengthDataFactory.get(to.memoryMode, to.memoryRecycler);
+                    to.varLengthData[fieldIdx] = new SegmentedByteArray(to.memoryRecycler);
                     break;
                 }
             }
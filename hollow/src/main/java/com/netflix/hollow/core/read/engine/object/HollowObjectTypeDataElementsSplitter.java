@@ -4,7 +4,7 @@ import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataEle
 import static com.netflix.hollow.core.read.engine.object.HollowObjectTypeDataElements.varLengthSize;
 
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
-import com.netflix.hollow.core.memory.VariableLengthDataFactory;
+import com.netflix.hollow.core.memory.SegmentedByteArray;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 
 /**
@@ -30,6 +30,7 @@ public class HollowObjectTypeDataElementsSplitter {
             to[i].maxOrdinal = -1;
         }
         currentWriteVarLengthDataPointers = new long[numSplits][from.schema.numFields()];
+        from.decodeStrings();
 
         populateStats(to, from, toMask, toOrdinalShift);
 
@@ -49,7 +50,7 @@ public class HollowObjectTypeDataElementsSplitter {
             to[i].fixedLengthData = FixedLengthDataFactory.get((long)to[i].bitsPerRecord * (to[i].maxOrdinal + 1), to[i].memoryMode, to[i].memoryRecycler);
             for(int fieldIdx=0;fieldIdx<from.schema.numFields();fieldIdx++) {
                 if(from.varLengthData[fieldIdx] != null) {
-                    to[i].varLengthData[fieldIdx] = VariableLengthDataFactory.get(from.memoryMode, from.memoryRecycler);
+                    to[i].varLengthData[fieldIdx] = new SegmentedByteArray(to[i].memoryRecycler);
                 }
             }
         }
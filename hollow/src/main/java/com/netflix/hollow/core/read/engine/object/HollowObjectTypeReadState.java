@@ -39,6 +39,7 @@ import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.BitSet;
 
@@ -50,6 +51,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
     private final HollowObjectSchema unfilteredSchema;
     private final HollowObjectSampler sampler;
     private int maxOrdinal;
+    private int checksumFieldIndexes[];
     volatile ShardsHolder shardsVolatile;
 
     static class ShardsHolder {
@@ -118,6 +120,7 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         for(int i=0; i<numShards; i++) {
             HollowObjectTypeDataElements shardDataElements = new HollowObjectTypeDataElements(getSchema(), memoryMode, memoryRecycler);
             shardDataElements.readSnapshot(in, unfilteredSchema);
+            encodeDataElements(shardDataElements);
             newShards[i] = new HollowObjectTypeReadStateShard(getSchema(), shardDataElements, shardOrdinalShift);
         }
         shardsVolatile = new ShardsHolder(newShards);
@@ -162,6 +165,9 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
                 HollowObjectTypeDataElements nextData = new HollowObjectTypeDataElements(getSchema(), memoryMode, memoryRecycler);
                 HollowObjectTypeDataElements oldData = shardsVolatile.shards[i].dataElements;
                 nextData.applyDelta(oldData, deltaData);
+                if(memoryMode.isSharedMemory())
+                    nextData.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
+                encodeDataElements(nextData);
 
                 HollowObjectTypeReadStateShard newShard = new HollowObjectTypeReadStateShard(getSchema(), nextData, shardsVolatile.shards[i].shardOrdinalShift);
                 shardsVolatile = new ShardsHolder(shardsVolatile.shards, newShard, i);
@@ -178,24 +184,6 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
             maxOrdinal = shardsVolatile.shards[0].dataElements.maxOrdinal;
     }
 
-    /**
-     * Given old and new numShards, this method returns the shard resizing multiplier.
-     */
-    static int shardingFactor(int oldNumShards, int newNumShards) {
-        if (newNumShards <= 0 || oldNumShards <= 0 || newNumShards == oldNumShards) {
-            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
-        }
-
-        boolean isNewGreater = newNumShards > oldNumShards;
-        int dividend = isNewGreater ? newNumShards : oldNumShards;
-        int divisor = isNewGreater ? oldNumShards : newNumShards;
-
-        if (dividend % divisor != 0) {
-            throw new IllegalStateException("Invalid shard resizing, oldNumShards=" + oldNumShards + ", newNumShards=" + newNumShards);
-        }
-        return dividend / divisor;
-    }
-
     /**
      * Reshards this type state to the desired shard count using O(shard size) space while supporting concurrent reads
      * into the underlying data elements.
@@ -286,6 +274,8 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         HollowObjectTypeDataElementsJoiner joiner = new HollowObjectTypeDataElementsJoiner();
         HollowObjectTypeDataElements[] joinCandidates = joinCandidates(shardsHolder.shards, currentIndex, shardingFactor);
         HollowObjectTypeDataElements joined = joiner.join(joinCandidates);
+        moveToSharedMemory(joined);
+        encodeDataElements(joined);
 
         HollowObjectTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
         for (int i=0; i<shardingFactor; i++) {
@@ -314,6 +304,10 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         HollowObjectTypeDataElementsSplitter splitter = new HollowObjectTypeDataElementsSplitter();
         HollowObjectTypeDataElements dataElementsToSplit = shardsHolder.shards[currentIndex].dataElements;
         HollowObjectTypeDataElements[] splits = splitter.split(dataElementsToSplit, shardingFactor);
+        for (HollowObjectTypeDataElements split : splits) {
+            moveToSharedMemory(split);
+            encodeDataElements(split);
+        }
 
         HollowObjectTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
         for (int i = 0; i < shardingFactor; i ++) {
@@ -322,6 +316,25 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         return new ShardsHolder(newShards);
     }
 
+    private void moveToSharedMemory(HollowObjectTypeDataElements dataElements) {
+        if (memoryMode.isSharedMemory()) {
+            try {
+                dataElements.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void encodeDataElements(HollowObjectTypeDataElements dataElements) {
+        if (stateEngine != null && stateEngine.isStringDictionaryEncoding()) {
+            dataElements.encodeStrings();
+        }
+        if (stateEngine != null && stateEngine.isColumnarObjectEncoding()) {
+            dataElements.encodeColumns();
+        }
+    }
+
     private void destroyOriginalDataElements(HollowObjectTypeDataElements dataElements) {
         dataElements.destroy();
         if (dataElements.encodedRemovals != null) {
@@ -493,7 +506,6 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         HollowObjectTypeReadStateShard shard;
         byte[] result;
         int numBitsForField;
-        long currentBitOffset;
         long endByte;
         long startByte;
         int shardOrdinal;
@@ -505,12 +517,11 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
                 shardOrdinal = ordinal >> shard.shardOrdinalShift;
 
                 numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
-                currentBitOffset = shard.fieldOffset(shardOrdinal, fieldIndex);
-                endByte = shard.dataElements.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
-                startByte = shardOrdinal != 0 ? shard.dataElements.fixedLengthData.getElementValue(currentBitOffset - shard.dataElements.bitsPerRecord, numBitsForField) : 0;
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
             } while (readWasUnsafe(shardsHolder, ordinal, shard));
 
-            result = shard.readBytes(startByte, endByte, numBitsForField, fieldIndex);
+            result = shard.readBytes(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex);
         } while (readWasUnsafe(shardsHolder, ordinal, shard));
 
         return result;
@@ -524,7 +535,6 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         HollowObjectTypeReadStateShard shard;
         String result;
         int numBitsForField;
-        long currentBitOffset;
         long endByte;
         long startByte;
         int shardOrdinal;
@@ -536,12 +546,11 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
                 shardOrdinal = ordinal >> shard.shardOrdinalShift;
 
                 numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
-                currentBitOffset = shard.fieldOffset(shardOrdinal, fieldIndex);
-                endByte = shard.dataElements.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
-                startByte = shardOrdinal != 0 ? shard.dataElements.fixedLengthData.getElementValue(currentBitOffset - shard.dataElements.bitsPerRecord, numBitsForField) : 0;
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
             } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
-            result = shard.readString(startByte, endByte, numBitsForField, fieldIndex);
+            result = shard.readString(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex);
         } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
         return result;
@@ -549,13 +558,17 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
 
     @Override
     public boolean isStringFieldEqual(int ordinal, int fieldIndex, String testValue) {
+        return isStringFieldEqual(ordinal, fieldIndex, (CharSequence)testValue);
+    }
+
+    @Override
+    public boolean isStringFieldEqual(int ordinal, int fieldIndex, CharSequence testValue) {
         sampler.recordFieldAccess(fieldIndex);
 
         HollowObjectTypeReadState.ShardsHolder shardsHolder;
         HollowObjectTypeReadStateShard shard;
         boolean result;
         int numBitsForField;
-        long currentBitOffset;
         long endByte;
         long startByte;
         int shardOrdinal;
@@ -567,12 +580,129 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
                 shardOrdinal = ordinal >> shard.shardOrdinalShift;
 
                 numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
-                currentBitOffset = shard.fieldOffset(shardOrdinal, fieldIndex);
-                endByte = shard.dataElements.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
-                startByte = shardOrdinal != 0 ? shard.dataElements.fixedLengthData.getElementValue(currentBitOffset - shard.dataElements.bitsPerRecord, numBitsForField) : 0;
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
             } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
-            result = shard.isStringFieldEqual(startByte, endByte, numBitsForField, fieldIndex, testValue);
+            result = shard.isStringFieldEqual(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex, testValue);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
+    }
+
+    @Override
+    public int compareStringField(int ordinal, int fieldIndex, CharSequence testValue) {
+        sampler.recordFieldAccess(fieldIndex);
+
+        HollowObjectTypeReadState.ShardsHolder shardsHolder;
+        HollowObjectTypeReadStateShard shard;
+        int result;
+        int numBitsForField;
+        long endByte;
+        long startByte;
+        int shardOrdinal;
+
+        do {
+            do {
+                shardsHolder = this.shardsVolatile;
+                shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+                shardOrdinal = ordinal >> shard.shardOrdinalShift;
+
+                numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
+            } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+            result = shard.compareStringField(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex, testValue);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
+    }
+
+    @Override
+    public boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, CharSequence prefix) {
+        sampler.recordFieldAccess(fieldIndex);
+
+        HollowObjectTypeReadState.ShardsHolder shardsHolder;
+        HollowObjectTypeReadStateShard shard;
+        boolean result;
+        int numBitsForField;
+        long endByte;
+        long startByte;
+        int shardOrdinal;
+
+        do {
+            do {
+                shardsHolder = this.shardsVolatile;
+                shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+                shardOrdinal = ordinal >> shard.shardOrdinalShift;
+
+                numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
+            } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+            result = shard.isStringFieldPrefixedBy(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex, prefix);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
+    }
+
+    @Override
+    public int readStringInto(int ordinal, int fieldIndex, char[] dest) {
+        sampler.recordFieldAccess(fieldIndex);
+
+        HollowObjectTypeReadState.ShardsHolder shardsHolder;
+        HollowObjectTypeReadStateShard shard;
+        int result;
+        int numBitsForField;
+        long endByte;
+        long startByte;
+        int shardOrdinal;
+
+        do {
+            do {
+                shardsHolder = this.shardsVolatile;
+                shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+                shardOrdinal = ordinal >> shard.shardOrdinalShift;
+
+                numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
+            } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+            result = shard.readStringInto(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex, dest);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return result;
+    }
+
+    @Override
+    public boolean readStringInto(int ordinal, int fieldIndex, StringBuilder dest) {
+        sampler.recordFieldAccess(fieldIndex);
+
+        HollowObjectTypeReadState.ShardsHolder shardsHolder;
+        HollowObjectTypeReadStateShard shard;
+        boolean result;
+        int numBitsForField;
+        long endByte;
+        long startByte;
+        int shardOrdinal;
+        int destLength = dest.length();
+
+        do {
+            do {
+                shardsHolder = this.shardsVolatile;
+                shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+                shardOrdinal = ordinal >> shard.shardOrdinalShift;
+
+                numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
+            } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+            dest.setLength(destLength);
+            result = shard.readStringInto(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex, dest);
         } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
         return result;
@@ -586,7 +716,6 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
         HollowObjectTypeReadStateShard shard;
         int hashCode;
         int numBitsForField;
-        long currentBitOffset;
         long endByte;
         long startByte;
         int shardOrdinal;
@@ -598,12 +727,11 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
                 shardOrdinal = ordinal >> shard.shardOrdinalShift;
 
                 numBitsForField = shard.dataElements.bitsPerField[fieldIndex];
-                currentBitOffset = shard.fieldOffset(shardOrdinal, fieldIndex);
-                endByte = shard.dataElements.fixedLengthData.getElementValue(currentBitOffset, numBitsForField);
-                startByte = shardOrdinal != 0 ? shard.dataElements.fixedLengthData.getElementValue(currentBitOffset - shard.dataElements.bitsPerRecord, numBitsForField) : 0;
+                endByte = shard.readValue(shardOrdinal, fieldIndex);
+                startByte = shardOrdinal != 0 ? shard.readValue(shardOrdinal - 1, fieldIndex) : 0;
             } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
-            hashCode = shard.findVarLengthFieldHashCode(startByte, endByte, numBitsForField, fieldIndex);
+            hashCode = shard.findVarLengthFieldHashCode(shardOrdinal, startByte, endByte, numBitsForField, fieldIndex);
         } while(readWasUnsafe(shardsHolder, ordinal, shard));
 
         return hashCode;
@@ -707,18 +835,25 @@ public class HollowObjectTypeReadState extends HollowTypeReadState implements Ho
     }
 
     @Override
-    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema) {
+    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema, int shardNumber, int fromOrdinal, int toOrdinal) {
         final ShardsHolder shardsHolder = this.shardsVolatile;
-        final HollowObjectTypeReadStateShard[] shards = shardsHolder.shards;
-        int shardNumberMask = shardsHolder.shardNumberMask;
         if(!(withSchema instanceof HollowObjectSchema))
             throw new IllegalArgumentException("HollowObjectTypeReadState can only calculate checksum with a HollowObjectSchema: " + getSchema().getName());
 
         BitSet populatedOrdinals = getPopulatedOrdinals();
 
-        for(int i=0;i<shards.length;i++) {
-            shards[i].applyShardToChecksum(checksum, withSchema, populatedOrdinals, i, shardNumberMask);
-        }
+        shardsHolder.shards[shardNumber].applyShardToChecksum(checksum, withSchema, populatedOrdinals, shardNumber, shardsHolder.shardNumberMask, fromOrdinal, toOrdinal);
+    }
+
+    @Override
+    protected void applyRecordToChecksum(HollowChecksum checksum, int ordinal) {
+        final ShardsHolder shardsHolder = this.shardsVolatile;
+        HollowObjectTypeReadStateShard shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+
+        if(checksumFieldIndexes == null)
+            checksumFieldIndexes = shard.checksumFieldIndexes(getSchema());
+
+        shard.applyRecordToChecksum(checksum, ordinal, ordinal >> shard.shardOrdinalShift, checksumFieldIndexes);
     }
 
 	@Override
@@ -43,6 +43,9 @@ class HollowObjectTypeReadStateShard {
     }
 
     public long readValue(int ordinal, int fieldIndex) {
+        if(dataElements.columns != null)
+            return dataElements.columns.readValue(ordinal, fieldIndex);
+
         long bitOffset = fieldOffset(ordinal, fieldIndex);
         int numBitsForField = dataElements.bitsPerField[fieldIndex];
         return numBitsForField <= 56 ?
@@ -63,11 +66,17 @@ class HollowObjectTypeReadStateShard {
     }
 
     public long readDouble(int ordinal, int fieldIndex) {
+        if(dataElements.columns != null)
+            return dataElements.columns.readValue(ordinal, fieldIndex);
+
         long bitOffset = fieldOffset(ordinal, fieldIndex);
         return dataElements.fixedLengthData.getLargeElementValue(bitOffset, 64, -1L);
     }
 
     public long readLong(int ordinal, int fieldIndex) {
+        if(dataElements.columns != null)
+            return dataElements.columns.readValue(ordinal, fieldIndex);
+
         long bitOffset = fieldOffset(ordinal, fieldIndex);
         int numBitsForField = dataElements.bitsPerField[fieldIndex];
         return dataElements.fixedLengthData.getLargeElementValue(bitOffset, numBitsForField);
@@ -78,6 +87,9 @@ class HollowObjectTypeReadStateShard {
     }
 
     private long readFixedLengthFieldValue(int ordinal, int fieldIndex) {
+        if(dataElements.columns != null)
+            return dataElements.columns.readValue(ordinal, fieldIndex);
+
         long bitOffset = fieldOffset(ordinal, fieldIndex);
         int numBitsForField = dataElements.bitsPerField[fieldIndex];
 
@@ -86,9 +98,12 @@ class HollowObjectTypeReadStateShard {
         return value;
     }
 
-    public byte[] readBytes(long startByte, long endByte, int numBitsForField, int fieldIndex) {
+    public byte[] readBytes(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex) {
         byte[] result;
 
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null)
+            return dataElements.stringDictionaries[fieldIndex].readBytes(ordinal);
+
         if((endByte & (1L << numBitsForField - 1)) != 0)
             return null;
 
@@ -103,7 +118,10 @@ class HollowObjectTypeReadStateShard {
         return result;
     }
 
-    public String readString(long startByte, long endByte, int numBitsForField, int fieldIndex) {
+    public String readString(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex) {
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null)
+            return dataElements.stringDictionaries[fieldIndex].readString(ordinal);
+
         if((endByte & (1L << numBitsForField - 1)) != 0)
             return null;
 
@@ -114,7 +132,10 @@ class HollowObjectTypeReadStateShard {
         return readString(dataElements.varLengthData[fieldIndex], startByte, length);
     }
 
-    public boolean isStringFieldEqual(long startByte, long endByte, int numBitsForField, int fieldIndex, String testValue) {
+    public boolean isStringFieldEqual(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex, CharSequence testValue) {
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null)
+            return dataElements.stringDictionaries[fieldIndex].isEqual(ordinal, testValue);
+
         if((endByte & (1L << numBitsForField - 1)) != 0)
             return testValue == null;
         if(testValue == null)
@@ -127,7 +148,110 @@ class HollowObjectTypeReadStateShard {
         return testStringEquality(dataElements.varLengthData[fieldIndex], startByte, length, testValue);
     }
 
-    public int findVarLengthFieldHashCode(long startByte, long endByte, int numBitsForField, int fieldIndex) {
+    public int compareStringField(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex, CharSequence testValue) {
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null)
+            return compare(dataElements.stringDictionaries[fieldIndex].readString(ordinal), testValue);
+
+        if((endByte & (1L << numBitsForField - 1)) != 0)
+            return testValue == null ? 0 : -1;
+        if(testValue == null)
+            return 1;
+
+        startByte &= (1L << numBitsForField - 1) - 1;
+
+        ByteData data = dataElements.varLengthData[fieldIndex];
+        int count = 0;
+        while(startByte < endByte && count < testValue.length()) {
+            int c = VarInt.readVInt(data, startByte);
+            if(c != testValue.charAt(count))
+                return (char)c - testValue.charAt(count);
+            startByte += VarInt.sizeOfVInt(c);
+            count++;
+        }
+
+        if(startByte < endByte)
+            return 1;
+        return count - testValue.length();
+    }
+
+    public boolean isStringFieldPrefixedBy(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex, CharSequence prefix) {
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null)
+            return startsWith(dataElements.stringDictionaries[fieldIndex].readString(ordinal), prefix);
+
+        if((endByte & (1L << numBitsForField - 1)) != 0)
+            return false;
+
+        startByte &= (1L << numBitsForField - 1) - 1;
+
+        ByteData data = dataElements.varLengthData[fieldIndex];
+        int count = 0;
+        while(count < prefix.length()) {
+            if(startByte >= endByte)
+                return false;
+            int c = VarInt.readVInt(data, startByte);
+            if(prefix.charAt(count++) != (char)c)
+                return false;
+            startByte += VarInt.sizeOfVInt(c);
+        }
+
+        return true;
+    }
+
+    public int readStringInto(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex, char[] dest) {
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null) {
+            String value = dataElements.stringDictionaries[fieldIndex].readString(ordinal);
+            if(value == null)
+                return -1;
+            value.getChars(0, Math.min(value.length(), dest.length), dest, 0);
+            return value.length();
+        }
+
+        if((endByte & (1L << numBitsForField - 1)) != 0)
+            return -1;
+
+        startByte &= (1L << numBitsForField - 1) - 1;
+
+        ByteData data = dataElements.varLengthData[fieldIndex];
+        int count = 0;
+        while(startByte < endByte) {
+            int c = VarInt.readVInt(data, startByte);
+            if(count < dest.length)
+                dest[count] = (char)c;
+            startByte += VarInt.sizeOfVInt(c);
+            count++;
+        }
+
+        return count;
+    }
+
+    public boolean readStringInto(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex, StringBuilder dest) {
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null) {
+            String value = dataElements.stringDictionaries[fieldIndex].readString(ordinal);
+            if(value == null)
+                return false;
+            dest.append(value);
+            return true;
+        }
+
+        if((endByte & (1L << numBitsForField - 1)) != 0)
+            return false;
+
+        startByte &= (1L << numBitsForField - 1) - 1;
+
+        ByteData data = dataElements.varLengthData[fieldIndex];
+        while(startByte < endByte) {
+            int c = VarInt.readVInt(data, startByte);
+            dest.append((char)c);
+            startByte += VarInt.sizeOfVInt(c);
+        }
+
+        return true;
+    }
+
+    public int findVarLengthFieldHashCode(int ordinal, long startByte, long endByte, int numBitsForField, int fieldIndex) {
+        if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[fieldIndex] != null)
+            return dataElements.stringDictionaries[fieldIndex].findHashCode(ordinal);
+
         if((endByte & (1L << numBitsForField - 1)) != 0)
             return -1;
 
@@ -169,7 +293,7 @@ class HollowObjectTypeReadStateShard {
         return new String(chararr, 0, count);
     }
 
-    private boolean testStringEquality(ByteData data, long position, int length, String testValue) {
+    private boolean testStringEquality(ByteData data, long position, int length, CharSequence testValue) {
         if(length < testValue.length()) // can't check exact length here; the length argument is in bytes, which is equal to or greater than the number of characters.
             return false;
 
@@ -188,16 +312,52 @@ class HollowObjectTypeReadStateShard {
         return position == endPosition && count == testValue.length();
     }
 
-    protected void applyShardToChecksum(HollowChecksum checksum, HollowSchema withSchema, BitSet populatedOrdinals, int shardNumber, int shardNumberMask) {
-        int numBitsForField;
-        long bitOffset;
-        long endByte;
-        long startByte;
+    private static int compare(String value, CharSequence testValue) {
+        if(value == null)
+            return testValue == null ? 0 : -1;
+        if(testValue == null)
+            return 1;
+
+        int length = Math.min(value.length(), testValue.length());
+        for(int i=0;i<length;i++) {
+            if(value.charAt(i) != testValue.charAt(i))
+                return value.charAt(i) - testValue.charAt(i);
+        }
+        return value.length() - testValue.length();
+    }
+
+    private static boolean startsWith(String value, CharSequence prefix) {
+        if(value == null || value.length() < prefix.length())
+            return false;
+
+        for(int i=0;i<prefix.length();i++) {
+            if(value.charAt(i) != prefix.charAt(i))
+                return false;
+        }
+        return true;
+    }
 
+    protected void applyShardToChecksum(HollowChecksum checksum, HollowSchema withSchema, BitSet populatedOrdinals, int shardNumber, int shardNumberMask, int fromOrdinal, int toOrdinal) {
         if(!(withSchema instanceof HollowObjectSchema))
             throw new IllegalArgumentException("HollowObjectTypeReadState can only calculate checksum with a HollowObjectSchema: " + schema.getName());
 
-        HollowObjectSchema commonSchema = schema.findCommonSchema((HollowObjectSchema)withSchema);
+        int fieldIndexes[] = checksumFieldIndexes((HollowObjectSchema)withSchema);
+
+        int ordinal = populatedOrdinals.nextSetBit(fromOrdinal);
+        while(ordinal != ORDINAL_NONE && ordinal < toOrdinal) {
+            if((ordinal & shardNumberMask) == shardNumber)
+                applyRecordToChecksum(checksum, ordinal, ordinal >> shardOrdinalShift, fieldIndexes);
+
+            ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
+        }
+    }
+
+    /**
+     * @param withSchema the schema to calculate the checksum with
+     * @return the indexes of the fields in common with the given schema, in the order they are applied to a checksum
+     */
+    int[] checksumFieldIndexes(HollowObjectSchema withSchema) {
+        HollowObjectSchema commonSchema = schema.findCommonSchema(withSchema);
 
         List<String> commonFieldNames = new ArrayList<String>();
         for(int i=0;i<commonSchema.numFields();i++)
@@ -208,44 +368,44 @@ class HollowObjectTypeReadStateShard {
         for(int i=0;i<commonFieldNames.size();i++) {
             fieldIndexes[i] = schema.getPosition(commonFieldNames.get(i));
         }
+        return fieldIndexes;
+    }
 
-        int ordinal = populatedOrdinals.nextSetBit(0);
-        while(ordinal != ORDINAL_NONE) {
-            if((ordinal & shardNumberMask) == shardNumber) {
-                int shardOrdinal = ordinal >> shardOrdinalShift;
-                checksum.applyInt(ordinal);
-                for(int i=0;i<fieldIndexes.length;i++) {
-                    int fieldIdx = fieldIndexes[i];
-                    bitOffset = fieldOffset(shardOrdinal, fieldIdx);
-                    numBitsForField = dataElements.bitsPerField[fieldIdx];
-                    if(!schema.getFieldType(fieldIdx).isVariableLength()) {
-                        long fixedLengthValue = numBitsForField <= 56 ?
-                                dataElements.fixedLengthData.getElementValue(bitOffset, numBitsForField)
-                                : dataElements.fixedLengthData.getLargeElementValue(bitOffset, numBitsForField);
-    
-                        if(fixedLengthValue == dataElements.nullValueForField[fieldIdx])
-                            checksum.applyInt(Integer.MAX_VALUE);
-                        else
-                            checksum.applyLong(fixedLengthValue);
-                    } else {
-                        endByte = dataElements.fixedLengthData.getElementValue(bitOffset, numBitsForField);
-                        startByte = shardOrdinal != 0 ? dataElements.fixedLengthData.getElementValue(bitOffset - dataElements.bitsPerRecord, numBitsForField) : 0;
-                        checksum.applyInt(findVarLengthFieldHashCode(startByte, endByte, numBitsForField, fieldIdx));
-                    }
-                }
-            }
+    void applyRecordToChecksum(HollowChecksum checksum, int ordinal, int shardOrdinal, int[] fieldIndexes) {
+        int numBitsForField;
+        long endByte;
+        long startByte;
 
-            ordinal = populatedOrdinals.nextSetBit(ordinal + 1);
+        checksum.applyInt(ordinal);
+        for(int i=0;i<fieldIndexes.length;i++) {
+            int fieldIdx = fieldIndexes[i];
+            numBitsForField = dataElements.bitsPerField[fieldIdx];
+            if(!schema.getFieldType(fieldIdx).isVariableLength()) {
+                long fixedLengthValue = readValue(shardOrdinal, fieldIdx);
+
+                if(fixedLengthValue == dataElements.nullValueForField[fieldIdx])
+                    checksum.applyInt(Integer.MAX_VALUE);
+                else
+                    checksum.applyLong(fixedLengthValue);
+            } else {
+                endByte = readValue(shardOrdinal, fieldIdx);
+                startByte = shardOrdinal != 0 ? readValue(shardOrdinal - 1, fieldIdx) : 0;
+                checksum.applyInt(findVarLengthFieldHashCode(shardOrdinal, startByte, endByte, numBitsForField, fieldIdx));
+            }
         }
     }
 
     public long getApproximateHeapFootprintInBytes() {
-        long bitsPerFixedLengthData = (long)dataElements.bitsPerRecord * (dataElements.maxOrdinal + 1);
+        long bitsPerFixedLengthData = dataElements.columns != null ?
+                dataElements.columns.numBits(dataElements.maxOrdinal + 1)
+                : (long)dataElements.bitsPerRecord * (dataElements.maxOrdinal + 1);
         
         long requiredBytes = bitsPerFixedLengthData / 8;
         
         for(int i=0;i<dataElements.varLengthData.length;i++) {
-            if(dataElements.varLengthData[i] != null)
+            if(dataElements.stringDictionaries != null && dataElements.stringDictionaries[i] != null)
+                requiredBytes += dataElements.stringDictionaries[i].getApproximateHeapFootprintInBytes(dataElements.maxOrdinal + 1);
+            else if(dataElements.varLengthData[i] != null)
                 requiredBytes += dataElements.varLengthData[i].size();
         }
         
@@ -0,0 +1,211 @@
+/*
+ *  Copyright 2016-2020 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.object;
+
+import com.netflix.hollow.core.memory.ArrayByteData;
+import com.netflix.hollow.core.memory.SegmentedByteArray;
+import com.netflix.hollow.core.memory.VariableLengthData;
+import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
+import com.netflix.hollow.core.memory.encoding.HashCodes;
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The values of a string field of a {@link HollowObjectTypeDataElements}, stored as a pool of the field's distinct
+ * values and the index of each record's value in the pool, in place of the field's variable length data.
+ * <p>
+ * Each distinct value is held once, as a {@code String}, so reading a value does not decode or allocate, and
+ * testing a value for equality does not decode the variable length data.  The variable length data can be restored
+ * from the pool, e.g. when a delta is applied to the data elements.
+ * <p>
+ * The data is read-only.
+ */
+class StringDictionary {
+
+    static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    /// the approximate heap footprint, in bytes, of each entry in the pool in addition to its characters
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final String[] values;
+    private final byte[][] encodedValues;
+    private final int[] hashCodes;
+    private final int bitsPerCode;
+    private final FixedLengthElementArray codes;
+
+    private StringDictionary(String[] values, byte[][] encodedValues, int[] hashCodes, int bitsPerCode, FixedLengthElementArray codes) {
+        this.values = values;
+        this.encodedValues = encodedValues;
+        this.hashCodes = hashCodes;
+        this.bitsPerCode = bitsPerCode;
+        this.codes = codes;
+    }
+
+    /**
+     * Pools the values of a string field of the given data elements.  The data elements are not modified.
+     *
+     * @return the pooled values, or null if the field has too many distinct values for the pool to be smaller than
+     * the field's variable length data
+     */
+    static StringDictionary encode(HollowObjectTypeDataElements from, int fieldIdx, ArraySegmentRecycler memoryRecycler) {
+        VariableLengthData varLengthData = from.varLengthData[fieldIdx];
+        int numRecords = from.maxOrdinal + 1;
+        int recordCodes[] = new int[numRecords];
+        Map<String, Integer> distinctValues = new HashMap<>();
+        Map<Integer, byte[]> encodedDistinctValues = new HashMap<>();
+        char[] chars = new char[64];
+
+        for(int ordinal=0;ordinal<numRecords;ordinal++) {
+            String value = null;
+            long startByte = HollowObjectTypeDataElements.varLengthStartByte(from, ordinal, fieldIdx);
+            int length = (int)(HollowObjectTypeDataElements.varLengthEndByte(from, ordinal, fieldIdx) - startByte);
+
+            if(!HollowObjectTypeDataElements.isNullVarLengthField(from, ordinal, fieldIdx)) {
+                if(length > chars.length)
+                    chars = new char[length];
+                else
+                    Arrays.fill(chars, 0, length, '\0');
+                int count = VarInt.readVIntsInto(varLengthData, startByte, length, chars);
+                value = new String(chars, 0, count);
+            }
+
+            Integer code = distinctValues.get(value);
+            if(code == null) {
+                if(distinctValues.size() == MAX_DICTIONARY_SIZE)
+                    return null;
+                code = distinctValues.size();
+                distinctValues.put(value, code);
+                if(value != null) {
+                    byte encoded[] = new byte[length];
+                    for(int i=0;i<length;i++)
+                        encoded[i] = varLengthData.get(startByte + i);
+                    encodedDistinctValues.put(code, encoded);
+                }
+            }
+            recordCodes[ordinal] = code;
+        }
+
+        int numValues = distinctValues.size();
+        int bitsPerCode = numValues <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(numValues - 1);
+        long dictionaryBytes = ((long)bitsPerCode * numRecords) / 8;
+
+        String values[] = new String[numValues];
+        byte encodedValues[][] = new byte[numValues][];
+        int hashCodes[] = new int[numValues];
+        for(Map.Entry<String, Integer> entry : distinctValues.entrySet()) {
+            int code = entry.getValue();
+            values[code] = entry.getKey();
+            encodedValues[code] = encodedDistinctValues.get(code);
+            hashCodes[code] = encodedValues[code] == null ? -1 : HashCodes.hashCode(encodedValues[code]);
+            dictionaryBytes += ENTRY_OVERHEAD_BYTES + (encodedValues[code] == null ? 0 : encodedValues[code].length + 2L * values[code].length());
+        }
+
+        if(dictionaryBytes >= varLengthData.size())
+            return null;
+
+        FixedLengthElementArray codes = null;
+        if(bitsPerCode != 0) {
+            codes = new FixedLengthElementArray(memoryRecycler, (long)bitsPerCode * numRecords);
+            for(int ordinal=0;ordinal<numRecords;ordinal++)
+                codes.setElementValue((long)bitsPerCode * ordinal, bitsPerCode, recordCodes[ordinal]);
+        }
+
+        return new StringDictionary(values, encodedValues, hashCodes, bitsPerCode, codes);
+    }
+
+    /**
+     * @param ordinal the ordinal of the record in the data elements
+     * @return the value of the field, which may be null
+     */
+    String readString(int ordinal) {
+        return values[code(ordinal)];
+    }
+
+    /**
+     * @param ordinal the ordinal of the record in the data elements
+     * @return the value of the field as variable length data, or null if the value is null
+     */
+    byte[] readBytes(int ordinal) {
+        byte encoded[] = encodedValues[code(ordinal)];
+        return encoded == null ? null : encoded.clone();
+    }
+
+    boolean isEqual(int ordinal, CharSequence testValue) {
+        String value = values[code(ordinal)];
+        return value == null ? testValue == null : testValue != null && value.contentEquals(testValue);
+    }
+
+    /**
+     * @param ordinal the ordinal of the record in the data elements
+     * @return the hash code of the value's variable length data, or -1 if the value is null
+     */
+    int findHashCode(int ordinal) {
+        return hashCodes[code(ordinal)];
+    }
+
+    /**
+     * Copies the value of the field as variable length data, if it is not null.
+     *
+     * @param ordinal the ordinal of the record in the data elements
+     * @param dest the variable length data to copy to
+     * @param destPos the position in dest to begin copying to
+     */
+    void copyBytes(int ordinal, VariableLengthData dest, long destPos) {
+        byte encoded[] = encodedValues[code(ordinal)];
+        if(encoded != null)
+            dest.copy(new ArrayByteData(encoded), 0, destPos, encoded.length);
+    }
+
+    private int code(int ordinal) {
+        return bitsPerCode == 0 ? 0 : (int)codes.getElementValue((long)bitsPerCode * ordinal, bitsPerCode);
+    }
+
+    /**
+     * Restores the variable length data of the field, identical to the data from which the values were pooled.
+     */
+    VariableLengthData decode(int numRecords, ArraySegmentRecycler memoryRecycler) {
+        SegmentedByteArray varLengthData = new SegmentedByteArray(memoryRecycler);
+        long position = 0;
+        for(int ordinal=0;ordinal<numRecords;ordinal++) {
+            byte encoded[] = encodedValues[code(ordinal)];
+            if(encoded != null) {
+                for(byte b : encoded)
+                    varLengthData.set(position++, b);
+            }
+        }
+        return varLengthData;
+    }
+
+    /**
+     * @return the approximate heap footprint of the pool and the records' indexes into it
+     */
+    long getApproximateHeapFootprintInBytes(int numRecords) {
+        long bytes = ((long)bitsPerCode * numRecords) / 8;
+        for(int i=0;i<values.length;i++)
+            bytes += ENTRY_OVERHEAD_BYTES + (values[i] == null ? 0 : encodedValues[i].length + 2L * values[i].length());
+        return bytes;
+    }
+
+    void destroy(ArraySegmentRecycler memoryRecycler) {
+        if(codes != null)
+            codes.destroy(memoryRecycler);
+    }
+
+}
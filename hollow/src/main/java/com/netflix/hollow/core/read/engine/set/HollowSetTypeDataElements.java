@@ -19,10 +19,12 @@ package com.netflix.hollow.core.read.engine.set;
 import com.netflix.hollow.core.memory.FixedLengthData;
 import com.netflix.hollow.core.memory.FixedLengthDataFactory;
 import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.SharedMemoryScratchFile;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.ArraySegmentRecycler;
 import com.netflix.hollow.core.read.HollowBlobInput;
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -117,6 +119,83 @@ public class HollowSetTypeDataElements {
         new HollowSetDeltaApplicator(fromData, deltaData, this).applyDelta();
     }
 
+    /**
+     * Moves the data populated on-heap by a delta application or resharding into a mapped scratch file, so that
+     * data elements in a shared memory mode remain backed by shared memory.
+     */
+    void moveToSharedMemory(File scratchDir) throws IOException {
+        try(SharedMemoryScratchFile scratchFile = new SharedMemoryScratchFile(scratchDir, memoryMode)) {
+            scratchFile.write(setPointerAndSizeData, ((long)maxOrdinal + 1) * bitsPerFixedLengthSetPortion);
+            scratchFile.write(elementData, totalNumberOfBuckets * bitsPerElement);
+
+            HollowBlobInput in = scratchFile.map();
+            FixedLengthData stagedSetPointerAndSizeData = setPointerAndSizeData;
+            FixedLengthData stagedElementData = elementData;
+            setPointerAndSizeData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            elementData = FixedLengthDataFactory.get(in, memoryMode, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedSetPointerAndSizeData, memoryRecycler);
+            FixedLengthDataFactory.destroy(stagedElementData, memoryRecycler);
+        }
+    }
+
+    long getStartBucket(int ordinal) {
+        return ordinal == 0 ? 0 : setPointerAndSizeData.getElementValue((long)(ordinal - 1) * bitsPerFixedLengthSetPortion, bitsPerSetPointer);
+    }
+
+    long getEndBucket(int ordinal) {
+        return setPointerAndSizeData.getElementValue((long)ordinal * bitsPerFixedLengthSetPortion, bitsPerSetPointer);
+    }
+
+    int getSize(int ordinal) {
+        return (int)setPointerAndSizeData.getElementValue(((long)ordinal * bitsPerFixedLengthSetPortion) + bitsPerSetPointer, bitsPerSetSizeValue);
+    }
+
+    /**
+     * Copies the set at fromOrdinal in the from data elements to toOrdinal in the to data elements, writing its
+     * buckets starting at toStartBucket. Buckets are copied as-is, since their position within a set only depends
+     * on the number of buckets in the set.
+     *
+     * @return the end bucket of the copied set in the to data elements
+     */
+    static long copyRecord(HollowSetTypeDataElements to, int toOrdinal, long toStartBucket, HollowSetTypeDataElements from, int fromOrdinal) {
+        long fromStartBucket = from.getStartBucket(fromOrdinal);
+        long fromEndBucket = from.getEndBucket(fromOrdinal);
+        long numBuckets = fromEndBucket - fromStartBucket;
+
+        if(to.bitsPerElement == from.bitsPerElement) {
+            to.elementData.copyBits(from.elementData, fromStartBucket * from.bitsPerElement, toStartBucket * to.bitsPerElement, numBuckets * from.bitsPerElement);
+        } else {
+            for(long i=0;i<numBuckets;i++) {
+                long bucketValue = from.elementData.getElementValue((fromStartBucket + i) * from.bitsPerElement, from.bitsPerElement);
+                if(bucketValue == from.emptyBucketValue)
+                    bucketValue = to.emptyBucketValue;
+                to.elementData.setElementValue((toStartBucket + i) * to.bitsPerElement, to.bitsPerElement, bucketValue);
+            }
+        }
+
+        long toEndBucket = toStartBucket + numBuckets;
+        writePointerAndSize(to, toOrdinal, toEndBucket, from.getSize(fromOrdinal));
+        return toEndBucket;
+    }
+
+    static void writePointerAndSize(HollowSetTypeDataElements to, int toOrdinal, long endBucket, int size) {
+        long startBit = (long)toOrdinal * to.bitsPerFixedLengthSetPortion;
+        to.setPointerAndSizeData.setElementValue(startBit, to.bitsPerSetPointer, endBucket);
+        to.setPointerAndSizeData.setElementValue(startBit + to.bitsPerSetPointer, to.bitsPerSetSizeValue, size);
+    }
+
+    /**
+     * Derives the remaining statistics and allocates the data once maxOrdinal, bitsPerSetSizeValue, bitsPerElement
+     * and totalNumberOfBuckets have been populated by a splitter or joiner.
+     */
+    void initializeFromStats() {
+        bitsPerSetPointer = 64 - Long.numberOfLeadingZeros(totalNumberOfBuckets);
+        bitsPerFixedLengthSetPortion = bitsPerSetPointer + bitsPerSetSizeValue;
+        emptyBucketValue = (1 << bitsPerElement) - 1;
+        setPointerAndSizeData = FixedLengthDataFactory.get((long)bitsPerFixedLengthSetPortion * (maxOrdinal + 1), memoryMode, memoryRecycler);
+        elementData = FixedLengthDataFactory.get(bitsPerElement * totalNumberOfBuckets, memoryMode, memoryRecycler);
+    }
+
     public void destroy() {
         FixedLengthDataFactory.destroy(setPointerAndSizeData, memoryRecycler);
         FixedLengthDataFactory.destroy(elementData, memoryRecycler);
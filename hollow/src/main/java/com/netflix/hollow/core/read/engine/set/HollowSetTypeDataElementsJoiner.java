@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.read.engine.set;
+
+import static com.netflix.hollow.core.read.engine.set.HollowSetTypeDataElements.copyRecord;
+import static com.netflix.hollow.core.read.engine.set.HollowSetTypeDataElements.writePointerAndSize;
+
+import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
+
+/**
+ * Join multiple {@code HollowSetTypeDataElements}s into 1 {@code HollowSetTypeDataElements}.
+ * Ordinals are remapped and corresponding data is copied over.
+ * The original data elements are not destroyed.
+ * The no. of passed data elements must be a power of 2.
+ */
+class HollowSetTypeDataElementsJoiner {
+
+    HollowSetTypeDataElements join(HollowSetTypeDataElements[] from) {
+        final int fromMask = from.length - 1;
+        final int fromOrdinalShift = 31 - Integer.numberOfLeadingZeros(from.length);
+
+        if (from.length<=0 || !((from.length&(from.length-1))==0)) {
+            throw new IllegalStateException("No. of DataElements to be joined must be a power of 2");
+        }
+
+        HollowSetTypeDataElements to = new HollowSetTypeDataElements(from[0].memoryMode, from[0].memoryRecycler);
+
+        populateStats(to, from);
+
+        GapEncodedVariableLengthIntegerReader[] fromRemovals = new GapEncodedVariableLengthIntegerReader[from.length];
+        for (int i=0;i<from.length;i++) {
+            fromRemovals[i] = from[i].encodedRemovals;
+        }
+        to.encodedRemovals = GapEncodedVariableLengthIntegerReader.join(fromRemovals);
+
+        for (HollowSetTypeDataElements elements : from) {
+            if (elements.encodedAdditions != null) {
+                throw new IllegalStateException("Encountered encodedAdditions in data elements joiner- this is not expected " +
+                        "since encodedAdditions only exist on delta data elements and they dont carry over to target data elements, " +
+                        "delta data elements are never split/joined");
+            }
+        }
+
+        long currentWriteBucket = 0;
+        for(int ordinal=0;ordinal<=to.maxOrdinal;ordinal++) {
+            int fromIndex = ordinal & fromMask;
+            int fromOrdinal = ordinal >> fromOrdinalShift;
+
+            if (fromOrdinal <= from[fromIndex].maxOrdinal) {
+                currentWriteBucket = copyRecord(to, ordinal, currentWriteBucket, from[fromIndex], fromOrdinal);
+            } else {
+                // lopsided shards could result for consumers that skip type shards with no additions, write an empty set
+                writePointerAndSize(to, ordinal, currentWriteBucket, 0);
+            }
+        }
+
+        return to;
+    }
+
+    void populateStats(HollowSetTypeDataElements to, HollowSetTypeDataElements[] from) {
+        to.maxOrdinal = -1;
+        for(int fromIndex=0;fromIndex<from.length;fromIndex++) {
+            int mappedMaxOrdinal = from[fromIndex].maxOrdinal == -1 ? -1 : (from[fromIndex].maxOrdinal * from.length) + fromIndex;
+            to.maxOrdinal = Math.max(to.maxOrdinal, mappedMaxOrdinal);
+
+            // do not assume bitsPerSetSizeValue and bitsPerElement will be uniform
+            to.bitsPerSetSizeValue = Math.max(to.bitsPerSetSizeValue, from[fromIndex].bitsPerSetSizeValue);
+            to.bitsPerElement = Math.max(to.bitsPerElement, from[fromIndex].bitsPerElement);
+            if(from[fromIndex].maxOrdinal != -1)
+                to.totalNumberOfBuckets += from[fromIndex].getEndBucket(from[fromIndex].maxOrdinal);
+        }
+
+        to.initializeFromStats();
+    }
+}
@@ -23,6 +23,7 @@ import com.netflix.hollow.api.sampling.HollowSampler;
 import com.netflix.hollow.api.sampling.HollowSamplingDirector;
 import com.netflix.hollow.api.sampling.HollowSetSampler;
 import com.netflix.hollow.core.index.key.HollowPrimaryKeyValueDeriver;
+import com.netflix.hollow.core.memory.HollowUnsafeHandle;
 import com.netflix.hollow.core.memory.MemoryMode;
 import com.netflix.hollow.core.memory.encoding.GapEncodedVariableLengthIntegerReader;
 import com.netflix.hollow.core.memory.encoding.VarInt;
@@ -43,23 +44,33 @@ import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.schema.HollowSetSchema;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.BitSet;
 
 /**
- * A {@link HollowTypeReadState} for OBJECT type records. 
+ * A {@link HollowTypeReadState} for SET type records.
  */
 public class HollowSetTypeReadState extends HollowCollectionTypeReadState implements HollowSetTypeDataAccess {
 
     private final HollowSetSampler sampler;
     
-    private final int shardNumberMask;
-    private final int shardOrdinalShift;
-    private final HollowSetTypeReadStateShard shards[];
-    
     private HollowPrimaryKeyValueDeriver keyDeriver;
     
     private int maxOrdinal;
 
+    volatile ShardsHolder shardsVolatile;
+
+    static class ShardsHolder {
+        final HollowSetTypeReadStateShard shards[];
+        final int shardNumberMask;
+
+        private ShardsHolder(HollowSetTypeReadStateShard[] fromShards) {
+            this.shards = fromShards;
+            this.shardNumberMask = fromShards.length - 1;
+        }
+    }
+
     public HollowSetTypeReadState(HollowReadStateEngine stateEngine, HollowSetSchema schema, int numShards) {
         this(stateEngine, MemoryMode.ON_HEAP, schema, numShards);
     }
@@ -67,48 +78,49 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
     public HollowSetTypeReadState(HollowReadStateEngine stateEngine, MemoryMode memoryMode, HollowSetSchema schema, int numShards) {
         super(stateEngine, memoryMode, schema);
         this.sampler = new HollowSetSampler(schema.getName(), DisabledSamplingDirector.INSTANCE);
-        this.shardNumberMask = numShards - 1;
-        this.shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
         
         if(numShards < 1 || 1 << shardOrdinalShift != numShards)
             throw new IllegalArgumentException("Number of shards must be a power of 2!");
         
         HollowSetTypeReadStateShard shards[] = new HollowSetTypeReadStateShard[numShards];
         for(int i=0;i<shards.length;i++)
-            shards[i] = new HollowSetTypeReadStateShard();
+            shards[i] = new HollowSetTypeReadStateShard(null, shardOrdinalShift);
         
-        this.shards = shards;
-
+        this.shardsVolatile = new ShardsHolder(shards);
     }
 
     @Override
-    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler, int numShards) throws IOException {
-        throw new UnsupportedOperationException("This type does not yet support numShards specification when reading snapshot");
+    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
+        readSnapshot(in, memoryRecycler, shardsVolatile.shards.length);
     }
 
     @Override
-    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler) throws IOException {
-        if(shards.length > 1)
+    public void readSnapshot(HollowBlobInput in, ArraySegmentRecycler memoryRecycler, int numShards) throws IOException {
+        if(numShards > 1)
             maxOrdinal = VarInt.readVInt(in);
-        
-        for(int i=0;i<shards.length;i++) {
+
+        HollowSetTypeReadStateShard[] newShards = new HollowSetTypeReadStateShard[numShards];
+        int shardOrdinalShift = 31 - Integer.numberOfLeadingZeros(numShards);
+        for(int i=0;i<numShards;i++) {
             HollowSetTypeDataElements snapshotData = new HollowSetTypeDataElements(memoryMode, memoryRecycler);
             snapshotData.readSnapshot(in);
-            shards[i].setCurrentData(snapshotData);
+            newShards[i] = newShard(snapshotData, shardOrdinalShift);
         }
+        shardsVolatile = new ShardsHolder(newShards);
         
-        if(shards.length == 1)
-            maxOrdinal = shards[0].currentDataElements().maxOrdinal;
+        if(numShards == 1)
+            maxOrdinal = newShards[0].currentDataElements().maxOrdinal;
         
         SnapshotPopulatedOrdinalsReader.readOrdinals(in, stateListeners);
     }
 
     @Override
     public void applyDelta(HollowBlobInput in, HollowSchema schema, ArraySegmentRecycler memoryRecycler, int deltaNumShards) throws IOException {
-        if (shouldReshard(shards.length, deltaNumShards)) {
-            throw new UnsupportedOperationException("Dynamic type sharding not supported for " + schema.getName()
-                    + ". Current numShards=" + shards.length + ", delta numShards=" + deltaNumShards);
+        if (shouldReshard(shardsVolatile.shards.length, deltaNumShards)) {
+            reshard(deltaNumShards);
         }
+        HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
         if(shards.length > 1)
             maxOrdinal = VarInt.readVInt(in);
 
@@ -138,6 +150,8 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
                 HollowSetTypeDataElements nextData = new HollowSetTypeDataElements(memoryMode, memoryRecycler);
                 HollowSetTypeDataElements oldData = shards[i].currentDataElements();
                 nextData.applyDelta(oldData, deltaData);
+                if(memoryMode.isSharedMemory())
+                    nextData.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
                 shards[i].setCurrentData(nextData);
                 notifyListenerAboutDeltaChanges(deltaData.encodedRemovals, deltaData.encodedAdditions, i, shards.length);
                 deltaData.encodedAdditions.destroy();
@@ -151,6 +165,123 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
             maxOrdinal = shards[0].currentDataElements().maxOrdinal;
     }
 
+    /**
+     * Reshards this type state to the desired shard count using O(shard size) space while supporting concurrent reads
+     * into the underlying data elements. See {@code HollowObjectTypeReadState#reshard} for how reads remain consistent
+     * throughout each step.
+     *
+     * @param newNumShards The desired number of shards
+     */
+    void reshard(int newNumShards) {
+        int prevNumShards = shardsVolatile.shards.length;
+        int shardingFactor = shardingFactor(prevNumShards, newNumShards);
+
+        if (newNumShards>prevNumShards) { // split existing shards
+            // Step 1: Grow the number of shards, child shards reference the original shards as-is
+            shardsVolatile = expandWithOriginalDataElements(shardsVolatile, shardingFactor);
+
+            // Step 2: Split the data elements of each original shard into the child shards, then discard the original
+            for(int i=0; i<prevNumShards; i++) {
+                HollowSetTypeDataElements originalDataElements = shardsVolatile.shards[i].currentDataElements();
+
+                shardsVolatile = splitDataElementsForOneShard(shardsVolatile, i, prevNumShards, shardingFactor);
+
+                destroyOriginalDataElements(originalDataElements);
+            }
+        } else { // join existing shards
+            // Step 1: Join N data elements to create one, and update each of the N shards to reference the joined result
+            for (int i=0; i<newNumShards; i++) {
+                HollowSetTypeDataElements destroyCandidates[] = joinCandidates(shardsVolatile.shards, i, shardingFactor);
+
+                shardsVolatile = joinDataElementsForOneShard(shardsVolatile, i, shardingFactor);
+
+                for (int j=0; j<shardingFactor; j++) {
+                    destroyOriginalDataElements(destroyCandidates[j]);
+                }
+            }
+
+            // Step 2: Resize the shards array to only keep the first newNumShards shards
+            shardsVolatile = new ShardsHolder(Arrays.copyOfRange(shardsVolatile.shards, 0, newNumShards));
+        }
+    }
+
+    private HollowSetTypeDataElements[] joinCandidates(HollowSetTypeReadStateShard[] shards, int indexIntoShards, int shardingFactor) {
+        HollowSetTypeDataElements[] result = new HollowSetTypeDataElements[shardingFactor];
+        int newNumShards = shards.length / shardingFactor;
+        for (int i=0; i<shardingFactor; i++) {
+            result[i] = shards[indexIntoShards + (newNumShards*i)].currentDataElements();
+        }
+        return result;
+    }
+
+    ShardsHolder joinDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int shardingFactor) {
+        int newNumShards = shardsHolder.shards.length / shardingFactor;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowSetTypeDataElementsJoiner joiner = new HollowSetTypeDataElementsJoiner();
+        HollowSetTypeDataElements joined = joiner.join(joinCandidates(shardsHolder.shards, currentIndex, shardingFactor));
+        moveToSharedMemory(joined);
+
+        HollowSetTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (newNumShards*i)] = newShard(joined, newShardOrdinalShift);
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder expandWithOriginalDataElements(ShardsHolder shardsHolder, int shardingFactor) {
+        int prevNumShards = shardsHolder.shards.length;
+        int newNumShards = prevNumShards * shardingFactor;
+        HollowSetTypeReadStateShard[] newShards = new HollowSetTypeReadStateShard[newNumShards];
+
+        for(int i=0; i<prevNumShards; i++) {
+            for (int j=0; j<shardingFactor; j++) {
+                newShards[i+(prevNumShards*j)] = shardsHolder.shards[i];
+            }
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    ShardsHolder splitDataElementsForOneShard(ShardsHolder shardsHolder, int currentIndex, int prevNumShards, int shardingFactor) {
+        int newNumShards = shardsHolder.shards.length;
+        int newShardOrdinalShift = 31 - Integer.numberOfLeadingZeros(newNumShards);
+
+        HollowSetTypeDataElementsSplitter splitter = new HollowSetTypeDataElementsSplitter();
+        HollowSetTypeDataElements[] splits = splitter.split(shardsHolder.shards[currentIndex].currentDataElements(), shardingFactor);
+        for (HollowSetTypeDataElements split : splits) {
+            moveToSharedMemory(split);
+        }
+
+        HollowSetTypeReadStateShard[] newShards = Arrays.copyOf(shardsHolder.shards, shardsHolder.shards.length);
+        for (int i=0; i<shardingFactor; i++) {
+            newShards[currentIndex + (prevNumShards*i)] = newShard(splits[i], newShardOrdinalShift);
+        }
+        return new ShardsHolder(newShards);
+    }
+
+    private void moveToSharedMemory(HollowSetTypeDataElements dataElements) {
+        if (memoryMode.isSharedMemory()) {
+            try {
+                dataElements.moveToSharedMemory(stateEngine.getSharedMemoryScratchDir());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void destroyOriginalDataElements(HollowSetTypeDataElements dataElements) {
+        dataElements.destroy();
+        if (dataElements.encodedRemovals != null) {
+            dataElements.encodedRemovals.destroy();
+        }
+    }
+
+    private HollowSetTypeReadStateShard newShard(HollowSetTypeDataElements dataElements, int shardOrdinalShift) {
+        HollowSetTypeReadStateShard shard = new HollowSetTypeReadStateShard(dataElements, shardOrdinalShift);
+        shard.setKeyDeriver(keyDeriver);
+        return shard;
+    }
+
     public static void discardSnapshot(HollowBlobInput in, int numShards) throws IOException {
         discardType(in, numShards, false);
     }
@@ -173,7 +304,18 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
     @Override
     public int size(int ordinal) {
         sampler.recordSize();
-        return shards[ordinal & shardNumberMask].size(ordinal >> shardOrdinalShift);
+
+        ShardsHolder shardsHolder;
+        HollowSetTypeReadStateShard shard;
+        int size;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            size = shard.size(ordinal >> shard.shardOrdinalShift);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return size;
     }
 
     @Override
@@ -184,7 +326,18 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
     @Override
     public boolean contains(int ordinal, int value, int hashCode) {
         sampler.recordGet();
-        return shards[ordinal & shardNumberMask].contains(ordinal >> shardOrdinalShift, value, hashCode);
+
+        ShardsHolder shardsHolder;
+        HollowSetTypeReadStateShard shard;
+        boolean contains;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            contains = shard.contains(ordinal >> shard.shardOrdinalShift, value, hashCode);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return contains;
     }
     
     @Override
@@ -199,13 +352,41 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
         if(hashKey.length != fieldTypes.length)
             return ORDINAL_NONE;
 
-        return shards[ordinal & shardNumberMask].findElement(ordinal >> shardOrdinalShift, hashKey);
+        ShardsHolder shardsHolder;
+        HollowSetTypeReadStateShard shard;
+        int elementOrdinal;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[ordinal & shardsHolder.shardNumberMask];
+            elementOrdinal = shard.findElement(ordinal >> shard.shardOrdinalShift, hashKey);
+        } while(readWasUnsafe(shardsHolder, ordinal, shard));
+
+        return elementOrdinal;
     }
-    
 
     @Override
     public int relativeBucketValue(int setOrdinal, int bucketIndex) {
-        return shards[setOrdinal & shardNumberMask].relativeBucketValue(setOrdinal >> shardOrdinalShift, bucketIndex);
+        ShardsHolder shardsHolder;
+        HollowSetTypeReadStateShard shard;
+        int bucketValue;
+
+        do {
+            shardsHolder = this.shardsVolatile;
+            shard = shardsHolder.shards[setOrdinal & shardsHolder.shardNumberMask];
+            bucketValue = shard.relativeBucketValue(setOrdinal >> shard.shardOrdinalShift, bucketIndex);
+        } while(readWasUnsafe(shardsHolder, setOrdinal, shard));
+
+        return bucketValue;
+    }
+
+    private boolean readWasUnsafe(ShardsHolder shardsHolder, int ordinal, HollowSetTypeReadStateShard shard) {
+        // A shard swapped out by resharding may have had its data elements destroyed, see
+        // {@code HollowObjectTypeReadState#readWasUnsafe}
+        HollowUnsafeHandle.getUnsafe().loadFence();
+        ShardsHolder currShardsHolder = shardsVolatile;
+        return shardsHolder != currShardsHolder
+            && (shard != currShardsHolder.shards[ordinal & currShardsHolder.shardNumberMask]);
     }
 
     @Override
@@ -252,11 +433,13 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
     @Override
     protected void invalidate() {
         stateListeners = EMPTY_LISTENERS;
+        HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
         for(int i=0;i<shards.length;i++)
             shards[i].invalidate();
     }
 
     HollowSetTypeDataElements[] currentDataElements() {
+        HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
         HollowSetTypeDataElements currentDataElements[] = new HollowSetTypeDataElements[shards.length];
         
         for(int i=0;i<shards.length;i++)
@@ -266,6 +449,7 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
     }
 
     void setCurrentData(HollowSetTypeDataElements data) {
+        HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
         if(shards.length > 1)
             throw new UnsupportedOperationException("Cannot directly set data on sharded type state");
         shards[0].setCurrentData(data);
@@ -273,18 +457,25 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
     }
 
     @Override
-    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema) {
+    protected void applyToChecksum(HollowChecksum checksum, HollowSchema withSchema, int shardNumber, int fromOrdinal, int toOrdinal) {
         if(!getSchema().equals(withSchema))
             throw new IllegalArgumentException("HollowSetTypeReadState cannot calculate checksum with unequal schemas: " + getSchema().getName());
         
         BitSet populatedOrdinals = getListener(PopulatedOrdinalListener.class).getPopulatedOrdinals();
 
-        for(int i=0;i<shards.length;i++)
-            shards[i].applyToChecksum(checksum, populatedOrdinals, i, shards.length);
+        HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
+        shards[shardNumber].applyToChecksum(checksum, populatedOrdinals, shardNumber, shards.length, fromOrdinal, toOrdinal);
+    }
+
+    @Override
+    protected void applyRecordToChecksum(HollowChecksum checksum, int ordinal) {
+        final ShardsHolder shardsHolder = this.shardsVolatile;
+        shardsHolder.shards[ordinal & shardsHolder.shardNumberMask].applyRecordToChecksum(checksum, ordinal, ordinal / shardsHolder.shards.length);
     }
 
 	@Override
 	public long getApproximateHeapFootprintInBytes() {
+        HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
         long totalApproximateHeapFootprintInBytes = 0;
         
         for(int i=0;i<shards.length;i++)
@@ -295,6 +486,7 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
 	
 	@Override
 	public long getApproximateHoleCostInBytes() {
+        HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
         long totalApproximateHoleCostInBytes = 0;
         
         BitSet populatedOrdinals = getPopulatedOrdinals();
@@ -313,13 +505,14 @@ public class HollowSetTypeReadState extends HollowCollectionTypeReadState implem
 	    if(getSchema().getHashKey() != null)
 	        this.keyDeriver = new HollowPrimaryKeyValueDeriver(getSchema().getHashKey(), getStateEngine());
 	    
+	    HollowSetTypeReadStateShard shards[] = shardsVolatile.shards;
 	    for(int i=0;i<shards.length;i++)
 	        shards[i].setKeyDeriver(keyDeriver);
 	}
 
     @Override
     public int numShards() {
-        return shards.length;
+        return shardsVolatile.shards.length;
     }
 
 }
\ No newline at end of file
@@ -27,10 +27,17 @@ import java.util.BitSet;
 
 class HollowSetTypeReadStateShard {
 
+    final int shardOrdinalShift;
+
     private volatile HollowSetTypeDataElements currentDataVolatile;
 
     private HollowPrimaryKeyValueDeriver keyDeriver;
 
+    HollowSetTypeReadStateShard(HollowSetTypeDataElements dataElements, int shardOrdinalShift) {
+        this.currentDataVolatile = dataElements;
+        this.shardOrdinalShift = shardOrdinalShift;
+    }
+
     public int size(int ordinal) {
         HollowSetTypeDataElements currentData;
         int size;
@@ -164,23 +171,12 @@ class HollowSetTypeReadStateShard {
         this.currentDataVolatile = data;
     }
 
-    protected void applyToChecksum(HollowChecksum checksum, BitSet populatedOrdinals, int shardNumber, int numShards) {
+    protected void applyToChecksum(HollowChecksum checksum, BitSet populatedOrdinals, int shardNumber, int numShards, int fromOrdinal, int toOrdinal) {
         HollowSetTypeDataElements currentData = currentDataVolatile;
-        int ordinal = populatedOrdinals.nextSetBit(shardNumber);
-        while(ordinal != ORDINAL_NONE) {
+        int ordinal = populatedOrdinals.nextSetBit(fromOrdinal + shardNumber);
+        while(ordinal != ORDINAL_NONE && ordinal < toOrdinal) {
             if((ordinal & (numShards - 1)) == shardNumber) {
-                int shardOrdinal = ordinal / numShards;
-                int numBuckets = HashCodes.hashTableSize(size(shardOrdinal));
-                long offset = getAbsoluteBucketStart(currentData, shardOrdinal);
-    
-                checksum.applyInt(ordinal);
-                for(int i=0;i<numBuckets;i++) {
-                    int bucketValue = absoluteBucketValue(currentData, offset + i);
-                    if(bucketValue != currentData.emptyBucketValue) {
-                        checksum.applyInt(i);
-                        checksum.applyInt(bucketValue);
-                    }
-                }
+                applyRecordToChecksum(checksum, currentData, ordinal, ordinal / numShards);
                 ordinal = ordinal + numShards;
             } else {
                 // Round up ordinal
@@ -191,6 +187,24 @@ class HollowSetTypeReadStateShard {
         }
     }
 
+    void applyRecordToChecksum(HollowChecksum checksum, int ordinal, int shardOrdinal) {
+        applyRecordToChecksum(checksum, currentDataVolatile, ordinal, shardOrdinal);
+    }
+
+    private void applyRecordToChecksum(HollowChecksum checksum, HollowSetTypeDataElements currentData, int ordinal, int shardOrdinal) {
+        int numBuckets = HashCodes.hashTableSize(size(shardOrdinal));
+        long offset = getAbsoluteBucketStart(currentData, shardOrdinal);
+
+        checksum.applyInt(ordinal);
+        for(int i=0;i<numBuckets;i++) {
+            int bucketValue = absoluteBucketValue(currentData, offset + i);
+            if(bucketValue != currentData.emptyBucketValue) {
+                checksum.applyInt(i);
+                checksum.applyInt(bucketValue);
+            }
+        }
+    }
+
     public long getApproximateHeapFootprintInBytes() {
         HollowSetTypeDataElements currentData = currentDataVolatile;
         long requiredBitsForSetPointers = ((long)currentData.maxOrdinal + 1) * currentData.bitsPerFixedLengthSetPortion;
@@ -39,6 +39,18 @@ public class StringTypeAPI extends HollowObjectTypeAPI {
         return getTypeDataAccess().readString(ordinal, fieldIndex[0]);
     }
 
+    public boolean readValueInto(int ordinal, StringBuilder dest) {
+        if(fieldIndex[0] == -1) {
+            String value = missingDataHandler().handleString("String", ordinal, "value");
+            if(value == null)
+                return false;
+            dest.append(value);
+            return true;
+        }
+        boxedFieldAccessSampler.recordFieldAccess(fieldIndex[0]);
+        return getTypeDataAccess().readStringInto(ordinal, fieldIndex[0], dest);
+    }
+
     public boolean isValueEqual(int ordinal, String testValue) {
         if(fieldIndex[0] == -1)
             return missingDataHandler().handleStringEquals("String", ordinal, "value", testValue);
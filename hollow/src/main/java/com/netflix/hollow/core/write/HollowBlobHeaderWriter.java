@@ -18,6 +18,7 @@ package com.netflix.hollow.core.write;
 
 import com.netflix.hollow.core.HollowBlobHeader;
 import com.netflix.hollow.core.HollowBlobOptionalPartHeader;
+import com.netflix.hollow.core.HollowBlobTypeOffsetIndex;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.schema.HollowSchema;
 import java.io.ByteArrayOutputStream;
@@ -49,11 +50,20 @@ public class HollowBlobHeaderWriter {
             schema.writeTo(schemasStream);
         byte[] schemasData = schemasStream.toByteArray();
         
-        VarInt.writeVInt(dos, schemasData.length + 1); // plus one byte for new backwards compatibility envelope.
-        dos.write(schemasData);
-        
         ///backwards compatibility -- new data can be added here by first indicating number of bytes used, will be skipped by existing readers.
-        VarInt.writeVInt(dos, 0);
+        byte[] forwardCompatibilityData = new byte[0];
+        if(header.getBlobFeatures() != 0) {
+            ByteArrayOutputStream forwardCompatibilityStream = new ByteArrayOutputStream();
+            VarInt.writeVInt(forwardCompatibilityStream, header.getBlobFeatures());
+            forwardCompatibilityData = forwardCompatibilityStream.toByteArray();
+        }
+
+        /// the new backwards compatibility envelope is included in the bytes skipped by pre v2.2.0 readers
+        VarInt.writeVInt(dos, schemasData.length + VarInt.sizeOfVInt(forwardCompatibilityData.length) + forwardCompatibilityData.length);
+        dos.write(schemasData);
+
+        VarInt.writeVInt(dos, forwardCompatibilityData.length);
+        dos.write(forwardCompatibilityData);
 
         /// write the header tags -- intended to include input source data versions
         dos.writeShort(header.getHeaderTags().size());
@@ -64,6 +74,33 @@ public class HollowBlobHeaderWriter {
         }
     }
     
+    /**
+     * Write the type offset index as a trailer, following the last type in the blob. The index is followed by a
+     * fixed-length footer locating its beginning, so that it can be found by seeking relative to the end of the blob.
+     *
+     * @param index the type offset index
+     * @param indexOffset the offset in the blob at which the index begins
+     * @param dos the data output stream to write the index
+     * @throws IOException if the index could not be written
+     */
+    public void writeTypeOffsetIndex(HollowBlobTypeOffsetIndex index, long indexOffset, DataOutputStream dos) throws IOException {
+        VarInt.writeVInt(dos, index.getTypes().size());
+        for(HollowBlobTypeOffsetIndex.TypeOffsets type : index.getTypes()) {
+            dos.writeUTF(type.getTypeName());
+            VarInt.writeVLong(dos, type.getOffset());
+            VarInt.writeVLong(dos, type.getLength());
+            VarInt.writeVInt(dos, type.getNumShards());
+            for(int i=0;i<type.getNumShards();i++) {
+                VarInt.writeVLong(dos, type.getShardOffset(i));
+                VarInt.writeVLong(dos, type.getShardLength(i));
+            }
+        }
+
+        /// footer: locates the index relative to the end of the blob
+        dos.writeLong(indexOffset);
+        dos.writeInt(HollowBlobTypeOffsetIndex.TRAILER_FOOTER_MAGIC);
+    }
+
     public void writePartHeader(HollowBlobOptionalPartHeader header, DataOutputStream dos) throws IOException {
         dos.writeInt(HollowBlobOptionalPartHeader.HOLLOW_BLOB_PART_VERSION_HEADER);
 
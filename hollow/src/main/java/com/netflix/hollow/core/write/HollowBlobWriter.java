@@ -74,24 +74,30 @@ public class HollowBlobWriter {
 
         stateEngine.prepareForWrite();
 
-        DataOutputStream dos = new DataOutputStream(os);
+        TypeOffsetRecordingDataOutputStream indexedDos = null;
+        DataOutputStream dos;
+        if(stateEngine.isWriteTypeOffsetIndex())
+            dos = indexedDos = new TypeOffsetRecordingDataOutputStream(os);
+        else
+            dos = new DataOutputStream(os);
+
         HollowBlobHeaderWrapper hollowBlobHeaderWrapper = buildHeader(partStreams, stateEngine.getSchemas(), false);
+        if(indexedDos != null)
+            hollowBlobHeaderWrapper.header.setBlobFeatures(HollowBlobHeader.FEATURE_TYPE_OFFSET_INDEX);
         writeHeaders(dos, partStreams, false, hollowBlobHeaderWrapper);
 
-        SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "write-snapshot");
+        boolean streaming = stateEngine.isStreamingSnapshotWrites();
+        if(!streaming) {
+            SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "write-snapshot");
 
-        for(final HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            executor.execute(new Runnable() {
-                public void run() {
-                    typeState.calculateSnapshot();
-                }
-            });
-        }
+            for(HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates())
+                typeState.calculateSnapshot(executor);
 
-        try {
-            executor.awaitSuccessfulCompletion();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            try {
+                executor.awaitSuccessfulCompletion();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
         }
 
         for(HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
@@ -99,14 +105,26 @@ public class HollowBlobWriter {
             if(partStream == null)
                 partStream = dos;
 
+            if(partStream == indexedDos)
+                indexedDos.beginType(typeState.getSchema().getName());
+
             HollowSchema schema = typeState.getSchema();
             schema.writeTo(partStream);
 
             writeNumShards(partStream, typeState.getNumShards());
 
-            typeState.writeSnapshot(partStream);
+            if(streaming)
+                typeState.writeStreamingSnapshot(partStream);
+            else
+                typeState.writeSnapshot(partStream);
+
+            if(partStream == indexedDos)
+                indexedDos.endType();
         }
 
+        if(indexedDos != null)
+            headerWriter.writeTypeOffsetIndex(indexedDos.getIndex(), indexedDos.position(), indexedDos);
+
         os.flush();
         if(partStreams != null)
             partStreams.flush();
@@ -145,13 +163,9 @@ public class HollowBlobWriter {
 
         SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "write-delta");
 
-        for(final HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            executor.execute(new Runnable() {
-                public void run() {
-                    if(typeState.hasChangedSinceLastCycle())
-                        typeState.calculateDelta();
-                }
-            });
+        for(HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
+            if(typeState.hasChangedSinceLastCycle())
+                typeState.calculateDelta(executor);
         }
 
         try {
@@ -213,13 +227,9 @@ public class HollowBlobWriter {
 
         SimultaneousExecutor executor = new SimultaneousExecutor(getClass(), "write-reverse-delta");
 
-        for(final HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
-            executor.execute(new Runnable() {
-                public void run() {
-                    if(typeState.hasChangedSinceLastCycle())
-                        typeState.calculateReverseDelta();
-                }
-            });
+        for(HollowTypeWriteState typeState : stateEngine.getOrderedTypeStates()) {
+            if(typeState.hasChangedSinceLastCycle())
+                typeState.calculateReverseDelta(executor);
         }
 
         try {
@@ -23,6 +23,7 @@ import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowListSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
@@ -30,12 +31,15 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
 
     /// statistics required for writing fixed length list data
     private int bitsPerListPointer;
+    private int revBitsPerListPointer;
     private int bitsPerElement;
     private long totalOfListSizes[];
+    private long revTotalOfListSizes[];
 
     /// data required for writing snapshot or delta
     private int maxOrdinal;
     private int maxShardOrdinal[];
+    private int revMaxShardOrdinal[];
     private FixedLengthElementArray listPointerArray[];
     private FixedLengthElementArray elementArray[];
 
@@ -66,21 +70,25 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
     }
 
     private void gatherStatistics() {
-        if(numShards == -1)
-            calculateNumShards();
-        revNumShards = numShards;
+        if(numShards == -1) {
+            numShards = targetNumShards();
+            revNumShards = numShards;
+        } else {
+            revNumShards = numShards;
+            if(allowTypeResharding())
+                numShards = reshardedNumShards(targetNumShards());
+        }
 
         int maxOrdinal = ordinalMap.maxOrdinal();
         int maxElementOrdinal = 0;
 
-        maxShardOrdinal = new int[numShards];
-        int minRecordLocationsPerShard = (maxOrdinal + 1) / numShards; 
-        for(int i=0;i<numShards;i++)
-            maxShardOrdinal[i] = (i < ((maxOrdinal + 1) & (numShards - 1))) ? minRecordLocationsPerShard : minRecordLocationsPerShard - 1;
+        maxShardOrdinal = calcMaxShardOrdinal(maxOrdinal, numShards);
+        revMaxShardOrdinal = calcMaxShardOrdinal(maxOrdinal, revNumShards);
         
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
         
         totalOfListSizes = new long[numShards];
+        revTotalOfListSizes = new long[revNumShards];
 
         for(int i=0;i<=maxOrdinal;i++) {
             if(currentCyclePopulated.get(i) || previousCyclePopulated.get(i)) {
@@ -97,21 +105,27 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
                 }
 
                 totalOfListSizes[i & (numShards-1)] += size;
+                revTotalOfListSizes[i & (revNumShards-1)] += size;
             }
         }
-        
-        long maxShardTotalOfListSizes = 0;
-        for(int i=0;i<numShards;i++) {
-            if(totalOfListSizes[i] > maxShardTotalOfListSizes)
-                maxShardTotalOfListSizes = totalOfListSizes[i];
-        }
 
         bitsPerElement = maxElementOrdinal == 0 ? 1 : 64 - Long.numberOfLeadingZeros(maxElementOrdinal);
 
-        bitsPerListPointer = maxShardTotalOfListSizes == 0 ? 1 : 64 - Long.numberOfLeadingZeros(maxShardTotalOfListSizes);
+        bitsPerListPointer = bitsPerListPointer(totalOfListSizes);
+        revBitsPerListPointer = bitsPerListPointer(revTotalOfListSizes);
+    }
+
+    private int bitsPerListPointer(long shardTotalOfListSizes[]) {
+        long maxShardTotalOfListSizes = 0;
+        for(int i=0;i<shardTotalOfListSizes.length;i++) {
+            if(shardTotalOfListSizes[i] > maxShardTotalOfListSizes)
+                maxShardTotalOfListSizes = shardTotalOfListSizes[i];
+        }
+
+        return maxShardTotalOfListSizes == 0 ? 1 : 64 - Long.numberOfLeadingZeros(maxShardTotalOfListSizes);
     }
     
-    private void calculateNumShards() {
+    private int targetNumShards() {
         int maxOrdinal = ordinalMap.maxOrdinal();
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
         
@@ -142,30 +156,45 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
         long projectedSizeOfType = (bitsPerElement * totalOfListSizes) / 8;
         projectedSizeOfType += (bitsPerListPointer * maxOrdinal + 1) / 8;
         
-        numShards = 1;
-        while(stateEngine.getTargetMaxTypeShardSize() * numShards < projectedSizeOfType) 
-            numShards *= 2;
+        int targetNumShards = 1;
+        while(stateEngine.getTargetMaxTypeShardSize() * targetNumShards < projectedSizeOfType) 
+            targetNumShards *= 2;
+
+        return targetNumShards;
     }
     
     @Override
     public void calculateSnapshot() {
+        beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++)
+            calculateSnapshotShard(i);
+    }
+
+    @Override
+    public void calculateSnapshot(SimultaneousExecutor executor) {
+        beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++) {
+            final int shardNumber = i;
+            executor.execute(() -> calculateSnapshotShard(shardNumber));
+        }
+    }
+
+    private void beginCalculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
         
         listPointerArray = new FixedLengthElementArray[numShards];
         elementArray = new FixedLengthElementArray[numShards];
+    }
 
-        for(int i=0;i<numShards;i++) {
-            listPointerArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerListPointer * (maxShardOrdinal[i] + 1));
-            elementArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerElement * totalOfListSizes[i]);
-        }
+    private void calculateSnapshotShard(int shardNumber) {
+        FixedLengthElementArray shardListPointerArray = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerListPointer * (maxShardOrdinal[shardNumber] + 1));
+        FixedLengthElementArray shardElementArray = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerElement * totalOfListSizes[shardNumber]);
 
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
 
-        long elementCounter[] = new long[numShards];
-        int shardMask = numShards - 1;
+        long elementCounter = 0;
 
-        for(int ordinal=0;ordinal<=maxOrdinal;ordinal++) {
-            int shardNumber = ordinal & shardMask;
+        for(int ordinal=shardNumber;ordinal<=maxOrdinal;ordinal+=numShards) {
             int shardOrdinal = ordinal / numShards;
             
             if(currentCyclePopulated.get(ordinal)) {
@@ -177,26 +206,33 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
                 for(int j=0;j<size;j++) {
                     int elementOrdinal = VarInt.readVInt(data, readPointer);
                     readPointer += VarInt.sizeOfVInt(elementOrdinal);
-                    elementArray[shardNumber].setElementValue((long)bitsPerElement * elementCounter[shardNumber], bitsPerElement, elementOrdinal);
-                    elementCounter[shardNumber]++;
+                    shardElementArray.setElementValue((long)bitsPerElement * elementCounter, bitsPerElement, elementOrdinal);
+                    elementCounter++;
                 }
             }
 
-            listPointerArray[shardNumber].setElementValue((long)bitsPerListPointer * shardOrdinal, bitsPerListPointer, elementCounter[shardNumber]);
+            shardListPointerArray.setElementValue((long)bitsPerListPointer * shardOrdinal, bitsPerListPointer, elementCounter);
         }
+
+        listPointerArray[shardNumber] = shardListPointerArray;
+        elementArray[shardNumber] = shardElementArray;
     }
 
     @Override
     public void writeSnapshot(DataOutputStream os) throws IOException {
         /// for unsharded blobs, support pre v2.1.0 clients
         if(numShards == 1) {
+            beginSnapshotShard(os);
             writeSnapshotShard(os, 0);
+            endSnapshotShard(os);
         } else {
             /// overall max ordinal
             VarInt.writeVInt(os, maxOrdinal);
             
             for(int i=0;i<numShards;i++) {
+                beginSnapshotShard(os);
                 writeSnapshotShard(os, i);
+                endSnapshotShard(os);
             }
         }
         
@@ -233,25 +269,25 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
 
     @Override
     public void calculateDelta() {
-        calculateDelta(previousCyclePopulated, currentCyclePopulated);
+        calculateDelta(previousCyclePopulated, currentCyclePopulated, numShards, bitsPerListPointer);
     }
 
     @Override
     public void writeDelta(DataOutputStream dos) throws IOException {
-        writeCalculatedDelta(dos);
+        writeCalculatedDelta(dos, numShards, maxShardOrdinal, bitsPerListPointer, totalOfListSizes);
     }
 
     @Override
     public void calculateReverseDelta() {
-        calculateDelta(currentCyclePopulated, previousCyclePopulated);
+        calculateDelta(currentCyclePopulated, previousCyclePopulated, revNumShards, revBitsPerListPointer);
     }
 
     @Override
     public void writeReverseDelta(DataOutputStream dos) throws IOException {
-        writeCalculatedDelta(dos);
+        writeCalculatedDelta(dos, revNumShards, revMaxShardOrdinal, revBitsPerListPointer, revTotalOfListSizes);
     }
 
-    private void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated) {
+    private void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated, int numShards, int bitsPerListPointer) {
         maxOrdinal = ordinalMap.maxOrdinal();
 
         numListsInDelta = new int[numShards];
@@ -319,16 +355,16 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
         }
     }
 
-    private void writeCalculatedDelta(DataOutputStream os) throws IOException {
+    private void writeCalculatedDelta(DataOutputStream os, int numShards, int[] maxShardOrdinal, int bitsPerListPointer, long[] totalOfListSizes) throws IOException {
         /// for unsharded blobs, support pre v2.1.0 clients
         if(numShards == 1) {
-            writeCalculatedDeltaShard(os, 0);
+            writeCalculatedDeltaShard(os, 0, maxShardOrdinal, bitsPerListPointer, totalOfListSizes);
         } else {
             /// overall max ordinal
             VarInt.writeVInt(os, maxOrdinal);
             
             for(int i=0;i<numShards;i++) {
-                writeCalculatedDeltaShard(os, i);
+                writeCalculatedDeltaShard(os, i, maxShardOrdinal, bitsPerListPointer, totalOfListSizes);
             }
         }
 
@@ -339,7 +375,7 @@ public class HollowListTypeWriteState extends HollowTypeWriteState {
     }
 
 
-    private void writeCalculatedDeltaShard(DataOutputStream os, int shardNumber) throws IOException {
+    private void writeCalculatedDeltaShard(DataOutputStream os, int shardNumber, int[] maxShardOrdinal, int bitsPerListPointer, long[] totalOfListSizes) throws IOException {
         /// 1) max shard ordinal
         VarInt.writeVInt(os, maxShardOrdinal[shardNumber]);
 
@@ -24,6 +24,7 @@ import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowMapSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
@@ -31,14 +32,17 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
 
     /// statistics required for writing fixed length set data
     private int bitsPerMapPointer;
+    private int revBitsPerMapPointer;
     private int bitsPerMapSizeValue;
     private int bitsPerKeyElement;
     private int bitsPerValueElement;
     private long totalOfMapBuckets[];
+    private long revTotalOfMapBuckets[];
 
     /// data required for writing snapshot or delta
     private int maxOrdinal;
     private int maxShardOrdinal[];
+    private int revMaxShardOrdinal[];
     private FixedLengthElementArray mapPointersAndSizesArray[];
     private FixedLengthElementArray entryData[];
 
@@ -69,24 +73,28 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
     }
 
     private void gatherStatistics() {
-        if(numShards == -1)
-            calculateNumShards();
-        revNumShards = numShards;
+        if(numShards == -1) {
+            numShards = targetNumShards();
+            revNumShards = numShards;
+        } else {
+            revNumShards = numShards;
+            if(allowTypeResharding())
+                numShards = reshardedNumShards(targetNumShards());
+        }
 
         int maxKeyOrdinal = 0;
         int maxValueOrdinal = 0;
 
         int maxOrdinal = ordinalMap.maxOrdinal();
 
-        maxShardOrdinal = new int[numShards];
-        int minRecordLocationsPerShard = (maxOrdinal + 1) / numShards; 
-        for(int i=0;i<numShards;i++)
-            maxShardOrdinal[i] = (i < ((maxOrdinal + 1) & (numShards - 1))) ? minRecordLocationsPerShard : minRecordLocationsPerShard - 1;
+        maxShardOrdinal = calcMaxShardOrdinal(maxOrdinal, numShards);
+        revMaxShardOrdinal = calcMaxShardOrdinal(maxOrdinal, revNumShards);
         
         int maxMapSize = 0;
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
 
         totalOfMapBuckets = new long[numShards];
+        revTotalOfMapBuckets = new long[revNumShards];
         
         for(int i=0;i<=maxOrdinal;i++) {
             if(currentCyclePopulated.get(i) || previousCyclePopulated.get(i)) {
@@ -118,24 +126,30 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
                 }
 
                 totalOfMapBuckets[i & (numShards-1)] += numBuckets;
+                revTotalOfMapBuckets[i & (revNumShards-1)] += numBuckets;
             }
         }
-        
-        long maxShardTotalOfMapBuckets = 0;
-        for(int i=0;i<numShards;i++) {
-            if(totalOfMapBuckets[i] > maxShardTotalOfMapBuckets)
-                maxShardTotalOfMapBuckets = totalOfMapBuckets[i];
-        }
 
         bitsPerKeyElement = 64 - Long.numberOfLeadingZeros(maxKeyOrdinal + 1);
         bitsPerValueElement = 64 - Long.numberOfLeadingZeros(maxValueOrdinal);
 
         bitsPerMapSizeValue = 64 - Long.numberOfLeadingZeros(maxMapSize);
 
-        bitsPerMapPointer = 64 - Long.numberOfLeadingZeros(maxShardTotalOfMapBuckets);
+        bitsPerMapPointer = bitsPerMapPointer(totalOfMapBuckets);
+        revBitsPerMapPointer = bitsPerMapPointer(revTotalOfMapBuckets);
+    }
+
+    private int bitsPerMapPointer(long shardTotalOfMapBuckets[]) {
+        long maxShardTotalOfMapBuckets = 0;
+        for(int i=0;i<shardTotalOfMapBuckets.length;i++) {
+            if(shardTotalOfMapBuckets[i] > maxShardTotalOfMapBuckets)
+                maxShardTotalOfMapBuckets = shardTotalOfMapBuckets[i];
+        }
+
+        return 64 - Long.numberOfLeadingZeros(maxShardTotalOfMapBuckets);
     }
     
-    private void calculateNumShards() {
+    private int targetNumShards() {
         int maxKeyOrdinal = 0;
         int maxValueOrdinal = 0;
         int maxOrdinal = ordinalMap.maxOrdinal();
@@ -186,37 +200,52 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
         long projectedSizeOfType = (bitsPerMapSizeValue + bitsPerMapPointer) * (maxOrdinal + 1) / 8;
         projectedSizeOfType += ((bitsPerKeyElement + bitsPerValueElement) * totalOfMapBuckets) / 8;
         
-        numShards = 1;
-        while(stateEngine.getTargetMaxTypeShardSize() * numShards < projectedSizeOfType) 
-            numShards *= 2;
+        int targetNumShards = 1;
+        while(stateEngine.getTargetMaxTypeShardSize() * targetNumShards < projectedSizeOfType) 
+            targetNumShards *= 2;
+
+        return targetNumShards;
     }
 
     @Override
     public void calculateSnapshot() {
+        HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher = beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++)
+            calculateSnapshotShard(i, primaryKeyHasher);
+    }
+
+    @Override
+    public void calculateSnapshot(SimultaneousExecutor executor) {
+        HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher = beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++) {
+            final int shardNumber = i;
+            executor.execute(() -> calculateSnapshotShard(shardNumber, primaryKeyHasher));
+        }
+    }
+
+    private HollowWriteStateEnginePrimaryKeyHasher beginCalculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
-        int bitsPerMapFixedLengthPortion = bitsPerMapSizeValue + bitsPerMapPointer;
-        int bitsPerMapEntry = bitsPerKeyElement + bitsPerValueElement;
         
         mapPointersAndSizesArray = new FixedLengthElementArray[numShards];
         entryData = new FixedLengthElementArray[numShards];
 
-        for(int i=0;i<numShards;i++) {
-            mapPointersAndSizesArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerMapFixedLengthPortion * (maxShardOrdinal[i] + 1));
-            entryData[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerMapEntry * totalOfMapBuckets[i]);
-        }
+        if(getSchema().getHashKey() != null)
+            return new HollowWriteStateEnginePrimaryKeyHasher(getSchema().getHashKey(), getStateEngine());
+        return null;
+    }
 
-        ByteData data = ordinalMap.getByteData().getUnderlyingArray();
+    private void calculateSnapshotShard(int shardNumber, HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher) {
+        int bitsPerMapFixedLengthPortion = bitsPerMapSizeValue + bitsPerMapPointer;
+        int bitsPerMapEntry = bitsPerKeyElement + bitsPerValueElement;
 
-        int bucketCounter[] = new int[numShards];
-        int shardMask = numShards - 1;
+        FixedLengthElementArray shardMapPointersAndSizesArray = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerMapFixedLengthPortion * (maxShardOrdinal[shardNumber] + 1));
+        FixedLengthElementArray shardEntryData = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerMapEntry * totalOfMapBuckets[shardNumber]);
 
-        HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher = null;
+        ByteData data = ordinalMap.getByteData().getUnderlyingArray();
 
-        if(getSchema().getHashKey() != null)
-            primaryKeyHasher = new HollowWriteStateEnginePrimaryKeyHasher(getSchema().getHashKey(), getStateEngine());
-        
-        for(int ordinal=0;ordinal<=maxOrdinal;ordinal++) {
-            int shardNumber = ordinal & shardMask;
+        int bucketCounter = 0;
+
+        for(int ordinal=shardNumber;ordinal<=maxOrdinal;ordinal+=numShards) {
             int shardOrdinal = ordinal / numShards;
             
             if(currentCyclePopulated.get(ordinal)) {
@@ -227,12 +256,12 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
 
                 int numBuckets = HashCodes.hashTableSize(size);
 
-                mapPointersAndSizesArray[shardNumber].setElementValue(((long)bitsPerMapFixedLengthPortion * shardOrdinal) + bitsPerMapPointer, bitsPerMapSizeValue, size);
+                shardMapPointersAndSizesArray.setElementValue(((long)bitsPerMapFixedLengthPortion * shardOrdinal) + bitsPerMapPointer, bitsPerMapSizeValue, size);
 
                 int keyElementOrdinal = 0;
 
                 for(int j=0;j<numBuckets;j++) {
-                    entryData[shardNumber].setElementValue((long)bitsPerMapEntry * (bucketCounter[shardNumber] + j), bitsPerKeyElement, (1L << bitsPerKeyElement) - 1);
+                    shardEntryData.setElementValue((long)bitsPerMapEntry * (bucketCounter + j), bitsPerKeyElement, (1L << bitsPerKeyElement) - 1);
                 }
 
                 for(int j=0;j<size;j++) {
@@ -248,35 +277,42 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
                     if(primaryKeyHasher != null)
                         hashedBucket = primaryKeyHasher.getRecordHash(keyElementOrdinal) & (numBuckets - 1);
 
-                    while(entryData[shardNumber].getElementValue((long)bitsPerMapEntry * (bucketCounter[shardNumber] + hashedBucket), bitsPerKeyElement) != ((1L << bitsPerKeyElement) - 1)) {
+                    while(shardEntryData.getElementValue((long)bitsPerMapEntry * (bucketCounter + hashedBucket), bitsPerKeyElement) != ((1L << bitsPerKeyElement) - 1)) {
                         hashedBucket++;
                         hashedBucket &= (numBuckets - 1);
                     }
 
-                    long mapEntryBitOffset = (long)bitsPerMapEntry * (bucketCounter[shardNumber] + hashedBucket);
-                    entryData[shardNumber].clearElementValue(mapEntryBitOffset, bitsPerMapEntry);
-                    entryData[shardNumber].setElementValue(mapEntryBitOffset, bitsPerKeyElement, keyElementOrdinal);
-                    entryData[shardNumber].setElementValue(mapEntryBitOffset + bitsPerKeyElement, bitsPerValueElement, valueElementOrdinal);
+                    long mapEntryBitOffset = (long)bitsPerMapEntry * (bucketCounter + hashedBucket);
+                    shardEntryData.clearElementValue(mapEntryBitOffset, bitsPerMapEntry);
+                    shardEntryData.setElementValue(mapEntryBitOffset, bitsPerKeyElement, keyElementOrdinal);
+                    shardEntryData.setElementValue(mapEntryBitOffset + bitsPerKeyElement, bitsPerValueElement, valueElementOrdinal);
                 }
 
-                bucketCounter[shardNumber] += numBuckets;
+                bucketCounter += numBuckets;
             }
 
-            mapPointersAndSizesArray[shardNumber].setElementValue((long)bitsPerMapFixedLengthPortion * shardOrdinal, bitsPerMapPointer, bucketCounter[shardNumber]);
+            shardMapPointersAndSizesArray.setElementValue((long)bitsPerMapFixedLengthPortion * shardOrdinal, bitsPerMapPointer, bucketCounter);
         }
+
+        mapPointersAndSizesArray[shardNumber] = shardMapPointersAndSizesArray;
+        entryData[shardNumber] = shardEntryData;
     }
 
     @Override
     public void writeSnapshot(DataOutputStream os) throws IOException {
         /// for unsharded blobs, support pre v2.1.0 clients
         if(numShards == 1) {
+            beginSnapshotShard(os);
             writeSnapshotShard(os, 0);
+            endSnapshotShard(os);
         } else {
             /// overall max ordinal
             VarInt.writeVInt(os, maxOrdinal);
             
             for(int i=0;i<numShards;i++) {
+                beginSnapshotShard(os);
                 writeSnapshotShard(os, i);
+                endSnapshotShard(os);
             }
         }
         
@@ -318,25 +354,25 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
 
     @Override
     public void calculateDelta() {
-        calculateDelta(previousCyclePopulated, currentCyclePopulated);
+        calculateDelta(previousCyclePopulated, currentCyclePopulated, numShards, bitsPerMapPointer);
     }
 
     @Override
     public void writeDelta(DataOutputStream dos) throws IOException {
-        writeCalculatedDelta(dos);
+        writeCalculatedDelta(dos, numShards, maxShardOrdinal, bitsPerMapPointer, totalOfMapBuckets);
     }
 
     @Override
     public void calculateReverseDelta() {
-        calculateDelta(currentCyclePopulated, previousCyclePopulated);
+        calculateDelta(currentCyclePopulated, previousCyclePopulated, revNumShards, revBitsPerMapPointer);
     }
 
     @Override
     public void writeReverseDelta(DataOutputStream dos) throws IOException {
-        writeCalculatedDelta(dos);
+        writeCalculatedDelta(dos, revNumShards, revMaxShardOrdinal, revBitsPerMapPointer, revTotalOfMapBuckets);
     }
 
-    private void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated) {
+    private void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated, int numShards, int bitsPerMapPointer) {
         maxOrdinal = ordinalMap.maxOrdinal();
         int bitsPerMapFixedLengthPortion = bitsPerMapSizeValue + bitsPerMapPointer;
         int bitsPerMapEntry = bitsPerKeyElement + bitsPerValueElement;
@@ -440,16 +476,16 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
         }
     }
 
-    private void writeCalculatedDelta(DataOutputStream os) throws IOException {
+    private void writeCalculatedDelta(DataOutputStream os, int numShards, int[] maxShardOrdinal, int bitsPerMapPointer, long[] totalOfMapBuckets) throws IOException {
         /// for unsharded blobs, support pre v2.1.0 clients
         if(numShards == 1) {
-            writeCalculatedDeltaShard(os, 0);
+            writeCalculatedDeltaShard(os, 0, maxShardOrdinal, bitsPerMapPointer, totalOfMapBuckets);
         } else {
             /// overall max ordinal
             VarInt.writeVInt(os, maxOrdinal);
             
             for(int i=0;i<numShards;i++) {
-                writeCalculatedDeltaShard(os, i);
+                writeCalculatedDeltaShard(os, i, maxShardOrdinal, bitsPerMapPointer, totalOfMapBuckets);
             }
         }
         
@@ -459,7 +495,7 @@ public class HollowMapTypeWriteState extends HollowTypeWriteState {
         deltaRemovedOrdinals = null;
     }
     
-    private void writeCalculatedDeltaShard(DataOutputStream os, int shardNumber) throws IOException {
+    private void writeCalculatedDeltaShard(DataOutputStream os, int shardNumber, int[] maxShardOrdinal, int bitsPerMapPointer, long[] totalOfMapBuckets) throws IOException {
         
         int bitsPerMapFixedLengthPortion = bitsPerMapSizeValue + bitsPerMapPointer;
         int bitsPerMapEntry = bitsPerKeyElement + bitsPerValueElement;
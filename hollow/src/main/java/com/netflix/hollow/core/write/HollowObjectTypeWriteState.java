@@ -16,15 +16,16 @@
  */
 package com.netflix.hollow.core.write;
 
-import com.netflix.hollow.core.HollowStateEngine;
 import com.netflix.hollow.core.memory.ByteData;
 import com.netflix.hollow.core.memory.ByteDataArray;
+import com.netflix.hollow.core.memory.SegmentedByteArray;
 import com.netflix.hollow.core.memory.ThreadSafeBitSet;
 import com.netflix.hollow.core.memory.encoding.FixedLengthElementArray;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
@@ -34,6 +35,8 @@ import java.util.logging.Logger;
 public class HollowObjectTypeWriteState extends HollowTypeWriteState {
     private static final Logger LOG = Logger.getLogger(HollowObjectTypeWriteState.class.getName());
 
+    private static final int STREAMING_WINDOW_SIZE_IN_LONGS = 1 << 13;
+
     /// statistics required for writing fixed length set data
     private FieldStatistics fieldStats;
 
@@ -67,17 +70,6 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         return (HollowObjectSchema)schema;
     }
 
-    boolean allowTypeResharding() {
-        if (stateEngine.allowTypeResharding()) {
-            if (isNumShardsPinned()) {
-                LOG.warning("Type re-sharding feature was enabled but num shards is pinned (likely using the " +
-                        "HollowShardLargeType annotation in the data model). Proceeding with fixed num shards.");
-                return false;
-            }
-        }
-        return stateEngine.allowTypeResharding();
-    }
-
     /**
      * Called to perform a state transition.<p>
      *
@@ -105,14 +97,7 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         } else {
             revNumShards = numShards;
             if (allowTypeResharding()) {
-                numShards = targetNumShards(maxOrdinal);
-                if (numShards != revNumShards) {    // re-sharding
-                    // limit numShards to 2x or .5x of prevShards per producer cycle
-                    numShards = numShards > revNumShards ? revNumShards * 2 : revNumShards / 2;
-
-                    LOG.info(String.format("Num shards for type %s changing from %s to %s", schema.getName(), revNumShards, numShards));
-                    addReshardingHeader(revNumShards, numShards);
-                }
+                numShards = reshardedNumShards(targetNumShards(maxOrdinal));
             }
         }
 
@@ -133,28 +118,6 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         return targetNumShards;
     }
 
-    /**
-     * A header tag indicating that num shards for a type has changed since the prior version. Its value encodes
-     * the type(s) that were re-sharded along with the before and after num shards in the fwd delta direction.
-     * For e.g. Movie:(2,4) Actor:(8,4)
-     */
-    private void addReshardingHeader(int prevNumShards, int newNumShards) {
-        String existing = stateEngine.getHeaderTag(HollowStateEngine.HEADER_TAG_TYPE_RESHARDING_INVOKED);
-        String appendTo = "";
-        if (existing != null) {
-            appendTo = existing + " ";
-        }
-        stateEngine.addHeaderTag(HollowStateEngine.HEADER_TAG_TYPE_RESHARDING_INVOKED, appendTo + schema.getName() + ":(" + prevNumShards + "," + newNumShards + ")");
-    }
-
-    int[] calcMaxShardOrdinal(int maxOrdinal, int numShards) {
-        int[] maxShardOrdinal = new int[numShards];
-        int minRecordLocationsPerShard = (maxOrdinal + 1) / numShards;
-        for(int i=0;i<numShards;i++)
-            maxShardOrdinal[i] = (i < ((maxOrdinal + 1) & (numShards - 1))) ? minRecordLocationsPerShard : minRecordLocationsPerShard - 1;
-        return maxShardOrdinal;
-    }
-
     private void discoverObjectFieldStatisticsForRecord(FieldStatistics fieldStats, int ordinal) {
         if(currentCyclePopulated.get(ordinal) || previousCyclePopulated.get(ordinal)) {
             long pointer = ordinalMap.getPointerForData(ordinal);
@@ -226,41 +189,64 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
 
     @Override
     public void calculateSnapshot() {
+        beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++)
+            calculateSnapshotShard(i);
+    }
+
+    @Override
+    public void calculateSnapshot(SimultaneousExecutor executor) {
+        beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++) {
+            final int shardNumber = i;
+            executor.execute(() -> calculateSnapshotShard(shardNumber));
+        }
+    }
+
+    private void beginCalculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
-        int numBitsPerRecord = fieldStats.getNumBitsPerRecord();
-        
+
         fixedLengthLongArray = new FixedLengthElementArray[numShards];
         varLengthByteArrays = new ByteDataArray[numShards][];
         recordBitOffset = new long[numShards];
-        
-        for(int i=0;i<numShards;i++) {
-            fixedLengthLongArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numBitsPerRecord * (maxShardOrdinal[i] + 1));
-            varLengthByteArrays[i] = new ByteDataArray[getSchema().numFields()];
-        }
-        
-        int shardMask = numShards - 1;
-    
-        for(int i=0;i<=maxOrdinal;i++) {
-            int shardNumber = i & shardMask;
+    }
+
+    private void calculateSnapshotShard(int shardNumber) {
+        int numBitsPerRecord = fieldStats.getNumBitsPerRecord();
+
+        FixedLengthElementArray shardFixedLengthLongArray = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numBitsPerRecord * (maxShardOrdinal[shardNumber] + 1));
+        ByteDataArray shardVarLengthByteArrays[] = new ByteDataArray[getSchema().numFields()];
+        long varLengthSizes[] = new long[getSchema().numFields()];
+        long shardRecordBitOffset = 0;
+
+        for(int i=shardNumber;i<=maxOrdinal;i+=numShards) {
             if(currentCyclePopulated.get(i)) {
-                addRecord(i, recordBitOffset[shardNumber], fixedLengthLongArray[shardNumber], varLengthByteArrays[shardNumber]);
+                addRecord(i, shardRecordBitOffset, shardFixedLengthLongArray, shardVarLengthByteArrays, varLengthSizes);
             } else {
-                addNullRecord(i, recordBitOffset[shardNumber], fixedLengthLongArray[shardNumber], varLengthByteArrays[shardNumber]);
+                addNullRecord(i, shardRecordBitOffset, shardFixedLengthLongArray, varLengthSizes);
             }
-            recordBitOffset[shardNumber] += numBitsPerRecord;
+            shardRecordBitOffset += numBitsPerRecord;
         }
+
+        fixedLengthLongArray[shardNumber] = shardFixedLengthLongArray;
+        varLengthByteArrays[shardNumber] = shardVarLengthByteArrays;
+        recordBitOffset[shardNumber] = shardRecordBitOffset;
     }
 
     public void writeSnapshot(DataOutputStream os) throws IOException {
         LOG.log(Level.FINE, String.format("Writing snapshot with num shards = %s, revNumShards = %s, max shard ordinals = %s", numShards, revNumShards, Arrays.toString(maxShardOrdinal)));
         /// for unsharded blobs, support pre v2.1.0 clients
         if(numShards == 1) {
+            beginSnapshotShard(os);
             writeSnapshotShard(os, 0);
+            endSnapshotShard(os);
         } else {
             /// overall max ordinal
             VarInt.writeVInt(os, maxOrdinal);
             for(int i=0;i<numShards;i++) {
+                beginSnapshotShard(os);
                 writeSnapshotShard(os, i);
+                endSnapshotShard(os);
             }
         }
 
@@ -296,9 +282,144 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         }
     }
 
+    /**
+     * Writes the snapshot directly from the ordinal map, one shard at a time, without calculating it first.<p>
+     *
+     * The fixed length data of a shard is encoded through a window of bounded size, and the variable length data of
+     * each field is copied from the serialized records to the stream, with its size known from the fixed length pass.
+     * The blob is identical to that written by {@link #calculateSnapshot()} and {@link #writeSnapshot(DataOutputStream)}.
+     */
+    @Override
+    public void writeStreamingSnapshot(DataOutputStream os) throws IOException {
+        maxOrdinal = ordinalMap.maxOrdinal();
+
+        LOG.log(Level.FINE, String.format("Streaming snapshot with num shards = %s, revNumShards = %s, max shard ordinals = %s", numShards, revNumShards, Arrays.toString(maxShardOrdinal)));
+        /// for unsharded blobs, support pre v2.1.0 clients
+        if(numShards == 1) {
+            beginSnapshotShard(os);
+            streamSnapshotShard(os, 0);
+            endSnapshotShard(os);
+        } else {
+            /// overall max ordinal
+            VarInt.writeVInt(os, maxOrdinal);
+            for(int i=0;i<numShards;i++) {
+                beginSnapshotShard(os);
+                streamSnapshotShard(os, i);
+                endSnapshotShard(os);
+            }
+        }
+
+        /// Populated bits
+        currentCyclePopulated.serializeBitsTo(os);
+    }
+
+    private void streamSnapshotShard(DataOutputStream os, int shardNumber) throws IOException {
+        int numBitsPerRecord = fieldStats.getNumBitsPerRecord();
+        long varLengthSizes[] = new long[getSchema().numFields()];
+
+        /// 1) shard max ordinal
+        VarInt.writeVInt(os, maxShardOrdinal[shardNumber]);
+
+        /// 2) FixedLength field sizes
+        for(int i=0;i<getSchema().numFields();i++) {
+            VarInt.writeVInt(os, fieldStats.getMaxBitsForField(i));
+        }
+
+        /// 3) FixedLength data, encoded into a window which is flushed whenever the next record would not fit
+        long numBitsRequired = (long)numBitsPerRecord * (maxShardOrdinal[shardNumber] + 1);
+        long numLongsRequired = numBitsRequired == 0 ? 0 : ((numBitsRequired - 1) / 64) + 1;
+        VarInt.writeVLong(os, numLongsRequired);
+
+        long windowSizeInLongs = Math.max(STREAMING_WINDOW_SIZE_IN_LONGS, (numBitsPerRecord / 64) + 2);
+        long windowSizeInBits = windowSizeInLongs * 64;
+        FixedLengthElementArray window = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, windowSizeInBits);
+        long windowStartBit = 0;
+
+        for(int shardOrdinal=0;shardOrdinal<=maxShardOrdinal[shardNumber];shardOrdinal++) {
+            long recordBitOffset = (long)shardOrdinal * numBitsPerRecord;
+            if(recordBitOffset + numBitsPerRecord - windowStartBit > windowSizeInBits)
+                windowStartBit += flushWindow(os, window, windowSizeInLongs, (recordBitOffset - windowStartBit) >>> 6);
+
+            int ordinal = shardOrdinal * numShards + shardNumber;
+            if(currentCyclePopulated.get(ordinal)) {
+                addRecord(ordinal, recordBitOffset - windowStartBit, window, null, varLengthSizes);
+            } else {
+                addNullRecord(ordinal, recordBitOffset - windowStartBit, window, varLengthSizes);
+            }
+        }
+        flushWindow(os, window, windowSizeInLongs, ((numBitsRequired - windowStartBit) + 63) >>> 6);
+
+        /// 4) VarLength data
+        SegmentedByteArray data = ordinalMap.getByteData().getUnderlyingArray();
+        for(int fieldIndex=0;fieldIndex<getSchema().numFields();fieldIndex++) {
+            VarInt.writeVLong(os, varLengthSizes[fieldIndex]);
+            if(varLengthSizes[fieldIndex] == 0)
+                continue;
+
+            for(int shardOrdinal=0;shardOrdinal<=maxShardOrdinal[shardNumber];shardOrdinal++) {
+                int ordinal = shardOrdinal * numShards + shardNumber;
+                if(currentCyclePopulated.get(ordinal)) {
+                    long pointer = ordinalMap.getPointerForData(ordinal);
+                    for(int i=0;i<fieldIndex;i++)
+                        pointer = nextFieldPointer(data, pointer, i);
+
+                    if(!VarInt.readVNull(data, pointer)) {
+                        int length = VarInt.readVInt(data, pointer);
+                        data.writeTo(os, pointer + VarInt.sizeOfVInt(length), length);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the given number of longs from the start of the window, then moves the partially populated long
+     * which follows them to the start of the window.
+     *
+     * @return the number of bits by which the window was advanced
+     */
+    private static long flushWindow(DataOutputStream os, FixedLengthElementArray window, long windowSizeInLongs, long numLongs) throws IOException {
+        for(long i=0;i<numLongs;i++)
+            os.writeLong(window.get(i));
+
+        long partialLong = numLongs < windowSizeInLongs ? window.get(numLongs) : 0;
+        for(long i=0;i<=numLongs && i<windowSizeInLongs;i++)
+            window.set(i, 0);
+        window.set(0, partialLong);
+
+        return numLongs << 6;
+    }
+
+    private long nextFieldPointer(ByteData data, long pointer, int fieldIndex) {
+        switch(getSchema().getFieldType(fieldIndex)) {
+        case BOOLEAN:
+            return pointer + 1;
+        case FLOAT:
+            return pointer + 4;
+        case DOUBLE:
+            return pointer + 8;
+        case LONG:
+        case INT:
+        case REFERENCE:
+            return pointer + VarInt.nextVLongSize(data, pointer);
+        case BYTES:
+        case STRING:
+            if(VarInt.readVNull(data, pointer))
+                return pointer + 1;
+            int length = VarInt.readVInt(data, pointer);
+            return pointer + VarInt.sizeOfVInt(length) + length;
+        }
+        throw new IllegalStateException("Unknown field type " + getSchema().getFieldType(fieldIndex));
+    }
+
     @Override
     public void calculateDelta() {
-        calculateDelta(previousCyclePopulated, currentCyclePopulated, numShards);
+        calculateDelta(previousCyclePopulated, currentCyclePopulated, numShards, null);
+    }
+
+    @Override
+    public void calculateDelta(SimultaneousExecutor executor) {
+        calculateDelta(previousCyclePopulated, currentCyclePopulated, numShards, executor);
     }
 
     @Override
@@ -309,7 +430,12 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
 
     @Override
     public void calculateReverseDelta() {
-        calculateDelta(currentCyclePopulated, previousCyclePopulated, revNumShards);
+        calculateDelta(currentCyclePopulated, previousCyclePopulated, revNumShards, null);
+    }
+
+    @Override
+    public void calculateReverseDelta(SimultaneousExecutor executor) {
+        calculateDelta(currentCyclePopulated, previousCyclePopulated, revNumShards, executor);
     }
 
     @Override
@@ -318,9 +444,9 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
         writeCalculatedDelta(dos, revNumShards, revMaxShardOrdinal);
     }
 
-    private void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated, int numShards) {
+    /// if executor is null, the shards are calculated by the calling thread
+    private void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated, int numShards, SimultaneousExecutor executor) {
         maxOrdinal = ordinalMap.maxOrdinal();
-        int numBitsPerRecord = fieldStats.getNumBitsPerRecord();
 
         ThreadSafeBitSet deltaAdditions = toCyclePopulated.andNot(fromCyclePopulated);
 
@@ -338,31 +464,51 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
             numAddedRecordsInShard[addedOrdinal & shardMask]++;
             addedOrdinal = deltaAdditions.nextSetBit(addedOrdinal + 1);
         }
-        
+
         for(int i=0;i<numShards;i++) {
-            fixedLengthLongArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numAddedRecordsInShard[i] * numBitsPerRecord);
-            deltaAddedOrdinals[i] = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
-            deltaRemovedOrdinals[i] = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
-            varLengthByteArrays[i] = new ByteDataArray[getSchema().numFields()];
+            final int shardNumber = i;
+            Runnable calculateShard = () -> calculateDeltaShard(fromCyclePopulated, toCyclePopulated, deltaAdditions,
+                    numShards, shardNumber, numAddedRecordsInShard[shardNumber]);
+            if(executor == null)
+                calculateShard.run();
+            else
+                executor.execute(calculateShard);
         }
+    }
+
+    private void calculateDeltaShard(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated, ThreadSafeBitSet deltaAdditions,
+            int numShards, int shardNumber, int numAddedRecords) {
+        int numBitsPerRecord = fieldStats.getNumBitsPerRecord();
 
-        int previousRemovedOrdinal[] = new int[numShards];
-        int previousAddedOrdinal[] = new int[numShards];
+        FixedLengthElementArray shardFixedLengthLongArray = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)numAddedRecords * numBitsPerRecord);
+        ByteDataArray shardDeltaAddedOrdinals = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+        ByteDataArray shardDeltaRemovedOrdinals = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+        ByteDataArray shardVarLengthByteArrays[] = new ByteDataArray[getSchema().numFields()];
+        long varLengthSizes[] = new long[getSchema().numFields()];
+        long shardRecordBitOffset = 0;
 
-        for(int i=0;i<=maxOrdinal;i++) {
-            int shardNumber = i & shardMask;
+        int previousRemovedOrdinal = 0;
+        int previousAddedOrdinal = 0;
+
+        for(int i=shardNumber;i<=maxOrdinal;i+=numShards) {
             if(deltaAdditions.get(i)) {
-                addRecord(i, recordBitOffset[shardNumber], fixedLengthLongArray[shardNumber], varLengthByteArrays[shardNumber]);
-                recordBitOffset[shardNumber] += numBitsPerRecord;
+                addRecord(i, shardRecordBitOffset, shardFixedLengthLongArray, shardVarLengthByteArrays, varLengthSizes);
+                shardRecordBitOffset += numBitsPerRecord;
                 int shardOrdinal = i / numShards;
-                VarInt.writeVInt(deltaAddedOrdinals[shardNumber], shardOrdinal - previousAddedOrdinal[shardNumber]);
-                previousAddedOrdinal[shardNumber] = shardOrdinal;
+                VarInt.writeVInt(shardDeltaAddedOrdinals, shardOrdinal - previousAddedOrdinal);
+                previousAddedOrdinal = shardOrdinal;
             } else if(fromCyclePopulated.get(i) && !toCyclePopulated.get(i)) {
                 int shardOrdinal = i / numShards;
-                VarInt.writeVInt(deltaRemovedOrdinals[shardNumber], shardOrdinal - previousRemovedOrdinal[shardNumber]);
-                previousRemovedOrdinal[shardNumber] = shardOrdinal;
+                VarInt.writeVInt(shardDeltaRemovedOrdinals, shardOrdinal - previousRemovedOrdinal);
+                previousRemovedOrdinal = shardOrdinal;
             }
         }
+
+        fixedLengthLongArray[shardNumber] = shardFixedLengthLongArray;
+        deltaAddedOrdinals[shardNumber] = shardDeltaAddedOrdinals;
+        deltaRemovedOrdinals[shardNumber] = shardDeltaRemovedOrdinals;
+        varLengthByteArrays[shardNumber] = shardVarLengthByteArrays;
+        recordBitOffset[shardNumber] = shardRecordBitOffset;
     }
 
     private void writeCalculatedDelta(DataOutputStream os, int numShards, int[] maxShardOrdinal) throws IOException {
@@ -418,26 +564,26 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
     }
 
     /// here we need to add the offsets for the variable-length field endings, as they will be read as the start position for the following record.
-    private void addNullRecord(int ordinal, long recordBitOffset, FixedLengthElementArray fixedLengthLongArray, ByteDataArray varLengthByteArrays[]) {
+    private void addNullRecord(int ordinal, long recordBitOffset, FixedLengthElementArray fixedLengthLongArray, long varLengthSizes[]) {
         for(int fieldIndex=0; fieldIndex < getSchema().numFields(); fieldIndex++) {
             if(getSchema().getFieldType(fieldIndex) == FieldType.STRING || getSchema().getFieldType(fieldIndex) == FieldType.BYTES) {
                 long fieldBitOffset = recordBitOffset + fieldStats.getFieldBitOffset(fieldIndex);
                 int bitsPerElement = fieldStats.getMaxBitsForField(fieldIndex);
-                long currentPointer = varLengthByteArrays[fieldIndex] == null ? 0 : varLengthByteArrays[fieldIndex].length();
-                fixedLengthLongArray.setElementValue(fieldBitOffset, bitsPerElement, currentPointer);
+                fixedLengthLongArray.setElementValue(fieldBitOffset, bitsPerElement, varLengthSizes[fieldIndex]);
             }
         }
     }
 
-    private void addRecord(int ordinal, long recordBitOffset, FixedLengthElementArray fixedLengthLongArray, ByteDataArray varLengthByteArrays[]) {
+    /// if varLengthByteArrays is null, the variable-length field data is not copied, only its size is accounted for.
+    private void addRecord(int ordinal, long recordBitOffset, FixedLengthElementArray fixedLengthLongArray, ByteDataArray varLengthByteArrays[], long varLengthSizes[]) {
         long pointer = ordinalMap.getPointerForData(ordinal);
 
         for(int fieldIndex=0; fieldIndex < getSchema().numFields(); fieldIndex++) {
-            pointer = addRecordField(pointer, recordBitOffset, fieldIndex, fixedLengthLongArray, varLengthByteArrays);
+            pointer = addRecordField(pointer, recordBitOffset, fieldIndex, fixedLengthLongArray, varLengthByteArrays, varLengthSizes);
         }
     }
 
-    private long addRecordField(long readPointer, long recordBitOffset, int fieldIndex, FixedLengthElementArray fixedLengthLongArray, ByteDataArray varLengthByteArrays[]) {
+    private long addRecordField(long readPointer, long recordBitOffset, int fieldIndex, FixedLengthElementArray fixedLengthLongArray, ByteDataArray varLengthByteArrays[], long varLengthSizes[]) {
         FieldType fieldType = getSchema().getFieldType(fieldIndex);
         long fieldBitOffset = recordBitOffset + fieldStats.getFieldBitOffset(fieldIndex);
         int bitsPerElement = fieldStats.getMaxBitsForField(fieldIndex);
@@ -476,19 +622,18 @@ public class HollowObjectTypeWriteState extends HollowTypeWriteState {
             break;
         case BYTES:
         case STRING:
-            ByteDataArray varLengthBuf = getByteArray(varLengthByteArrays, fieldIndex);
-
             if(VarInt.readVNull(data, readPointer)) {
-                long offset = varLengthBuf.length();
+                long offset = varLengthSizes[fieldIndex];
 
                 fixedLengthLongArray.setElementValue(fieldBitOffset, bitsPerElement, offset | (1L << (bitsPerElement - 1))); // write offset with set null bit
                 readPointer += 1;
             } else {
                 int length = VarInt.readVInt(data, readPointer);
                 readPointer += VarInt.sizeOfVInt(length);
-                varLengthBuf.copyFrom(data, readPointer, length);
+                if(varLengthByteArrays != null)
+                    getByteArray(varLengthByteArrays, fieldIndex).copyFrom(data, readPointer, length);
 
-                long offset = varLengthBuf.length();
+                long offset = varLengthSizes[fieldIndex] += length;
 
                 fixedLengthLongArray.setElementValue(fieldBitOffset, bitsPerElement, offset);
                 readPointer += length;
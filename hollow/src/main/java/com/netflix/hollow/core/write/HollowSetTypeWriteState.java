@@ -24,6 +24,7 @@ import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.memory.encoding.VarInt;
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
 import com.netflix.hollow.core.schema.HollowSetSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
@@ -31,13 +32,16 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
 
     /// statistics required for writing fixed length set data
     private int bitsPerSetPointer;
+    private int revBitsPerSetPointer;
     private int bitsPerElement;
     private int bitsPerSetSizeValue;
     private long totalOfSetBuckets[];
+    private long revTotalOfSetBuckets[];
 
     /// data required for writing snapshot or delta
     private int maxOrdinal;
     private int maxShardOrdinal[];
+    private int revMaxShardOrdinal[];
     private FixedLengthElementArray setPointersAndSizesArray[];
     private FixedLengthElementArray elementArray[];
 
@@ -67,23 +71,27 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
     }
 
     private void gatherStatistics() {
-        if(numShards == -1)
-            calculateNumShards();
-        revNumShards = numShards;
+        if(numShards == -1) {
+            numShards = targetNumShards();
+            revNumShards = numShards;
+        } else {
+            revNumShards = numShards;
+            if(allowTypeResharding())
+                numShards = reshardedNumShards(targetNumShards());
+        }
 
         int maxElementOrdinal = 0;
 
         int maxOrdinal = ordinalMap.maxOrdinal();
         
-        maxShardOrdinal = new int[numShards];
-        int minRecordLocationsPerShard = (maxOrdinal + 1) / numShards; 
-        for(int i=0;i<numShards;i++)
-            maxShardOrdinal[i] = (i < ((maxOrdinal + 1) & (numShards - 1))) ? minRecordLocationsPerShard : minRecordLocationsPerShard - 1;
+        maxShardOrdinal = calcMaxShardOrdinal(maxOrdinal, numShards);
+        revMaxShardOrdinal = calcMaxShardOrdinal(maxOrdinal, revNumShards);
         
         int maxSetSize = 0;
         ByteData data = ordinalMap.getByteData().getUnderlyingArray();
 
         totalOfSetBuckets = new long[numShards];
+        revTotalOfSetBuckets = new long[revNumShards];
 
         for(int i=0;i<=maxOrdinal;i++) {
             if(currentCyclePopulated.get(i) || previousCyclePopulated.get(i)) {
@@ -109,21 +117,27 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
                 }
 
                 totalOfSetBuckets[i & (numShards-1)] += numBuckets;
+                revTotalOfSetBuckets[i & (revNumShards-1)] += numBuckets;
             }
         }
-        
-        long maxShardTotalOfSetBuckets = 0;
-        for(int i=0;i<numShards;i++) {
-            if(totalOfSetBuckets[i] > maxShardTotalOfSetBuckets)
-                maxShardTotalOfSetBuckets = totalOfSetBuckets[i];
-        }
 
         bitsPerElement = 64 - Long.numberOfLeadingZeros(maxElementOrdinal + 1);
         bitsPerSetSizeValue = 64 - Long.numberOfLeadingZeros(maxSetSize);
-        bitsPerSetPointer = 64 - Long.numberOfLeadingZeros(maxShardTotalOfSetBuckets);
+        bitsPerSetPointer = bitsPerSetPointer(totalOfSetBuckets);
+        revBitsPerSetPointer = bitsPerSetPointer(revTotalOfSetBuckets);
+    }
+
+    private int bitsPerSetPointer(long shardTotalOfSetBuckets[]) {
+        long maxShardTotalOfSetBuckets = 0;
+        for(int i=0;i<shardTotalOfSetBuckets.length;i++) {
+            if(shardTotalOfSetBuckets[i] > maxShardTotalOfSetBuckets)
+                maxShardTotalOfSetBuckets = shardTotalOfSetBuckets[i];
+        }
+
+        return 64 - Long.numberOfLeadingZeros(maxShardTotalOfSetBuckets);
     }
     
-    private void calculateNumShards() {
+    private int targetNumShards() {
         int maxOrdinal = ordinalMap.maxOrdinal();
         int maxSetSize = 0;
         int maxElementOrdinal = 0;
@@ -166,36 +180,51 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
         long projectedSizeOfType = (bitsPerSetSizeValue + bitsPerSetPointer) * (maxOrdinal + 1) / 8;
         projectedSizeOfType += (bitsPerElement * totalOfSetBuckets) / 8;
         
-        numShards = 1;
-        while(stateEngine.getTargetMaxTypeShardSize() * numShards < projectedSizeOfType) 
-            numShards *= 2;
+        int targetNumShards = 1;
+        while(stateEngine.getTargetMaxTypeShardSize() * targetNumShards < projectedSizeOfType) 
+            targetNumShards *= 2;
+
+        return targetNumShards;
     }
 
     @Override
     public void calculateSnapshot() {
+        HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher = beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++)
+            calculateSnapshotShard(i, primaryKeyHasher);
+    }
+
+    @Override
+    public void calculateSnapshot(SimultaneousExecutor executor) {
+        HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher = beginCalculateSnapshot();
+        for(int i=0;i<numShards;i++) {
+            final int shardNumber = i;
+            executor.execute(() -> calculateSnapshotShard(shardNumber, primaryKeyHasher));
+        }
+    }
+
+    private HollowWriteStateEnginePrimaryKeyHasher beginCalculateSnapshot() {
         maxOrdinal = ordinalMap.maxOrdinal();
-        int bitsPerSetFixedLengthPortion = bitsPerSetSizeValue + bitsPerSetPointer;
         
         setPointersAndSizesArray = new FixedLengthElementArray[numShards];
         elementArray = new FixedLengthElementArray[numShards];
-        
-        for(int i=0;i<numShards;i++) {
-            setPointersAndSizesArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerSetFixedLengthPortion * (maxShardOrdinal[i] + 1));
-            elementArray[i] = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerElement * totalOfSetBuckets[i]);
-        }
 
-        ByteData data = ordinalMap.getByteData().getUnderlyingArray();
+        if(getSchema().getHashKey() != null)
+            return new HollowWriteStateEnginePrimaryKeyHasher(getSchema().getHashKey(), getStateEngine());
+        return null;
+    }
 
-        int bucketCounter[] = new int[numShards];
-        int shardMask = numShards - 1;
+    private void calculateSnapshotShard(int shardNumber, HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher) {
+        int bitsPerSetFixedLengthPortion = bitsPerSetSizeValue + bitsPerSetPointer;
 
-        HollowWriteStateEnginePrimaryKeyHasher primaryKeyHasher = null;
+        FixedLengthElementArray shardSetPointersAndSizesArray = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerSetFixedLengthPortion * (maxShardOrdinal[shardNumber] + 1));
+        FixedLengthElementArray shardElementArray = new FixedLengthElementArray(WastefulRecycler.DEFAULT_INSTANCE, (long)bitsPerElement * totalOfSetBuckets[shardNumber]);
 
-        if(getSchema().getHashKey() != null)
-            primaryKeyHasher = new HollowWriteStateEnginePrimaryKeyHasher(getSchema().getHashKey(), getStateEngine());
+        ByteData data = ordinalMap.getByteData().getUnderlyingArray();
 
-        for(int ordinal=0;ordinal<=maxOrdinal;ordinal++) {
-            int shardNumber = ordinal & shardMask;
+        int bucketCounter = 0;
+
+        for(int ordinal=shardNumber;ordinal<=maxOrdinal;ordinal+=numShards) {
             int shardOrdinal = ordinal / numShards;
             
             if(currentCyclePopulated.get(ordinal)) {
@@ -206,12 +235,12 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
 
                 int numBuckets = HashCodes.hashTableSize(size);
 
-                setPointersAndSizesArray[shardNumber].setElementValue(((long)bitsPerSetFixedLengthPortion * shardOrdinal) + bitsPerSetPointer, bitsPerSetSizeValue, size);
+                shardSetPointersAndSizesArray.setElementValue(((long)bitsPerSetFixedLengthPortion * shardOrdinal) + bitsPerSetPointer, bitsPerSetSizeValue, size);
 
                 int elementOrdinal = 0;
 
                 for(int j=0;j<numBuckets;j++) {
-                    elementArray[shardNumber].setElementValue((long)bitsPerElement * (bucketCounter[shardNumber] + j), bitsPerElement, (1L << bitsPerElement) - 1);
+                    shardElementArray.setElementValue((long)bitsPerElement * (bucketCounter + j), bitsPerElement, (1L << bitsPerElement) - 1);
                 }
 
                 for(int j=0;j<size;j++) {
@@ -225,33 +254,40 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
                     if(primaryKeyHasher != null)
                         hashedBucket = primaryKeyHasher.getRecordHash(elementOrdinal) & (numBuckets - 1);
 
-                    while(elementArray[shardNumber].getElementValue((long)bitsPerElement * (bucketCounter[shardNumber] + hashedBucket), bitsPerElement) != ((1L << bitsPerElement) - 1)) {
+                    while(shardElementArray.getElementValue((long)bitsPerElement * (bucketCounter + hashedBucket), bitsPerElement) != ((1L << bitsPerElement) - 1)) {
                         hashedBucket++;
                         hashedBucket &= (numBuckets - 1);
                     }
 
-                    elementArray[shardNumber].clearElementValue((long)bitsPerElement * (bucketCounter[shardNumber] + hashedBucket), bitsPerElement);
-                    elementArray[shardNumber].setElementValue((long)bitsPerElement * (bucketCounter[shardNumber] + hashedBucket), bitsPerElement, elementOrdinal);
+                    shardElementArray.clearElementValue((long)bitsPerElement * (bucketCounter + hashedBucket), bitsPerElement);
+                    shardElementArray.setElementValue((long)bitsPerElement * (bucketCounter + hashedBucket), bitsPerElement, elementOrdinal);
                 }
 
-                bucketCounter[shardNumber] += numBuckets;
+                bucketCounter += numBuckets;
             }
 
-            setPointersAndSizesArray[shardNumber].setElementValue((long)bitsPerSetFixedLengthPortion * shardOrdinal, bitsPerSetPointer, bucketCounter[shardNumber]);
+            shardSetPointersAndSizesArray.setElementValue((long)bitsPerSetFixedLengthPortion * shardOrdinal, bitsPerSetPointer, bucketCounter);
         }
+
+        setPointersAndSizesArray[shardNumber] = shardSetPointersAndSizesArray;
+        elementArray[shardNumber] = shardElementArray;
     }
 
     @Override
     public void writeSnapshot(DataOutputStream os) throws IOException {
         /// for unsharded blobs, support pre v2.1.0 clients
         if(numShards == 1) {
+            beginSnapshotShard(os);
             writeSnapshotShard(os, 0);
+            endSnapshotShard(os);
         } else {
             /// overall max ordinal
             VarInt.writeVInt(os, maxOrdinal);
             
             for(int i=0;i<numShards;i++) {
+                beginSnapshotShard(os);
                 writeSnapshotShard(os, i);
+                endSnapshotShard(os);
             }
         }
         
@@ -291,25 +327,25 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
 
     @Override
     public void calculateDelta() {
-        calculateDelta(previousCyclePopulated, currentCyclePopulated);
+        calculateDelta(previousCyclePopulated, currentCyclePopulated, numShards, bitsPerSetPointer);
     }
 
     @Override
     public void writeDelta(DataOutputStream dos) throws IOException {
-        writeCalculatedDelta(dos);
+        writeCalculatedDelta(dos, numShards, maxShardOrdinal, bitsPerSetPointer, totalOfSetBuckets);
     }
 
     @Override
     public void calculateReverseDelta() {
-        calculateDelta(currentCyclePopulated, previousCyclePopulated);
+        calculateDelta(currentCyclePopulated, previousCyclePopulated, revNumShards, revBitsPerSetPointer);
     }
 
     @Override
     public void writeReverseDelta(DataOutputStream dos) throws IOException {
-        writeCalculatedDelta(dos);
+        writeCalculatedDelta(dos, revNumShards, revMaxShardOrdinal, revBitsPerSetPointer, revTotalOfSetBuckets);
     }
 
-    public void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated) {
+    private void calculateDelta(ThreadSafeBitSet fromCyclePopulated, ThreadSafeBitSet toCyclePopulated, int numShards, int bitsPerSetPointer) {
         maxOrdinal = ordinalMap.maxOrdinal();
         int bitsPerSetFixedLengthPortion = bitsPerSetSizeValue + bitsPerSetPointer;
         
@@ -407,16 +443,16 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
         }
     }
 
-    private void writeCalculatedDelta(DataOutputStream os) throws IOException {
+    private void writeCalculatedDelta(DataOutputStream os, int numShards, int[] maxShardOrdinal, int bitsPerSetPointer, long[] totalOfSetBuckets) throws IOException {
         /// for unsharded blobs, support pre v2.1.0 clients
         if(numShards == 1) {
-            writeCalculatedDeltaShard(os, 0);
+            writeCalculatedDeltaShard(os, 0, maxShardOrdinal, bitsPerSetPointer, totalOfSetBuckets);
         } else {
             /// overall max ordinal
             VarInt.writeVInt(os, maxOrdinal);
             
             for(int i=0;i<numShards;i++) {
-                writeCalculatedDeltaShard(os, i);
+                writeCalculatedDeltaShard(os, i, maxShardOrdinal, bitsPerSetPointer, totalOfSetBuckets);
             }
         }
         
@@ -426,7 +462,7 @@ public class HollowSetTypeWriteState extends HollowTypeWriteState {
         deltaRemovedOrdinals = null;
     }
     
-    private void writeCalculatedDeltaShard(DataOutputStream os, int shardNumber) throws IOException {
+    private void writeCalculatedDeltaShard(DataOutputStream os, int shardNumber, int[] maxShardOrdinal, int bitsPerSetPointer, long[] totalOfSetBuckets) throws IOException {
         
         int bitsPerSetFixedLengthPortion = bitsPerSetSizeValue + bitsPerSetPointer;
 
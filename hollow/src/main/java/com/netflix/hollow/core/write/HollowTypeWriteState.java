@@ -19,6 +19,7 @@ package com.netflix.hollow.core.write;
 import static com.netflix.hollow.core.write.HollowHashableWriteRecord.HashBehavior.IGNORED_HASHES;
 import static com.netflix.hollow.core.write.HollowHashableWriteRecord.HashBehavior.UNMIXED_HASHES;
 
+import com.netflix.hollow.core.HollowStateEngine;
 import com.netflix.hollow.core.memory.ByteArrayOrdinalMap;
 import com.netflix.hollow.core.memory.ByteDataArray;
 import com.netflix.hollow.core.memory.ThreadSafeBitSet;
@@ -27,21 +28,24 @@ import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.read.engine.PopulatedOrdinalListener;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.util.SimultaneousExecutor;
 import com.netflix.hollow.core.write.HollowHashableWriteRecord.HashBehavior;
 import com.netflix.hollow.core.write.copy.HollowRecordCopier;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.BitSet;
+import java.util.logging.Logger;
 
 /**
  * The {@link HollowTypeWriteState} contains and is the root handle to all of the records of a specific type in
  * a {@link HollowWriteStateEngine}.
  */
 public abstract class HollowTypeWriteState {
+    private static final Logger LOG = Logger.getLogger(HollowTypeWriteState.class.getName());
 
     protected final HollowSchema schema;
 
-    protected final ByteArrayOrdinalMap ordinalMap;
+    protected ByteArrayOrdinalMap ordinalMap;
     
     protected int numShards;
     protected int revNumShards;
@@ -103,6 +107,35 @@ public abstract class HollowTypeWriteState {
         return ordinal;
     }
 
+    /**
+     * Adds a batch of serialized records to this state, assigning the ordinals of all new records under a single
+     * acquisition of the ordinal map's lock per partition of the map.
+     *
+     * @param serializedRecords the serialized representations of the records
+     * @param numRecords the number of records in {@code serializedRecords} to add
+     * @param ordinals receives the ordinal of each added record
+     * @see HollowWriteRecordBatch
+     */
+    void add(ByteDataArray[] serializedRecords, int numRecords, int[] ordinals) {
+        if(!ordinalMap.isReadyForAddingObjects())
+            throw new RuntimeException("The HollowWriteStateEngine is not ready to add more Objects.  Did you remember to call stateEngine.prepareForNextCycle()?");
+        if(!canAddSerializedRecords())
+            throw new IllegalStateException("Serialized records cannot be added to a restored state for type " + schema.getName());
+
+        ordinalMap.getOrAssignOrdinals(serializedRecords, numRecords, ordinals);
+
+        for(int i=0;i<numRecords;i++)
+            currentCyclePopulated.set(ordinals[i]);
+    }
+
+    /**
+     * Serialized records cannot be matched to the records of a restored state, which are keyed by their
+     * representation in the restored schema.
+     */
+    boolean canAddSerializedRecords() {
+        return restoredMap == null;
+    }
+
     private int assignOrdinal(HollowWriteRecord rec) {
         ByteDataArray scratch = scratch();
         rec.writeDataTo(scratch);
@@ -251,6 +284,56 @@ public abstract class HollowTypeWriteState {
         return revNumShards;
     }
 
+    int[] calcMaxShardOrdinal(int maxOrdinal, int numShards) {
+        int[] maxShardOrdinal = new int[numShards];
+        int minRecordLocationsPerShard = (maxOrdinal + 1) / numShards;
+        for(int i=0;i<numShards;i++)
+            maxShardOrdinal[i] = (i < ((maxOrdinal + 1) & (numShards - 1))) ? minRecordLocationsPerShard : minRecordLocationsPerShard - 1;
+        return maxShardOrdinal;
+    }
+
+    boolean allowTypeResharding() {
+        if (stateEngine.allowTypeResharding()) {
+            if (isNumShardsPinned()) {
+                LOG.warning("Type re-sharding feature was enabled but num shards is pinned (likely using the " +
+                        "HollowShardLargeType annotation in the data model). Proceeding with fixed num shards.");
+                return false;
+            }
+        }
+        return stateEngine.allowTypeResharding();
+    }
+
+    /**
+     * Given the num shards that would best fit the data in this cycle, returns the num shards to write in this cycle.
+     * Num shards is limited to 2x or .5x of the prior cycle's num shards (retained in revNumShards), and a change is
+     * recorded in the resharding header tag.
+     */
+    int reshardedNumShards(int targetNumShards) {
+        if (targetNumShards == revNumShards)
+            return revNumShards;
+
+        // limit numShards to 2x or .5x of prevShards per producer cycle
+        int newNumShards = targetNumShards > revNumShards ? revNumShards * 2 : revNumShards / 2;
+
+        LOG.info(String.format("Num shards for type %s changing from %s to %s", schema.getName(), revNumShards, newNumShards));
+        addReshardingHeader(revNumShards, newNumShards);
+        return newNumShards;
+    }
+
+    /**
+     * A header tag indicating that num shards for a type has changed since the prior version. Its value encodes
+     * the type(s) that were re-sharded along with the before and after num shards in the fwd delta direction.
+     * For e.g. Movie:(2,4) Actor:(8,4)
+     */
+    private void addReshardingHeader(int prevNumShards, int newNumShards) {
+        String existing = stateEngine.getHeaderTag(HollowStateEngine.HEADER_TAG_TYPE_RESHARDING_INVOKED);
+        String appendTo = "";
+        if (existing != null) {
+            appendTo = existing + " ";
+        }
+        stateEngine.addHeaderTag(HollowStateEngine.HEADER_TAG_TYPE_RESHARDING_INVOKED, appendTo + schema.getName() + ":(" + prevNumShards + "," + newNumShards + ")");
+    }
+
     public void setNumShards(int numShards) {
         if(this.numShards == -1) {
             this.numShards = numShards;
@@ -315,14 +398,72 @@ public abstract class HollowTypeWriteState {
 
     public abstract void calculateSnapshot();
 
+    /**
+     * Calculates the snapshot of this type by submitting tasks to the given executor, which the caller must await
+     * before writing the snapshot.  Types which are able to calculate their shards independently submit a task per
+     * shard, otherwise the snapshot is calculated by a single task.
+     *
+     * @param executor the executor to calculate the snapshot with
+     */
+    public void calculateSnapshot(SimultaneousExecutor executor) {
+        executor.execute(this::calculateSnapshot);
+    }
+
     public abstract void writeSnapshot(DataOutputStream dos) throws IOException;
 
+    /**
+     * Writes the snapshot of this type without retaining the calculated snapshot of any other type, see
+     * {@link HollowWriteStateEngine#setStreamingSnapshotWrites(boolean)}.  Types which are able to encode their
+     * snapshot directly to the stream override this, otherwise the snapshot is calculated and then written.
+     *
+     * @param dos the stream to write the snapshot of this type to
+     * @throws IOException if the snapshot could not be written
+     */
+    public void writeStreamingSnapshot(DataOutputStream dos) throws IOException {
+        calculateSnapshot();
+        writeSnapshot(dos);
+    }
+
+    /**
+     * Marks the beginning of a shard's data in a snapshot, so that its location may be recorded in the blob's
+     * type offset index when one is being written.
+     */
+    protected static void beginSnapshotShard(DataOutputStream dos) {
+        if(dos instanceof TypeOffsetRecordingDataOutputStream)
+            ((TypeOffsetRecordingDataOutputStream) dos).beginShard();
+    }
+
+    protected static void endSnapshotShard(DataOutputStream dos) {
+        if(dos instanceof TypeOffsetRecordingDataOutputStream)
+            ((TypeOffsetRecordingDataOutputStream) dos).endShard();
+    }
+
     public abstract void calculateDelta();
 
+    /**
+     * Calculates the delta of this type by submitting tasks to the given executor, which the caller must await
+     * before writing the delta.  See {@link #calculateSnapshot(SimultaneousExecutor)}.
+     *
+     * @param executor the executor to calculate the delta with
+     */
+    public void calculateDelta(SimultaneousExecutor executor) {
+        executor.execute(this::calculateDelta);
+    }
+
     public abstract void writeDelta(DataOutputStream dos) throws IOException;
 
     public abstract void calculateReverseDelta();
 
+    /**
+     * Calculates the reverse delta of this type by submitting tasks to the given executor, which the caller must await
+     * before writing the reverse delta.  See {@link #calculateSnapshot(SimultaneousExecutor)}.
+     *
+     * @param executor the executor to calculate the reverse delta with
+     */
+    public void calculateReverseDelta(SimultaneousExecutor executor) {
+        executor.execute(this::calculateReverseDelta);
+    }
+
     public abstract void writeReverseDelta(DataOutputStream dos) throws IOException;
     
     protected void restoreFrom(HollowTypeReadState readState) {
@@ -341,7 +482,7 @@ public abstract class HollowTypeWriteState {
 
         // Size the restore ordinal map to avoid resizing when adding ordinals
         int size = populatedOrdinals.cardinality();
-        restoredMap = new ByteArrayOrdinalMap(size);
+        restoredMap = new ByteArrayOrdinalMap(size, ordinalMap.isOffHeap());
         int ordinal = populatedOrdinals.nextSetBit(0);
         while(ordinal != -1) {
             previousCyclePopulated.set(ordinal);
@@ -383,6 +524,10 @@ public abstract class HollowTypeWriteState {
     
     void setStateEngine(HollowWriteStateEngine writeEngine) {
         this.stateEngine = writeEngine;
+        if((writeEngine.isOffHeapOrdinalMaps() != ordinalMap.isOffHeap()
+                || writeEngine.getOrdinalMapPartitions() != ordinalMap.getNumPartitions())
+                && ordinalMap.getDataSize() == 0)
+            ordinalMap = new ByteArrayOrdinalMap(0, writeEngine.isOffHeapOrdinalMaps(), writeEngine.getOrdinalMapPartitions());
     }
     
     public HollowWriteStateEngine getStateEngine() {
@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.write;
+
+import com.netflix.hollow.core.memory.ByteDataArray;
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+
+/**
+ * A HollowWriteRecordBatch accumulates the serialized representations of records of a single type, and adds them to
+ * the type's {@link HollowTypeWriteState} together when the batch is full or flushed.  Ordinals for the new records in
+ * a batch are assigned under a single acquisition of the type's ordinal map lock per partition of the map.
+ * <p>
+ * A batch is not thread-safe, and is intended to be used by a single populating thread.  Records added to a batch are
+ * not present in the type state until the batch is flushed.
+ * <p>
+ * If the type state was restored from a prior state, records are added to the type state immediately, so that they
+ * may be assigned the ordinals of matching records in the restored state.
+ */
+public class HollowWriteRecordBatch {
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final HollowTypeWriteState typeState;
+    private final ByteDataArray serializedRecords[];
+    private final int ordinals[];
+    private int numRecords;
+
+    public HollowWriteRecordBatch(HollowTypeWriteState typeState) {
+        this(typeState, DEFAULT_BATCH_SIZE);
+    }
+
+    public HollowWriteRecordBatch(HollowTypeWriteState typeState, int batchSize) {
+        if(batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+
+        this.typeState = typeState;
+        this.serializedRecords = new ByteDataArray[batchSize];
+        this.ordinals = new int[batchSize];
+    }
+
+    /**
+     * Adds a record to this batch.  The record is serialized immediately, so it may be reused once this method returns.
+     *
+     * @param rec the record to add
+     */
+    public void add(HollowWriteRecord rec) {
+        if(!typeState.canAddSerializedRecords()) {
+            typeState.add(rec);
+            return;
+        }
+
+        ByteDataArray serializedRecord = serializedRecords[numRecords];
+        if(serializedRecord == null) {
+            serializedRecord = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+            serializedRecords[numRecords] = serializedRecord;
+        }
+        rec.writeDataTo(serializedRecord);
+
+        if(++numRecords == serializedRecords.length)
+            flush();
+    }
+
+    /**
+     * Adds the records accumulated in this batch to the type state.
+     */
+    public void flush() {
+        if(numRecords == 0)
+            return;
+
+        typeState.add(serializedRecords, numRecords, ordinals);
+
+        for(int i=0;i<numRecords;i++)
+            serializedRecords[i].reset();
+        numRecords = 0;
+    }
+
+}
@@ -19,6 +19,7 @@ package com.netflix.hollow.core.write;
 import com.netflix.hollow.api.error.HollowWriteStateException;
 import com.netflix.hollow.api.error.SchemaNotFoundException;
 import com.netflix.hollow.core.HollowStateEngine;
+import com.netflix.hollow.core.memory.ByteArrayOrdinalMap;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -74,6 +75,14 @@ public class HollowWriteStateEngine implements HollowStateEngine {
     private boolean focusHoleFillInFewestShards = false;
     //// adjust number of shards per type during the course of the delta chain to realize consumer-side delta applications at constant space overhead
     private boolean allowTypeResharding = false;
+    //// write a type offset index trailer in snapshots, allowing consumers with random access to skip over types
+    private boolean writeTypeOffsetIndex = false;
+    //// store the serialized records of each type outside of the Java heap
+    private boolean offHeapOrdinalMaps = false;
+    //// partition the hash table of each type's ordinal map, so that records may be added concurrently with less contention
+    private int ordinalMapPartitions = 1;
+    //// write snapshots one type at a time, encoding object types directly to the stream
+    private boolean streamingSnapshotWrites = false;
 
     private List<String> restoredStates;
     private boolean preparedForNextCycle = true;
@@ -463,6 +472,74 @@ public class HollowWriteStateEngine implements HollowStateEngine {
         return focusHoleFillInFewestShards;
     }
 
+    /**
+     * Experimental: Setting this will write a trailer to snapshot blobs recording the location of each type and type shard.
+     *
+     * Consumers which read snapshots from a local file may use it to skip over filtered types, and to locate types for
+     * parallel loading, without reading through each type's data. Consumers on older Hollow library versions ignore it.
+     */
+    public void setWriteTypeOffsetIndex(boolean writeTypeOffsetIndex) {
+        this.writeTypeOffsetIndex = writeTypeOffsetIndex;
+    }
+
+    boolean isWriteTypeOffsetIndex() {
+        return writeTypeOffsetIndex;
+    }
+
+    /**
+     * Experimental: Setting this will store the serialized records of each type in direct memory, outside of the Java heap.
+     *
+     * This reduces the heap size required by, and the garbage collection pauses of, producers of large data sets.
+     * Type states which already contain records are unaffected.
+     */
+    public synchronized void setOffHeapOrdinalMaps(boolean offHeapOrdinalMaps) {
+        this.offHeapOrdinalMaps = offHeapOrdinalMaps;
+        for(HollowTypeWriteState writeState : writeStates.values())
+            writeState.setStateEngine(this);
+    }
+
+    public boolean isOffHeapOrdinalMaps() {
+        return offHeapOrdinalMaps;
+    }
+
+    /**
+     * Experimental: Setting this will partition the hash table of each type's ordinal map into the given number of
+     * independently locked partitions.
+     *
+     * This reduces lock contention when many threads add records of the same type concurrently.
+     * Type states which already contain records are unaffected.
+     *
+     * @param ordinalMapPartitions the number of partitions, a power of 2 no greater than {@link ByteArrayOrdinalMap#MAX_PARTITIONS}
+     */
+    public synchronized void setOrdinalMapPartitions(int ordinalMapPartitions) {
+        if(ordinalMapPartitions <= 0 || ordinalMapPartitions > ByteArrayOrdinalMap.MAX_PARTITIONS
+                || (ordinalMapPartitions & (ordinalMapPartitions - 1)) != 0)
+            throw new IllegalArgumentException("The number of ordinal map partitions must be a power of 2 no greater than "
+                    + ByteArrayOrdinalMap.MAX_PARTITIONS + ", but was " + ordinalMapPartitions);
+        this.ordinalMapPartitions = ordinalMapPartitions;
+        for(HollowTypeWriteState writeState : writeStates.values())
+            writeState.setStateEngine(this);
+    }
+
+    public int getOrdinalMapPartitions() {
+        return ordinalMapPartitions;
+    }
+
+    /**
+     * Experimental: Setting this will write snapshots in bounded memory, rather than first calculating the snapshot
+     * of every type in parallel and then writing them.
+     *
+     * Object types are encoded directly to the stream from their serialized records, and the snapshot of each other
+     * type is calculated just before it is written.  The written snapshot is unchanged, but takes longer to write.
+     */
+    public void setStreamingSnapshotWrites(boolean streamingSnapshotWrites) {
+        this.streamingSnapshotWrites = streamingSnapshotWrites;
+    }
+
+    boolean isStreamingSnapshotWrites() {
+        return streamingSnapshotWrites;
+    }
+
     private long mintNewRandomizedStateTag() {
         Random rand = new Random();
         
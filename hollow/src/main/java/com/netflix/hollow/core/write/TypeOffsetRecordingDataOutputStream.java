@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2016-2024 Netflix, Inc.
+ *
+ *     Licensed under the Apache License, Version 2.0 (the "License");
+ *     you may not use this file except in compliance with the License.
+ *     You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *     Unless required by applicable law or agreed to in writing, software
+ *     distributed under the License is distributed on an "AS IS" BASIS,
+ *     WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     See the License for the specific language governing permissions and
+ *     limitations under the License.
+ *
+ */
+package com.netflix.hollow.core.write;
+
+import com.netflix.hollow.core.HollowBlobTypeOffsetIndex;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DataOutputStream which tracks its position in the blob being written, and records the byte ranges of the types
+ * and type shards written to it into a {@link HollowBlobTypeOffsetIndex}.
+ */
+class TypeOffsetRecordingDataOutputStream extends DataOutputStream {
+
+    private final HollowBlobTypeOffsetIndex index = new HollowBlobTypeOffsetIndex();
+
+    private String currentTypeName;
+    private long currentTypeOffset;
+    private final List<long[]> currentShardRanges = new ArrayList<>();
+
+    TypeOffsetRecordingDataOutputStream(OutputStream os) {
+        super(new PositionTrackingOutputStream(os));
+    }
+
+    long position() {
+        return ((PositionTrackingOutputStream) out).position;
+    }
+
+    HollowBlobTypeOffsetIndex getIndex() {
+        return index;
+    }
+
+    void beginType(String typeName) {
+        currentTypeName = typeName;
+        currentTypeOffset = position();
+        currentShardRanges.clear();
+    }
+
+    void beginShard() {
+        currentShardRanges.add(new long[] { position(), -1 });
+    }
+
+    void endShard() {
+        long[] range = currentShardRanges.get(currentShardRanges.size() - 1);
+        range[1] = position() - range[0];
+    }
+
+    void endType() {
+        long[] shardOffsets = new long[currentShardRanges.size()];
+        long[] shardLengths = new long[currentShardRanges.size()];
+        for(int i=0;i<shardOffsets.length;i++) {
+            shardOffsets[i] = currentShardRanges.get(i)[0];
+            shardLengths[i] = currentShardRanges.get(i)[1];
+        }
+
+        index.addType(new HollowBlobTypeOffsetIndex.TypeOffsets(currentTypeName, currentTypeOffset,
+                position() - currentTypeOffset, shardOffsets, shardLengths));
+        currentTypeName = null;
+    }
+
+    private static class PositionTrackingOutputStream extends FilterOutputStream {
+        private long position;
+
+        PositionTrackingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+    }
+}
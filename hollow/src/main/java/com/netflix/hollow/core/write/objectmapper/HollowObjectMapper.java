@@ -18,6 +18,7 @@ package com.netflix.hollow.core.write.objectmapper;
 
 import com.netflix.hollow.api.objects.HollowRecord;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.write.HollowWriteRecordBatch;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecord;
 import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordReader;
@@ -32,6 +33,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class HollowObjectMapper {
 
@@ -78,6 +80,38 @@ public class HollowObjectMapper {
         return typeMapper.write(o);
     }
 
+    /**
+     * Adds each of the specified POJOs to the state engine.
+     * <p>
+     * If the stream is parallel, the POJOs are added concurrently by the threads processing the stream.  Each thread
+     * serializes the POJOs it processes into batches of its own, and the ordinals of each batch are assigned under a
+     * single acquisition of the type's ordinal map lock, rather than one acquisition per POJO.  POJOs referenced by the
+     * specified POJOs are added as if by {@link #add(Object)}.
+     * <p>
+     * All of the POJOs have been added when this method returns.
+     *
+     * @param objects the POJOs to add
+     */
+    public void addAll(Stream<?> objects) {
+        Map<Thread, Map<HollowTypeMapper, HollowWriteRecordBatch>> batchesByThread = new ConcurrentHashMap<>();
+
+        objects.forEach(o -> {
+            HollowTypeMapper typeMapper = getTypeMapper(o.getClass(), null, null);
+            Map<HollowTypeMapper, HollowWriteRecordBatch> batches = batchesByThread.computeIfAbsent(Thread.currentThread(), t -> new HashMap<>());
+            HollowWriteRecordBatch batch = batches.get(typeMapper);
+            if(batch == null) {
+                batch = typeMapper.newWriteRecordBatch();
+                batches.put(typeMapper, batch);
+            }
+            typeMapper.writeBatched(o, batch);
+        });
+
+        for(Map<HollowTypeMapper, HollowWriteRecordBatch> batches : batchesByThread.values()) {
+            for(HollowWriteRecordBatch batch : batches.values())
+                batch.flush();
+        }
+    }
+
     public <T> T readHollowRecord(HollowRecord record) {
         HollowTypeMapper typeMapper = typeMappers.get(record.getSchema().getName());
         if (typeMapper == null) {
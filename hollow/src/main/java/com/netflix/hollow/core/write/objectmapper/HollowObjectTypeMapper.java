@@ -18,8 +18,10 @@ package com.netflix.hollow.core.write.objectmapper;
 
 import com.netflix.hollow.api.objects.HollowRecord;
 import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.objects.generic.GenericHollowRecordHelper;
 import com.netflix.hollow.core.index.key.PrimaryKey;
 import com.netflix.hollow.core.memory.HollowUnsafeHandle;
+import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.schema.HollowSchema;
@@ -27,6 +29,7 @@ import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.core.write.HollowTypeWriteState;
 import com.netflix.hollow.core.write.HollowWriteRecord;
+import com.netflix.hollow.core.write.HollowWriteRecordBatch;
 import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordReader;
 import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordWriter;
 import java.lang.reflect.Field;
@@ -60,6 +63,7 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
     private final List<MappedField> mappedFields;
     
     private volatile int primaryKeyFieldPathIdx[][];
+    private volatile RecordFieldPositions recordFieldPositions;
 
     public HollowObjectTypeMapper(HollowObjectMapper parentMapper, Class<?> clazz, String declaredTypeName, Set<Type> visited) {
         this.parentMapper = parentMapper;
@@ -130,6 +134,7 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
             } else {
                 schema.addField(field.getFieldName(), field.getFieldType().getSchemaFieldType());
             }
+            field.fieldPosition = schema.getPosition(field.getFieldName());
         }
 
         HollowObjectTypeWriteState existingWriteState = (HollowObjectTypeWriteState) parentMapper.getStateEngine().getTypeState(typeName);
@@ -182,6 +187,17 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
         return assignedOrdinal;
     }
 
+    @Override
+    protected void writeBatched(Object obj, HollowWriteRecordBatch batch) {
+        /// the assigned ordinal is recorded on the object as soon as it is written
+        if (hasAssignedOrdinalField) {
+            write(obj);
+            return;
+        }
+
+        batch.add(copyToWriteRecord(obj, null));
+    }
+
     @Override
     public int writeFlat(Object obj, FlatRecordWriter flatRecordWriter) {
         HollowObjectWriteRecord rec = copyToWriteRecord(obj, flatRecordWriter);
@@ -229,10 +245,11 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
                 }
             } else {
                 obj = unsafe.allocateInstance(clazz);
+                int[] positionsInPojoSchema = getPositionsInPojoSchema(objectSchema);
                 for (int i = 0; i < objectSchema.numFields(); i++) {
-                    int posInPojoSchema = schema.getPosition(objectSchema.getFieldName(i));
+                    int posInPojoSchema = positionsInPojoSchema[i];
                     if (posInPojoSchema != -1) {
-                        mappedFields.get(posInPojoSchema).copy(hollowObject, obj);
+                        mappedFields.get(posInPojoSchema).copy(hollowObject, i, obj);
                     }
                 }
             }
@@ -275,8 +292,9 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
                 }
             } else {
                 obj = unsafe.allocateInstance(clazz);
+                int[] positionsInPojoSchema = getPositionsInPojoSchema(recordObjectSchema);
                 for (int i = 0; i < recordObjectSchema.numFields(); i++) {
-                    int posInPojoSchema = schema.getPosition(recordObjectSchema.getFieldName(i));
+                    int posInPojoSchema = positionsInPojoSchema[i];
                     if (posInPojoSchema != -1) {
                         mappedFields.get(posInPojoSchema).parse(obj, reader, parsedObjects);
                     } else {
@@ -291,6 +309,20 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
         }
     }
 
+    /**
+     * Returns the position in this type's schema of each field in the schema of records being parsed, or -1 for
+     * fields which are not mapped.  The positions for the last record schema seen are retained, since parsed records
+     * nearly always share a schema.
+     */
+    private int[] getPositionsInPojoSchema(HollowObjectSchema recordSchema) {
+        RecordFieldPositions recordFieldPositions = this.recordFieldPositions;
+        if(recordFieldPositions == null || recordFieldPositions.recordSchema != recordSchema) {
+            recordFieldPositions = new RecordFieldPositions(recordSchema, schema);
+            this.recordFieldPositions = recordFieldPositions;
+        }
+        return recordFieldPositions.positionsInPojoSchema;
+    }
+
     Object[] extractPrimaryKey(Object obj) {
         int[][] primaryKeyFieldPathIdx = this.primaryKeyFieldPathIdx;
         
@@ -346,6 +378,11 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
         return mappedFields.get(fieldPathIdx[idx]).retrieveFieldValue(obj, fieldPathIdx, idx);
     }
 
+    private static boolean readBoolean(HollowObjectTypeDataAccess dataAccess, int ordinal, int fieldIdx) {
+        Boolean bool = dataAccess.readBoolean(ordinal, fieldIdx);
+        return bool == null ? false : bool.booleanValue();
+    }
+
     private class MappedField {
 
         private final String fieldName;
@@ -357,6 +394,7 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
         private final HollowHashKey hashKeyAnnotation;
         private final HollowShardLargeType numShardsAnnotation;
         private final boolean isInlinedField;
+        private int fieldPosition;
 
         private MappedField(Field f) {
             this(f, new HashSet<Type>());
@@ -472,227 +510,232 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
             
             switch(fieldType) {
                 case BOOLEAN:
-                    rec.setBoolean(fieldName, unsafe.getBoolean(obj, fieldOffset));
+                    rec.setBoolean(fieldPosition, unsafe.getBoolean(obj, fieldOffset));
                     break;
                 case INT:
-                    rec.setInt(fieldName, unsafe.getInt(obj, fieldOffset));
+                    rec.setInt(fieldPosition, unsafe.getInt(obj, fieldOffset));
                     break;
                 case SHORT:
-                    rec.setInt(fieldName, unsafe.getShort(obj, fieldOffset));
+                    rec.setInt(fieldPosition, unsafe.getShort(obj, fieldOffset));
                     break;
                 case BYTE:
-                    rec.setInt(fieldName, unsafe.getByte(obj, fieldOffset));
+                    rec.setInt(fieldPosition, unsafe.getByte(obj, fieldOffset));
                     break;
                 case CHAR:
-                    rec.setInt(fieldName, unsafe.getChar(obj, fieldOffset));
+                    rec.setInt(fieldPosition, unsafe.getChar(obj, fieldOffset));
                     break;
                 case LONG:
-                    rec.setLong(fieldName, unsafe.getLong(obj, fieldOffset));
+                    rec.setLong(fieldPosition, unsafe.getLong(obj, fieldOffset));
                     break;
                 case DOUBLE:
                     double d = unsafe.getDouble(obj, fieldOffset);
                     if(!Double.isNaN(d))
-                        rec.setDouble(fieldName, d);
+                        rec.setDouble(fieldPosition, d);
                     break;
                 case FLOAT:
                     float f = unsafe.getFloat(obj, fieldOffset);
                     if(!Float.isNaN(f))
-                        rec.setFloat(fieldName, f);
+                        rec.setFloat(fieldPosition, f);
                     break;
                 case STRING:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setString(fieldName, getStringFromField(obj, fieldObject));
+                        rec.setString(fieldPosition, getStringFromField(obj, fieldObject));
                     break;
                 case BYTES:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setBytes(fieldName, (byte[])fieldObject);
+                        rec.setBytes(fieldPosition, (byte[])fieldObject);
                     break;
                 case INLINED_BOOLEAN:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setBoolean(fieldName, ((Boolean)fieldObject).booleanValue());
+                        rec.setBoolean(fieldPosition, ((Boolean)fieldObject).booleanValue());
                     break;
                 case INLINED_INT:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setInt(fieldName, ((Integer)fieldObject).intValue());
+                        rec.setInt(fieldPosition, ((Integer)fieldObject).intValue());
                     break;
                 case INLINED_SHORT:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setInt(fieldName, ((Short)fieldObject).intValue());
+                        rec.setInt(fieldPosition, ((Short)fieldObject).intValue());
                     break;
                 case INLINED_BYTE:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setInt(fieldName, ((Byte)fieldObject).intValue());
+                        rec.setInt(fieldPosition, ((Byte)fieldObject).intValue());
                     break;
                 case INLINED_CHAR:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setInt(fieldName, (int)((Character)fieldObject).charValue());
+                        rec.setInt(fieldPosition, (int)((Character)fieldObject).charValue());
                     break;
                 case INLINED_LONG:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setLong(fieldName, ((Long)fieldObject).longValue());
+                        rec.setLong(fieldPosition, ((Long)fieldObject).longValue());
                     break;
                 case INLINED_DOUBLE:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setDouble(fieldName, ((Double)fieldObject).doubleValue());
+                        rec.setDouble(fieldPosition, ((Double)fieldObject).doubleValue());
                     break;
                 case INLINED_FLOAT:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setFloat(fieldName, ((Float)fieldObject).floatValue());
+                        rec.setFloat(fieldPosition, ((Float)fieldObject).floatValue());
                     break;
                 case INLINED_STRING:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setString(fieldName, (String)fieldObject);
+                        rec.setString(fieldPosition, (String)fieldObject);
                     break;
                 case NULLABLE_PRIMITIVE_BOOLEAN:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null)
-                        rec.setBoolean(fieldName, ((NullablePrimitiveBoolean)fieldObject).getBooleanValue());
+                        rec.setBoolean(fieldPosition, ((NullablePrimitiveBoolean)fieldObject).getBooleanValue());
                     break;
                 case DATE_TIME:
-                    rec.setLong(fieldName, ((Date)obj).getTime());
+                    rec.setLong(fieldPosition, ((Date)obj).getTime());
                     break;
                 case ENUM_NAME:
-                    rec.setString(fieldName, ((Enum<?>)obj).name());
+                    rec.setString(fieldPosition, ((Enum<?>)obj).name());
                     break;
                 case REFERENCE:
                     fieldObject = unsafe.getObject(obj, fieldOffset);
                     if(fieldObject != null) {
                     	if(flatRecordWriter == null)
-                    		rec.setReference(fieldName, subTypeMapper.write(fieldObject));
+                    		rec.setReference(fieldPosition, subTypeMapper.write(fieldObject));
                     	else
-                    		rec.setReference(fieldName, subTypeMapper.writeFlat(fieldObject, flatRecordWriter));
+                    		rec.setReference(fieldPosition, subTypeMapper.writeFlat(fieldObject, flatRecordWriter));
                     }
                     break;
             }
         }
 
-        public void copy(GenericHollowObject rec, Object pojo) {
+        public void copy(GenericHollowObject rec, int recordFieldIdx, Object pojo) {
+            HollowObjectTypeDataAccess dataAccess = rec.getTypeDataAccess();
+            int ordinal = rec.getOrdinal();
+
             switch(fieldType) {
                 case BOOLEAN:
-                    unsafe.putBoolean(pojo, fieldOffset, rec.getBoolean(fieldName));
+                    unsafe.putBoolean(pojo, fieldOffset, readBoolean(dataAccess, ordinal, recordFieldIdx));
                     break;
                 case INT:
-                    int intValue = rec.getInt(fieldName);
+                    int intValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (intValue != Integer.MIN_VALUE) {
                         unsafe.putInt(pojo, fieldOffset, intValue);
                     }
                     break;
                 case SHORT:
-                    int shortValue = rec.getInt(fieldName);
+                    int shortValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (shortValue != Integer.MIN_VALUE) {
                         unsafe.putShort(pojo, fieldOffset, (short) shortValue);
                     }
                     break;
                 case BYTE:
-                    int byteValue = rec.getInt(fieldName);
+                    int byteValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (byteValue != Integer.MIN_VALUE) {
                         unsafe.putByte(pojo, fieldOffset, (byte) byteValue);
                     }
                     break;
                 case CHAR:
-                    int charValue = rec.getInt(fieldName);
+                    int charValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (charValue != Integer.MIN_VALUE) {
                         unsafe.putChar(pojo, fieldOffset, (char) charValue);
                     }
                     break;
                 case LONG:
-                    long longValue = rec.getLong(fieldName);
+                    long longValue = dataAccess.readLong(ordinal, recordFieldIdx);
                     if (longValue != Long.MIN_VALUE) {
                         unsafe.putLong(pojo, fieldOffset, longValue);
                     }
                     break;
                 case DOUBLE:
-                    double doubleValue = rec.getDouble(fieldName);
+                    double doubleValue = dataAccess.readDouble(ordinal, recordFieldIdx);
                     if (!Double.isNaN(doubleValue)) {
                         unsafe.putDouble(pojo, fieldOffset, doubleValue);
                     }
                     break;
                 case FLOAT:
-                    float floatValue = rec.getFloat(fieldName);
+                    float floatValue = dataAccess.readFloat(ordinal, recordFieldIdx);
                     if (!Float.isNaN(floatValue)) {
                         unsafe.putFloat(pojo, fieldOffset, floatValue);
                     }
                     break;
                 case STRING:
-                    unsafe.putObject(pojo, fieldOffset, rec.getString(fieldName));
+                    unsafe.putObject(pojo, fieldOffset, dataAccess.readString(ordinal, recordFieldIdx));
                     break;
                 case BYTES:
-                    unsafe.putObject(pojo, fieldOffset, rec.getBytes(fieldName));
+                    unsafe.putObject(pojo, fieldOffset, dataAccess.readBytes(ordinal, recordFieldIdx));
                     break;
                 case INLINED_BOOLEAN:
-                    unsafe.putObject(pojo, fieldOffset, Boolean.valueOf(rec.getBoolean(fieldName)));
+                    unsafe.putObject(pojo, fieldOffset, Boolean.valueOf(readBoolean(dataAccess, ordinal, recordFieldIdx)));
                     break;
                 case INLINED_INT:
-                    int inlinedIntValue = rec.getInt(fieldName);
+                    int inlinedIntValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (inlinedIntValue != Integer.MIN_VALUE) {
                         unsafe.putObject(pojo, fieldOffset, Integer.valueOf(inlinedIntValue));
                     }
                     break;
                 case INLINED_SHORT:
-                    int inlinedShortValue = rec.getInt(fieldName);
+                    int inlinedShortValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (inlinedShortValue != Integer.MIN_VALUE) {
                         unsafe.putObject(pojo, fieldOffset, Short.valueOf((short) inlinedShortValue));
                     }
                     break;
                 case INLINED_BYTE:
-                    int inlinedByteValue = rec.getInt(fieldName);
+                    int inlinedByteValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (inlinedByteValue != Integer.MIN_VALUE) {
                         unsafe.putObject(pojo, fieldOffset, Byte.valueOf((byte) inlinedByteValue));
                     }
                     break;
                 case INLINED_CHAR:
-                    int inlinedCharValue = rec.getInt(fieldName);
+                    int inlinedCharValue = dataAccess.readInt(ordinal, recordFieldIdx);
                     if (inlinedCharValue != Integer.MIN_VALUE) {
                         unsafe.putObject(pojo, fieldOffset, Character.valueOf((char) inlinedCharValue));
                     }
                     break;
                 case INLINED_LONG:
-                    long inlinedLongValue = rec.getLong(fieldName);
+                    long inlinedLongValue = dataAccess.readLong(ordinal, recordFieldIdx);
                     if (inlinedLongValue != Long.MIN_VALUE) {
                         unsafe.putObject(pojo, fieldOffset, Long.valueOf(inlinedLongValue));
                     }
                     break;
                 case INLINED_DOUBLE:
-                    double inlinedDoubleValue = rec.getDouble(fieldName);
+                    double inlinedDoubleValue = dataAccess.readDouble(ordinal, recordFieldIdx);
                     if (!Double.isNaN(inlinedDoubleValue)) {
                         unsafe.putObject(pojo, fieldOffset, Double.valueOf(inlinedDoubleValue));
                     }
                     break;
                 case INLINED_FLOAT:
-                    float inlinedFloatValue = rec.getFloat(fieldName);
+                    float inlinedFloatValue = dataAccess.readFloat(ordinal, recordFieldIdx);
                     if (!Float.isNaN(inlinedFloatValue)) {
                         unsafe.putObject(pojo, fieldOffset, Float.valueOf(inlinedFloatValue));
                     }
                     break;
                 case INLINED_STRING:
-                    unsafe.putObject(pojo, fieldOffset, rec.getString(fieldName));
+                    unsafe.putObject(pojo, fieldOffset, dataAccess.readString(ordinal, recordFieldIdx));
                     break;
                 case DATE_TIME:
-                    long dateValue = rec.getLong(fieldName);
+                    long dateValue = dataAccess.readLong(ordinal, recordFieldIdx);
                     if (dateValue != Long.MIN_VALUE) {
                         unsafe.putObject(pojo, fieldOffset, new Date(dateValue));
                     }
                     break;
                 case ENUM_NAME:
-                    String enumNameValue = rec.getString(fieldName);
+                    String enumNameValue = dataAccess.readString(ordinal, recordFieldIdx);
                     if (enumNameValue != null) {
                         unsafe.putObject(pojo, fieldOffset, Enum.valueOf((Class<Enum>) type, enumNameValue));
                     }
                     break;
                 case REFERENCE:
-                    HollowRecord fieldRecord = rec.getReferencedGenericRecord(fieldName);
-                    if(fieldRecord != null) {
+                    String referencedType = dataAccess.getSchema().getReferencedType(recordFieldIdx);
+                    int referencedOrdinal = referencedType == null ? -1 : dataAccess.readOrdinal(ordinal, recordFieldIdx);
+                    if(referencedOrdinal != -1) {
+                        HollowRecord fieldRecord = GenericHollowRecordHelper.instantiate(dataAccess.getDataAccess(), referencedType, referencedOrdinal);
                         unsafe.putObject(pojo, fieldOffset, subTypeMapper.parseHollowRecord(fieldRecord));
                     }
                     break;
@@ -1088,6 +1131,18 @@ public class HollowObjectTypeMapper extends HollowTypeMapper {
         }
     }
 
+    private static class RecordFieldPositions {
+        private final HollowObjectSchema recordSchema;
+        private final int[] positionsInPojoSchema;
+
+        private RecordFieldPositions(HollowObjectSchema recordSchema, HollowObjectSchema pojoSchema) {
+            this.recordSchema = recordSchema;
+            this.positionsInPojoSchema = new int[recordSchema.numFields()];
+            for(int i=0;i<positionsInPojoSchema.length;i++)
+                positionsInPojoSchema[i] = pojoSchema.getPosition(recordSchema.getFieldName(i));
+        }
+    }
+
     private static enum MappedFieldType {
         BOOLEAN(FieldType.BOOLEAN),
         NULLABLE_PRIMITIVE_BOOLEAN(FieldType.BOOLEAN),
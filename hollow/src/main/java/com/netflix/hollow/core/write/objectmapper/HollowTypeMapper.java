@@ -21,6 +21,7 @@ import com.netflix.hollow.core.memory.ByteDataArray;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.write.HollowTypeWriteState;
 import com.netflix.hollow.core.write.HollowWriteRecord;
+import com.netflix.hollow.core.write.HollowWriteRecordBatch;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordReader;
 import com.netflix.hollow.core.write.objectmapper.flatrecords.FlatRecordWriter;
@@ -44,6 +45,21 @@ public abstract class HollowTypeMapper {
 
     protected abstract int writeFlat(Object obj, FlatRecordWriter flatRecordWriter);
 
+    /**
+     * Writes the object into a batch of records of this type, which assigns its ordinal when the batch is flushed.
+     * Mappers which must know the object's ordinal as soon as it is written add it immediately.
+     *
+     * @param obj the object to write
+     * @param batch the batch, which was created by {@link #newWriteRecordBatch()} for this type
+     */
+    protected void writeBatched(Object obj, HollowWriteRecordBatch batch) {
+        write(obj);
+    }
+
+    protected HollowWriteRecordBatch newWriteRecordBatch() {
+        return new HollowWriteRecordBatch(getTypeWriteState());
+    }
+
     protected abstract Object parseHollowRecord(HollowRecord record);
     
     protected abstract Object parseFlatRecord(HollowSchema schema, FlatRecordReader reader, Map<Integer, Object> parsedObjects);
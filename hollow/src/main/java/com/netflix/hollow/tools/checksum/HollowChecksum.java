@@ -18,11 +18,13 @@ package com.netflix.hollow.tools.checksum;
 
 import com.netflix.hollow.core.memory.encoding.HashCodes;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.IncrementalChecksumListener;
 import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.util.SimultaneousExecutor;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Vector;
+import java.util.List;
 
 /**
  * Can be used to generate checksums for data contained in a {@link HollowReadStateEngine}.
@@ -70,19 +72,16 @@ public class HollowChecksum {
     }
     
     public static HollowChecksum forStateEngineWithCommonSchemas(HollowReadStateEngine stateEngine, HollowReadStateEngine commonSchemasWithState) {
-        final Vector<TypeChecksum> typeChecksums = new Vector<TypeChecksum>();
+        final List<TypeChecksumSegments> typeChecksumSegments = new ArrayList<TypeChecksumSegments>();
         SimultaneousExecutor executor = new SimultaneousExecutor(HollowChecksum.class, "checksum-common-schemas");
 
+        // the segments of every type are calculated in parallel, so that the largest type does not bound the duration
         for(final HollowTypeReadState typeState : stateEngine.getTypeStates()) {
             HollowTypeReadState commonSchemasWithType = commonSchemasWithState.getTypeState(typeState.getSchema().getName());
             if(commonSchemasWithType != null) {
                 final HollowSchema commonSchemasWith = commonSchemasWithType.getSchema();
-                executor.execute(new Runnable() {
-                    public void run() {
-                        HollowChecksum cksum = typeState.getChecksum(commonSchemasWith);
-                        typeChecksums.addElement(new TypeChecksum(typeState.getSchema().getName(), cksum));
-                    }
-                });
+                HollowChecksum[] segments = typeState.submitChecksumSegments(commonSchemasWith, executor);
+                typeChecksumSegments.add(new TypeChecksumSegments(typeState.getSchema().getName(), segments));
             }
         }
 
@@ -92,6 +91,63 @@ public class HollowChecksum {
             throw new RuntimeException(e);
         }
 
+        List<TypeChecksum> typeChecksums = new ArrayList<TypeChecksum>();
+        for(TypeChecksumSegments segments : typeChecksumSegments)
+            typeChecksums.add(new TypeChecksum(segments.type, combineSegments(segments.segments)));
+
+        Collections.sort(typeChecksums);
+
+        HollowChecksum totalChecksum = new HollowChecksum();
+
+        for(TypeChecksum cksum : typeChecksums) {
+            totalChecksum.applyInt(cksum.getChecksum());
+        }
+
+        return totalChecksum;
+    }
+
+    /**
+     * Combines the segments of a type's checksum, in order.  Segments to which no records were applied are omitted.
+     *
+     * @param segments the segments of the checksum
+     * @return the checksum
+     * @see HollowTypeReadState#submitChecksumSegments(HollowSchema, java.util.concurrent.Executor)
+     */
+    public static HollowChecksum combineSegments(HollowChecksum[] segments) {
+        HollowChecksum checksum = new HollowChecksum();
+        for(HollowChecksum segment : segments) {
+            if(segment.currentChecksum != 0)
+                checksum.applyInt(segment.currentChecksum);
+        }
+        return checksum;
+    }
+
+    /**
+     * Calculates a checksum of the types in common between two state engines from the order-independent checksums
+     * maintained by each type, without traversing the records of the types.  The types must have identical schemas
+     * in both state engines, and both state engines must maintain incremental checksums.
+     * <p>
+     * The returned checksum may only be compared with other checksums calculated by this method.
+     *
+     * @param stateEngine the state engine to calculate the checksum of
+     * @param commonTypesWithState the state engine whose types are checksummed
+     * @return the checksum
+     * @see HollowReadStateEngine#setMaintainIncrementalChecksums(boolean)
+     * @see #canChecksumIncrementally(HollowReadStateEngine, HollowReadStateEngine)
+     */
+    public static HollowChecksum forStateEngineIncrementally(HollowReadStateEngine stateEngine, HollowReadStateEngine commonTypesWithState) {
+        List<TypeChecksum> typeChecksums = new ArrayList<TypeChecksum>();
+
+        for(HollowTypeReadState typeState : stateEngine.getTypeStates()) {
+            HollowTypeReadState commonTypeState = commonTypesWithState.getTypeState(typeState.getSchema().getName());
+            if(commonTypeState != null) {
+                IncrementalChecksumListener listener = typeState.getListener(IncrementalChecksumListener.class);
+                if(listener == null || !typeState.getSchema().equals(commonTypeState.getSchema()))
+                    throw new IllegalStateException("Cannot calculate an incremental checksum of type " + typeState.getSchema().getName());
+                typeChecksums.add(new TypeChecksum(typeState.getSchema().getName(), listener.getChecksum()));
+            }
+        }
+
         Collections.sort(typeChecksums);
 
         HollowChecksum totalChecksum = new HollowChecksum();
@@ -103,6 +159,34 @@ public class HollowChecksum {
         return totalChecksum;
     }
 
+    /**
+     * @param stateEngine a state engine
+     * @param commonTypesWithState another state engine
+     * @return whether both state engines maintain incremental checksums of their types in common, and those types
+     * have identical schemas
+     */
+    public static boolean canChecksumIncrementally(HollowReadStateEngine stateEngine, HollowReadStateEngine commonTypesWithState) {
+        for(HollowTypeReadState typeState : stateEngine.getTypeStates()) {
+            HollowTypeReadState commonTypeState = commonTypesWithState.getTypeState(typeState.getSchema().getName());
+            if(commonTypeState != null) {
+                if(typeState.getListener(IncrementalChecksumListener.class) == null
+                        || commonTypeState.getListener(IncrementalChecksumListener.class) == null
+                        || !typeState.getSchema().equals(commonTypeState.getSchema()))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static class TypeChecksumSegments {
+        private final String type;
+        private final HollowChecksum[] segments;
+
+        TypeChecksumSegments(String type, HollowChecksum[] segments) {
+            this.type = type;
+            this.segments = segments;
+        }
+    }
 
     private static class TypeChecksum implements Comparable<TypeChecksum>{
         private final String type;
@@ -113,6 +197,11 @@ public class HollowChecksum {
             this.checksum = cksum.intValue();
         }
 
+        public TypeChecksum(String type, long cksum) {
+            this.type = type;
+            this.checksum = HashCodes.hashLong(cksum);
+        }
+
         public int getChecksum() {
             return checksum;
         }
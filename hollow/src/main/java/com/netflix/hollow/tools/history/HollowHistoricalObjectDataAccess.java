@@ -134,6 +134,56 @@ public class HollowHistoricalObjectDataAccess extends HollowHistoricalTypeDataAc
         return removedRecords().isStringFieldEqual(getMappedOrdinal(ordinal), fieldIndex, testValue);
     }
 
+    @Override
+    public boolean isStringFieldEqual(int ordinal, int fieldIndex, CharSequence testValue) {
+        sampler().recordFieldAccess(fieldIndex);
+        recordStackTrace();
+
+        if(!ordinalIsPresent(ordinal))
+            return ((HollowObjectTypeDataAccess)dataAccess.getTypeDataAccess(getSchema().getName(), ordinal)).isStringFieldEqual(ordinal, fieldIndex, testValue);
+        return removedRecords().isStringFieldEqual(getMappedOrdinal(ordinal), fieldIndex, testValue);
+    }
+
+    @Override
+    public int compareStringField(int ordinal, int fieldIndex, CharSequence testValue) {
+        sampler().recordFieldAccess(fieldIndex);
+        recordStackTrace();
+
+        if(!ordinalIsPresent(ordinal))
+            return ((HollowObjectTypeDataAccess)dataAccess.getTypeDataAccess(getSchema().getName(), ordinal)).compareStringField(ordinal, fieldIndex, testValue);
+        return removedRecords().compareStringField(getMappedOrdinal(ordinal), fieldIndex, testValue);
+    }
+
+    @Override
+    public boolean isStringFieldPrefixedBy(int ordinal, int fieldIndex, CharSequence prefix) {
+        sampler().recordFieldAccess(fieldIndex);
+        recordStackTrace();
+
+        if(!ordinalIsPresent(ordinal))
+            return ((HollowObjectTypeDataAccess)dataAccess.getTypeDataAccess(getSchema().getName(), ordinal)).isStringFieldPrefixedBy(ordinal, fieldIndex, prefix);
+        return removedRecords().isStringFieldPrefixedBy(getMappedOrdinal(ordinal), fieldIndex, prefix);
+    }
+
+    @Override
+    public int readStringInto(int ordinal, int fieldIndex, char[] dest) {
+        sampler().recordFieldAccess(fieldIndex);
+        recordStackTrace();
+
+        if(!ordinalIsPresent(ordinal))
+            return ((HollowObjectTypeDataAccess)dataAccess.getTypeDataAccess(getSchema().getName(), ordinal)).readStringInto(ordinal, fieldIndex, dest);
+        return removedRecords().readStringInto(getMappedOrdinal(ordinal), fieldIndex, dest);
+    }
+
+    @Override
+    public boolean readStringInto(int ordinal, int fieldIndex, StringBuilder dest) {
+        sampler().recordFieldAccess(fieldIndex);
+        recordStackTrace();
+
+        if(!ordinalIsPresent(ordinal))
+            return ((HollowObjectTypeDataAccess)dataAccess.getTypeDataAccess(getSchema().getName(), ordinal)).readStringInto(ordinal, fieldIndex, dest);
+        return removedRecords().readStringInto(getMappedOrdinal(ordinal), fieldIndex, dest);
+    }
+
     @Override
     public int findVarLengthFieldHashCode(int ordinal, int fieldIndex) {
         sampler().recordFieldAccess(fieldIndex);
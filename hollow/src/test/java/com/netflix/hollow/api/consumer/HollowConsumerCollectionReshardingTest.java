@@ -0,0 +1,152 @@
+package com.netflix.hollow.api.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowConsumerCollectionReshardingTest {
+
+    private static final String[] COLLECTION_TYPES = { "ListOfInteger", "SetOfString", "MapOfStringToInteger" };
+
+    private static final int[][] CYCLES = {
+            // { first id, number of records }
+            { 0, 100 },
+            { 0, 1000 },      // grows, resulting in more shards
+            { 50, 4000 },     // grows again, with removals
+            { 50, 4000 },     // no changes
+            { 3000, 200 },    // shrinks, resulting in fewer shards
+            { 3100, 20 },     // shrinks again
+    };
+
+    private InMemoryBlobStore blobStore;
+    private List<Long> versions;
+
+    @Before
+    public void setUp() {
+        blobStore = new InMemoryBlobStore();
+
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withTypeResharding(true)
+                .withTargetMaxTypeShardSize(4096)
+                .build();
+        producer.initializeDataModel(Movie.class);
+
+        versions = new ArrayList<>();
+        for(int[] cycle : CYCLES) {
+            versions.add(producer.runCycle(state -> {
+                for(int i=cycle[0];i<cycle[0]+cycle[1];i++)
+                    state.add(new Movie(i));
+            }));
+        }
+    }
+
+    @Test
+    public void forwardDeltasMatchSnapshots() {
+        HollowConsumer consumer = newDeltaOnlyConsumer();
+        consumer.triggerRefreshTo(versions.get(0));
+        HollowReadStateEngine stateEngine = consumer.getStateEngine();
+
+        Map<String, Set<Integer>> numShardsExercised = new HashMap<>();
+        for(long version : versions) {
+            consumer.triggerRefreshTo(version);
+
+            assertEquals(version, consumer.getCurrentVersionId());
+            assertEquals(stateEngine, consumer.getStateEngine()); // deltas were applied, no double snapshot
+            assertMatchesSnapshot(consumer, version);
+            recordNumShards(consumer, numShardsExercised);
+        }
+
+        for(String type : COLLECTION_TYPES)
+            assertTrue(type + " was not resharded", numShardsExercised.get(type).size() > 2);
+    }
+
+    @Test
+    public void reverseDeltasMatchSnapshots() {
+        HollowConsumer consumer = newDeltaOnlyConsumer();
+        consumer.triggerRefreshTo(versions.get(versions.size() - 1));
+        HollowReadStateEngine stateEngine = consumer.getStateEngine();
+
+        Map<String, Set<Integer>> numShardsExercised = new HashMap<>();
+        for(int i=versions.size()-1;i>=0;i--) {
+            long version = versions.get(i);
+            consumer.triggerRefreshTo(version);
+
+            assertEquals(version, consumer.getCurrentVersionId());
+            assertEquals(stateEngine, consumer.getStateEngine());
+            assertMatchesSnapshot(consumer, version);
+            recordNumShards(consumer, numShardsExercised);
+        }
+
+        for(String type : COLLECTION_TYPES)
+            assertTrue(type + " was not resharded", numShardsExercised.get(type).size() > 2);
+    }
+
+    private void assertMatchesSnapshot(HollowConsumer consumer, long version) {
+        HollowConsumer snapshotConsumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        snapshotConsumer.triggerRefreshTo(version);
+
+        for(String type : COLLECTION_TYPES) {
+            assertEquals(snapshotConsumer.getStateEngine().getTypeState(type).numShards(),
+                    consumer.getStateEngine().getTypeState(type).numShards());
+        }
+        assertEquals(HollowChecksum.forStateEngine(snapshotConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(consumer.getStateEngine()));
+    }
+
+    private static void recordNumShards(HollowConsumer consumer, Map<String, Set<Integer>> numShardsExercised) {
+        for(String type : COLLECTION_TYPES) {
+            numShardsExercised.computeIfAbsent(type, t -> new HashSet<>())
+                    .add(consumer.getStateEngine().getTypeState(type).numShards());
+        }
+    }
+
+    private HollowConsumer newDeltaOnlyConsumer() {
+        return HollowConsumer.withBlobRetriever(blobStore)
+                .withDoubleSnapshotConfig(new HollowConsumer.DoubleSnapshotConfig() {
+                    @Override
+                    public boolean allowDoubleSnapshot() {
+                        return false;
+                    }
+
+                    @Override
+                    public int maxDeltasBeforeDoubleSnapshot() {
+                        return Integer.MAX_VALUE;
+                    }
+                })
+                .build();
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        List<Integer> ratings;
+        Set<String> tags;
+        Map<String, Integer> counts;
+
+        Movie(int id) {
+            this.id = id;
+            this.ratings = new ArrayList<>();
+            this.tags = new HashSet<>();
+            this.counts = new HashMap<>();
+            for(int i=0;i<id % 7;i++) {
+                ratings.add(id + i);
+                tags.add("tag" + (id + i));
+                counts.put("count" + (id + i), id * i);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.netflix.hollow.api.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.netflix.hollow.api.consumer.FailedTransitionTest.NoDoubleSnapshotConfig;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowConsumerDeltaPrefetchTest {
+
+    private static final int NUM_CYCLES = 10;
+
+    private InMemoryBlobStore blobStore;
+    private List<Long> versions;
+
+    @Before
+    public void setUp() {
+        blobStore = new InMemoryBlobStore();
+
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .build();
+
+        versions = new ArrayList<>();
+        for(int cycle=0;cycle<NUM_CYCLES;cycle++) {
+            int firstId = cycle * 10;
+            versions.add(producer.runCycle(state -> {
+                for(int i=firstId;i<firstId+100;i++)
+                    state.add("value" + i);
+            }));
+        }
+    }
+
+    @Test
+    public void deltasAreRetrievedInBackground() {
+        RecordingBlobRetriever blobRetriever = new RecordingBlobRetriever(blobStore, -1);
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobRetriever)
+                .withDoubleSnapshotConfig(new NoDoubleSnapshotConfig())
+                .withDeltaPrefetch(3, Long.MAX_VALUE)
+                .build();
+        consumer.triggerRefreshTo(versions.get(0));
+        HollowReadStateEngine stateEngine = consumer.getStateEngine();
+
+        consumer.triggerRefreshTo(versions.get(NUM_CYCLES - 1));
+
+        assertEquals(stateEngine, consumer.getStateEngine());
+        assertMatchesSnapshot(consumer, versions.get(NUM_CYCLES - 1));
+        assertEquals(versions.subList(1, NUM_CYCLES), blobRetriever.retrievedDeltaVersions);
+        for(String threadName : blobRetriever.retrievingThreadNames)
+            assertTrue(threadName, threadName.contains("prefetch"));
+    }
+
+    @Test
+    public void prefetchedDeltasAreBounded() {
+        assertPrefetchedDeltasAreBounded(3, Long.MAX_VALUE, 3);
+    }
+
+    @Test
+    public void prefetchedDeltaBytesAreBounded() {
+        // the budget is exceeded by the first delta retrieved ahead of the delta being applied
+        assertPrefetchedDeltasAreBounded(5, 1, 1);
+    }
+
+    private void assertPrefetchedDeltasAreBounded(int maxPrefetchedDeltas, long maxPrefetchedDeltaBytes, int maxDeltasAhead) {
+        RecordingBlobRetriever blobRetriever = new RecordingBlobRetriever(blobStore, -1);
+        List<Integer> deltasAhead = Collections.synchronizedList(new ArrayList<>());
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobRetriever)
+                .withDoubleSnapshotConfig(new NoDoubleSnapshotConfig())
+                .withDeltaPrefetch(maxPrefetchedDeltas, maxPrefetchedDeltaBytes)
+                .withRefreshListener(new HollowConsumer.AbstractRefreshListener() {
+                    @Override
+                    public void blobLoaded(HollowConsumer.Blob transition) {
+                        if(transition.isDelta()) {
+                            int numApplied = versions.indexOf(transition.getToVersion());
+                            deltasAhead.add(blobRetriever.retrievedDeltaVersions.size() - numApplied);
+                        }
+                    }
+                })
+                .build();
+        consumer.triggerRefreshTo(versions.get(0));
+        consumer.triggerRefreshTo(versions.get(NUM_CYCLES - 1));
+
+        assertMatchesSnapshot(consumer, versions.get(NUM_CYCLES - 1));
+        assertEquals(NUM_CYCLES - 1, deltasAhead.size());
+        for(int numAhead : deltasAhead)
+            assertTrue(deltasAhead.toString(), numAhead <= maxDeltasAhead);
+    }
+
+    @Test
+    public void failedPrefetchFailsTransition() {
+        long failingVersion = versions.get(5);
+        RecordingBlobRetriever blobRetriever = new RecordingBlobRetriever(blobStore, failingVersion);
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobRetriever)
+                .withDoubleSnapshotConfig(new NoDoubleSnapshotConfig())
+                .withDeltaPrefetch(3, Long.MAX_VALUE)
+                .build();
+        consumer.triggerRefreshTo(versions.get(0));
+
+        try {
+            consumer.triggerRefreshTo(versions.get(NUM_CYCLES - 1));
+            fail();
+        } catch (Exception e) {
+            Throwable cause = e.getCause();
+            assertTrue(cause instanceof IOException);
+            assertEquals("FAILED", cause.getMessage());
+        }
+        assertEquals(1, consumer.getNumFailedDeltaTransitions());
+        assertEquals((long) versions.get(4), consumer.getCurrentVersionId());
+        assertMatchesSnapshot(consumer, versions.get(4));
+    }
+
+    private void assertMatchesSnapshot(HollowConsumer consumer, long version) {
+        HollowConsumer snapshotConsumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        snapshotConsumer.triggerRefreshTo(version);
+
+        assertEquals(HollowChecksum.forStateEngine(snapshotConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(consumer.getStateEngine()));
+    }
+
+    static class RecordingBlobRetriever implements HollowConsumer.BlobRetriever {
+        final HollowConsumer.BlobRetriever br;
+        final long failingToVersion;
+        final List<Long> retrievedDeltaVersions = Collections.synchronizedList(new ArrayList<>());
+        final List<String> retrievingThreadNames = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingBlobRetriever(HollowConsumer.BlobRetriever br, long failingToVersion) {
+            this.br = br;
+            this.failingToVersion = failingToVersion;
+        }
+
+        @Override
+        public HollowConsumer.HeaderBlob retrieveHeaderBlob(long version) {
+            return br.retrieveHeaderBlob(version);
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveSnapshotBlob(long desiredVersion) {
+            return br.retrieveSnapshotBlob(desiredVersion);
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveDeltaBlob(long currentVersion) {
+            HollowConsumer.Blob blob = br.retrieveDeltaBlob(currentVersion);
+            if(blob == null)
+                return null;
+            return new HollowConsumer.Blob(blob.getFromVersion(), blob.getToVersion()) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    if(toVersion == failingToVersion)
+                        throw new IOException("FAILED");
+                    retrievedDeltaVersions.add(toVersion);
+                    retrievingThreadNames.add(Thread.currentThread().getName());
+                    return blob.getInputStream();
+                }
+            };
+        }
+
+        @Override
+        public HollowConsumer.Blob retrieveReverseDeltaBlob(long currentVersion) {
+            return br.retrieveReverseDeltaBlob(currentVersion);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.netflix.hollow.api.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowFilesystemPublisher;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.filter.HollowFilterConfig;
+import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowConsumerSharedMemoryDeltaTest {
+
+    private static final int[][] CYCLES = {
+            // { first id, number of records }
+            { 0, 200 },
+            { 2, 200 },       // few changes, field widths are unchanged
+            { 100, 200 },     // removals, additions and modifications
+            { 100, 2000 },    // grows, resulting in more shards
+            { 1500, 300 },    // shrinks, resulting in fewer shards
+            { 1500, 300 },    // no changes
+    };
+
+    private File blobStoreDir;
+    private File scratchDir;
+    private List<Long> versions;
+
+    @Before
+    public void setUp() throws IOException {
+        blobStoreDir = Files.createTempDirectory("shared-memory-delta-blobs").toFile();
+        scratchDir = Files.createTempDirectory("shared-memory-delta-scratch").toFile();
+
+        HollowProducer producer = HollowProducer.withPublisher(new HollowFilesystemPublisher(blobStoreDir.toPath()))
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withTypeResharding(true)
+                .withTargetMaxTypeShardSize(4096)
+                .build();
+        producer.initializeDataModel(Movie.class);
+
+        versions = new ArrayList<>();
+        for(int[] cycle : CYCLES) {
+            versions.add(producer.runCycle(state -> {
+                for(int i=cycle[0];i<cycle[0]+cycle[1];i++)
+                    state.add(new Movie(i, cycle[1]));
+            }));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        deleteRecursively(blobStoreDir);
+        deleteRecursively(scratchDir);
+    }
+
+    @Test
+    public void deltasMatchOnHeap_sharedMemoryLazy() {
+        assertDeltasMatchOnHeap(MemoryMode.SHARED_MEMORY_LAZY, null);
+    }
+
+    @Test
+    public void deltasMatchOnHeap_sharedMemoryEager() {
+        assertDeltasMatchOnHeap(MemoryMode.SHARED_MEMORY_EAGER, null);
+    }
+
+    @Test
+    public void filteredDeltasMatchOnHeap_sharedMemoryLazy() {
+        assertDeltasMatchOnHeap(MemoryMode.SHARED_MEMORY_LAZY, newFilter());
+    }
+
+    @Test
+    public void filteredDeltasMatchOnHeap_sharedMemoryEager() {
+        assertDeltasMatchOnHeap(MemoryMode.SHARED_MEMORY_EAGER, newFilter());
+    }
+
+    private void assertDeltasMatchOnHeap(MemoryMode memoryMode, TypeFilter typeFilter) {
+        HollowConsumer onHeap = newConsumer(MemoryMode.ON_HEAP, typeFilter);
+        HollowConsumer sharedMemory = newConsumer(memoryMode, typeFilter);
+
+        onHeap.triggerRefreshTo(versions.get(0));
+        sharedMemory.triggerRefreshTo(versions.get(0));
+        HollowReadStateEngine snapshotStateEngine = sharedMemory.getStateEngine();
+        int initialNumShards = sharedMemory.getStateEngine().getTypeState("Movie").numShards();
+
+        for(long version : versions) {
+            onHeap.triggerRefreshTo(version);
+            sharedMemory.triggerRefreshTo(version);
+
+            assertEquals(version, sharedMemory.getCurrentVersionId());
+            assertEquals(snapshotStateEngine, sharedMemory.getStateEngine()); // deltas were applied, no double snapshot
+            assertEquals(HollowChecksum.forStateEngine(onHeap.getStateEngine()),
+                    HollowChecksum.forStateEngine(sharedMemory.getStateEngine()));
+        }
+
+        assertNotEquals(initialNumShards, sharedMemory.getStateEngine().getTypeState("Movie").numShards());
+        assertEquals(0, scratchDir.list().length);
+
+        if(typeFilter != null) {
+            assertNull(sharedMemory.getStateEngine().getTypeState("SetOfString"));
+            HollowObjectSchema movieSchema = (HollowObjectSchema)sharedMemory.getStateEngine().getSchema("Movie");
+            assertEquals(-1, movieSchema.getPosition("id"));
+            assertEquals(-1, movieSchema.getPosition("synopsis"));
+        }
+    }
+
+    private HollowConsumer newConsumer(MemoryMode memoryMode, TypeFilter typeFilter) {
+        return HollowConsumer.withBlobRetriever(new HollowFilesystemBlobRetriever(blobStoreDir.toPath()))
+                .withMemoryMode(memoryMode)
+                .withTypeFilter(typeFilter)
+                .withSharedMemoryScratchDir(scratchDir)
+                .withDoubleSnapshotConfig(new HollowConsumer.DoubleSnapshotConfig() {
+                    @Override
+                    public boolean allowDoubleSnapshot() {
+                        return false;
+                    }
+
+                    @Override
+                    public int maxDeltasBeforeDoubleSnapshot() {
+                        return Integer.MAX_VALUE;
+                    }
+                })
+                .build();
+    }
+
+    private static TypeFilter newFilter() {
+        HollowFilterConfig filter = new HollowFilterConfig(true);
+        filter.addField("Movie", "id");
+        filter.addField("Movie", "synopsis");
+        filter.addField("Movie", "tags");
+        filter.addType("SetOfString");
+        return filter;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if(children != null) {
+            for(File child : children)
+                deleteRecursively(child);
+        }
+        file.delete();
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        @HollowInline String title;
+        @HollowInline String synopsis;
+        List<Integer> ratings;
+        Set<String> tags;
+        Map<String, Integer> counts;
+
+        Movie(int id, int cycleSize) {
+            this.id = id;
+            // titles of some records change when the cycle size changes
+            this.title = id % 3 == 0 ? "title" + id + "-" + cycleSize : "title" + id;
+            this.synopsis = "synopsis" + id;
+            this.ratings = new ArrayList<>();
+            this.tags = new HashSet<>();
+            this.counts = new HashMap<>();
+            for(int i=0;i<id % 5;i++) {
+                ratings.add(id + i);
+                tags.add("tag" + (id + i));
+                counts.put("count" + i, id * i);
+            }
+        }
+    }
+}
@@ -476,16 +476,11 @@ public class HollowProducerConsumerTests {
         consumer.triggerRefreshTo(version);
         Assert.assertEquals(version, consumer.getCurrentVersionId());
 
-        // Filtering is not supported in shared memory mode
-        try {
-            HollowConsumer.withBlobRetriever(blobStore)
-                    .withMemoryMode(MemoryMode.SHARED_MEMORY_LAZY)
-                    .withTypeFilter(filterConfig)
-                    .build();
-        } catch (UnsupportedOperationException e) {
-            return;
-        }
-        Assert.fail();  // fail if UnsupportedOperationException was not thrown
+        // Filtering is also supported in shared memory mode
+        HollowConsumer.withBlobRetriever(blobStore)
+                .withMemoryMode(MemoryMode.SHARED_MEMORY_LAZY)
+                .withTypeFilter(filterConfig)
+                .build();
     }
 
     private long runCycle(HollowProducer producer, final int cycleNumber) {
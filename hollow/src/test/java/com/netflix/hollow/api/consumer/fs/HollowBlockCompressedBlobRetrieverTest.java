@@ -0,0 +1,134 @@
+package com.netflix.hollow.api.consumer.fs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowBlockBlobCompressor;
+import com.netflix.hollow.api.producer.fs.HollowFilesystemBlobStager;
+import com.netflix.hollow.core.compress.BlockCodec;
+import com.netflix.hollow.core.compress.BlockCompressedFiles;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class HollowBlockCompressedBlobRetrieverTest {
+
+    @Test
+    public void blockCompressedBlobsAreConsumedOnHeap() throws IOException {
+        assertBlockCompressedBlobsAreConsumed(MemoryMode.ON_HEAP);
+    }
+
+    @Test
+    public void blockCompressedBlobsAreConsumedInSharedMemory() throws IOException {
+        assertBlockCompressedBlobsAreConsumed(MemoryMode.SHARED_MEMORY_LAZY);
+    }
+
+    private void assertBlockCompressedBlobsAreConsumed(MemoryMode memoryMode) throws IOException {
+        File publishDir = Files.createTempDirectory("block-compressed-publish").toFile();
+        File stagingDir = Files.createTempDirectory("block-compressed-staging").toFile();
+        File scratchDir = Files.createTempDirectory("block-compressed-scratch").toFile();
+        try {
+            assertBlockCompressedBlobsAreConsumed(memoryMode, publishDir, stagingDir, scratchDir);
+        } finally {
+            deleteRecursively(publishDir.toPath());
+            deleteRecursively(stagingDir.toPath());
+            deleteRecursively(scratchDir.toPath());
+        }
+    }
+
+    private void assertBlockCompressedBlobsAreConsumed(MemoryMode memoryMode, File publishDir, File stagingDir, File scratchDir) throws IOException {
+        HollowProducer producer = HollowProducer.withPublisher(new StagedFilePublisher(publishDir.toPath()))
+                .withBlobStager(new HollowFilesystemBlobStager(stagingDir.toPath(), new HollowBlockBlobCompressor(BlockCodec.FAST, 4096, 4)))
+                .build();
+
+        long v1 = producer.runCycle(state -> {
+            for(int i=0;i<5000;i++)
+                state.add(new Movie(i, "Movie " + i));
+        });
+        long v2 = producer.runCycle(state -> {
+            for(int i=1000;i<6000;i++)
+                state.add(new Movie(i, "Movie " + i));
+        });
+        assertTrue(BlockCompressedFiles.isBlockCompressed(publishDir.toPath().resolve("snapshot-" + v1).toFile()));
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(new HollowBlockCompressedBlobRetriever(
+                        new HollowFilesystemBlobRetriever(publishDir.toPath()), BlockCodec.FAST, 4, scratchDir.toPath()))
+                .withMemoryMode(memoryMode)
+                .build();
+        consumer.triggerRefreshTo(v1);
+        assertEquals(memoryMode.isSharedMemory() ? 1 : 0, scratchDir.list().length);
+        // the decompressed snapshot is deleted when the delta is retrieved, and remains readable while mapped
+        consumer.triggerRefreshTo(v2);
+        assertEquals(v2, consumer.getCurrentVersionId());
+        assertEquals(memoryMode.isSharedMemory() ? 1 : 0, scratchDir.list().length);
+
+        HollowConsumer uncompressedConsumer = HollowConsumer.withBlobRetriever(new HollowBlockCompressedBlobRetriever(
+                        new HollowFilesystemBlobRetriever(publishDir.toPath()), BlockCodec.FAST, 4, scratchDir.toPath()))
+                .build();
+        uncompressedConsumer.triggerRefreshTo(v2);
+
+        assertEquals(HollowChecksum.forStateEngine(uncompressedConsumer.getStateEngine()), HollowChecksum.forStateEngine(consumer.getStateEngine()));
+        GenericHollowObject movie = new GenericHollowObject(consumer.getStateEngine(), "Movie",
+                consumer.getStateEngine().getTypeState("Movie").getPopulatedOrdinals().nextSetBit(0));
+        assertTrue(movie.getObject("title").getString("value").startsWith("Movie "));
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Publishes the staged, compressed, blob files as they are, as a publisher to a remote blob store would.
+     */
+    private static class StagedFilePublisher implements HollowProducer.Publisher {
+        private final Path publishDir;
+
+        StagedFilePublisher(Path publishDir) {
+            this.publishDir = publishDir;
+        }
+
+        @Override
+        public void publish(HollowProducer.PublishArtifact publishArtifact) {
+            String name;
+            if(publishArtifact instanceof HollowProducer.HeaderBlob) {
+                name = "header-" + ((HollowProducer.HeaderBlob) publishArtifact).getVersion();
+            } else {
+                HollowProducer.Blob blob = (HollowProducer.Blob) publishArtifact;
+                if(blob.getType() == HollowProducer.Blob.Type.SNAPSHOT)
+                    name = blob.getType().prefix + "-" + blob.getToVersion();
+                else
+                    name = blob.getType().prefix + "-" + blob.getFromVersion() + "-" + blob.getToVersion();
+            }
+
+            try {
+                Files.copy(publishArtifact.getPath(), publishDir.resolve(name));
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+
+        Movie(int id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+
+}
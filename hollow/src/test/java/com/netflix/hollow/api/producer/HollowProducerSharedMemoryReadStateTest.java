@@ -0,0 +1,137 @@
+package com.netflix.hollow.api.producer;
+
+import static org.junit.Assert.assertEquals;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever;
+import com.netflix.hollow.api.producer.fs.HollowFilesystemBlobStager;
+import com.netflix.hollow.api.producer.fs.HollowFilesystemPublisher;
+import com.netflix.hollow.api.producer.validation.ValidationResult;
+import com.netflix.hollow.api.producer.validation.ValidatorListener;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowProducerSharedMemoryReadStateTest {
+
+    private File publishDir;
+    private File stagingDir;
+    private File scratchDir;
+
+    @Before
+    public void setUp() throws IOException {
+        publishDir = Files.createTempDirectory("shared-memory-read-state-publish").toFile();
+        stagingDir = Files.createTempDirectory("shared-memory-read-state-staging").toFile();
+        scratchDir = Files.createTempDirectory("shared-memory-read-state-scratch").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        deleteRecursively(publishDir);
+        deleteRecursively(stagingDir);
+        deleteRecursively(scratchDir);
+    }
+
+    @Test
+    public void uncompressedSnapshotsAreMapped() {
+        List<MemoryMode> memoryModes = runCycles(HollowProducer.BlobCompressor.NO_COMPRESSION);
+
+        for(MemoryMode memoryMode : memoryModes)
+            assertEquals(MemoryMode.SHARED_MEMORY_LAZY, memoryMode);
+    }
+
+    @Test
+    public void compressedSnapshotsAreReadOnHeap() {
+        HollowProducer.BlobCompressor compressor = new HollowProducer.BlobCompressor() {
+            @Override
+            public OutputStream compress(OutputStream os) {
+                return new DeflaterOutputStream(os);
+            }
+
+            @Override
+            public InputStream decompress(InputStream is) {
+                return new InflaterInputStream(is);
+            }
+        };
+        List<MemoryMode> memoryModes = runCycles(compressor);
+
+        for(MemoryMode memoryMode : memoryModes)
+            assertEquals(MemoryMode.ON_HEAP, memoryMode);
+    }
+
+    private List<MemoryMode> runCycles(HollowProducer.BlobCompressor compressor) {
+        List<MemoryMode> memoryModes = new ArrayList<>();
+        List<HollowReadStateEngine> readStates = new ArrayList<>();
+
+        HollowProducer producer = HollowProducer.withPublisher(new HollowFilesystemPublisher(publishDir.toPath()))
+                .withBlobStager(new HollowFilesystemBlobStager(stagingDir.toPath(), compressor))
+                .withSharedMemoryReadStates(true)
+                .withTypeResharding(true)
+                .withTargetMaxTypeShardSize(4096)
+                .withListener(new ValidatorListener() {
+                    @Override
+                    public String getName() {
+                        return "memory-mode";
+                    }
+
+                    @Override
+                    public ValidationResult onValidate(HollowProducer.ReadState readState) {
+                        HollowReadStateEngine stateEngine = readState.getStateEngine();
+                        stateEngine.setSharedMemoryScratchDir(scratchDir);
+                        for(HollowTypeReadState typeState : stateEngine.getTypeStates())
+                            memoryModes.add(typeState.getMemoryMode());
+                        readStates.add(stateEngine);
+                        return ValidationResult.from(this).passed();
+                    }
+                })
+                .build();
+
+        int[][] cycles = { { 0, 200 }, { 100, 200 }, { 100, 2000 }, { 1500, 300 } };
+        for(int[] cycle : cycles) {
+            long version = producer.runCycle(state -> {
+                for(int i=cycle[0];i<cycle[0]+cycle[1];i++)
+                    state.add(new Movie(i, "Movie " + i + " of " + cycle[1]));
+            });
+
+            HollowConsumer consumer = HollowConsumer.withBlobRetriever(new HollowFilesystemBlobRetriever(publishDir.toPath())).build();
+            consumer.triggerRefreshTo(version);
+            HollowReadStateEngine readState = readStates.get(readStates.size() - 1);
+            assertEquals(HollowChecksum.forStateEngine(consumer.getStateEngine()), HollowChecksum.forStateEngine(readState));
+        }
+
+        return memoryModes;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if(children != null) {
+            for(File child : children)
+                deleteRecursively(child);
+        }
+        file.delete();
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+
+        Movie(int id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+}
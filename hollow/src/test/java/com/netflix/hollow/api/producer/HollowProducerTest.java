@@ -445,7 +445,7 @@ public class HollowProducerTest {
             producer.runCycle(ws -> {
 
                 // 2x the data, causes 4 shards for Integer at shard size 32
-                // 2x the collection type, numShards should remain the same (until non object types support resharding)
+                // 2x the collection type, causes 2x the shards for SetOfLong
                 for (int i=0;i<100;i++) {
                     Set<Long> set = new HashSet<>(Collections.singleton((long) i));
                     ws.add(new HasNonObjectField(i, set));
@@ -453,10 +453,11 @@ public class HollowProducerTest {
             });
             if (allowResharding) {
                 assertEquals(4, producer.getWriteEngine().getTypeState("Integer").getNumShards());
+                assertEquals(2 * numShardsNonObjectType, producer.getWriteEngine().getTypeState("SetOfLong").getNumShards());
             } else {
                 assertEquals(2, producer.getWriteEngine().getTypeState("Integer").getNumShards());
+                assertEquals(numShardsNonObjectType, producer.getWriteEngine().getTypeState("SetOfLong").getNumShards());
             }
-            assertEquals(numShardsNonObjectType, producer.getWriteEngine().getTypeState("SetOfLong").getNumShards());
 
             producer.runCycle(ws -> {
                 // still 4 shards, because ghost records
@@ -473,6 +474,7 @@ public class HollowProducerTest {
                 }
             });
             assertEquals(2, producer.getWriteEngine().getTypeState("Integer").getNumShards());
+            assertEquals(numShardsNonObjectType, producer.getWriteEngine().getTypeState("SetOfLong").getNumShards());
         }
     }
 
@@ -0,0 +1,132 @@
+package com.netflix.hollow.core.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.junit.Test;
+
+public class BlockCompressionTest {
+
+    private static final BlockCodec[] CODECS = { BlockCodec.FAST, BlockCodec.DEFLATE, new DeflateBlockCodec(Deflater.NO_COMPRESSION) };
+
+    @Test
+    public void codecsRoundTripBlocks() throws IOException {
+        Random rand = new Random(42);
+        for(BlockCodec codec : CODECS) {
+            for(int length : new int[] { 0, 1, 3, 4, 5, 15, 16, 19, 300, 65536, 70000, 1 << 20 }) {
+                for(byte[] data : new byte[][] { randomData(rand, length), compressibleData(rand, length), new byte[length] }) {
+                    byte[] compressed = codec.compress(data, 0, data.length);
+                    byte[] decompressed = new byte[data.length + 2];
+                    codec.decompress(compressed, 0, compressed.length, decompressed, 1, data.length);
+                    assertArrayEquals(data, Arrays.copyOfRange(decompressed, 1, data.length + 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fastCodecCompressesRepetitiveData() {
+        byte[] data = compressibleData(new Random(42), 1 << 20);
+        assertTrue(BlockCodec.FAST.compress(data, 0, data.length).length < data.length / 2);
+    }
+
+    @Test
+    public void corruptBlocksAreDetected() {
+        byte[] data = compressibleData(new Random(42), 10000);
+        byte[] compressed = BlockCodec.FAST.compress(data, 0, data.length);
+        try {
+            BlockCodec.FAST.decompress(compressed, 0, compressed.length / 2, new byte[data.length], 0, data.length);
+            fail("expected IOException");
+        } catch(IOException expected) { }
+    }
+
+    @Test
+    public void streamsRoundTrip() throws IOException {
+        Random rand = new Random(42);
+        for(BlockCodec codec : CODECS) {
+            for(int length : new int[] { 0, 100, 4096, 4097, 100000 }) {
+                byte[] data = compressibleData(rand, length);
+                byte[] compressed = compress(data, codec, 4096, 3);
+
+                try (InputStream is = new BlockCompressedInputStream(new ByteArrayInputStream(compressed), codec, 3)) {
+                    ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+                    if(length > 0)
+                        decompressed.write(is.read());
+                    byte[] buf = new byte[1000];
+                    int n;
+                    while((n = is.read(buf)) != -1)
+                        decompressed.write(buf, 0, n);
+                    assertArrayEquals(data, decompressed.toByteArray());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void filesDecompressConcurrently() throws IOException {
+        File dir = Files.createTempDirectory("block-compression").toFile();
+        try {
+            byte[] data = compressibleData(new Random(42), 1000000);
+            File compressedFile = new File(dir, "compressed");
+            File decompressedFile = new File(dir, "decompressed");
+            Files.write(compressedFile.toPath(), compress(data, BlockCodec.FAST, 65536, 4));
+
+            assertTrue(BlockCompressedFiles.isBlockCompressed(compressedFile));
+            BlockCompressedFiles.decompress(compressedFile, decompressedFile, BlockCodec.FAST, 4);
+            assertArrayEquals(data, Files.readAllBytes(decompressedFile.toPath()));
+
+            assertFalse(BlockCompressedFiles.isBlockCompressed(decompressedFile));
+        } finally {
+            for(File f : dir.listFiles())
+                f.delete();
+            dir.delete();
+        }
+    }
+
+    private static byte[] compress(byte[] data, BlockCodec codec, int blockSize, int parallelism) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = new BlockCompressedOutputStream(baos, codec, blockSize, parallelism)) {
+            int off = 0;
+            while(off < data.length) {
+                int len = Math.min(data.length - off, 777);
+                os.write(data, off, len);
+                off += len;
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] randomData(Random rand, int length) {
+        byte[] data = new byte[length];
+        rand.nextBytes(data);
+        return data;
+    }
+
+    private static byte[] compressibleData(Random rand, int length) {
+        byte[] data = new byte[length];
+        String[] words = { "hollow", "producer", "consumer", "snapshot", "delta", "blob", " ", "\n" };
+        int pos = 0;
+        while(pos < length) {
+            byte[] word = words[rand.nextInt(words.length)].getBytes();
+            int n = Math.min(word.length, length - pos);
+            System.arraycopy(word, 0, data, pos, n);
+            pos += n;
+            if(pos < length && rand.nextInt(10) == 0)
+                data[pos++] = (byte)rand.nextInt();
+        }
+        return data;
+    }
+
+}
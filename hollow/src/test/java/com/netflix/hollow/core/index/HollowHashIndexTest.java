@@ -315,6 +315,80 @@ public class HollowHashIndexTest extends AbstractStateEngineTest {
         assertIteratorContainsAll(preUpdateIterator, 4, 5);
     }
     
+    @Test
+    public void testIncrementalDeltaUpdates() throws Exception {
+        addRecords(0, 800, 0);
+        roundTripSnapshot();
+
+        HollowHashIndex index = new HollowHashIndex(readStateEngine, "TypeA", "", "a1", "ab.element.b1.value");
+        index.listenForDeltaUpdates(true);
+        assertMatchesRebuiltIndex(index);
+
+        int[][] cycles = {
+                // { first id, number of records, modified id divisor }
+                { 10, 800, 0 },     // removals and additions
+                { 10, 800, 97 },    // modifications
+                { 20, 800, 0 },     // new keys are matched, matches for some keys grow
+                { 20, 800, 0 },     // matches for some keys become empty
+                { 400, 800, 0 },    // too many changes, index is rebuilt
+                { 405, 800, 89 },
+        };
+        for(int[] cycle : cycles) {
+            addRecords(cycle[0], cycle[1], cycle[2]);
+            if(cycle == cycles[2]) {
+                // grow the matches for one key beyond the capacity of its select table, and match a new key
+                mapper.add(new TypeA(1, 5000, new TypeB("b1")));
+                for(int i=0;i<3;i++)
+                    mapper.add(new TypeA(55, 6000 + i, new TypeB("b1")));
+            }
+            roundTripDelta();
+            assertMatchesRebuiltIndex(index);
+        }
+    }
+
+    @Test
+    public void testIncrementalDeltaUpdatesWithSelectField() throws Exception {
+        addRecords(0, 1000, 0);
+        roundTripSnapshot();
+
+        HollowHashIndex index = new HollowHashIndex(readStateEngine, "TypeA", "ab.element", "a1");
+        index.listenForDeltaUpdates(true);
+
+        addRecords(10, 1000, 0);
+        roundTripDelta();
+
+        HollowHashIndex rebuilt = new HollowHashIndex(readStateEngine, "TypeA", "ab.element", "a1");
+        for(int a1=0;a1<64;a1++)
+            Assert.assertEquals(matches(rebuilt.findMatches(a1)), matches(index.findMatches(a1)));
+    }
+
+    private void addRecords(int firstId, int numRecords, int modifiedIdDivisor) {
+        for(int i=firstId;i<firstId+numRecords;i++) {
+            boolean modified = modifiedIdDivisor != 0 && i % modifiedIdDivisor == 0;
+            mapper.add(new TypeA(i % 50, modified ? -i : i, new TypeB("b" + (i % 7)), new TypeB("b" + (i / 100))));
+        }
+    }
+
+    private void assertMatchesRebuiltIndex(HollowHashIndex index) {
+        HollowHashIndex rebuilt = new HollowHashIndex(readStateEngine, "TypeA", "", "a1", "ab.element.b1.value");
+        for(int a1=0;a1<64;a1++) {
+            for(int b=0;b<20;b++) {
+                String b1 = "b" + b;
+                Assert.assertEquals(a1 + "/" + b1, matches(rebuilt.findMatches(a1, b1)), matches(index.findMatches(a1, b1)));
+            }
+        }
+    }
+
+    private static Set<Integer> matches(HollowHashIndexResult result) {
+        Set<Integer> ordinals = new HashSet<>();
+        if(result != null) {
+            HollowOrdinalIterator iter = result.iterator();
+            for(int ordinal = iter.next(); ordinal != HollowOrdinalIterator.NO_MORE_ORDINALS; ordinal = iter.next())
+                ordinals.add(ordinal);
+        }
+        return ordinals;
+    }
+
     @Test
     public void testGettingPropertiesValues() throws Exception {
         mapper.add(new TypeInlinedString(null));
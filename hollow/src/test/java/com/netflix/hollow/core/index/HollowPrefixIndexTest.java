@@ -221,6 +221,59 @@ public class HollowPrefixIndexTest {
 
     }
 
+    @Test
+    public void testIncrementalDeltaChanges() throws Exception {
+        addMovies(0, 200, 0);
+        StateEngineRoundTripper.roundTripSnapshot(writeStateEngine, readStateEngine);
+        HollowPrefixIndex prefixIndex = new HollowTokenizedPrefixIndex(readStateEngine, "SimpleMovie", "name", false);
+        prefixIndex.listenForDeltaUpdates();
+        long nodesCapacity = prefixIndex.usageStats().nodesCapacity;
+
+        int[][] cycles = {
+                // { first id, number of movies, renamed id divisor }
+                { 5, 200, 0 },      // removals and additions
+                { 5, 200, 7 },      // renamed movies
+                { 5, 200, 0 },      // renamed movies are reverted
+                { 150, 60, 0 },     // most movies are removed
+        };
+        for (int[] cycle : cycles) {
+            addMovies(cycle[0], cycle[1], cycle[2]);
+            StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+
+            assertMatchesRebuiltIndex(prefixIndex);
+            // the delta was applied to a copy of the tree, rather than the tree being rebuilt
+            Assert.assertEquals(nodesCapacity, prefixIndex.usageStats().nodesCapacity);
+        }
+
+        // the tree does not have the capacity to index many new movies, and is rebuilt
+        addMovies(150, 1000, 0);
+        StateEngineRoundTripper.roundTripDelta(writeStateEngine, readStateEngine);
+        assertMatchesRebuiltIndex(prefixIndex);
+        Assert.assertNotEquals(nodesCapacity, prefixIndex.usageStats().nodesCapacity);
+
+        prefixIndex.detachFromDeltaUpdates();
+    }
+
+    private void addMovies(int firstId, int numMovies, int renamedIdDivisor) {
+        String[] words = { "matrix", "rocky", "rush", "diamond", "dragon", "bond", "龍爭虎鬥" };
+        for (int id = firstId; id < firstId + numMovies; id++) {
+            boolean renamed = renamedIdDivisor != 0 && id % renamedIdDivisor == 0;
+            String name = "The " + words[id % words.length] + " " + (renamed ? "Renamed" + id : "Part" + id);
+            objectMapper.add(new SimpleMovie(id, name, 1970 + (id % 50)));
+        }
+    }
+
+    private void assertMatchesRebuiltIndex(HollowPrefixIndex prefixIndex) {
+        HollowPrefixIndex rebuilt = new HollowTokenizedPrefixIndex(readStateEngine, "SimpleMovie", "name", false);
+        String[] keys = { "", "t", "the", "thex", "m", "matrix", "r", "ro", "rocky", "rocky2", "龍", "part", "part1",
+                "part15", "part150", "part1500", "renamed", "renamed14", "renamed140", "x" };
+        for (String key : keys) {
+            Assert.assertEquals(key, toSet(rebuilt.findKeysWithPrefix(key)), toSet(prefixIndex.findKeysWithPrefix(key)));
+            Assert.assertEquals(key, new HashSet<>(rebuilt.findLongestMatch(key)), new HashSet<>(prefixIndex.findLongestMatch(key)));
+            Assert.assertEquals(key, rebuilt.contains(key), prefixIndex.contains(key));
+        }
+    }
+
     @Test
     public void testListReference() throws Exception {
         MovieListReference movieListReference = new MovieListReference(1, 1999, "The Matrix", Arrays.asList("Keanu Reeves", "Laurence Fishburne", "Carrie-Anne Moss"));
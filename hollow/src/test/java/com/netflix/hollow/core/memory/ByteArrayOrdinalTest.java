@@ -16,6 +16,7 @@
  */
 package com.netflix.hollow.core.memory;
 
+import java.util.Arrays;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -40,6 +41,26 @@ public class ByteArrayOrdinalTest {
         Assert.assertArrayEquals(ordinals, newOrdinals);
     }
 
+    @Test
+    public void testGetOrAssignOrdinals() {
+        ByteArrayOrdinalMap m = new ByteArrayOrdinalMap();
+        int previouslyAdded = m.getOrAssignOrdinal(createBuffer("TEST1"));
+
+        ByteDataArray[] batch = new ByteDataArray[400];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = createBuffer("TEST" + (i % 300));
+        }
+        int[] ordinals = new int[batch.length + 1];
+        m.getOrAssignOrdinals(batch, batch.length, ordinals);
+
+        Assert.assertEquals(previouslyAdded, ordinals[1]);
+        for (int i = 0; i < batch.length; i++) {
+            Assert.assertEquals(m.get(createBuffer("TEST" + (i % 300))), ordinals[i]);
+            Assert.assertEquals(ordinals[i % 300], ordinals[i]);
+        }
+        Assert.assertEquals(300, Arrays.stream(ordinals, 0, batch.length).distinct().count());
+    }
+
     @Test
     public void testResizeWhenEmpty() {
         ByteArrayOrdinalMap m = new ByteArrayOrdinalMap();
@@ -60,6 +81,118 @@ public class ByteArrayOrdinalTest {
         Assert.assertArrayEquals(ordinals, newOrdinals);
     }
 
+    @Test
+    public void testOffHeap() {
+        ByteArrayOrdinalMap onHeap = new ByteArrayOrdinalMap();
+        ByteArrayOrdinalMap offHeap = new ByteArrayOrdinalMap(256, true);
+        Assert.assertFalse(onHeap.isOffHeap());
+        Assert.assertTrue(offHeap.isOffHeap());
+
+        // span several off-heap segments
+        int[] ordinals = new int[20000];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = offHeap.getOrAssignOrdinal(createBuffer("TEST" + i));
+            Assert.assertEquals(onHeap.getOrAssignOrdinal(createBuffer("TEST" + i)), ordinals[i]);
+        }
+        Assert.assertEquals(onHeap.getDataSize(), offHeap.getDataSize());
+        Assert.assertTrue(offHeap.getByteData().getUnderlyingArray().size() > 1 << OffHeapSegmentedByteArray.DEFAULT_LOG2_SEGMENT_SIZE);
+
+        ThreadSafeBitSet usedOrdinals = new ThreadSafeBitSet();
+        for (int i = 0; i < ordinals.length; i += 3) {
+            usedOrdinals.set(ordinals[i]);
+        }
+        onHeap.compact(usedOrdinals, 1, false);
+        offHeap.compact(usedOrdinals, 1, false);
+        Assert.assertEquals(onHeap.getDataSize(), offHeap.getDataSize());
+
+        for (int i = 0; i < ordinals.length; i++) {
+            Assert.assertEquals(onHeap.get(createBuffer("TEST" + i)), offHeap.get(createBuffer("TEST" + i)));
+            Assert.assertEquals(i % 3 == 0 ? ordinals[i] : -1, offHeap.get(createBuffer("TEST" + i)));
+        }
+
+        onHeap.prepareForWrite();
+        offHeap.prepareForWrite();
+        for (int i = 0; i < ordinals.length; i += 3) {
+            long onHeapPointer = onHeap.getPointerForData(ordinals[i]);
+            long offHeapPointer = offHeap.getPointerForData(ordinals[i]);
+            byte[] expected = ("TEST" + i).getBytes();
+            byte[] actual = new byte[expected.length];
+            offHeap.getByteData().getUnderlyingArray().copy(offHeapPointer, actual, 0, actual.length);
+            Assert.assertEquals(onHeapPointer, offHeapPointer);
+            Assert.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testPartitioned() throws Exception {
+        ByteArrayOrdinalMap m = new ByteArrayOrdinalMap(256, false, 16);
+        Assert.assertEquals(16, m.getNumPartitions());
+
+        // concurrently add overlapping ranges, growing each partition several times
+        int numRecords = 20000;
+        int numThreads = 4;
+        int[][] ordinals = new int[numThreads][numRecords];
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            int[] threadOrdinals = ordinals[t];
+            int offset = t * 1000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < numRecords; i++) {
+                    int record = (i + offset) % numRecords;
+                    threadOrdinals[record] = m.getOrAssignOrdinal(createBuffer("TEST" + record));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int t = 1; t < numThreads; t++) {
+            Assert.assertArrayEquals(ordinals[0], ordinals[t]);
+        }
+        Assert.assertEquals(numRecords, Arrays.stream(ordinals[0]).distinct().count());
+        Assert.assertEquals(numRecords - 1, m.maxOrdinal());
+
+        int[] batchOrdinals = new int[numRecords + 100];
+        ByteDataArray[] batch = new ByteDataArray[batchOrdinals.length];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = createBuffer("TEST" + i);
+        }
+        m.getOrAssignOrdinals(batch, batch.length, batchOrdinals);
+        for (int i = 0; i < numRecords; i++) {
+            Assert.assertEquals(ordinals[0][i], batchOrdinals[i]);
+        }
+        for (int i = numRecords; i < batch.length; i++) {
+            Assert.assertEquals(m.get(createBuffer("TEST" + i)), batchOrdinals[i]);
+            Assert.assertTrue(batchOrdinals[i] >= numRecords);
+        }
+
+        ThreadSafeBitSet usedOrdinals = new ThreadSafeBitSet();
+        for (int i = 0; i < numRecords; i += 3) {
+            usedOrdinals.set(ordinals[0][i]);
+        }
+        m.compact(usedOrdinals, 1, false);
+
+        for (int i = 0; i < numRecords; i++) {
+            Assert.assertEquals(i % 3 == 0 ? ordinals[0][i] : -1, m.get(createBuffer("TEST" + i)));
+        }
+
+        m.prepareForWrite();
+        for (int i = 0; i < numRecords; i += 3) {
+            long pointer = m.getPointerForData(ordinals[0][i]);
+            byte[] expected = ("TEST" + i).getBytes();
+            byte[] actual = new byte[expected.length];
+            m.getByteData().getUnderlyingArray().copy(pointer, actual, 0, actual.length);
+            Assert.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartitionsNotPowerOfTwo() {
+        new ByteArrayOrdinalMap(256, false, 6);
+    }
+
     static ByteDataArray createBuffer(String s) {
         return write(new ByteDataArray(), s);
     }
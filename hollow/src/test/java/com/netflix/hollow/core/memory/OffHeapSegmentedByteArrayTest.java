@@ -0,0 +1,61 @@
+package com.netflix.hollow.core.memory;
+
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OffHeapSegmentedByteArrayTest {
+
+    private static final int LOG2_SEGMENT_SIZE = 10;
+    // spans several segments and several scratch chunks
+    private static final int LENGTH = 20000;
+
+    @Test
+    public void copiesFromOnHeapArray() {
+        byte[] expected = randomBytes(LENGTH);
+        SegmentedByteArray src = new SegmentedByteArray(new WastefulRecycler(LOG2_SEGMENT_SIZE, 0));
+        for(int i=0;i<LENGTH;i++)
+            src.set(i, expected[i]);
+
+        OffHeapSegmentedByteArray dest = new OffHeapSegmentedByteArray(LOG2_SEGMENT_SIZE);
+        dest.copy(src, 13, 1000, LENGTH - 13);
+
+        for(int i=13;i<LENGTH;i++)
+            Assert.assertEquals(expected[i], dest.get(1000 + i - 13));
+    }
+
+    @Test
+    public void copiesOverlappingRangeBackwards() {
+        assertCopiesWithinArray(5000, 17, LENGTH - 5000);
+    }
+
+    @Test
+    public void copiesOverlappingRangeForwards() {
+        assertCopiesWithinArray(17, 5000, LENGTH - 5000);
+    }
+
+    @Test
+    public void copiesDisjointRange() {
+        assertCopiesWithinArray(0, LENGTH, LENGTH);
+    }
+
+    private static void assertCopiesWithinArray(int srcPos, int destPos, int length) {
+        byte[] expected = randomBytes(2 * LENGTH);
+        OffHeapSegmentedByteArray arr = new OffHeapSegmentedByteArray(LOG2_SEGMENT_SIZE);
+        for(int i=0;i<expected.length;i++)
+            arr.set(i, expected[i]);
+
+        arr.copy(arr, srcPos, destPos, length);
+        System.arraycopy(expected, srcPos, expected, destPos, length);
+
+        for(int i=0;i<expected.length;i++)
+            Assert.assertEquals(expected[i], arr.get(i));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+}
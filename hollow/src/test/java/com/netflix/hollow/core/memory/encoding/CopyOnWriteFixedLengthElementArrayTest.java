@@ -0,0 +1,83 @@
+package com.netflix.hollow.core.memory.encoding;
+
+import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CopyOnWriteFixedLengthElementArrayTest {
+
+    private static final int BITS_PER_ELEMENT = 17;
+    // SMALL_ARRAY_RECYCLER segments hold 4 longs, so elements regularly span segment boundaries
+    private static final int NUM_ELEMENTS = 1000;
+
+    @Test
+    public void copiesOnlyWrittenSegments() {
+        FixedLengthElementArray source = populated(NUM_ELEMENTS, 1);
+        CopyOnWriteFixedLengthElementArray copy = CopyOnWriteFixedLengthElementArray.copyOf(WastefulRecycler.SMALL_ARRAY_RECYCLER, source, (long) NUM_ELEMENTS * BITS_PER_ELEMENT);
+        Assert.assertEquals(0, copy.getNumOwnedSegments());
+
+        long[] expected = new long[NUM_ELEMENTS];
+        for(int i=0;i<NUM_ELEMENTS;i++)
+            expected[i] = i + 1;
+
+        // element 15 ends in the first long of the second segment, so the fencepost of the first is also written
+        int[] written = { 15, 501 };
+        for(int i : written) {
+            copy.clearElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT);
+            copy.setElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT, 99999);
+            expected[i] = 99999;
+        }
+
+        Assert.assertEquals(3, copy.getNumOwnedSegments());
+        for(int i=0;i<NUM_ELEMENTS;i++) {
+            Assert.assertEquals(i + 1, source.getElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+            Assert.assertEquals(expected[i], copy.getElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+            Assert.assertEquals(expected[i], copy.getLargeElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+        }
+    }
+
+    @Test
+    public void growsBeyondSource() {
+        FixedLengthElementArray source = populated(NUM_ELEMENTS, 1);
+        int numElements = NUM_ELEMENTS * 2;
+        CopyOnWriteFixedLengthElementArray copy = CopyOnWriteFixedLengthElementArray.copyOf(WastefulRecycler.SMALL_ARRAY_RECYCLER, source, (long) numElements * BITS_PER_ELEMENT);
+
+        copy.copyBits(populated(NUM_ELEMENTS, NUM_ELEMENTS + 1), 0, (long) NUM_ELEMENTS * BITS_PER_ELEMENT, (long) NUM_ELEMENTS * BITS_PER_ELEMENT);
+
+        for(int i=0;i<numElements;i++)
+            Assert.assertEquals(i + 1, copy.getElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+        for(int i=0;i<NUM_ELEMENTS;i++)
+            Assert.assertEquals(i + 1, source.getElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+    }
+
+    @Test
+    public void randomWritesLeaveSourceUnchanged() {
+        Random rand = new Random(42);
+        FixedLengthElementArray source = populated(NUM_ELEMENTS, 1);
+        CopyOnWriteFixedLengthElementArray copy = CopyOnWriteFixedLengthElementArray.copyOf(WastefulRecycler.SMALL_ARRAY_RECYCLER, source, (long) NUM_ELEMENTS * BITS_PER_ELEMENT);
+
+        long[] expected = new long[NUM_ELEMENTS];
+        for(int i=0;i<NUM_ELEMENTS;i++)
+            expected[i] = i + 1;
+        for(int n=0;n<200;n++) {
+            int i = rand.nextInt(NUM_ELEMENTS);
+            long value = rand.nextInt(1 << BITS_PER_ELEMENT);
+            copy.clearElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT);
+            copy.setElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT, value);
+            expected[i] = value;
+        }
+
+        for(int i=0;i<NUM_ELEMENTS;i++) {
+            Assert.assertEquals(i + 1, source.getElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+            Assert.assertEquals(expected[i], copy.getElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT));
+        }
+    }
+
+    private static FixedLengthElementArray populated(int numElements, int firstValue) {
+        FixedLengthElementArray arr = new FixedLengthElementArray(WastefulRecycler.SMALL_ARRAY_RECYCLER, (long) numElements * BITS_PER_ELEMENT);
+        for(int i=0;i<numElements;i++)
+            arr.setElementValue((long) i * BITS_PER_ELEMENT, BITS_PER_ELEMENT, firstValue + i);
+        return arr;
+    }
+}
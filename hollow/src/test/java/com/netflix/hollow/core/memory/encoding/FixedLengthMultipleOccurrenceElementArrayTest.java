@@ -17,8 +17,11 @@
 package com.netflix.hollow.core.memory.encoding;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import com.netflix.hollow.core.memory.pool.WastefulRecycler;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -68,6 +71,44 @@ public class FixedLengthMultipleOccurrenceElementArrayTest {
         assertEquals(values2, array.getElements(2));
     }
 
+    @Test
+    public void testRemove() {
+        LongStream.range(0, 6).forEach(v -> array.addElement(0, v));
+        LongStream.range(1, 4).forEach(v -> array.addElement(1, v));
+
+        assertTrue(array.removeElement(0, 0));
+        assertTrue(array.removeElement(0, 2));
+        assertFalse(array.removeElement(0, 2));
+        assertFalse(array.removeElement(0, 0));
+        assertTrue(array.removeElement(1, 3));
+
+        assertEquals(Arrays.asList(1L, 3L, 4L, 5L), sorted(array.getElements(0)));
+        assertEquals(Arrays.asList(1L, 2L), sorted(array.getElements(1)));
+
+        array.addElement(0, 2);
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), sorted(array.getElements(0)));
+    }
+
+    @Test
+    public void testCopy() {
+        LongStream.range(0, 6).forEach(v -> array.addElement(0, v));
+        LongStream.range(1, 4).forEach(v -> array.addElement(9999, v));
+
+        FixedLengthMultipleOccurrenceElementArray copy = array.copy();
+        copy.removeElement(0, 0);
+        copy.addElement(9999, 4);
+
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L), array.getElements(0));
+        assertEquals(Arrays.asList(1L, 2L, 3L), array.getElements(9999));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), copy.getElements(0));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), copy.getElements(9999));
+        assertEquals(array.getMaxElementsPerNode(), copy.getMaxElementsPerNode());
+    }
+
+    private static List<Long> sorted(List<Long> elements) {
+        return elements.stream().sorted().collect(Collectors.toList());
+    }
+
     @Test
     public void testLargeNumberOfNodes() {
         LongStream.range(0, 10000).forEach(nodeIndex -> {
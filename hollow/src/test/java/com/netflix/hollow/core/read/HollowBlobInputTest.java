@@ -61,6 +61,8 @@ public class HollowBlobInputTest {
         assertTrue((HollowBlobInput.modeBasedSelector(MemoryMode.ON_HEAP, mockBlob)).getInput() instanceof DataInputStream);
         assertTrue((HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_LAZY, mockBlob)).getInput() instanceof RandomAccessFile);
         assertNotNull((HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_LAZY, mockBlob)).getBuffer());
+        assertTrue((HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_EAGER, mockBlob)).getInput() instanceof RandomAccessFile);
+        assertEquals(MemoryMode.SHARED_MEMORY_EAGER, (HollowBlobInput.modeBasedSelector(MemoryMode.SHARED_MEMORY_EAGER, mockBlob)).getMemoryMode());
     }
 
     @Test
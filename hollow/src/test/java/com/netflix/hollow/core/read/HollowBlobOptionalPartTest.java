@@ -34,6 +34,7 @@ import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
 import com.netflix.hollow.core.write.objectmapper.TypeA;
 import com.netflix.hollow.core.write.objectmapper.TypeB;
 import com.netflix.hollow.core.write.objectmapper.TypeC;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -42,7 +43,9 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 
 import com.netflix.hollow.test.InMemoryBlobStore;
 import org.junit.Assert;
@@ -320,6 +323,15 @@ public class HollowBlobOptionalPartTest {
     
     @Test
     public void optionalPartsWithSharedMemoryLazy() throws IOException {
+        assertOptionalPartsWithSharedMemory(MemoryMode.SHARED_MEMORY_LAZY);
+    }
+
+    @Test
+    public void optionalPartsWithSharedMemoryEager() throws IOException {
+        assertOptionalPartsWithSharedMemory(MemoryMode.SHARED_MEMORY_EAGER);
+    }
+
+    private void assertOptionalPartsWithSharedMemory(MemoryMode memoryMode) throws IOException {
         File localBlobStore = createLocalDir();
         HollowFilesystemPublisher publisher = new HollowFilesystemPublisher(localBlobStore.toPath());
         HollowInMemoryBlobStager stager = new HollowInMemoryBlobStager(newPartConfig());
@@ -340,7 +352,7 @@ public class HollowBlobOptionalPartTest {
 
         HollowConsumer consumer = HollowConsumer.newHollowConsumer()
                 .withBlobRetriever(new HollowFilesystemBlobRetriever(localBlobStore.toPath(), Collections.singleton("B")))
-                .withMemoryMode(MemoryMode.SHARED_MEMORY_LAZY)
+                .withMemoryMode(memoryMode)
                 .build();
         
         consumer.triggerRefresh();
@@ -356,6 +368,53 @@ public class HollowBlobOptionalPartTest {
 
 
 
+    @Test
+    public void balancedPartsAreLoadedConcurrently() throws IOException {
+        File localBlobStore = createLocalDir();
+        HollowFilesystemPublisher publisher = new HollowFilesystemPublisher(localBlobStore.toPath());
+
+        Map<String, Long> typeSizes = new HashMap<>();
+        typeSizes.put("TypeB", 400L);
+        typeSizes.put("SetOfTypeC", 300L);
+        typeSizes.put("TypeC", 200L);
+        typeSizes.put("MapOfStringToListOfInteger", 100L);
+        typeSizes.put("ListOfInteger", 100L);
+        typeSizes.put("Integer", 100L);
+        ProducerOptionalBlobPartConfig partConfig = new ProducerOptionalBlobPartConfig();
+        partConfig.addTypesToBalancedParts("P", 3, typeSizes);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("P0", "P1", "P2")), partConfig.getParts());
+
+        HollowProducer producer = HollowProducer
+                .withPublisher(publisher)
+                .withBlobStager(new HollowInMemoryBlobStager(partConfig))
+                .build();
+        producer.initializeDataModel(TypeA.class);
+
+        long version = producer.runCycle(state -> {
+            for(int i=0;i<1000;i++)
+                state.add(new TypeA(String.valueOf(i), i, new TypeB((short)i, i, i, new char[] {'b'}, new byte[] { (byte)i }), Collections.singleton(new TypeC((char)i, null))));
+        });
+
+        HollowConsumer serialConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localBlobStore.toPath(), partConfig.getParts()))
+                .build();
+        serialConsumer.triggerRefreshTo(version);
+
+        HollowConsumer concurrentConsumer = HollowConsumer.newHollowConsumer()
+                .withBlobRetriever(new HollowFilesystemBlobRetriever(localBlobStore.toPath(), partConfig.getParts()))
+                .withSnapshotLoadParallelism(4)
+                .build();
+        concurrentConsumer.triggerRefreshTo(version);
+
+        Assert.assertEquals(serialConsumer.getStateEngine().getAllTypes(), concurrentConsumer.getStateEngine().getAllTypes());
+        Assert.assertEquals(HollowChecksum.forStateEngine(serialConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(concurrentConsumer.getStateEngine()));
+
+        GenericHollowObject obj = new GenericHollowObject(concurrentConsumer.getStateEngine(), "TypeA", 500);
+        Assert.assertEquals("500", obj.getObject("a1").getString("value"));
+        Assert.assertEquals(500L, obj.getObject("b").getLong("b2"));
+    }
+
     private ProducerOptionalBlobPartConfig newPartConfig() {
         ProducerOptionalBlobPartConfig partConfig = new ProducerOptionalBlobPartConfig();
         partConfig.addTypesToPart("B", "TypeB");
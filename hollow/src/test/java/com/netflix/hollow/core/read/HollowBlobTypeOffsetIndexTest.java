@@ -0,0 +1,186 @@
+package com.netflix.hollow.core.read;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.core.HollowBlobHeader;
+import com.netflix.hollow.core.HollowBlobTypeOffsetIndex;
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.memory.encoding.VarInt;
+import com.netflix.hollow.core.read.engine.HollowBlobHeaderReader;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
+import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowBlobTypeOffsetIndexTest {
+
+    private File indexedSnapshot;
+    private File plainSnapshot;
+
+    @Before
+    public void setUp() throws IOException {
+        indexedSnapshot = writeSnapshot(true);
+        plainSnapshot = writeSnapshot(false);
+    }
+
+    @After
+    public void tearDown() {
+        indexedSnapshot.delete();
+        plainSnapshot.delete();
+    }
+
+    @Test
+    public void indexLocatesEachTypeAndShard() throws IOException {
+        HollowBlobHeaderReader headerReader = new HollowBlobHeaderReader();
+        try(HollowBlobInput in = HollowBlobInput.seekable(indexedSnapshot, MemoryMode.ON_HEAP)) {
+            HollowBlobHeader header = headerReader.readHeader(in);
+            assertTrue(header.hasBlobFeature(HollowBlobHeader.FEATURE_TYPE_OFFSET_INDEX));
+
+            long typesOffset = in.getFilePointer() + VarInt.sizeOfVInt(header.getSchemas().size());
+            HollowBlobTypeOffsetIndex index = headerReader.readTypeOffsetIndex(in);
+            assertEquals(header.getSchemas().size(), index.getTypes().size());
+
+            long expectedOffset = typesOffset;
+            for(HollowBlobTypeOffsetIndex.TypeOffsets type : index.getTypes()) {
+                assertEquals(expectedOffset, type.getOffset());
+                in.seek(type.getOffset());
+                assertEquals(type.getTypeName(), HollowSchema.readFrom(in).getName());
+
+                long shardEnd = type.getOffset();
+                for(int i=0;i<type.getNumShards();i++) {
+                    assertTrue(type.getShardOffset(i) >= shardEnd);
+                    assertTrue(type.getShardLength(i) > 0);
+                    shardEnd = type.getShardOffset(i) + type.getShardLength(i);
+                }
+                assertTrue(shardEnd <= type.getEndOffset());
+                expectedOffset = type.getEndOffset();
+            }
+
+            assertTrue(index.getType("Movie").getNumShards() > 1);
+        }
+    }
+
+    @Test
+    public void headerWithoutIndex() throws IOException {
+        try(HollowBlobInput in = HollowBlobInput.seekable(plainSnapshot, MemoryMode.ON_HEAP)) {
+            HollowBlobHeader header = new HollowBlobHeaderReader().readHeader(in);
+            assertFalse(header.hasBlobFeature(HollowBlobHeader.FEATURE_TYPE_OFFSET_INDEX));
+        }
+        assertEquals(readSnapshot(plainSnapshot, MemoryMode.ON_HEAP, 1, null), readSnapshot(indexedSnapshot, MemoryMode.ON_HEAP, 1, null));
+    }
+
+    @Test
+    public void pre220ReadersSkipForwardsCompatibilityEnvelope() throws IOException {
+        try(HollowBlobInput in = HollowBlobInput.seekable(indexedSnapshot, MemoryMode.ON_HEAP)) {
+            in.readInt();
+            in.readLong();
+            in.readLong();
+            int oldBytesToSkip = VarInt.readVInt(in);
+            assertEquals(oldBytesToSkip, in.skipBytes(oldBytesToSkip));
+            assertEquals(1, in.readShort());
+            assertEquals("tag", in.readUTF());
+            assertEquals("value", in.readUTF());
+        }
+    }
+
+    @Test
+    public void serialInputIgnoresTrailer() throws IOException {
+        HollowReadStateEngine stateEngine = new HollowReadStateEngine();
+        new HollowBlobReader(stateEngine).readSnapshot(HollowBlobInput.serial(Files.readAllBytes(indexedSnapshot.toPath())));
+        assertEquals("value", stateEngine.getHeaderTag("tag"));
+        assertEquals(readSnapshot(plainSnapshot, MemoryMode.ON_HEAP, 1, null), HollowChecksum.forStateEngine(stateEngine));
+    }
+
+    @Test
+    public void filteredTypesAreSkippedUsingIndex() throws IOException {
+        TypeFilter filter = TypeFilter.newTypeFilter().exclude("Movie").build();
+        for(MemoryMode memoryMode : new MemoryMode[] { MemoryMode.ON_HEAP, MemoryMode.SHARED_MEMORY_LAZY }) {
+            HollowChecksum expected = readSnapshot(plainSnapshot, memoryMode, 1, filter);
+            assertEquals(expected, readSnapshot(indexedSnapshot, memoryMode, 1, filter));
+            assertEquals(expected, readSnapshot(indexedSnapshot, memoryMode, 4, filter));
+        }
+    }
+
+    @Test
+    public void parallelLoadUsingIndex() throws IOException {
+        for(MemoryMode memoryMode : new MemoryMode[] { MemoryMode.ON_HEAP, MemoryMode.SHARED_MEMORY_LAZY }) {
+            assertEquals(readSnapshot(plainSnapshot, memoryMode, 1, null), readSnapshot(indexedSnapshot, memoryMode, 4, null));
+        }
+    }
+
+    private HollowChecksum readSnapshot(File snapshot, MemoryMode memoryMode, int parallelism, TypeFilter filter) throws IOException {
+        HollowReadStateEngine stateEngine = new HollowReadStateEngine();
+        HollowBlobReader reader = new HollowBlobReader(stateEngine, memoryMode);
+        reader.setSnapshotLoadParallelism(parallelism);
+        try(HollowBlobInput in = HollowBlobInput.seekable(snapshot, memoryMode)) {
+            if(filter == null)
+                reader.readSnapshot(in);
+            else
+                reader.readSnapshot(in, filter);
+        }
+        if(filter != null) {
+            assertNull(stateEngine.getTypeState("Movie"));
+            for(HollowTypeReadState typeState : stateEngine.getTypeStates())
+                assertTrue(typeState.maxOrdinal() >= 0);
+        }
+        return HollowChecksum.forStateEngine(stateEngine);
+    }
+
+    private File writeSnapshot(boolean writeTypeOffsetIndex) throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(256);
+        writeEngine.setWriteTypeOffsetIndex(writeTypeOffsetIndex);
+        writeEngine.addHeaderTag("tag", "value");
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<500;i++)
+            mapper.add(new Movie(i));
+
+        File file = Files.createTempFile("type-offset-index", ".blob").toFile();
+        try(OutputStream os = new FileOutputStream(file)) {
+            new HollowBlobWriter(writeEngine).writeSnapshot(os);
+        }
+        return file;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+        List<Actor> actors;
+
+        Movie(int id) {
+            this.id = id;
+            this.title = "title" + id;
+            this.actors = new ArrayList<>();
+            for(int i=0;i<id % 5;i++)
+                actors.add(new Actor("actor" + (id + i)));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Actor {
+        String name;
+
+        Actor(String name) {
+            this.name = name;
+        }
+    }
+}
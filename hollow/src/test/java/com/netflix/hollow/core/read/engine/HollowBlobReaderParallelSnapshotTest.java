@@ -0,0 +1,149 @@
+package com.netflix.hollow.core.read.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.core.memory.MemoryMode;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.filter.TypeFilter;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HollowBlobReaderParallelSnapshotTest {
+
+    private File snapshotFile;
+
+    @Before
+    public void setUp() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(512);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<1000;i++)
+            mapper.add(new TypeA(i));
+
+        snapshotFile = Files.createTempFile("parallel-snapshot", ".blob").toFile();
+        try(OutputStream os = new FileOutputStream(snapshotFile)) {
+            new HollowBlobWriter(writeEngine).writeSnapshot(os);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        snapshotFile.delete();
+    }
+
+    @Test
+    public void parallelLoadMatchesSerialLoad_onHeap() throws IOException {
+        assertParallelLoadMatchesSerialLoad(MemoryMode.ON_HEAP);
+    }
+
+    @Test
+    public void parallelLoadMatchesSerialLoad_sharedMemoryLazy() throws IOException {
+        assertParallelLoadMatchesSerialLoad(MemoryMode.SHARED_MEMORY_LAZY);
+    }
+
+    @Test
+    public void parallelLoadMatchesSerialLoad_sharedMemoryEager() throws IOException {
+        assertParallelLoadMatchesSerialLoad(MemoryMode.SHARED_MEMORY_EAGER);
+    }
+
+    @Test
+    public void parallelLoadAppliesTypeFilter() throws IOException {
+        TypeFilter filter = TypeFilter.newTypeFilter().excludeAll().include("TypeA").build();
+
+        HollowReadStateEngine serial = readSnapshot(MemoryMode.ON_HEAP, 1, filter);
+        HollowReadStateEngine parallel = readSnapshot(MemoryMode.ON_HEAP, 4, filter);
+
+        assertNull(parallel.getTypeState("MapOfStringToListOfInteger"));
+        assertEquals(serial.getTypeStates().size(), parallel.getTypeStates().size());
+        assertEquals(HollowChecksum.forStateEngine(serial), HollowChecksum.forStateEngine(parallel));
+    }
+
+    @Test
+    public void serialInputIsLoadedSerially() throws IOException {
+        HollowReadStateEngine stateEngine = new HollowReadStateEngine();
+        HollowBlobReader reader = new HollowBlobReader(stateEngine);
+        reader.setSnapshotLoadParallelism(4);
+        try(HollowBlobInput in = HollowBlobInput.serial(Files.readAllBytes(snapshotFile.toPath()))) {
+            assertFalse(in.isSeekable());
+            reader.readSnapshot(in);
+        }
+
+        assertEquals(HollowChecksum.forStateEngine(readSnapshot(MemoryMode.ON_HEAP, 1, null)),
+                HollowChecksum.forStateEngine(stateEngine));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidParallelism() {
+        new HollowBlobReader(new HollowReadStateEngine()).setSnapshotLoadParallelism(0);
+    }
+
+    private void assertParallelLoadMatchesSerialLoad(MemoryMode memoryMode) throws IOException {
+        HollowReadStateEngine serial = readSnapshot(memoryMode, 1, null);
+        HollowReadStateEngine parallel = readSnapshot(memoryMode, 4, null);
+
+        assertTrue(parallel.getTypeState("TypeA").numShards() > 1);
+        assertEquals(serial.getTypeStates().size(), parallel.getTypeStates().size());
+        for(HollowTypeReadState typeState : serial.getTypeStates()) {
+            HollowTypeReadState parallelTypeState = parallel.getTypeState(typeState.getSchema().getName());
+            assertEquals(typeState.numShards(), parallelTypeState.numShards());
+            assertEquals(typeState.maxOrdinal(), parallelTypeState.maxOrdinal());
+            assertEquals(typeState.getPopulatedOrdinals(), parallelTypeState.getPopulatedOrdinals());
+        }
+        assertEquals(HollowChecksum.forStateEngine(serial), HollowChecksum.forStateEngine(parallel));
+    }
+
+    private HollowReadStateEngine readSnapshot(MemoryMode memoryMode, int parallelism, TypeFilter filter) throws IOException {
+        HollowReadStateEngine stateEngine = new HollowReadStateEngine();
+        HollowBlobReader reader = new HollowBlobReader(stateEngine, memoryMode);
+        reader.setSnapshotLoadParallelism(parallelism);
+        try(HollowBlobInput in = HollowBlobInput.seekable(snapshotFile, memoryMode)) {
+            assertTrue(in.isSeekable());
+            if(filter == null)
+                reader.readSnapshot(in);
+            else
+                reader.readSnapshot(in, filter);
+        }
+        return stateEngine;
+    }
+
+    @SuppressWarnings("unused")
+    private static class TypeA {
+        int id;
+        String name;
+        List<Integer> list;
+        Set<String> set;
+        Map<String, List<Integer>> mapOfStringToListOfInteger;
+
+        TypeA(int id) {
+            this.id = id;
+            this.name = "name" + id;
+            this.list = new ArrayList<>();
+            this.set = new HashSet<>();
+            this.mapOfStringToListOfInteger = new HashMap<>();
+            for(int i=0;i<id % 7;i++) {
+                list.add(id + i);
+                set.add("s" + (id + i));
+                mapOfStringToListOfInteger.put("k" + i, new ArrayList<>(list));
+            }
+        }
+    }
+}
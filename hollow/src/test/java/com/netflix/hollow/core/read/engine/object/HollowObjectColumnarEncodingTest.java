@@ -0,0 +1,154 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.Test;
+
+public class HollowObjectColumnarEncodingTest {
+
+    @Test
+    public void columnarEncodingIsReadableAcrossDeltasAndResharding() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.allowTypeResharding(true);
+        writeEngine.setTargetMaxTypeShardSize(16 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        for(int i=0;i<3000;i++)
+            mapper.add(new Record(i, 0));
+        HollowReadStateEngine columnarEngine = readSnapshot(writeSnapshot(writeEngine), true);
+        assertRecordsEqual(readSnapshot(writeSnapshot(writeEngine), false), columnarEngine);
+
+        int[] targetShardSizes = { 4 * 1024, 64 * 1024, 16 * 1024 };
+        for(int cycle=1;cycle<=targetShardSizes.length;cycle++) {
+            writeEngine.prepareForNextCycle();
+            writeEngine.setTargetMaxTypeShardSize(targetShardSizes[cycle - 1]);
+            for(int i=cycle*700;i<3000+cycle*700;i++)
+                mapper.add(new Record(i, i % 4 == 0 ? cycle : 0));
+
+            byte[] snapshot = writeSnapshot(writeEngine);
+            ByteArrayOutputStream delta = new ByteArrayOutputStream();
+            new HollowBlobWriter(writeEngine).writeDelta(delta);
+            try (HollowBlobInput in = HollowBlobInput.serial(delta.toByteArray())) {
+                new HollowBlobReader(columnarEngine).applyDelta(in);
+            }
+
+            assertRecordsEqual(readSnapshot(snapshot, false), columnarEngine);
+        }
+    }
+
+    @Test
+    public void columnarEncodingReducesFootprintOfNarrowFields() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<10000;i++)
+            mapper.add(new Record(i, 0));
+        byte[] snapshot = writeSnapshot(writeEngine);
+
+        long rowFootprint = readSnapshot(snapshot, false).getTypeState("Record").getApproximateHeapFootprintInBytes();
+        long columnarFootprint = readSnapshot(snapshot, true).getTypeState("Record").getApproximateHeapFootprintInBytes();
+        assertTrue(columnarFootprint < rowFootprint);
+    }
+
+    private static void assertRecordsEqual(HollowReadStateEngine expectedEngine, HollowReadStateEngine actualEngine) {
+        HollowObjectTypeReadState expected = (HollowObjectTypeReadState)expectedEngine.getTypeState("Record");
+        HollowObjectTypeReadState actual = (HollowObjectTypeReadState)actualEngine.getTypeState("Record");
+        HollowObjectSchema schema = expected.getSchema();
+
+        BitSet populatedOrdinals = expected.getPopulatedOrdinals();
+        assertEquals(populatedOrdinals, actual.getPopulatedOrdinals());
+
+        for(int ordinal=populatedOrdinals.nextSetBit(0);ordinal!=-1;ordinal=populatedOrdinals.nextSetBit(ordinal + 1)) {
+            for(int fieldIdx=0;fieldIdx<schema.numFields();fieldIdx++) {
+                String message = schema.getFieldName(fieldIdx) + " of " + ordinal;
+                assertEquals(message, expected.isNull(ordinal, fieldIdx), actual.isNull(ordinal, fieldIdx));
+                switch(schema.getFieldType(fieldIdx)) {
+                    case INT:
+                        assertEquals(message, expected.readInt(ordinal, fieldIdx), actual.readInt(ordinal, fieldIdx));
+                        break;
+                    case LONG:
+                        assertEquals(message, expected.readLong(ordinal, fieldIdx), actual.readLong(ordinal, fieldIdx));
+                        break;
+                    case BOOLEAN:
+                        assertEquals(message, expected.readBoolean(ordinal, fieldIdx), actual.readBoolean(ordinal, fieldIdx));
+                        break;
+                    case FLOAT:
+                        assertEquals(message, Float.floatToIntBits(expected.readFloat(ordinal, fieldIdx)), Float.floatToIntBits(actual.readFloat(ordinal, fieldIdx)));
+                        break;
+                    case DOUBLE:
+                        assertEquals(message, Double.doubleToLongBits(expected.readDouble(ordinal, fieldIdx)), Double.doubleToLongBits(actual.readDouble(ordinal, fieldIdx)));
+                        break;
+                    case REFERENCE:
+                        assertEquals(message, expected.readOrdinal(ordinal, fieldIdx), actual.readOrdinal(ordinal, fieldIdx));
+                        break;
+                    case STRING:
+                        assertEquals(message, expected.readString(ordinal, fieldIdx), actual.readString(ordinal, fieldIdx));
+                        break;
+                    case BYTES:
+                        assertArrayEquals(message, expected.readBytes(ordinal, fieldIdx), actual.readBytes(ordinal, fieldIdx));
+                        break;
+                }
+            }
+        }
+
+        assertEquals(HollowChecksum.forStateEngine(expectedEngine), HollowChecksum.forStateEngine(actualEngine));
+    }
+
+    private static byte[] writeSnapshot(HollowWriteStateEngine writeEngine) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(baos);
+        return baos.toByteArray();
+    }
+
+    private static HollowReadStateEngine readSnapshot(byte[] snapshot, boolean columnar) throws IOException {
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        readEngine.setColumnarObjectEncoding(columnar);
+        try (HollowBlobInput in = HollowBlobInput.serial(snapshot)) {
+            new HollowBlobReader(readEngine).readSnapshot(in);
+        }
+        return readEngine;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Record {
+        int id;
+        long timestamp;
+        long sparse;
+        Integer nullableInt;
+        Long category;
+        boolean flag;
+        Float ratio;
+        double score;
+        @HollowInline String name;
+        byte[] bytes;
+        String reference;
+
+        Record(int id, int revision) {
+            this.id = id;
+            this.timestamp = 1_700_000_000_000L + id * 1000L + revision;
+            this.sparse = id == 1234 ? Long.MIN_VALUE : id % 100 == 0 ? 5 : 0;
+            this.nullableInt = id % 3 == 0 ? null : -id;
+            this.category = id % 7 == 0 ? null : Long.valueOf(id % 5 + revision);
+            this.flag = id % 2 == 0;
+            this.ratio = id % 11 == 0 ? null : id / 7f;
+            this.score = id % 13 == 0 ? Double.NaN : id * 1.5;
+            this.name = id % 17 == 0 ? null : "Record " + id + " revision " + revision;
+            this.bytes = id % 19 == 0 ? null : new byte[] { (byte)id, (byte)revision };
+            this.reference = "Reference " + (id % 50);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.core.index.HollowHashIndex;
+import com.netflix.hollow.core.index.HollowHashIndexResult;
+import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class HollowObjectStringAccessTest {
+
+    private static final String[] VALUES = { "", "a", "ab", "abc", "abd", "b", "Ünïcödé", "Ünï", "日本語のテキスト", "￿\u0080" };
+
+    @Test
+    public void stringsAreAccessedWithoutDecoding() throws IOException {
+        byte[] snapshot = writeSnapshot();
+        assertStringAccess(readSnapshot(snapshot, false));
+        assertStringAccess(readSnapshot(snapshot, true));
+    }
+
+    @Test
+    public void indexesAreQueriedWithCharSequences() throws IOException {
+        HollowReadStateEngine readEngine = readSnapshot(writeSnapshot(), false);
+
+        HollowPrimaryKeyIndex primaryKeyIndex = new HollowPrimaryKeyIndex(readEngine, "Record", "id", "name");
+        StringBuilder key = new StringBuilder();
+        for(int id=0;id<1000;id++) {
+            key.setLength(0);
+            String name = name(id);
+            if(name != null)
+                key.append(name);
+            int ordinal = primaryKeyIndex.getMatchingOrdinal(id, name == null ? null : key);
+            assertEquals(primaryKeyIndex.getMatchingOrdinal(id, name), ordinal);
+            assertTrue(ordinal != -1);
+        }
+
+        HollowHashIndex hashIndex = new HollowHashIndex(readEngine, "Record", "", "name");
+        for(String value : VALUES) {
+            HollowHashIndexResult result = hashIndex.findMatches(new StringBuilder(value));
+            assertEquals(hashIndex.findMatches(value).numResults(), result.numResults());
+            assertTrue(result.numResults() > 0);
+        }
+    }
+
+    private static void assertStringAccess(HollowReadStateEngine readEngine) {
+        HollowObjectTypeReadState typeState = (HollowObjectTypeReadState)readEngine.getTypeState("Record");
+        int fieldIdx = typeState.getSchema().getPosition("name");
+        char[] smallBuffer = new char[2];
+        char[] largeBuffer = new char[32];
+        StringBuilder builder = new StringBuilder();
+
+        for(int ordinal=0;ordinal<=typeState.maxOrdinal();ordinal++) {
+            String value = typeState.readString(ordinal, fieldIdx);
+
+            for(String testValue : VALUES) {
+                StringBuilder testChars = new StringBuilder(testValue);
+                assertEquals(testValue.equals(value), typeState.isStringFieldEqual(ordinal, fieldIdx, testChars));
+                assertEquals(value == null ? -1 : Integer.signum(value.compareTo(testValue)),
+                        Integer.signum(typeState.compareStringField(ordinal, fieldIdx, testChars)));
+                assertEquals(value != null && value.startsWith(testValue), typeState.isStringFieldPrefixedBy(ordinal, fieldIdx, testChars));
+            }
+            assertEquals(value == null, typeState.isStringFieldEqual(ordinal, fieldIdx, (CharSequence)null));
+            assertEquals(value == null ? 0 : 1, typeState.compareStringField(ordinal, fieldIdx, null));
+
+            int length = typeState.readStringInto(ordinal, fieldIdx, largeBuffer);
+            assertEquals(value == null ? -1 : value.length(), length);
+            if(value != null)
+                assertEquals(value, new String(largeBuffer, 0, length));
+
+            length = typeState.readStringInto(ordinal, fieldIdx, smallBuffer);
+            assertEquals(value == null ? -1 : value.length(), length);
+            if(value != null && value.length() >= smallBuffer.length)
+                assertTrue(Arrays.equals(value.substring(0, smallBuffer.length).toCharArray(), smallBuffer));
+
+            builder.setLength(0);
+            builder.append("prefix:");
+            assertEquals(value != null, typeState.readStringInto(ordinal, fieldIdx, builder));
+            assertEquals(value == null ? "prefix:" : "prefix:" + value, builder.toString());
+        }
+    }
+
+    private static String name(int id) {
+        return id % 23 == 0 ? null : VALUES[id % VALUES.length];
+    }
+
+    private static byte[] writeSnapshot() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(4 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int id=0;id<1000;id++)
+            mapper.add(new Record(id, name(id)));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(baos);
+        return baos.toByteArray();
+    }
+
+    private static HollowReadStateEngine readSnapshot(byte[] snapshot, boolean stringDictionary) throws IOException {
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        readEngine.setStringDictionaryEncoding(stringDictionary);
+        try (HollowBlobInput in = HollowBlobInput.serial(snapshot)) {
+            new HollowBlobReader(readEngine).readSnapshot(in);
+        }
+        return readEngine;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Record {
+        int id;
+        @HollowInline String name;
+
+        Record(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+}
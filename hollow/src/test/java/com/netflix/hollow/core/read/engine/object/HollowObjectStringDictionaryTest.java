@@ -0,0 +1,190 @@
+package com.netflix.hollow.core.read.engine.object;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.dataaccess.HollowObjectTypeDataAccess;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.schema.HollowObjectSchema;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowInline;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import com.netflix.hollow.tools.history.HollowHistoricalStateCreator;
+import com.netflix.hollow.tools.history.HollowHistoricalStateDataAccess;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.Test;
+
+public class HollowObjectStringDictionaryTest {
+
+    private static final String[] COUNTRIES = { "US", "CA", "GB", "DE", "FR", "JP", "BR", "Côte d’Ivoire" };
+
+    @Test
+    public void pooledStringsAreReadableAcrossDeltasAndResharding() throws IOException {
+        assertReadableAcrossDeltasAndResharding(false);
+    }
+
+    @Test
+    public void pooledStringsAreReadableWithColumnarEncoding() throws IOException {
+        assertReadableAcrossDeltasAndResharding(true);
+    }
+
+    @Test
+    public void onlyLowCardinalityFieldsArePooled() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<10000;i++)
+            mapper.add(new Record(i, 0));
+        byte[] snapshot = writeSnapshot(writeEngine);
+
+        HollowObjectTypeReadState plain = (HollowObjectTypeReadState)readSnapshot(snapshot, false, false).getTypeState("Record");
+        HollowObjectTypeReadState pooled = (HollowObjectTypeReadState)readSnapshot(snapshot, true, false).getTypeState("Record");
+        HollowObjectSchema schema = pooled.getSchema();
+
+        HollowObjectTypeDataElements dataElements = pooled.shardsVolatile.shards[0].dataElements;
+        assertTrue(dataElements.stringDictionaries[schema.getPosition("country")] != null);
+        assertTrue(dataElements.stringDictionaries[schema.getPosition("status")] != null);
+        assertTrue(dataElements.stringDictionaries[schema.getPosition("name")] == null);
+        assertTrue(dataElements.varLengthData[schema.getPosition("country")] == null);
+
+        assertTrue(pooled.getApproximateHeapFootprintInBytes() < plain.getApproximateHeapFootprintInBytes());
+
+        int countryIdx = schema.getPosition("country");
+        assertSame(pooled.readString(1, countryIdx), pooled.readString(1 + COUNTRIES.length, countryIdx));
+        assertTrue(pooled.isStringFieldEqual(1, countryIdx, "CA"));
+        assertFalse(pooled.isStringFieldEqual(1, countryIdx, "US"));
+        assertFalse(pooled.isStringFieldEqual(1, countryIdx, null));
+        assertTrue(pooled.isStringFieldEqual(11, countryIdx, null));
+        assertEquals(plain.findVarLengthFieldHashCode(7, countryIdx), pooled.findVarLengthFieldHashCode(7, countryIdx));
+        assertEquals(-1, pooled.findVarLengthFieldHashCode(11, countryIdx));
+    }
+
+    @Test
+    public void historyCopiesPooledStringsWithoutDecodingThem() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<1000;i++)
+            mapper.add(new Record(i, 0));
+        HollowReadStateEngine pooledEngine = readSnapshot(writeSnapshot(writeEngine), true, false);
+
+        writeEngine.prepareForNextCycle();
+        for(int i=100;i<1000;i++)
+            mapper.add(new Record(i, 0));
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeDelta(delta);
+        try (HollowBlobInput in = HollowBlobInput.serial(delta.toByteArray())) {
+            new HollowBlobReader(pooledEngine).applyDelta(in);
+        }
+
+        HollowHistoricalStateDataAccess history = new HollowHistoricalStateCreator().createBasedOnNewDelta(2, pooledEngine);
+        HollowObjectTypeDataAccess removed = (HollowObjectTypeDataAccess) history.getTypeDataAccess("Record");
+        HollowObjectSchema schema = removed.getSchema();
+        for(int ordinal=0;ordinal<100;ordinal++) {
+            Record record = new Record(ordinal, 0);
+            assertEquals(ordinal, removed.readInt(ordinal, schema.getPosition("id")));
+            assertEquals(record.country, removed.readString(ordinal, schema.getPosition("country")));
+            assertEquals(record.status, removed.readString(ordinal, schema.getPosition("status")));
+            assertEquals(record.name, removed.readString(ordinal, schema.getPosition("name")));
+        }
+
+        HollowObjectTypeReadState live = (HollowObjectTypeReadState) pooledEngine.getTypeState("Record");
+        for(HollowObjectTypeReadStateShard shard : live.shardsVolatile.shards)
+            assertTrue(shard.dataElements.varLengthData[schema.getPosition("country")] == null);
+    }
+
+    private void assertReadableAcrossDeltasAndResharding(boolean columnar) throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.allowTypeResharding(true);
+        writeEngine.setTargetMaxTypeShardSize(32 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        for(int i=0;i<3000;i++)
+            mapper.add(new Record(i, 0));
+        HollowReadStateEngine pooledEngine = readSnapshot(writeSnapshot(writeEngine), true, columnar);
+        assertRecordsEqual(readSnapshot(writeSnapshot(writeEngine), false, false), pooledEngine);
+
+        int[] targetShardSizes = { 8 * 1024, 128 * 1024, 32 * 1024 };
+        for(int cycle=1;cycle<=targetShardSizes.length;cycle++) {
+            writeEngine.prepareForNextCycle();
+            writeEngine.setTargetMaxTypeShardSize(targetShardSizes[cycle - 1]);
+            for(int i=cycle*700;i<3000+cycle*700;i++)
+                mapper.add(new Record(i, i % 4 == 0 ? cycle : 0));
+
+            byte[] snapshot = writeSnapshot(writeEngine);
+            ByteArrayOutputStream delta = new ByteArrayOutputStream();
+            new HollowBlobWriter(writeEngine).writeDelta(delta);
+            try (HollowBlobInput in = HollowBlobInput.serial(delta.toByteArray())) {
+                new HollowBlobReader(pooledEngine).applyDelta(in);
+            }
+
+            assertRecordsEqual(readSnapshot(snapshot, false, false), pooledEngine);
+        }
+    }
+
+    private static void assertRecordsEqual(HollowReadStateEngine expectedEngine, HollowReadStateEngine actualEngine) {
+        HollowObjectTypeReadState expected = (HollowObjectTypeReadState)expectedEngine.getTypeState("Record");
+        HollowObjectTypeReadState actual = (HollowObjectTypeReadState)actualEngine.getTypeState("Record");
+        HollowObjectSchema schema = expected.getSchema();
+
+        BitSet populatedOrdinals = expected.getPopulatedOrdinals();
+        assertEquals(populatedOrdinals, actual.getPopulatedOrdinals());
+
+        for(int ordinal=populatedOrdinals.nextSetBit(0);ordinal!=-1;ordinal=populatedOrdinals.nextSetBit(ordinal + 1)) {
+            for(int fieldIdx=0;fieldIdx<schema.numFields();fieldIdx++) {
+                String message = schema.getFieldName(fieldIdx) + " of " + ordinal;
+                assertEquals(message, expected.isNull(ordinal, fieldIdx), actual.isNull(ordinal, fieldIdx));
+                if(schema.getFieldType(fieldIdx) == HollowObjectSchema.FieldType.STRING) {
+                    String value = expected.readString(ordinal, fieldIdx);
+                    assertEquals(message, value, actual.readString(ordinal, fieldIdx));
+                    assertTrue(message, actual.isStringFieldEqual(ordinal, fieldIdx, value));
+                    assertArrayEquals(message, expected.readBytes(ordinal, fieldIdx), actual.readBytes(ordinal, fieldIdx));
+                    assertEquals(message, expected.findVarLengthFieldHashCode(ordinal, fieldIdx), actual.findVarLengthFieldHashCode(ordinal, fieldIdx));
+                } else {
+                    assertEquals(message, expected.readInt(ordinal, fieldIdx), actual.readInt(ordinal, fieldIdx));
+                }
+            }
+        }
+
+        assertEquals(HollowChecksum.forStateEngine(expectedEngine), HollowChecksum.forStateEngine(actualEngine));
+    }
+
+    private static byte[] writeSnapshot(HollowWriteStateEngine writeEngine) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(baos);
+        return baos.toByteArray();
+    }
+
+    private static HollowReadStateEngine readSnapshot(byte[] snapshot, boolean stringDictionary, boolean columnar) throws IOException {
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        readEngine.setStringDictionaryEncoding(stringDictionary);
+        readEngine.setColumnarObjectEncoding(columnar);
+        try (HollowBlobInput in = HollowBlobInput.serial(snapshot)) {
+            new HollowBlobReader(readEngine).readSnapshot(in);
+        }
+        return readEngine;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Record {
+        int id;
+        @HollowInline String country;
+        @HollowInline String status;
+        @HollowInline String name;
+
+        Record(int id, int revision) {
+            this.id = id;
+            this.country = id % 11 == 0 ? null : COUNTRIES[id % COUNTRIES.length];
+            this.status = revision == 0 ? "ACTIVE" : "REVISION_" + revision;
+            this.name = "Record " + id + " revision " + revision;
+        }
+    }
+
+}
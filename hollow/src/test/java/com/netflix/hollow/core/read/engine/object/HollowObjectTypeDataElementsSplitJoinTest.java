@@ -4,9 +4,11 @@ import static org.junit.Assert.assertEquals;
 
 import com.netflix.hollow.api.consumer.HollowConsumer;
 import com.netflix.hollow.api.consumer.fs.HollowFilesystemBlobRetriever;
+import com.netflix.hollow.api.objects.generic.GenericHollowObject;
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.schema.HollowSchema;
 import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
+import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.tools.checksum.HollowChecksum;
 import java.io.IOException;
 import java.nio.file.Paths;
@@ -47,11 +49,11 @@ public class HollowObjectTypeDataElementsSplitJoinTest extends AbstractHollowObj
         HollowChecksum newCksum = new HollowChecksum();
 
         for(int i=0;i<origTypeState.numShards();i++) {
-            origTypeState.shardsVolatile.shards[i].applyShardToChecksum(origCksum, origTypeState.getSchema(), populatedOrdinals, i, origTypeState.shardsVolatile.shardNumberMask);
+            origTypeState.shardsVolatile.shards[i].applyShardToChecksum(origCksum, origTypeState.getSchema(), populatedOrdinals, i, origTypeState.shardsVolatile.shardNumberMask, 0, origTypeState.maxOrdinal() + 1);
         }
 
         for(int i=0;i<newTypeState.numShards();i++) {
-            newTypeState.shardsVolatile.shards[i].applyShardToChecksum(newCksum, newTypeState.getSchema(), populatedOrdinals, i, newTypeState.shardsVolatile.shardNumberMask);
+            newTypeState.shardsVolatile.shards[i].applyShardToChecksum(newCksum, newTypeState.getSchema(), populatedOrdinals, i, newTypeState.shardsVolatile.shardNumberMask, 0, newTypeState.maxOrdinal() + 1);
         }
 
         assertEquals(newCksum, origCksum);
@@ -94,6 +96,31 @@ public class HollowObjectTypeDataElementsSplitJoinTest extends AbstractHollowObj
         assertEquals(-1, joined.maxOrdinal);
     }
 
+    @Test
+    public void testSplitThenJoinPreservesNullStrings() throws IOException {
+        initWriteStateEngine();
+        HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
+        for(int i=0;i<100;i++) {
+            rec.reset();
+            rec.setLong("longField", i);
+            if(i % 3 != 0)
+                rec.setString("stringField", "Value" + i);
+            writeStateEngine.add("TestObject", rec);
+        }
+        roundTripSnapshot();
+        HollowObjectTypeReadState typeReadState = (HollowObjectTypeReadState) readStateEngine.getTypeState("TestObject");
+
+        HollowObjectTypeDataElements[] splitElements = new HollowObjectTypeDataElementsSplitter().split(typeReadState.currentDataElements()[0], 4);
+        HollowObjectTypeDataElements joinedElements = new HollowObjectTypeDataElementsJoiner().join(splitElements);
+        HollowObjectTypeReadState resultTypeReadState = new HollowObjectTypeReadState(typeReadState.getSchema(), joinedElements);
+
+        for(int i=0;i<100;i++) {
+            GenericHollowObject obj = new GenericHollowObject(resultTypeReadState, i);
+            assertEquals(i, obj.getLong("longField"));
+            assertEquals(i % 3 != 0 ? "Value" + i : null, obj.getString("stringField"));
+        }
+    }
+
     // manually invoked
     // @Test
     public void testSplittingAndJoiningWithSnapshotBlob() throws Exception {
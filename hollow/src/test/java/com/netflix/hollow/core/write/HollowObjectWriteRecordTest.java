@@ -67,4 +67,31 @@ public class HollowObjectWriteRecordTest {
 
     }
 
+    @Test
+    public void setsFieldsByPosition() {
+        HollowObjectWriteRecord byName = new HollowObjectWriteRecord(schema);
+        byName.setInt("FieldA", Integer.MIN_VALUE);
+        byName.setLong("FieldB", -42);
+        byName.setBoolean("FieldC", true);
+
+        HollowObjectWriteRecord byPosition = new HollowObjectWriteRecord(schema);
+        byPosition.setInt(0, Integer.MIN_VALUE);
+        byPosition.setLong(1, -42);
+        byPosition.setBoolean(2, true);
+
+        ByteDataArray expected = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+        byName.writeDataTo(expected);
+        ByteDataArray actual = new ByteDataArray(WastefulRecycler.DEFAULT_INSTANCE);
+        byPosition.writeDataTo(actual);
+
+        Assert.assertEquals(expected.length(), actual.length());
+        for(int i=0;i<expected.length();i++)
+            Assert.assertEquals(expected.get(i), actual.get(i));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validatesFieldTypeByPosition() {
+        new HollowObjectWriteRecord(schema).setLong(0, 1L);
+    }
+
 }
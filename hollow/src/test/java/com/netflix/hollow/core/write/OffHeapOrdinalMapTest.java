@@ -0,0 +1,120 @@
+package com.netflix.hollow.core.write;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class OffHeapOrdinalMapTest {
+
+    private static final int[][] CYCLES = {
+            // { first id, number of records }
+            { 0, 1000 },
+            { 100, 1000 },
+            { 100, 5000 },
+            { 3000, 500 },
+    };
+
+    @Test
+    public void producesSameStatesAsOnHeapOrdinalMaps() {
+        InMemoryBlobStore onHeapBlobStore = new InMemoryBlobStore();
+        InMemoryBlobStore offHeapBlobStore = new InMemoryBlobStore();
+        HollowProducer onHeapProducer = newProducer(onHeapBlobStore, false);
+        HollowProducer offHeapProducer = newProducer(offHeapBlobStore, true);
+
+        HollowConsumer onHeapConsumer = HollowConsumer.withBlobRetriever(onHeapBlobStore).build();
+        HollowConsumer offHeapConsumer = HollowConsumer.withBlobRetriever(offHeapBlobStore).build();
+        for(int[] cycle : CYCLES) {
+            long onHeapVersion = runCycle(onHeapProducer, cycle);
+            long offHeapVersion = runCycle(offHeapProducer, cycle);
+
+            onHeapConsumer.triggerRefreshTo(onHeapVersion);
+            offHeapConsumer.triggerRefreshTo(offHeapVersion);
+            assertEquals(HollowChecksum.forStateEngine(onHeapConsumer.getStateEngine()),
+                    HollowChecksum.forStateEngine(offHeapConsumer.getStateEngine()));
+        }
+
+        assertOrdinalMaps(onHeapProducer.getWriteEngine(), false);
+        assertOrdinalMaps(offHeapProducer.getWriteEngine(), true);
+    }
+
+    @Test
+    public void restoresIntoOffHeapOrdinalMaps() {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = newProducer(blobStore, false);
+        runCycle(producer, CYCLES[0]);
+        long version = runCycle(producer, CYCLES[1]);
+
+        InMemoryBlobStore onHeapBlobStore = new InMemoryBlobStore();
+        InMemoryBlobStore offHeapBlobStore = new InMemoryBlobStore();
+        HollowProducer onHeapProducer = newProducer(onHeapBlobStore, false);
+        HollowProducer offHeapProducer = newProducer(offHeapBlobStore, true);
+        onHeapProducer.restore(version, blobStore);
+        offHeapProducer.restore(version, blobStore);
+        assertOrdinalMaps(offHeapProducer.getWriteEngine(), true);
+
+        HollowConsumer onHeapConsumer = HollowConsumer.withBlobRetriever(onHeapBlobStore).build();
+        HollowConsumer offHeapConsumer = HollowConsumer.withBlobRetriever(offHeapBlobStore).build();
+        onHeapConsumer.triggerRefreshTo(runCycle(onHeapProducer, CYCLES[2]));
+        offHeapConsumer.triggerRefreshTo(runCycle(offHeapProducer, CYCLES[2]));
+        assertEquals(HollowChecksum.forStateEngine(onHeapConsumer.getStateEngine()),
+                HollowChecksum.forStateEngine(offHeapConsumer.getStateEngine()));
+    }
+
+    private static HollowProducer newProducer(InMemoryBlobStore blobStore, boolean offHeapOrdinalMaps) {
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withOffHeapOrdinalMaps(offHeapOrdinalMaps)
+                .build();
+        producer.initializeDataModel(Movie.class);
+        return producer;
+    }
+
+    private static long runCycle(HollowProducer producer, int[] cycle) {
+        return producer.runCycle(state -> {
+            for(int i=cycle[0];i<cycle[0]+cycle[1];i++)
+                state.add(new Movie(i));
+        });
+    }
+
+    private static void assertOrdinalMaps(HollowWriteStateEngine writeEngine, boolean offHeap) {
+        assertEquals(offHeap, writeEngine.isOffHeapOrdinalMaps());
+        assertFalse(writeEngine.getOrderedTypeStates().isEmpty());
+        for(HollowTypeWriteState typeState : writeEngine.getOrderedTypeStates())
+            assertTrue(typeState.getSchema().getName(), typeState.ordinalMap.isOffHeap() == offHeap);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+        List<Integer> ratings;
+        Set<String> tags;
+        Map<String, Integer> counts;
+
+        Movie(int id) {
+            this.id = id;
+            this.title = "Movie " + id;
+            this.ratings = new ArrayList<>();
+            this.tags = new HashSet<>();
+            this.counts = new HashMap<>();
+            for(int i=0;i<id % 7;i++) {
+                ratings.add(id + i);
+                tags.add("tag" + (id + i));
+                counts.put("count" + (id + i), id * i);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.netflix.hollow.core.write;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class PartitionedOrdinalMapTest {
+
+    private static final int[][] CYCLES = {
+            // { first id, number of records }
+            { 0, 1000 },
+            { 100, 1000 },
+            { 100, 5000 },
+            { 3000, 500 },
+    };
+
+    @Test
+    public void producesSameStatesAsUnpartitionedOrdinalMaps() {
+        InMemoryBlobStore unpartitionedBlobStore = new InMemoryBlobStore();
+        InMemoryBlobStore partitionedBlobStore = new InMemoryBlobStore();
+        HollowProducer unpartitionedProducer = newProducer(unpartitionedBlobStore, 1);
+        HollowProducer partitionedProducer = newProducer(partitionedBlobStore, 16);
+
+        HollowConsumer unpartitionedConsumer = HollowConsumer.withBlobRetriever(unpartitionedBlobStore).build();
+        HollowConsumer partitionedConsumer = HollowConsumer.withBlobRetriever(partitionedBlobStore).build();
+        for(int[] cycle : CYCLES) {
+            long unpartitionedVersion = runCycle(unpartitionedProducer, cycle);
+            long partitionedVersion = runCycle(partitionedProducer, cycle);
+
+            unpartitionedConsumer.triggerRefreshTo(unpartitionedVersion);
+            partitionedConsumer.triggerRefreshTo(partitionedVersion);
+            assertEquals(HollowChecksum.forStateEngine(unpartitionedConsumer.getStateEngine()),
+                    HollowChecksum.forStateEngine(partitionedConsumer.getStateEngine()));
+        }
+
+        HollowWriteStateEngine writeEngine = partitionedProducer.getWriteEngine();
+        assertEquals(16, writeEngine.getOrdinalMapPartitions());
+        assertFalse(writeEngine.getOrderedTypeStates().isEmpty());
+        for(HollowTypeWriteState typeState : writeEngine.getOrderedTypeStates())
+            assertEquals(typeState.getSchema().getName(), 16, typeState.ordinalMap.getNumPartitions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPartitionsNotPowerOfTwo() {
+        new HollowWriteStateEngine().setOrdinalMapPartitions(12);
+    }
+
+    private static HollowProducer newProducer(InMemoryBlobStore blobStore, int ordinalMapPartitions) {
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withOrdinalMapPartitions(ordinalMapPartitions)
+                .build();
+        producer.initializeDataModel(Movie.class);
+        return producer;
+    }
+
+    private static long runCycle(HollowProducer producer, int[] cycle) {
+        return producer.runCycle(state -> {
+            for(int i=cycle[0];i<cycle[0]+cycle[1];i++)
+                state.add(new Movie(i));
+        });
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+        List<Integer> ratings;
+
+        Movie(int id) {
+            this.id = id;
+            this.title = "Movie " + id;
+            this.ratings = new ArrayList<>();
+            for(int i=0;i<id % 7;i++)
+                ratings.add(id + i);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.netflix.hollow.core.write;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowHashKey;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class ShardParallelWriteTest {
+
+    private static final String[] TYPES = { "Movie", "String", "ListOfInteger", "SetOfActor", "MapOfStringToInteger" };
+
+    @Test
+    public void shardsAreCalculatedIndependently() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(16 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        for(int i=0;i<10000;i++)
+            mapper.add(new Movie(i));
+        byte[] snapshot = writeSnapshot(writeEngine);
+        for(String type : TYPES)
+            assertTrue(type, writeEngine.getTypeState(type).getNumShards() > 1);
+
+        // the snapshot does not depend on the order in which its shards are calculated
+        assertArrayEquals(snapshot, writeSnapshot(writeEngine));
+
+        HollowReadStateEngine readEngine = readSnapshot(snapshot);
+        writeEngine.prepareForNextCycle();
+
+        for(int i=0;i<12000;i++) {
+            if(i % 5 != 0)
+                mapper.add(new Movie(i));
+        }
+        byte[] nextSnapshot = writeSnapshot(writeEngine);
+        byte[] delta = write(writeEngine, HollowBlobWriter::writeDelta);
+        byte[] reverseDelta = write(writeEngine, HollowBlobWriter::writeReverseDelta);
+
+        HollowReadStateEngine nextReadEngine = readSnapshot(nextSnapshot);
+        applyDelta(readEngine, delta);
+        assertEquals(HollowChecksum.forStateEngine(nextReadEngine), HollowChecksum.forStateEngine(readEngine));
+
+        HollowReadStateEngine previousReadEngine = readSnapshot(snapshot);
+        applyDelta(nextReadEngine, reverseDelta);
+        assertEquals(HollowChecksum.forStateEngine(previousReadEngine), HollowChecksum.forStateEngine(nextReadEngine));
+    }
+
+    private static byte[] writeSnapshot(HollowWriteStateEngine writeEngine) throws IOException {
+        return write(writeEngine, HollowBlobWriter::writeSnapshot);
+    }
+
+    private static byte[] write(HollowWriteStateEngine writeEngine, BlobWrite blobWrite) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        blobWrite.write(new HollowBlobWriter(writeEngine), baos);
+        return baos.toByteArray();
+    }
+
+    private static HollowReadStateEngine readSnapshot(byte[] snapshot) throws IOException {
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        try (HollowBlobInput in = HollowBlobInput.serial(snapshot)) {
+            new HollowBlobReader(readEngine).readSnapshot(in);
+        }
+        return readEngine;
+    }
+
+    private static void applyDelta(HollowReadStateEngine readEngine, byte[] delta) throws IOException {
+        try (HollowBlobInput in = HollowBlobInput.serial(delta)) {
+            new HollowBlobReader(readEngine).applyDelta(in);
+        }
+    }
+
+    private interface BlobWrite {
+        void write(HollowBlobWriter writer, ByteArrayOutputStream os) throws IOException;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+        List<Integer> ratings;
+        @HollowHashKey(fields = "name")
+        Set<Actor> cast;
+        Map<String, Integer> counts;
+
+        Movie(int id) {
+            this.id = id;
+            this.title = "Movie " + id;
+            this.ratings = new ArrayList<>();
+            this.cast = new HashSet<>();
+            this.counts = new HashMap<>();
+            for(int i=0;i<id % 7;i++) {
+                ratings.add(id + i);
+                cast.add(new Actor("Actor " + (id + i)));
+                counts.put("count" + (id + i), id * i);
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Actor {
+        String name;
+
+        Actor(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.netflix.hollow.core.write;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.tools.checksum.HollowChecksum;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class StreamingSnapshotWriteTest {
+
+    @Test
+    public void writesSameSnapshotAsCalculatedSnapshot() throws IOException {
+        assertSameSnapshots(16 * 1024 * 1024, false);
+    }
+
+    @Test
+    public void writesSameShardedSnapshotAsCalculatedSnapshot() throws IOException {
+        assertSameSnapshots(64 * 1024, false);
+    }
+
+    @Test
+    public void writesSameSnapshotWithTypeOffsetIndex() throws IOException {
+        assertSameSnapshots(64 * 1024, true);
+    }
+
+    @Test
+    public void writesEmptyTypes() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        new HollowObjectMapper(writeEngine).initializeTypeState(Movie.class);
+
+        assertSameSnapshot(writeEngine);
+    }
+
+    private void assertSameSnapshots(long targetMaxTypeShardSize, boolean writeTypeOffsetIndex) throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(targetMaxTypeShardSize);
+        writeEngine.setWriteTypeOffsetIndex(writeTypeOffsetIndex);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        // the fixed length data of the larger types spans several streaming windows
+        for(int i=0;i<20000;i++)
+            mapper.add(new Movie(i));
+        assertSameSnapshot(writeEngine);
+
+        // leave holes, which are written as null records
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        StateEngineRoundTripper.roundTripSnapshot(writeEngine, readEngine);
+        for(int i=0;i<20000;i+=3)
+            mapper.add(new Movie(i));
+        byte[] streamed = assertSameSnapshot(writeEngine);
+
+        HollowReadStateEngine snapshotReadEngine = new HollowReadStateEngine();
+        try (HollowBlobInput in = HollowBlobInput.serial(streamed)) {
+            new HollowBlobReader(snapshotReadEngine).readSnapshot(in);
+        }
+        StateEngineRoundTripper.roundTripDelta(writeEngine, readEngine);
+        assertEquals(HollowChecksum.forStateEngine(readEngine), HollowChecksum.forStateEngine(snapshotReadEngine));
+    }
+
+    private static byte[] assertSameSnapshot(HollowWriteStateEngine writeEngine) throws IOException {
+        writeEngine.setStreamingSnapshotWrites(false);
+        byte[] calculated = writeSnapshot(writeEngine);
+        writeEngine.setStreamingSnapshotWrites(true);
+        byte[] streamed = writeSnapshot(writeEngine);
+        writeEngine.setStreamingSnapshotWrites(false);
+
+        assertArrayEquals(calculated, streamed);
+        return streamed;
+    }
+
+    private static byte[] writeSnapshot(HollowWriteStateEngine writeEngine) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(baos);
+        return baos.toByteArray();
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        long views;
+        Integer rank;
+        boolean released;
+        Boolean featured;
+        float rating;
+        double revenue;
+        String title;
+        String subtitle;
+        byte[] poster;
+        Person director;
+        List<Person> cast;
+
+        Movie(int id) {
+            this.id = id;
+            this.views = (long)id * id * 1000;
+            this.rank = id % 5 == 0 ? null : id;
+            this.released = id % 2 == 0;
+            this.featured = id % 7 == 0 ? null : id % 3 == 0;
+            this.rating = id / 7f;
+            this.revenue = id * 1.5e9;
+            this.title = "Movie " + id;
+            this.subtitle = id % 4 == 0 ? null : "Subtitle of movie " + id;
+            this.poster = id % 6 == 0 ? null : new byte[id % 11];
+            this.director = new Person("Director " + (id % 100));
+            this.cast = new ArrayList<>();
+            for(int i=0;i<id%4;i++)
+                cast.add(new Person("Actor " + (id + i)));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Person {
+        String name;
+
+        Person(String name) {
+            this.name = name;
+        }
+    }
+}
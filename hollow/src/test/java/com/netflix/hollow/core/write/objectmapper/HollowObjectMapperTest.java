@@ -21,12 +21,16 @@ import com.netflix.hollow.core.AbstractStateEngineTest;
 import com.netflix.hollow.core.HollowConstants;
 import com.netflix.hollow.core.index.HollowPrimaryKeyIndex;
 import com.netflix.hollow.core.index.key.PrimaryKey;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
 import com.netflix.hollow.core.schema.HollowSchema;
+import com.netflix.hollow.core.util.StateEngineRoundTripper;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import com.netflix.hollow.tools.stringifier.HollowRecordJsonStringifier;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -34,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -282,6 +287,51 @@ public class HollowObjectMapperTest extends AbstractStateEngineTest {
         assertExpectedFailureMappingType(IndirectCircularReference.TypeE.class, "f");
     }
 
+    @Test
+    public void testAddAll() throws IOException {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        for(int i=0;i<5000;i++)
+            mapper.add(typeA(i));
+
+        HollowWriteStateEngine bulkWriteStateEngine = new HollowWriteStateEngine();
+        HollowObjectMapper bulkMapper = new HollowObjectMapper(bulkWriteStateEngine);
+        bulkMapper.addAll(IntStream.range(0, 10000).parallel().mapToObj(i -> typeA(i / 2)));
+
+        roundTripSnapshot();
+        HollowReadStateEngine bulkReadStateEngine = StateEngineRoundTripper.roundTripSnapshot(bulkWriteStateEngine);
+
+        Assert.assertEquals(5000, bulkReadStateEngine.getTypeState("TypeA").getPopulatedOrdinals().cardinality());
+        Assert.assertEquals(records(readStateEngine, "TypeA"), records(bulkReadStateEngine, "TypeA"));
+    }
+
+    @Test
+    public void testAddAllAssignsOrdinals() {
+        HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
+        List<TypeWithAssignedOrdinal> objects = new ArrayList<>();
+        for(int i=0;i<1000;i++)
+            objects.add(new TypeWithAssignedOrdinal());
+
+        mapper.addAll(objects.parallelStream());
+
+        for(TypeWithAssignedOrdinal o : objects)
+            Assert.assertNotEquals(HollowConstants.ORDINAL_NONE, o.__assigned_ordinal);
+    }
+
+    private TypeA typeA(int i) {
+        TypeB b = new TypeB((short) (i % 100), i * 1000L, i / 10f, ("b" + i).toCharArray(), new byte[]{(byte) i});
+        Set<TypeC> cs = new HashSet<>(Arrays.asList(new TypeC((char) ('a' + i % 26), map("c" + i, i % 7))));
+        return new TypeA("a" + i, i, b, cs);
+    }
+
+    private static Set<String> records(HollowReadStateEngine stateEngine, String type) {
+        HollowRecordJsonStringifier stringifier = new HollowRecordJsonStringifier(false, true);
+        Set<String> records = new HashSet<>();
+        BitSet populatedOrdinals = stateEngine.getTypeState(type).getPopulatedOrdinals();
+        for(int ordinal=populatedOrdinals.nextSetBit(0);ordinal!=-1;ordinal=populatedOrdinals.nextSetBit(ordinal + 1))
+            records.add(stringifier.stringify(stateEngine, type, ordinal));
+        return records;
+    }
+
     @Test
     public void testAssignedOrdinal() {
         HollowObjectMapper mapper = new HollowObjectMapper(writeStateEngine);
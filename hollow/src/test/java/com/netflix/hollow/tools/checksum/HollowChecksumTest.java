@@ -17,6 +17,7 @@
 package com.netflix.hollow.tools.checksum;
 
 import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.read.engine.HollowTypeReadState;
 import com.netflix.hollow.core.schema.HollowObjectSchema;
 import com.netflix.hollow.core.schema.HollowObjectSchema.FieldType;
 import com.netflix.hollow.core.util.StateEngineRoundTripper;
@@ -24,6 +25,9 @@ import com.netflix.hollow.core.write.HollowObjectTypeWriteState;
 import com.netflix.hollow.core.write.HollowObjectWriteRecord;
 import com.netflix.hollow.core.write.HollowWriteStateEngine;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -57,17 +61,42 @@ public class HollowChecksumTest {
         Assert.assertEquals(cksum1, cksum2);
     }
 
-    
+    @Test
+    public void checksumSegmentsCombineDeterministically() throws IOException {
+        HollowObjectSchema schema = new HollowObjectSchema("TypeA", 1);
+        schema.addField("a1", FieldType.INT);
+
+        HollowReadStateEngine readEngine = createStateEngine(schema, 3 * HollowTypeReadState.CHECKSUM_SEGMENT_ORDINALS, -1);
+        HollowTypeReadState typeState = readEngine.getTypeState("TypeA");
+
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        HollowChecksum[] segments = typeState.submitChecksumSegments(schema, tasks::add);
+        Assert.assertEquals(3, segments.length);
+        Collections.reverse(tasks);
+        for(Runnable task : tasks)
+            task.run();
+
+        Assert.assertEquals(typeState.getChecksum(schema), HollowChecksum.combineSegments(segments));
+
+        HollowReadStateEngine modifiedEngine = createStateEngine(schema, 3 * HollowTypeReadState.CHECKSUM_SEGMENT_ORDINALS, 2 * HollowTypeReadState.CHECKSUM_SEGMENT_ORDINALS + 1);
+        Assert.assertNotEquals(typeState.getChecksum(schema), modifiedEngine.getTypeState("TypeA").getChecksum(schema));
+    }
+
     private HollowReadStateEngine createStateEngine(HollowObjectSchema schema) throws IOException {
+        return createStateEngine(schema, 100, -1);
+    }
+
+    private HollowReadStateEngine createStateEngine(HollowObjectSchema schema, int numRecords, int modifiedRecord) throws IOException {
         HollowWriteStateEngine writeState = new HollowWriteStateEngine();
         writeState.addTypeState(new HollowObjectTypeWriteState(schema));
         
         HollowObjectWriteRecord rec = new HollowObjectWriteRecord(schema);
         
-        for(int i=0;i<100;i++) {
+        for(int i=0;i<numRecords;i++) {
             rec.reset();
-            rec.setInt("a1", i);
-            rec.setFloat("a4", (float)i);
+            rec.setInt("a1", i == modifiedRecord ? -i : i);
+            if(schema.getPosition("a4") != -1)
+                rec.setFloat("a4", (float)i);
             if(schema.getPosition("a2") != -1)
                 rec.setString("a2", String.valueOf(i));
             if(schema.getPosition("a3") != -1)
@@ -0,0 +1,147 @@
+package com.netflix.hollow.tools.checksum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.netflix.hollow.api.consumer.HollowConsumer;
+import com.netflix.hollow.api.producer.HollowProducer;
+import com.netflix.hollow.api.producer.fs.HollowInMemoryBlobStager;
+import com.netflix.hollow.core.read.HollowBlobInput;
+import com.netflix.hollow.core.read.engine.HollowBlobReader;
+import com.netflix.hollow.core.read.engine.HollowReadStateEngine;
+import com.netflix.hollow.core.write.HollowBlobWriter;
+import com.netflix.hollow.core.write.HollowWriteStateEngine;
+import com.netflix.hollow.core.write.objectmapper.HollowHashKey;
+import com.netflix.hollow.core.write.objectmapper.HollowObjectMapper;
+import com.netflix.hollow.test.InMemoryBlobStore;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class HollowIncrementalChecksumTest {
+
+    @Test
+    public void checksumIsMaintainedAcrossDeltas() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        writeEngine.setTargetMaxTypeShardSize(16 * 1024);
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+
+        for(int i=0;i<5000;i++)
+            mapper.add(new Movie(i, 0));
+        HollowReadStateEngine readEngine = readSnapshot(writeSnapshot(writeEngine), true);
+
+        for(int cycle=1;cycle<5;cycle++) {
+            writeEngine.prepareForNextCycle();
+            for(int i=cycle*500;i<5000+cycle*500;i++)
+                mapper.add(new Movie(i, i % 3 == 0 ? cycle : 0));
+            byte[] snapshot = writeSnapshot(writeEngine);
+            HollowChecksum beforeDelta = HollowChecksum.forStateEngineIncrementally(readEngine, readEngine);
+
+            ByteArrayOutputStream delta = new ByteArrayOutputStream();
+            new HollowBlobWriter(writeEngine).writeDelta(delta);
+            try (HollowBlobInput in = HollowBlobInput.serial(delta.toByteArray())) {
+                new HollowBlobReader(readEngine).applyDelta(in);
+            }
+
+            HollowReadStateEngine snapshotReadEngine = readSnapshot(snapshot, true);
+            assertTrue(HollowChecksum.canChecksumIncrementally(readEngine, snapshotReadEngine));
+            HollowChecksum afterDelta = HollowChecksum.forStateEngineIncrementally(readEngine, snapshotReadEngine);
+            assertEquals(HollowChecksum.forStateEngineIncrementally(snapshotReadEngine, readEngine), afterDelta);
+            assertNotEquals(beforeDelta, afterDelta);
+        }
+    }
+
+    @Test
+    public void checksumRequiresListenersInBothStateEngines() throws IOException {
+        HollowWriteStateEngine writeEngine = new HollowWriteStateEngine();
+        HollowObjectMapper mapper = new HollowObjectMapper(writeEngine);
+        for(int i=0;i<100;i++)
+            mapper.add(new Movie(i, 0));
+        byte[] snapshot = writeSnapshot(writeEngine);
+
+        HollowReadStateEngine withListeners = readSnapshot(snapshot, true);
+        HollowReadStateEngine withoutListeners = readSnapshot(snapshot, false);
+
+        assertTrue(HollowChecksum.canChecksumIncrementally(withListeners, withListeners));
+        assertFalse(HollowChecksum.canChecksumIncrementally(withListeners, withoutListeners));
+        assertFalse(HollowChecksum.canChecksumIncrementally(withoutListeners, withListeners));
+    }
+
+    @Test
+    public void producerValidatesDeltasWithIncrementalChecksums() {
+        InMemoryBlobStore blobStore = new InMemoryBlobStore();
+        HollowProducer producer = HollowProducer.withPublisher(blobStore)
+                .withBlobStager(new HollowInMemoryBlobStager())
+                .withIncrementalChecksums(true)
+                .build();
+
+        long version = 0;
+        for(int cycle=0;cycle<5;cycle++) {
+            final int firstId = cycle * 100;
+            final int revision = cycle;
+            version = producer.runCycle(state -> {
+                for(int i=firstId;i<firstId+1000;i++)
+                    state.add(new Movie(i, i % 2 == 0 ? revision : 0));
+            });
+        }
+
+        HollowConsumer consumer = HollowConsumer.withBlobRetriever(blobStore).build();
+        consumer.triggerRefreshTo(version);
+        assertEquals(1000, consumer.getStateEngine().getTypeState("Movie").getPopulatedOrdinals().cardinality());
+    }
+
+    private static byte[] writeSnapshot(HollowWriteStateEngine writeEngine) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new HollowBlobWriter(writeEngine).writeSnapshot(baos);
+        return baos.toByteArray();
+    }
+
+    private static HollowReadStateEngine readSnapshot(byte[] snapshot, boolean maintainIncrementalChecksums) throws IOException {
+        HollowReadStateEngine readEngine = new HollowReadStateEngine();
+        readEngine.setMaintainIncrementalChecksums(maintainIncrementalChecksums);
+        try (HollowBlobInput in = HollowBlobInput.serial(snapshot)) {
+            new HollowBlobReader(readEngine).readSnapshot(in);
+        }
+        return readEngine;
+    }
+
+    @SuppressWarnings("unused")
+    private static class Movie {
+        int id;
+        String title;
+        List<Integer> ratings;
+        @HollowHashKey(fields = "name")
+        Set<Actor> cast;
+        Map<String, Integer> counts;
+
+        Movie(int id, int revision) {
+            this.id = id;
+            this.title = "Movie " + id + " revision " + revision;
+            this.ratings = new ArrayList<>();
+            this.cast = new HashSet<>();
+            this.counts = new HashMap<>();
+            for(int i=0;i<(id + revision) % 5;i++) {
+                ratings.add(id + i);
+                cast.add(new Actor("Actor " + (id + i)));
+                counts.put("count" + (id + i), revision);
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Actor {
+        String name;
+
+        Actor(String name) {
+            this.name = name;
+        }
+    }
+}